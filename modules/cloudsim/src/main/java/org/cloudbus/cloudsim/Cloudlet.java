@@ -7,7 +7,7 @@
  */
 package org.cloudbus.cloudsim;
 
-import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -142,21 +142,44 @@ public class Cloudlet {
     private final boolean record;
 
     /**
-     * Stores the operating system line separator.
+     * The cloudlet transaction history, or <tt>null</tt> if nothing has been
+     * recorded.
      */
-    private String newline;
+    private CloudletHistory history;
 
     /**
-     * The cloudlet transaction history.
+     * The number of resources where the cloudlet has been executed. The record
+     * of the latest one is kept inline, in the fields below, and the records
+     * of the previous ones in {@link #previousResources}.
      */
-    private StringBuffer history;
+    private int resourceCount;
+
+    /** The latest resource id. */
+    private int resourceId = -1;
+
+    /** The latest resource name. */
+    private String resourceName;
+
+    /** Cloudlet's submission (arrival) time to the latest resource. */
+    private double arrivalTime;
+
+    /** The time this Cloudlet resides in the latest resource. */
+    private double wallClockTime;
+
+    /** The total time the Cloudlet spent being executed in the latest resource. */
+    private double actualCPUTime;
+
+    /** Cost per second the latest resource charges to execute this Cloudlet. */
+    private double costPerSec;
+
+    /** Cloudlet's length finished so far on the latest resource. */
+    private long cloudletFinishedSoFar;
 
     /**
-     * The list of every resource where the cloudlet has been executed. In case
-     * it starts and finishes executing in a single cloud resource, without
-     * being migrated, this list will have only one item.
+     * The records of the resources the cloudlet has been migrated from, in
+     * order, or <tt>null</tt> if it has never been migrated.
      */
-    private final List<Resource> resList;
+    private Resource[] previousResources;
 
     /**
      * The classType or priority of this Cloudlet for scheduling on a resource.
@@ -168,11 +191,6 @@ public class Cloudlet {
      */
     private int netToS;
 
-    /**
-     * The format of decimal numbers.
-     */
-    private DecimalFormat num;
-
     /**
      * The id of the guest entity that is planned to execute the cloudlet.
      */
@@ -418,10 +436,6 @@ public class Cloudlet {
         this.cloudletFileSize = Math.max(1, cloudletFileSize);
         this.cloudletOutputSize = Math.max(1, cloudletOutputSize);
 
-        // Normally, a Cloudlet is only executed on a resource without being
-        // migrated to others. Hence, to reduce memory consumption, set the
-        // size of this ArrayList to be less than the default one.
-        resList = new LinkedList<>();
         this.record = record;
 
         guestId = -1;
@@ -445,7 +459,10 @@ public class Cloudlet {
     /**
      * Internal class that keeps track of Cloudlet's movement in different
      * CloudResources. Each time a cloudlet is run on a given VM, the cloudlet's
-     * execution history on each VM is registered at {@link Cloudlet#resList}
+     * execution history on each VM is registered in a Resource. Normally, a
+     * Cloudlet is only executed on a resource without being migrated to others,
+     * hence the record of the latest resource is kept inline in the Cloudlet,
+     * and only the ones of the previous resources are Resource objects.
      */
     public static class Resource {
 
@@ -616,13 +633,12 @@ public class Cloudlet {
      * @post $none
      */
     public double getWaitingTime() {
-        if (resList.isEmpty()) {
+        if (resourceCount == 0) {
             return 0;
         }
 
         // use the latest resource submission time
-        final double subTime = resList.getLast().arrivalTime;
-        return execStartTime - subTime;
+        return execStartTime - arrivalTime;
     }
 
     /**
@@ -696,14 +712,10 @@ public class Cloudlet {
      * @post $result != null
      */
     public String getCloudletHistory() {
-        String msg = null;
         if (history == null) {
-            msg = "No history is recorded for Cloudlet #" + cloudletId;
-        } else {
-            msg = history.toString();
+            return "No history is recorded for Cloudlet #" + cloudletId;
         }
-
-        return msg;
+        return history.toString();
     }
 
     /**
@@ -717,11 +729,11 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public long getCloudletFinishedSoFar() {
-        if (resList.isEmpty()) {
+        if (resourceCount == 0) {
             return 0;
         }
 
-        return Math.min(resList.getLast().cloudletFinishedSoFar, getCloudletTotalLength()*Consts.MILLION);
+        return Math.min(cloudletFinishedSoFar, getCloudletTotalLength()*Consts.MILLION);
     }
 
     /**
@@ -733,7 +745,7 @@ public class Cloudlet {
      * @post $none
      */
     public boolean isFinished() {
-        if (resList.isEmpty()) {
+        if (resourceCount == 0) {
             return false;
         }
         // if result is 0 or -ve then this Cloudlet has finished
@@ -763,14 +775,14 @@ public class Cloudlet {
      */
     public void setCloudletFinishedSoFar(final long length) {
         // if length is -ve then ignore
-        if (length < 0.0 || resList.isEmpty()) {
+        if (length < 0.0 || resourceCount == 0) {
             return;
         }
 
-        resList.getLast().cloudletFinishedSoFar = length;
+        cloudletFinishedSoFar = length;
 
         if (record) {
-            write("Sets the length's finished so far to " + length);
+            history().finishedSoFar(length);
         }
     }
 
@@ -787,7 +799,7 @@ public class Cloudlet {
         userId = id;
         updateUid();
         if (record) {
-            write("Assigns the Cloudlet to " + CloudSim.getEntityName(id) + " (ID #" + id + ")");
+            history().user(id);
         }
     }
 
@@ -799,10 +811,7 @@ public class Cloudlet {
      * @post $result >= -1
      */
     public int getResourceId() {
-        if (resList.isEmpty()) {
-            return -1;
-        }
-        return resList.getLast().resourceId;
+        return resourceId;
     }
 
     public double getExecFinishTime() {
@@ -851,22 +860,31 @@ public class Cloudlet {
      * @post $none
      */
     public void setResourceParameter(final int resourceID, final double cost) {
-        final Resource res = new Resource();
-        res.resourceId = resourceID;
-        res.costPerSec = cost;
-        res.resourceName = CloudSim.getEntityName(resourceID);
-
-        // add into a list if moving to a new grid resource
-        resList.add(res);
+        final int previousResourceId = resourceId;
+
+        // keep the record of the latest resource if moving to a new one
+        if (resourceCount > 0) {
+            if (previousResources == null) {
+                previousResources = new Resource[1];
+            } else {
+                previousResources = Arrays.copyOf(previousResources, previousResources.length + 1);
+            }
+            previousResources[previousResources.length - 1] = getLatestResource();
+        }
 
-        if (resList.size() == 1 && record) {
-            write("Allocates this Cloudlet to " + res.resourceName + " (ID #" + resourceID
-                    + ") with cost = $" + cost + "/sec");
+        resourceId = resourceID;
+        resourceName = CloudSim.getEntityName(resourceID);
+        costPerSec = cost;
+        arrivalTime = 0.0;
+        wallClockTime = 0.0;
+        actualCPUTime = 0.0;
+        cloudletFinishedSoFar = 0;
+        resourceCount++;
+
+        if (resourceCount == 1 && record) {
+            history().allocation(resourceID, cost);
         } else if (record) {
-            final int id = resList.getLast().resourceId;
-            final String name = resList.getLast().resourceName;
-            write("Moves Cloudlet from " + name + " (ID #" + id + ") to " + res.resourceName + " (ID #"
-                    + resourceID + ") with cost = $" + cost + "/sec");
+            history().migration(previousResourceId, resourceID, cost);
         }
 
         setSubmissionTime(CloudSim.clock());
@@ -880,14 +898,14 @@ public class Cloudlet {
      * @post $none
      */
     public void setSubmissionTime(final double clockTime) {
-        if (clockTime < 0.0 || resList.isEmpty()) {
+        if (clockTime < 0.0 || resourceCount == 0) {
             return;
         }
 
-        resList.getLast().arrivalTime = clockTime;
+        arrivalTime = clockTime;
 
         if (record) {
-            write("Sets the submission time to " + num.format(clockTime));
+            history().submissionTime(clockTime);
         }
     }
 
@@ -900,10 +918,7 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public double getSubmissionTime() {
-        if (resList.isEmpty()) {
-            return 0.0;
-        }
-        return resList.getLast().arrivalTime;
+        return arrivalTime;
     }
 
     @Deprecated
@@ -925,7 +940,7 @@ public class Cloudlet {
     public void setExecStartTime(final double clockTime) {
         execStartTime = clockTime;
         if (record) {
-            write("Sets the execution start time to " + num.format(clockTime));
+            history().execStartTime(clockTime);
         }
     }
 
@@ -945,17 +960,15 @@ public class Cloudlet {
      * @see Resource#actualCPUTime
      */
     public void setExecParam(final double wallTime, final double actualTime) {
-        if (wallTime < 0.0 || actualTime < 0.0 || resList.isEmpty()) {
+        if (wallTime < 0.0 || actualTime < 0.0 || resourceCount == 0) {
             return;
         }
 
-        final Resource res = resList.getLast();
-        res.wallClockTime = wallTime;
-        res.actualCPUTime = actualTime;
+        wallClockTime = wallTime;
+        actualCPUTime = actualTime;
 
         if (record) {
-            write("Sets the wall clock time to " + num.format(wallTime) + " and the actual CPU time to "
-                    + num.format(actualTime));
+            history().execParam(wallTime, actualTime);
         }
     }
 
@@ -987,7 +1000,7 @@ public class Cloudlet {
         this.status = status;
 
         if (record) {
-            write("Sets Cloudlet status from " + getCloudletStatusString() + " to " + status.toString());
+            history().status(prevStatus, status);
         }
 
         // if a previous Cloudlet status is INEXEC
@@ -1079,10 +1092,7 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public double getCostPerSec() {
-        if (resList.isEmpty()) {
-            return 0.0;
-        }
-        return resList.getLast().costPerSec;
+        return costPerSec;
     }
 
     /**
@@ -1094,10 +1104,7 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public double getWallClockTime() {
-        if (resList.isEmpty()) {
-            return 0.0;
-        }
-        return resList.getLast().wallClockTime;
+        return wallClockTime;
     }
 
     /**
@@ -1108,14 +1115,14 @@ public class Cloudlet {
      * @post $none
      */
     public String[] getAllResourceName() {
-        final int size = resList.size();
         String[] data = null;
 
-        if (size > 0) {
-            data = new String[size];
-            for (int i = 0; i < size; i++) {
-                data[i] = resList.get(i).resourceName;
+        if (resourceCount > 0) {
+            data = new String[resourceCount];
+            for (int i = 0; i < resourceCount - 1; i++) {
+                data[i] = previousResources[i].resourceName;
             }
+            data[resourceCount - 1] = resourceName;
         }
 
         return data;
@@ -1129,14 +1136,14 @@ public class Cloudlet {
      * @post $none
      */
     public int[] getAllResourceId() {
-        final int size = resList.size();
         int[] data = null;
 
-        if (size > 0) {
-            data = new int[size];
-            for (int i = 0; i < size; i++) {
-                data[i] = resList.get(i).resourceId;
+        if (resourceCount > 0) {
+            data = new int[resourceCount];
+            for (int i = 0; i < resourceCount - 1; i++) {
+                data[i] = previousResources[i].resourceId;
             }
+            data[resourceCount - 1] = resourceId;
         }
 
         return data;
@@ -1270,20 +1277,42 @@ public class Cloudlet {
     }
 
     /**
-     * Gets the resource by id.
+     * Gets the resource by id. The record of the latest resource is a copy.
      *
      * @param resourceId the resource id
      * @return the resource by id
      */
     public Resource getResourceById(final int resourceId) {
-        for (Resource resource : resList) {
-            if (resource.resourceId == resourceId) {
-                return resource;
+        if (previousResources != null) {
+            for (Resource resource : previousResources) {
+                if (resource.resourceId == resourceId) {
+                    return resource;
+                }
             }
         }
+        if (resourceCount > 0 && this.resourceId == resourceId) {
+            return getLatestResource();
+        }
         return null;
     }
 
+    /**
+     * Gets a copy of the record of the latest resource.
+     *
+     * @return the record
+     */
+    private Resource getLatestResource() {
+        final Resource res = new Resource();
+        res.arrivalTime = arrivalTime;
+        res.wallClockTime = wallClockTime;
+        res.actualCPUTime = actualCPUTime;
+        res.costPerSec = costPerSec;
+        res.cloudletFinishedSoFar = cloudletFinishedSoFar;
+        res.resourceId = resourceId;
+        res.resourceName = resourceName;
+        return res;
+    }
+
     // //////////////////////// PROTECTED METHODS //////////////////////////////
 
     /**
@@ -1297,25 +1326,20 @@ public class Cloudlet {
         if (!record) {
             return;
         }
+        history().message(str);
+    }
 
-        if (num == null || history == null) { // Creates the history or
-            // transactions of this Cloudlet
-            newline = System.getProperty("line.separator");
-            num = new DecimalFormat("#0.00#"); // with 3 decimal spaces
-            history = new StringBuffer(1000);
-            history.append("Time below denotes the simulation time.");
-            history.append(System.getProperty("line.separator"));
-            history.append("Time (sec)       Description Cloudlet #").append(cloudletId);
-            history.append(System.getProperty("line.separator"));
-            history.append("------------------------------------------");
-            history.append(System.getProperty("line.separator"));
-            history.append(num.format(CloudSim.clock()));
-            history.append("   Creates Cloudlet ID #").append(cloudletId);
-            history.append(System.getProperty("line.separator"));
+    /**
+     * Gets the transaction history of this Cloudlet, creating it on the first
+     * transaction.
+     *
+     * @return the history
+     */
+    private CloudletHistory history() {
+        if (history == null) {
+            history = new CloudletHistory(cloudletId);
         }
-
-        history.append(num.format(CloudSim.clock()));
-        history.append("   ").append(str).append(newline);
+        return history;
     }
 
     /**
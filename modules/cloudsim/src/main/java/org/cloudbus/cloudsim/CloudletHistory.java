@@ -0,0 +1,171 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+package org.cloudbus.cloudsim;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * The transaction history of a {@link Cloudlet}, recorded as a log of binary events: a kind, a
+ * simulation time and two numeric arguments per event, in parallel arrays. The events are only
+ * rendered as text, in the layout of {@link Cloudlet#getCloudletHistory()}, when the history is read,
+ * so that recording an event per scheduler update does not format and append strings.
+ * <p>
+ * The names of the entities (users and resources) are looked up when rendering.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+final class CloudletHistory {
+    private static final byte MESSAGE = 0;
+    private static final byte FINISHED_SO_FAR = 1;
+    private static final byte USER = 2;
+    private static final byte ALLOCATION = 3;
+    private static final byte MIGRATION = 4;
+    private static final byte SUBMISSION_TIME = 5;
+    private static final byte EXEC_START_TIME = 6;
+    private static final byte EXEC_PARAM = 7;
+    private static final byte STATUS = 8;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final int cloudletId;
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private double[] times = new double[INITIAL_CAPACITY];
+    /** The two arguments of each event; doubles are stored by their raw bits. */
+    private long[] args = new long[2 * INITIAL_CAPACITY];
+    private int size;
+
+    /** The free-text messages, referred to by index from the {@link #MESSAGE} events. */
+    private String[] messages;
+    private int messageCount;
+
+    CloudletHistory(int cloudletId) {
+        this.cloudletId = cloudletId;
+    }
+
+    void finishedSoFar(long length) {
+        add(FINISHED_SO_FAR, length, 0);
+    }
+
+    void user(int userId) {
+        add(USER, userId, 0);
+    }
+
+    void allocation(int resourceId, double cost) {
+        add(ALLOCATION, resourceId, Double.doubleToRawLongBits(cost));
+    }
+
+    void migration(int fromResourceId, int toResourceId, double cost) {
+        add(MIGRATION, ((long) fromResourceId << 32) | (toResourceId & 0xFFFFFFFFL), Double.doubleToRawLongBits(cost));
+    }
+
+    void submissionTime(double time) {
+        add(SUBMISSION_TIME, Double.doubleToRawLongBits(time), 0);
+    }
+
+    void execStartTime(double time) {
+        add(EXEC_START_TIME, Double.doubleToRawLongBits(time), 0);
+    }
+
+    void execParam(double wallTime, double actualTime) {
+        add(EXEC_PARAM, Double.doubleToRawLongBits(wallTime), Double.doubleToRawLongBits(actualTime));
+    }
+
+    void status(Cloudlet.CloudletStatus from, Cloudlet.CloudletStatus to) {
+        add(STATUS, from.ordinal(), to.ordinal());
+    }
+
+    void message(String message) {
+        if (messages == null) {
+            messages = new String[INITIAL_CAPACITY];
+        } else if (messageCount == messages.length) {
+            messages = Arrays.copyOf(messages, 2 * messageCount);
+        }
+        messages[messageCount] = message;
+        add(MESSAGE, messageCount++, 0);
+    }
+
+    /**
+     * Gets the number of recorded events.
+     *
+     * @return the number of events
+     */
+    int size() {
+        return size;
+    }
+
+    private void add(byte kind, long arg0, long arg1) {
+        if (size == kinds.length) {
+            int capacity = 2 * size;
+            kinds = Arrays.copyOf(kinds, capacity);
+            times = Arrays.copyOf(times, capacity);
+            args = Arrays.copyOf(args, 2 * capacity);
+        }
+        kinds[size] = kind;
+        times[size] = CloudSim.clock();
+        args[2 * size] = arg0;
+        args[2 * size + 1] = arg1;
+        size++;
+    }
+
+    @Override
+    public String toString() {
+        String newline = System.lineSeparator();
+        DecimalFormat num = new DecimalFormat("#0.00#"); // with 3 decimal spaces
+        StringBuilder history = new StringBuilder(64 * (size + 4));
+        history.append("Time below denotes the simulation time.").append(newline);
+        history.append("Time (sec)       Description Cloudlet #").append(cloudletId).append(newline);
+        history.append("------------------------------------------").append(newline);
+        if (size > 0) {
+            history.append(num.format(times[0]));
+            history.append("   Creates Cloudlet ID #").append(cloudletId).append(newline);
+        }
+        for (int i = 0; i < size; i++) {
+            history.append(num.format(times[i])).append("   ");
+            appendDescription(history, num, i);
+            history.append(newline);
+        }
+        return history.toString();
+    }
+
+    private void appendDescription(StringBuilder history, DecimalFormat num, int i) {
+        long arg0 = args[2 * i];
+        long arg1 = args[2 * i + 1];
+        switch (kinds[i]) {
+            case MESSAGE -> history.append(messages[(int) arg0]);
+            case FINISHED_SO_FAR -> history.append("Sets the length's finished so far to ").append(arg0);
+            case USER -> history.append("Assigns the Cloudlet to ").append(CloudSim.getEntityName((int) arg0))
+                    .append(" (ID #").append(arg0).append(")");
+            case ALLOCATION -> history.append("Allocates this Cloudlet to ")
+                    .append(CloudSim.getEntityName((int) arg0)).append(" (ID #").append(arg0)
+                    .append(") with cost = $").append(Double.longBitsToDouble(arg1)).append("/sec");
+            case MIGRATION -> {
+                int from = (int) (arg0 >> 32);
+                int to = (int) arg0;
+                history.append("Moves Cloudlet from ").append(CloudSim.getEntityName(from)).append(" (ID #")
+                        .append(from).append(") to ").append(CloudSim.getEntityName(to)).append(" (ID #")
+                        .append(to).append(") with cost = $").append(Double.longBitsToDouble(arg1)).append("/sec");
+            }
+            case SUBMISSION_TIME -> history.append("Sets the submission time to ")
+                    .append(num.format(Double.longBitsToDouble(arg0)));
+            case EXEC_START_TIME -> history.append("Sets the execution start time to ")
+                    .append(num.format(Double.longBitsToDouble(arg0)));
+            case EXEC_PARAM -> history.append("Sets the wall clock time to ")
+                    .append(num.format(Double.longBitsToDouble(arg0))).append(" and the actual CPU time to ")
+                    .append(num.format(Double.longBitsToDouble(arg1)));
+            case STATUS -> history.append("Sets Cloudlet status from ")
+                    .append(Cloudlet.CloudletStatus.values()[(int) arg0]).append(" to ")
+                    .append(Cloudlet.CloudletStatus.values()[(int) arg1]);
+            default -> throw new IllegalStateException("Unknown event kind " + kinds[i]);
+        }
+    }
+}
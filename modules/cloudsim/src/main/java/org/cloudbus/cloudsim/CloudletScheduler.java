@@ -9,11 +9,11 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.CloudletQueue;
 
 /**
  * CloudletScheduler is an abstract class that represents the policy of scheduling performed by a
@@ -35,7 +35,7 @@ public abstract class CloudletScheduler {
 	/** The list of current mips share available for the VM using the scheduler.
 	 * It is provided by {@link CloudletScheduler#updateCloudletsProcessing(double, List)} method.
 	 * at every simulation step. */
-	private List<Double> currentMipsShare;
+	private MipsShare currentMipsShare;
 
 
 	private double currentCapacity;
@@ -68,17 +68,20 @@ public abstract class CloudletScheduler {
 	public CloudletScheduler() {
 		setPreviousTime(0.0);
 
-		cloudletWaitingList = new LinkedList<>();
-		cloudletExecList = new LinkedList<>();
-		cloudletPausedList = new LinkedList<>();
-		cloudletFinishedList = new LinkedList<>();
-		cloudletFailedList = new LinkedList<>();
+		cloudletWaitingList = new CloudletQueue<>();
+		cloudletExecList = new CloudletQueue<>();
+		cloudletPausedList = new CloudletQueue<>();
+		cloudletFinishedList = new CloudletQueue<>();
+		cloudletFailedList = new CloudletQueue<>();
 		cloudletJustFinishedList = new ArrayList<>();
 	}
 
 	/**
 	 * Updates the processing of cloudlets running under management of this scheduler.
-	 * 
+	 * The predicted completion time is computed with the capacity left once the cloudlets
+	 * finished by this update are removed, so that it holds even if the scheduler is not
+	 * updated again before then.
+	 *
 	 * @param currentTime current simulation time
 	 * @param mipsShare list with MIPS share of each Pe available to the scheduler
 	 * @return the predicted completion time of the earliest finishing cloudlet, 
@@ -116,6 +119,11 @@ public abstract class CloudletScheduler {
 
 		// Update cloudlets in waiting list, if any
 		updateWaitingCloudlets(currentTime, null);
+		if (!cloudletJustFinishedList.isEmpty()) {
+			// the finished cloudlets release their share of the capacity, which has to be
+			// considered by the estimates below
+			updateCurrentCapacity();
+		}
 		cloudletJustFinishedList.clear();
 
 		// estimate finish time of cloudlets in the execution queue
@@ -179,15 +187,14 @@ public abstract class CloudletScheduler {
 	 */
 	public Cloudlet cloudletCancel(final int cloudletId) {
 		// First, looks in the finished queue
-		int position = CloudletList.getPositionById(getCloudletFinishedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletFinishedList().remove(position);
+		Cloudlet cl = CloudletList.removeById(getCloudletFinishedList(), cloudletId);
+		if (cl != null) {
+			return cl;
 		}
 
 		// Then searches in the exec list
-		position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			Cloudlet cl = getCloudletExecList().remove(position);
+		cl = CloudletList.removeById(getCloudletExecList(), cloudletId);
+		if (cl != null) {
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -197,17 +204,13 @@ public abstract class CloudletScheduler {
 		}
 
 		// Now, looks in the paused queue
-		position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletPausedList().remove(position);
+		cl = CloudletList.removeById(getCloudletPausedList(), cloudletId);
+		if (cl != null) {
+			return cl;
 		}
 
 		// Finally, looks in the waiting list
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletWaitingList().remove(position);
-		}
-		return null;
+		return CloudletList.removeById(getCloudletWaitingList(), cloudletId);
 	}
 
 	/**
@@ -219,25 +222,13 @@ public abstract class CloudletScheduler {
 	 * @post $none
 	 */
 	public boolean cloudletPause(int cloudletId) {
-		// first, looks for the cloudlet in the exec list
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			// moves to the paused list
-			Cloudlet cl = getCloudletExecList().remove(position);
-			if (cl.getRemainingCloudletLength() == 0) {
-				cloudletFinish(cl);
-			} else {
-				cl.updateStatus(Cloudlet.CloudletStatus.PAUSED);
-				getCloudletPausedList().add(cl);
-			}
-			return true;
+		// first, looks for the cloudlet in the exec list, then in the waiting list
+		Cloudlet cl = CloudletList.removeById(getCloudletExecList(), cloudletId);
+		if (cl == null) {
+			cl = CloudletList.removeById(getCloudletWaitingList(), cloudletId);
 		}
-
-		// now, look for the cloudlet in the waiting list
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
+		if (cl != null) {
 			// moves to the paused list
-			Cloudlet cl = getCloudletWaitingList().remove(position);
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -282,19 +273,15 @@ public abstract class CloudletScheduler {
 	 *
 	 */
 	public Cloudlet.CloudletStatus getCloudletStatus(final int cloudletId) {
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletExecList().get(position).getStatus();
+		Cloudlet cl = CloudletList.getById(getCloudletExecList(), cloudletId);
+		if (cl == null) {
+			cl = CloudletList.getById(getCloudletPausedList(), cloudletId);
 		}
-
-		position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletPausedList().get(position).getStatus();
+		if (cl == null) {
+			cl = CloudletList.getById(getCloudletWaitingList(), cloudletId);
 		}
-
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletWaitingList().get(position).getStatus();
+		if (cl != null) {
+			return cl.getStatus();
 		}
 
 		throw new RuntimeException("cloudlet doesn't not exist");
@@ -383,11 +370,10 @@ public abstract class CloudletScheduler {
 	 * @return the current mips
 	 */
 	public List<Double> getCurrentRequestedMips() {
-		List<Double> mipsShare = new ArrayList<>();
 		if (getCurrentMipsShare() != null) {
-			mipsShare.addAll(getCurrentMipsShare());
+			return new MipsShare(getCurrentMipsShare());
 		}
-		return mipsShare;
+		return new MipsShare();
 	}
 
 	/**
@@ -396,11 +382,7 @@ public abstract class CloudletScheduler {
 	 * @return the current mips
 	 */
 	public double getCurrentRequestedTotalMips() {
-		double mips = 0.0;
-		if (currentMipsShare != null)
-			for (double v : currentMipsShare)
-				mips += v;
-		return mips;
+		return currentMipsShare != null ? currentMipsShare.getTotalMips() : 0.0;
 	}
 
 	/**
@@ -482,13 +464,13 @@ public abstract class CloudletScheduler {
 	}
 
 	/**
-	 * Sets the current mips share.
+	 * Sets the current mips share. A list that is not a {@link MipsShare} is copied into one.
 	 * 
 	 * @param currentMipsShare the new current mips share
 	 */
 	protected void setCurrentMipsShare(List<Double> currentMipsShare) {
-        currentMipsShare.removeIf(mips -> mips <= 0);
-		this.currentMipsShare = currentMipsShare;
+		this.currentMipsShare = MipsShare.of(currentMipsShare);
+		this.currentMipsShare.removeNonPositive();
 
 		updateCurrentCapacity();
 	}
@@ -508,17 +490,23 @@ public abstract class CloudletScheduler {
 		return currentCapacity;
 	}
 
+	/**
+	 * Sets the individual MIPS capacity available for each cloudlet.
+	 *
+	 * @param currentCapacity the capacity
+	 */
+	protected void setCurrentCapacity(double currentCapacity) {
+		this.currentCapacity = currentCapacity;
+	}
+
 	/**
 	 * ASSUMPTION: all PEs have the same capacity.
 	 * @return capacity
 	 */
 	public double updateCurrentCapacity() {
-		currentMipsShare.removeIf(mips -> mips <= 0);
+		currentMipsShare.removeNonPositive();
 
-		double capacity = 0;
-		for (Double mips : currentMipsShare) {
-			capacity += mips;
-		}
+		double capacity = currentMipsShare.getTotalMips();
 
 		int pesInUse = 0;
 		for (Cloudlet cl : getCloudletExecList()) {
@@ -132,13 +132,8 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 		if (getCachePreviousTime() == getPreviousTime()) {
 			return getCacheCurrentRequestedMips();
 		}
-		List<Double> currentMips = new ArrayList<>();
 		double totalMips = getTotalUtilizationOfCpu(getPreviousTime()) * getTotalMips();
-		double mipsForPe = totalMips / getNumberOfPes();
-
-		for (int i = 0; i < getNumberOfPes(); i++) {
-			currentMips.add(mipsForPe);
-		}
+		MipsShare currentMips = new MipsShare(getNumberOfPes(), totalMips / getNumberOfPes());
 
 		setCachePreviousTime(getPreviousTime());
 		setCacheCurrentRequestedMips(currentMips);
@@ -164,13 +159,10 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	public double getTotalCurrentAvailableMipsForCloudlet(Cloudlet cl, List<Double> mipsShare) {
 		double totalCurrentMips = 0.0;
 		if (mipsShare != null) {
-			int neededPEs = cl.getNumberOfPes();
-			for (double mips : mipsShare) {
-				totalCurrentMips += mips;
-				neededPEs--;
-				if (neededPEs <= 0) {
-					break;
-				}
+			MipsShare share = MipsShare.of(mipsShare);
+			int pes = Math.min(Math.max(cl.getNumberOfPes(), 1), share.size());
+			for (int i = 0; i < pes; i++) {
+				totalCurrentMips += share.getMips(i);
 			}
 		}
 		return totalCurrentMips;
@@ -218,11 +210,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @return the total current mips
 	 */
 	public double getTotalCurrentMips() {
-		double totalCurrentMips = 0;
-		for (double mips : getCurrentMipsShare()) {
-			totalCurrentMips += mips;
-		}
-		return totalCurrentMips;
+		return MipsShare.getTotalMips(getCurrentMipsShare());
 	}
 
 	/**
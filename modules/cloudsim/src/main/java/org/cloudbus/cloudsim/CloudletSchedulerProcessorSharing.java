@@ -0,0 +1,289 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.CloudletList;
+
+/**
+ * CloudletSchedulerProcessorSharing is a {@link CloudletSchedulerTimeShared} that tracks the
+ * progress of its cloudlets in <i>virtual time</i>, rather than updating each of them at every
+ * event.
+ * <p>
+ * With a time-shared policy, every running cloudlet gets the same capacity per PE. The virtual
+ * time is the amount of MI executed so far by each PE of a cloudlet that has been running since
+ * the beginning, so that a cloudlet admitted at virtual time <tt>v</tt> with <tt>r</tt>
+ * remaining MI over <tt>p</tt> PEs finishes when the virtual time reaches
+ * <tt>v + r / p</tt>. The cloudlets are kept sorted by this finish tag: updating the
+ * processing, or getting the next completion, costs O(log n), and finishing k cloudlets costs
+ * O(k log n). The completions that fall between two updates are processed at the right point of
+ * the elapsed time, so that the remaining cloudlets speed up as soon as the capacity is released.
+ * <p>
+ * The progress of a running cloudlet ({@link Cloudlet#getCloudletFinishedSoFar()}) is brought up
+ * to date only when it leaves the execution list, i.e. when it finishes, is paused, cancelled or
+ * migrated. {@link Cloudlet#updateCloudlet(Object)} is not invoked, hence cloudlets that redefine
+ * it should use {@link CloudletSchedulerTimeShared} instead.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletSchedulerProcessorSharing extends CloudletSchedulerTimeShared {
+
+	/** A running cloudlet with its finish tag. */
+	private static final class Task {
+		final Cloudlet cloudlet;
+
+		/** The virtual time at which the cloudlet has been admitted. */
+		final double startTag;
+
+		/** The instructions executed by the cloudlet before its admission. */
+		final long startFinishedSoFar;
+
+		/** The virtual time at which the cloudlet finishes. */
+		final double finishTag;
+
+		/** The admission order, to break ties among equal finish tags. */
+		final long sequence;
+
+		Task(Cloudlet cloudlet, double startTag, long startFinishedSoFar, double finishTag, long sequence) {
+			this.cloudlet = cloudlet;
+			this.startTag = startTag;
+			this.startFinishedSoFar = startFinishedSoFar;
+			this.finishTag = finishTag;
+			this.sequence = sequence;
+		}
+	}
+
+	/** The running cloudlets, ordered by finish tag. */
+	private final TreeSet<Task> tasks = new TreeSet<>(Comparator.comparingDouble((Task t) -> t.finishTag)
+			.thenComparingLong(t -> t.sequence));
+
+	/** The running cloudlets, by id. */
+	private final Map<Integer, Task> tasksById = new HashMap<>();
+
+	/** The virtual time. */
+	private double virtualTime;
+
+	/** The simulation time the virtual time refers to. */
+	private double virtualClock;
+
+	/** The number of PEs requested by the running cloudlets. */
+	private int pesInUse;
+
+	/** The number of admitted cloudlets, used to order the tasks. */
+	private long admissions;
+
+	/**
+	 * Creates a new CloudletSchedulerProcessorSharing object.
+	 */
+	public CloudletSchedulerProcessorSharing() {
+		super();
+	}
+
+	@Override
+	public double updateCloudletsProcessing(double currentTime, List<Double> mipsShare) {
+		setCurrentMipsShare(mipsShare);
+		advance(currentTime);
+
+		if (getCloudletExecList().isEmpty() && getCloudletWaitingList().isEmpty()) {
+			setPreviousTime(currentTime);
+			return 0.0;
+		}
+
+		double nextEvent = Double.MAX_VALUE;
+		if (!tasks.isEmpty()) {
+			nextEvent = getEstimatedFinishTime(tasks.first().cloudlet, currentTime);
+			if (nextEvent - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+				nextEvent = currentTime + CloudSim.getMinTimeBetweenEvents();
+			}
+		}
+
+		setPreviousTime(currentTime);
+		return nextEvent;
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cl, double fileTransferTime) {
+		advance(CloudSim.clock());
+		double estimatedTime = super.cloudletSubmit(cl, fileTransferTime);
+		admit(cl);
+		return estimatedTime;
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		Cloudlet cl = CloudletList.removeById(getCloudletPausedList(), cloudletId);
+		if (cl != null) {
+			advance(CloudSim.clock());
+			cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
+			getCloudletExecList().add(cl);
+			admit(cl);
+			return getEstimatedFinishTime(cl, CloudSim.clock());
+		}
+		return 0.0;
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		release(cloudletId);
+		return super.cloudletCancel(cloudletId);
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		release(cloudletId);
+		return super.cloudletPause(cloudletId);
+	}
+
+	@Override
+	public Cloudlet migrateCloudlet() {
+		// the cloudlets finished by now leave the execution list first, so that the released
+		// cloudlet is the one migrated below
+		advance(CloudSim.clock());
+		if (!getCloudletExecList().isEmpty()) {
+			release(getCloudletExecList().get(0).getCloudletId());
+		}
+		return super.migrateCloudlet();
+	}
+
+	@Override
+	public double getEstimatedFinishTime(Cloudlet cl, double time) {
+		Task task = tasksById.get(cl.getCloudletId());
+		if (task == null || task.cloudlet != cl) {
+			return super.getEstimatedFinishTime(cl, time);
+		}
+		return virtualClock + Math.max(0, task.finishTag - virtualTime) / getCurrentCapacity();
+	}
+
+	/**
+	 * Computes the capacity per PE from the PEs requested by the running cloudlets, without
+	 * going through the execution list.
+	 */
+	@Override
+	public double updateCurrentCapacity() {
+		List<Double> currentMipsShare = getCurrentMipsShare();
+		if (currentMipsShare == null) {
+			return getCurrentCapacity();
+		}
+		MipsShare mipsShare = MipsShare.of(currentMipsShare);
+		mipsShare.removeNonPositive();
+
+		double capacity = mipsShare.getTotalMips() / Math.max(pesInUse, mipsShare.size());
+
+		setCurrentCapacity(capacity);
+		return capacity;
+	}
+
+	/**
+	 * Advances the virtual time up to a given time, finishing the cloudlets whose finish tag is
+	 * reached on the way. The capacity per PE changes only when a cloudlet finishes, hence the
+	 * virtual time is linear between two completions.
+	 *
+	 * @param time the simulation time
+	 */
+	private void advance(double time) {
+		while (time > virtualClock) {
+			double rate = getCurrentCapacity();
+			if (tasks.isEmpty() || !(rate > 0)) {
+				virtualClock = time;
+				break;
+			}
+			double finishTag = tasks.first().finishTag;
+			double finishTime = virtualClock + (finishTag - virtualTime) / rate;
+			if (finishTime >= time) {
+				virtualTime += (time - virtualClock) * rate;
+				virtualClock = time;
+				break;
+			}
+			virtualTime = Math.max(virtualTime, finishTag);
+			virtualClock = Math.max(virtualClock, finishTime);
+			finishDueTasks();
+		}
+		finishDueTasks();
+
+		if (!cloudletJustFinishedList.isEmpty()) {
+			getCloudletExecList().removeAll(cloudletJustFinishedList);
+			cloudletJustFinishedList.clear();
+		}
+	}
+
+	/**
+	 * Finishes the cloudlets with less than one MI left to execute, as the time-shared policy
+	 * does.
+	 */
+	private void finishDueTasks() {
+		boolean finished = false;
+		while (!tasks.isEmpty() && remainingLength(tasks.first()) < 1) {
+			Task task = tasks.pollFirst();
+			tasksById.remove(task.cloudlet.getCloudletId());
+			pesInUse -= task.cloudlet.getNumberOfPes();
+
+			Cloudlet cl = task.cloudlet;
+			cl.setCloudletFinishedSoFar(cl.getCloudletTotalLength() * Consts.MILLION);
+			cloudletJustFinishedList.add(cl);
+			cloudletFinish(cl);
+			finished = true;
+		}
+		if (finished) {
+			updateCurrentCapacity();
+		}
+	}
+
+	/**
+	 * Starts tracking a cloudlet added to the execution list.
+	 *
+	 * @param cl the cloudlet
+	 */
+	private void admit(Cloudlet cl) {
+		long finishedSoFar = cl.getCloudletFinishedSoFar();
+		double remaining = (cl.getCloudletTotalLength() * Consts.MILLION - finishedSoFar) / (double) Consts.MILLION;
+		Task task = new Task(cl, virtualTime, finishedSoFar,
+				virtualTime + Math.max(0, remaining) / cl.getNumberOfPes(), admissions++);
+		tasks.add(task);
+		tasksById.put(cl.getCloudletId(), task);
+		pesInUse += cl.getNumberOfPes();
+		updateCurrentCapacity();
+		advance(virtualClock);
+	}
+
+	/**
+	 * Stops tracking a running cloudlet that is about to leave the execution list, bringing its
+	 * progress up to date.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 */
+	private void release(int cloudletId) {
+		advance(CloudSim.clock());
+		Task task = tasksById.remove(cloudletId);
+		if (task == null) {
+			return;
+		}
+		tasks.remove(task);
+		pesInUse -= task.cloudlet.getNumberOfPes();
+		long executed = (long) ((virtualTime - task.startTag) * task.cloudlet.getNumberOfPes() * Consts.MILLION);
+		task.cloudlet.setCloudletFinishedSoFar(task.startFinishedSoFar + executed);
+		updateCurrentCapacity();
+	}
+
+	/**
+	 * Gets the MI that a running cloudlet has still to execute.
+	 *
+	 * @param task the cloudlet
+	 * @return the remaining length over all its PEs
+	 */
+	private double remainingLength(Task task) {
+		return (task.finishTag - virtualTime) * task.cloudlet.getNumberOfPes();
+	}
+}
@@ -0,0 +1,307 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+import org.cloudbus.cloudsim.Cloudlet.CloudletStatus;
+
+/**
+ * A table of cloudlets stored column by column, in primitive arrays, with one row per cloudlet. It
+ * holds the workloads of millions of jobs (e.g. the ones of a trace read by
+ * {@link org.cloudbus.cloudsim.util.WorkloadFileReader}) at about 53 bytes per job, instead of a
+ * {@link Cloudlet} object, with its utilization models, file list and resource records, per job.
+ * <p>
+ * The columns describing a job (id, length, PEs and submit time) are set when the row is added;
+ * the file sizes and the utilization models are shared by all the rows. The columns describing
+ * the execution (guest id, status, length finished so far, start and finish times) are written
+ * back from the cloudlets that executed the rows, through {@link #store(int, Cloudlet)}.
+ * <p>
+ * A row is executed by a short-lived {@link View}, a cloudlet created by {@link #newCloudlet(int)}
+ * only when the row is submitted, so that only the cloudlets in execution are objects. The
+ * {@link DatacenterBroker} does so for the tables given to
+ * {@link DatacenterBroker#submitCloudletTable(CloudletTable)}.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletTable {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/** The input file size of the cloudlets. */
+	private final long fileSize;
+
+	/** The output file size of the cloudlets. */
+	private final long outputSize;
+
+	/** The CPU utilization model of the cloudlets. */
+	private final UtilizationModel utilizationModelCpu;
+
+	/** The RAM utilization model of the cloudlets. */
+	private final UtilizationModel utilizationModelRam;
+
+	/** The bandwidth utilization model of the cloudlets. */
+	private final UtilizationModel utilizationModelBw;
+
+	private int[] cloudletIds;
+	private long[] lengths;
+	private int[] pes;
+	private double[] submitTimes;
+	private int[] guestIds;
+	/** The ordinals of the {@link CloudletStatus statuses}. */
+	private byte[] statuses;
+	private long[] finishedSoFar;
+	private double[] execStartTimes;
+	private double[] execFinishTimes;
+
+	/** The number of rows. */
+	private int size;
+
+	/**
+	 * Creates an empty table of cloudlets.
+	 *
+	 * @param fileSize the input file size of the cloudlets
+	 * @param outputSize the output file size of the cloudlets
+	 * @param utilizationModelCpu the CPU utilization model of the cloudlets
+	 * @param utilizationModelRam the RAM utilization model of the cloudlets
+	 * @param utilizationModelBw the bandwidth utilization model of the cloudlets
+	 */
+	public CloudletTable(long fileSize, long outputSize, UtilizationModel utilizationModelCpu,
+			UtilizationModel utilizationModelRam, UtilizationModel utilizationModelBw) {
+		this(INITIAL_CAPACITY, fileSize, outputSize, utilizationModelCpu, utilizationModelRam, utilizationModelBw);
+	}
+
+	/**
+	 * Creates an empty table of cloudlets, with room for a given number of rows.
+	 *
+	 * @param capacity the expected number of rows
+	 * @param fileSize the input file size of the cloudlets
+	 * @param outputSize the output file size of the cloudlets
+	 * @param utilizationModelCpu the CPU utilization model of the cloudlets
+	 * @param utilizationModelRam the RAM utilization model of the cloudlets
+	 * @param utilizationModelBw the bandwidth utilization model of the cloudlets
+	 */
+	public CloudletTable(int capacity, long fileSize, long outputSize, UtilizationModel utilizationModelCpu,
+			UtilizationModel utilizationModelRam, UtilizationModel utilizationModelBw) {
+		this.fileSize = fileSize;
+		this.outputSize = outputSize;
+		this.utilizationModelCpu = utilizationModelCpu;
+		this.utilizationModelRam = utilizationModelRam;
+		this.utilizationModelBw = utilizationModelBw;
+		allocate(Math.max(1, capacity));
+	}
+
+	private void allocate(int capacity) {
+		cloudletIds = Arrays.copyOf(cloudletIds == null ? new int[0] : cloudletIds, capacity);
+		lengths = Arrays.copyOf(lengths == null ? new long[0] : lengths, capacity);
+		pes = Arrays.copyOf(pes == null ? new int[0] : pes, capacity);
+		submitTimes = Arrays.copyOf(submitTimes == null ? new double[0] : submitTimes, capacity);
+		guestIds = Arrays.copyOf(guestIds == null ? new int[0] : guestIds, capacity);
+		statuses = Arrays.copyOf(statuses == null ? new byte[0] : statuses, capacity);
+		finishedSoFar = Arrays.copyOf(finishedSoFar == null ? new long[0] : finishedSoFar, capacity);
+		execStartTimes = Arrays.copyOf(execStartTimes == null ? new double[0] : execStartTimes, capacity);
+		execFinishTimes = Arrays.copyOf(execFinishTimes == null ? new double[0] : execFinishTimes, capacity);
+	}
+
+	/**
+	 * Adds a row, for a cloudlet that is not bound to a guest and has not been executed yet.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 * @param length the length of the cloudlet (in MI)
+	 * @param numberOfPes the number of PEs of the cloudlet
+	 * @param submitTime the time at which the job was submitted, as given by its workload
+	 * @return the row
+	 */
+	public int addRow(int cloudletId, long length, int numberOfPes, double submitTime) {
+		if (size == cloudletIds.length) {
+			allocate(size + (size >> 1) + 1);
+		}
+		int row = size++;
+		cloudletIds[row] = cloudletId;
+		lengths[row] = Math.max(1, length);
+		pes[row] = numberOfPes;
+		submitTimes[row] = submitTime;
+		guestIds[row] = -1;
+		statuses[row] = (byte) CloudletStatus.CREATED.ordinal();
+		execFinishTimes[row] = -1;
+		return row;
+	}
+
+	/**
+	 * Gets the number of rows.
+	 *
+	 * @return the number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getCloudletId(int row) {
+		checkRow(row);
+		return cloudletIds[row];
+	}
+
+	public long getCloudletLength(int row) {
+		checkRow(row);
+		return lengths[row];
+	}
+
+	public int getNumberOfPes(int row) {
+		checkRow(row);
+		return pes[row];
+	}
+
+	public double getSubmitTime(int row) {
+		checkRow(row);
+		return submitTimes[row];
+	}
+
+	public int getGuestId(int row) {
+		checkRow(row);
+		return guestIds[row];
+	}
+
+	/**
+	 * Binds the cloudlet of a row to a guest, before it is submitted.
+	 *
+	 * @param row the row
+	 * @param guestId the id of the guest, or -1 to let the broker choose it
+	 */
+	public void setGuestId(int row, int guestId) {
+		checkRow(row);
+		guestIds[row] = guestId;
+	}
+
+	public CloudletStatus getStatus(int row) {
+		checkRow(row);
+		return CloudletStatus.values[statuses[row]];
+	}
+
+	/**
+	 * Gets the length of the cloudlet of a row finished so far (in instructions), as returned by
+	 * {@link Cloudlet#getCloudletFinishedSoFar()} when the row was last stored.
+	 *
+	 * @param row the row
+	 * @return the length finished so far
+	 */
+	public long getCloudletFinishedSoFar(int row) {
+		checkRow(row);
+		return finishedSoFar[row];
+	}
+
+	public double getExecStartTime(int row) {
+		checkRow(row);
+		return execStartTimes[row];
+	}
+
+	/**
+	 * Gets the time at which the cloudlet of a row finished.
+	 *
+	 * @param row the row
+	 * @return the finish time, or -1 if the cloudlet has not finished
+	 */
+	public double getExecFinishTime(int row) {
+		checkRow(row);
+		return execFinishTimes[row];
+	}
+
+	public long getCloudletFileSize() {
+		return fileSize;
+	}
+
+	public long getCloudletOutputSize() {
+		return outputSize;
+	}
+
+	public UtilizationModel getUtilizationModelCpu() {
+		return utilizationModelCpu;
+	}
+
+	public UtilizationModel getUtilizationModelRam() {
+		return utilizationModelRam;
+	}
+
+	public UtilizationModel getUtilizationModelBw() {
+		return utilizationModelBw;
+	}
+
+	/**
+	 * Creates a cloudlet to execute a row. The cloudlet does not record its history, and its results
+	 * are copied to the row by {@link View#store()}.
+	 *
+	 * @param row the row
+	 * @return the cloudlet
+	 */
+	public View newCloudlet(int row) {
+		checkRow(row);
+		return new View(this, row);
+	}
+
+	/**
+	 * Copies the results of a cloudlet, i.e. its guest id, status, length finished so far, start and
+	 * finish times, to a row.
+	 *
+	 * @param row the row
+	 * @param cloudlet the cloudlet that executed the row
+	 */
+	public void store(int row, Cloudlet cloudlet) {
+		checkRow(row);
+		guestIds[row] = cloudlet.getGuestId();
+		statuses[row] = (byte) cloudlet.getStatus().ordinal();
+		finishedSoFar[row] = cloudlet.getCloudletFinishedSoFar();
+		execStartTimes[row] = cloudlet.getExecStartTime();
+		execFinishTimes[row] = cloudlet.getExecFinishTime();
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * A cloudlet executing a row of a {@link CloudletTable}.
+	 *
+	 * @author Remo Andreoli
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static class View extends Cloudlet {
+
+		/** The table of the row. */
+		private final CloudletTable table;
+
+		/** The row. */
+		private final int row;
+
+		protected View(CloudletTable table, int row) {
+			super(table.cloudletIds[row], table.lengths[row], table.pes[row], table.fileSize, table.outputSize,
+					table.utilizationModelCpu, table.utilizationModelRam, table.utilizationModelBw);
+			this.table = table;
+			this.row = row;
+			setGuestId(table.guestIds[row]);
+		}
+
+		public CloudletTable getTable() {
+			return table;
+		}
+
+		public int getRow() {
+			return row;
+		}
+
+		/**
+		 * Copies the results of this cloudlet to its row.
+		 */
+		public void store() {
+			table.store(row, this);
+		}
+	}
+
+}
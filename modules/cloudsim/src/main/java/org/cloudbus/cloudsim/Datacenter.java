@@ -8,8 +8,11 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
@@ -30,6 +33,15 @@ import org.cloudbus.cloudsim.core.*;
  */
 public class Datacenter extends SimEntity {
 
+	/**
+	 * The acknowledgement of a {@link CloudActionTags#VM_CREATE_BATCH} request.
+	 *
+	 * @param datacenterId the id of the datacenter
+	 * @param created the guests that were created, in the request order
+	 * @param failed the guests that could not be created, in the request order
+	 */
+	public record GuestBatchAck(int datacenterId, List<GuestEntity> created, List<GuestEntity> failed) {}
+
 	/** The characteristics. */
 	private DatacenterCharacteristics characteristics;
 
@@ -53,6 +65,32 @@ public class Datacenter extends SimEntity {
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/** The hosts whose cloudlet processing has to be updated at the next datacenter event. */
+	private final HostUpdateQueue hostUpdates = new HostUpdateQueue(this::isUpdatedIncrementally);
+
+	/**
+	 * The cloudlet schedulers whose predicted completion times hold until their next update.
+	 * Subclasses are not included, as they may change the processing in between.
+	 */
+	private static final Set<Class<?>> INCREMENTAL_SCHEDULERS = Set.of(
+			CloudletSchedulerTimeShared.class,
+			CloudletSchedulerSpaceShared.class,
+			CloudletSchedulerProcessorSharing.class);
+
+	/** The tags of the events that do not change the processing of any host. */
+	private static final Set<CloudSimTags> QUERY_TAGS = Set.of(
+			CloudActionTags.RESOURCE_CHARACTERISTICS,
+			CloudActionTags.RESOURCE_DYNAMICS,
+			CloudActionTags.RESOURCE_NUM_PE,
+			CloudActionTags.RESOURCE_NUM_FREE_PE,
+			CloudActionTags.CLOUDLET_STATUS,
+			CloudActionTags.INFOPKT_SUBMIT,
+			CloudActionTags.VM_DATA_ADD,
+			CloudActionTags.VM_DATA_ADD_ACK,
+			CloudActionTags.VM_DATA_DEL,
+			CloudActionTags.VM_DATA_DEL_ACK,
+			CloudActionTags.VM_DATACENTER_EVENT);
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -124,6 +162,9 @@ public class Datacenter extends SimEntity {
 	public void processEvent(SimEvent ev) {
 		int srcId = -1;
 		CloudSimTags tag = ev.getTag();
+		// the hosts are marked both before and after the event is processed, as the handlers
+		// update the processing before changing it
+		markHostsAffectedBy(ev);
 
         // Resource characteristics inquiry
         if (tag == CloudActionTags.RESOURCE_CHARACTERISTICS) {
@@ -192,6 +233,8 @@ public class Datacenter extends SimEntity {
             processVmCreate(ev, false);
         } else if (tag == CloudActionTags.VM_CREATE_ACK) {
             processVmCreate(ev, true);
+        } else if (tag == CloudActionTags.VM_CREATE_BATCH) {
+            processVmCreateBatch(ev);
         } else if (tag == CloudActionTags.VM_DESTROY) {
             processVmDestroy(ev, false);
         } else if (tag == CloudActionTags.VM_DESTROY_ACK) {
@@ -216,6 +259,121 @@ public class Datacenter extends SimEntity {
         } else {
             processOtherEvent(ev);
         }
+		markHostsAffectedBy(ev);
+	}
+
+	/**
+	 * Marks the hosts affected by an event, so that their processing is updated at the next
+	 * datacenter event. The hosts are found from the cloudlet, guest or guest mapping carried by
+	 * the event; all the hosts are marked if the event carries anything else.
+	 * <p>
+	 * Subclasses handling their own events without calling {@link #processEvent(SimEvent)} must
+	 * either call this method or {@link #markHostDirty(HostEntity)}.
+	 *
+	 * @param ev the event
+	 */
+	protected void markHostsAffectedBy(SimEvent ev) {
+		if (QUERY_TAGS.contains(ev.getTag())) {
+			return;
+		}
+		if (ev.hasIntData()) {
+			// cloudlet id, user id and guest id, read without building the int[] of getData()
+			hostUpdates.markDirty(getVmAllocationPolicy().getHost(ev.getIntData(2), ev.getIntData(1)));
+			return;
+		}
+		Object data = ev.getData();
+		if (data instanceof Cloudlet cl) {
+			hostUpdates.markDirty(getVmAllocationPolicy().getHost(cl.getGuestId(), cl.getUserId()));
+		} else if (data instanceof GuestEntity guest) {
+			hostUpdates.markDirty(guest);
+		} else if (ev.getTag() == CloudActionTags.VM_CREATE_BATCH && data instanceof List<?> guests) {
+			for (Object guest : guests) {
+				hostUpdates.markDirty((GuestEntity) guest);
+			}
+		} else if (data instanceof GuestMapping mapping) {
+			hostUpdates.markDirty(mapping.vm());
+			hostUpdates.markDirty(mapping.host());
+		} else if (data instanceof int[] ids && ids.length >= 3) {
+			// cloudlet id, user id, guest id and, for moves, the destination guest id
+			hostUpdates.markDirty(getVmAllocationPolicy().getHost(ids[2], ids[1]));
+			if (ids.length >= 4) {
+				hostUpdates.markDirty(getVmAllocationPolicy().getHost(ids[3], ids[1]));
+			}
+		} else {
+			hostUpdates.markAllDirty();
+		}
+	}
+
+	/**
+	 * Marks a host whose processing has to be updated at the next datacenter event, because
+	 * something has changed its guests or cloudlets.
+	 *
+	 * @param host the host, <tt>null</tt> to mark all the hosts
+	 */
+	protected void markHostDirty(HostEntity host) {
+		hostUpdates.markDirty(host);
+	}
+
+	/**
+	 * Marks all the hosts, whose processing will be updated at the next datacenter event.
+	 */
+	protected void markAllHostsDirty() {
+		hostUpdates.markAllDirty();
+	}
+
+	/**
+	 * Checks if the processing of a host changes only when it receives a cloudlet or a guest, or
+	 * when one of its cloudlets finishes, so that it can be skipped by the datacenter events in
+	 * between. This is the case for plain {@link Host}s running non-nested guests whose cloudlet
+	 * schedulers are exactly {@link CloudletSchedulerTimeShared}, {@link CloudletSchedulerSpaceShared}
+	 * or {@link CloudletSchedulerProcessorSharing}; the hosts with dynamic workloads, exchanging
+	 * network packets or using other schedulers, including subclasses of these, are updated at
+	 * every event. In particular, the {@link org.cloudbus.cloudsim.power.PowerHost}s of the power
+	 * datacenters are always updated.
+	 *
+	 * @param host the host
+	 * @return <tt>true</tt> if the host can be updated only when needed
+	 */
+	protected boolean isUpdatedIncrementally(HostEntity host) {
+		if (host.getClass() != Host.class) {
+			return false;
+		}
+		for (GuestEntity guest : host.getGuestList()) {
+			if (!INCREMENTAL_SCHEDULERS.contains(guest.getCloudletScheduler().getClass())
+					|| guest instanceof VirtualEntity vm && !vm.getGuestList().isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Updates the processing of the cloudlets running in a host, keeping track of its next event.
+	 *
+	 * @param host the host
+	 * @return the expected completion time of the next cloudlet in the host, or
+	 *         {@link Double#MAX_VALUE} if there is none
+	 */
+	protected double updateHostProcessing(HostEntity host) {
+		double time = host.updateCloudletsProcessing(CloudSim.clock());
+		hostProcessingUpdated(host, time);
+		return time;
+	}
+
+	/**
+	 * Records an update of the processing of a host, including the updates made outside of
+	 * {@link #updateHostProcessing(HostEntity)}, e.g. by a broker or a migration. The host is then
+	 * checked for finished cloudlets at the next completion check, and its next event time is
+	 * tracked as if the datacenter had updated it. The allocation policy is notified as well, as
+	 * the utilization of the host may have changed.
+	 *
+	 * @param host the host
+	 * @param nextEventTime the expected completion time of the next cloudlet in the host, or
+	 *            {@link Double#MAX_VALUE} if there is none
+	 */
+	void hostProcessingUpdated(HostEntity host, double nextEventTime) {
+		hostUpdates.updated(host, nextEventTime);
+		getVmAllocationPolicy().hostProcessingUpdated(host);
 	}
 
 	/**
@@ -406,25 +564,78 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = guest.getId();
-			data[2] = result ? CloudSimTags.TRUE : CloudSimTags.FALSE;
-			send(guest.getUserId(), CloudSim.getMinTimeBetweenEvents(), CloudActionTags.VM_CREATE_ACK, data);
+			send(guest.getUserId(), CloudSim.getMinTimeBetweenEvents(), CloudActionTags.VM_CREATE_ACK,
+					getId(), guest.getId(), result ? CloudSimTags.TRUE : CloudSimTags.FALSE);
 		}
 
 		if (result) {
-			getVmList().add(guest);
+			guestCreated(guest);
+		} else {
+			Log.printlnConcat(CloudSim.clock(), ": Datacenter.guestAllocator: Couldn't find a host for ", guest.getClassName(), " #", guest.getId());
+		}
+	}
+
+	/**
+	 * Process the event for an User/Broker who wants to create a list of VMs in this Datacenter
+	 * at once. The VMs with a preferred host are allocated to it, the others are placed
+	 * together by {@link VmAllocationPolicy#allocateHostsForGuests(List)}. A single
+	 * acknowledgement, carrying a {@link GuestBatchAck}, is then sent back to the sender.
+	 *
+	 * @param ev information about the event just happened
+	 *
+	 * @pre ev != null
+	 * @post $none
+	 */
+	@SuppressWarnings("unchecked")
+	protected void processVmCreateBatch(SimEvent ev) {
+		List<GuestEntity> guests = (List<GuestEntity>) ev.getData();
+
+		Set<GuestEntity> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<GuestEntity> unplaced = new ArrayList<>();
+		for (GuestEntity guest : guests) {
+			HostEntity userPreferredHost = guest.getHost();
+			if (userPreferredHost != null && getVmAllocationPolicy().getHostList().contains(userPreferredHost)) {
+				if (getVmAllocationPolicy().allocateHostForGuest(guest, userPreferredHost)) {
+					allocated.add(guest);
+				}
+			} else {
+				unplaced.add(guest);
+			}
+		}
+		if (!unplaced.isEmpty()) {
+			allocated.addAll(getVmAllocationPolicy().allocateHostsForGuests(unplaced));
+		}
 
-			if (guest.isBeingInstantiated()) {
-				guest.setBeingInstantiated(false);
+		List<GuestEntity> created = new ArrayList<>(allocated.size());
+		List<GuestEntity> failed = new ArrayList<>(guests.size() - allocated.size());
+		for (GuestEntity guest : guests) {
+			if (allocated.contains(guest)) {
+				created.add(guest);
+				guestCreated(guest);
+			} else {
+				failed.add(guest);
+				Log.printlnConcat(CloudSim.clock(), ": Datacenter.guestAllocator: Couldn't find a host for ", guest.getClassName(), " #", guest.getId());
 			}
+		}
 
-			guest.updateCloudletsProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(guest).getGuestScheduler()
-					.getAllocatedMipsForGuest(guest));
-		} else {
-			Log.printlnConcat(CloudSim.clock(), ": Datacenter.guestAllocator: Couldn't find a host for ", guest.getClassName(), " #", guest.getId());
+		send(ev.getSourceId(), CloudSim.getMinTimeBetweenEvents(), CloudActionTags.VM_CREATE_BATCH,
+				new GuestBatchAck(getId(), created, failed));
+	}
+
+	/**
+	 * Registers a guest that has just been allocated to a host, and starts its processing.
+	 *
+	 * @param guest the guest
+	 */
+	protected void guestCreated(GuestEntity guest) {
+		getVmList().add(guest);
+
+		if (guest.isBeingInstantiated()) {
+			guest.setBeingInstantiated(false);
 		}
+
+		guest.updateCloudletsProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(guest).getGuestScheduler()
+				.getAllocatedMipsForGuest(guest));
 	}
 
 	/**
@@ -444,12 +655,7 @@ public class Datacenter extends SimEntity {
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = vm.getId();
-			data[2] = CloudSimTags.TRUE;
-
-			sendNow(vm.getUserId(), CloudActionTags.VM_DESTROY_ACK, data);
+			sendNow(vm.getUserId(), CloudActionTags.VM_DESTROY_ACK, getId(), vm.getId(), CloudSimTags.TRUE);
 		}
 
 		getVmList().remove(vm);
@@ -488,11 +694,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = vm.getId();
-			data[2] = CloudSimTags.TRUE;
-			sendNow(ev.getSourceId(), CloudActionTags.VM_CREATE_ACK, data);
+			sendNow(ev.getSourceId(), CloudActionTags.VM_CREATE_ACK, getId(), vm.getId(), CloudSimTags.TRUE);
 		}
 
 		Log.formatLine(
@@ -583,11 +785,7 @@ public class Datacenter extends SimEntity {
 		} else {
 			// has the cloudlet already finished?
 			if (cl.getStatus() == Cloudlet.CloudletStatus.SUCCESS) {// if yes, send it back to user
-				int[] data = new int[3];
-				data[0] = getId();
-				data[1] = cloudletId;
-				data[2] = 0;
-				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cloudletId, 0);
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
 			}
 
@@ -612,15 +810,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (tag == CloudActionTags.CLOUDLET_MOVE_ACK) {// send ACK if requested
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = cloudletId;
-			if (failed) {
-				data[2] = 0;
-			} else {
-				data[2] = 1;
-			}
-			sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+			sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cloudletId, failed ? 0 : 1);
 		}
 	}
 
@@ -655,12 +845,7 @@ public class Datacenter extends SimEntity {
 				// Hence, this might cause CloudSim to be hanged since waiting
 				// for this Cloudlet back.
 				if (ack) {
-					int[] data = new int[3];
-					data[0] = getId();
-					data[1] = cl.getCloudletId();
-					data[2] = CloudSimTags.FALSE;
-
-					sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+					sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cl.getCloudletId(), CloudSimTags.FALSE);
 				}
 
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
@@ -694,12 +879,7 @@ public class Datacenter extends SimEntity {
 			}*/
 
 			if (ack) {
-				int[] data = new int[3];
-				data[0] = getId();
-				data[1] = cl.getCloudletId();
-				data[2] = CloudSimTags.TRUE;
-
-				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cl.getCloudletId(), CloudSimTags.TRUE);
 			}
 		} catch (ClassCastException c) {
 			Log.printlnConcat(getName(), ".processCloudletSubmit(): ", "ClassCastException error.");
@@ -759,11 +939,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = cloudletId;
-			data[2] = status ? CloudSimTags.TRUE : CloudSimTags.FALSE;
-			sendNow(userId, CloudActionTags.CLOUDLET_RESUME_ACK, data);
+			sendNow(userId, CloudActionTags.CLOUDLET_RESUME_ACK, getId(), cloudletId, status ? CloudSimTags.TRUE : CloudSimTags.FALSE);
 		}
 	}
 
@@ -784,11 +960,7 @@ public class Datacenter extends SimEntity {
 				.getCloudletScheduler().cloudletPause(cloudletId);
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = cloudletId;
-			data[2] = status ? CloudSimTags.TRUE : CloudSimTags.FALSE;
-			sendNow(userId, CloudActionTags.CLOUDLET_PAUSE_ACK, data);
+			sendNow(userId, CloudActionTags.CLOUDLET_PAUSE_ACK, getId(), cloudletId, status ? CloudSimTags.TRUE : CloudSimTags.FALSE);
 		}
 	}
 
@@ -821,15 +993,14 @@ public class Datacenter extends SimEntity {
 		// R: for term is to allow loop at simulation start. Otherwise, one initial
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() >= getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
-			double smallerTime = Double.MAX_VALUE;
-			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-				// inform VMs to update processing
-				double time = host.updateCloudletsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
-				}
+			// inform the VMs of the hosts affected by some event, or whose next cloudlet
+			// is expected to finish, to update processing
+			for (HostEntity host : hostUpdates.pollHostsToUpdate(
+					getVmAllocationPolicy().getHostList(), CloudSim.clock(), CloudSim.getMinTimeBetweenEvents())) {
+				updateHostProcessing(host);
 			}
+			// what time do we expect that the next cloudlet will finish?
+			double smallerTime = hostUpdates.getNextEventTime();
 			// gurantees a minimal interval before scheduling the event
 			if (smallerTime < CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01) {
 				smallerTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01;
@@ -849,7 +1020,8 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
-		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+		// only the hosts updated since the last check may hold finished cloudlets
+		for (HostEntity host : hostUpdates.pollTouchedHosts(getVmAllocationPolicy().getHostList())) {
 			for (GuestEntity vm : host.getGuestList()) {
 				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
 					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -76,6 +77,24 @@ public class DatacenterBroker extends SimEntity {
 	/** Next guest to which send the cloudlet */
 	private int guestIndex = 0;
 
+	/** Whether the VMs are requested to each datacenter with a single
+         * {@link CloudActionTags#VM_CREATE_BATCH} event. */
+	private boolean vmCreationBatched = false;
+
+	/** The tables of cloudlets submitted to the broker.
+         * @see #submitCloudletTable(CloudletTable) */
+	private final List<CloudletTable> cloudletTables = new ArrayList<>();
+
+	/** The index, in {@link #cloudletTables}, of the table whose rows are being submitted. */
+	private int cloudletTableIndex = 0;
+
+	/** The next row of the table whose rows are being submitted. */
+	private int cloudletTableRow = 0;
+
+	/** The maximum number of cloudlets created from the rows of the {@link #cloudletTables}
+         * that are waiting or in execution at the same time. */
+	private int cloudletTableWindow = 10000;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -133,6 +152,22 @@ public class DatacenterBroker extends SimEntity {
 		getCloudletList().addAll(list);
 	}
 
+	/**
+	 * Sends to the broker a table of cloudlets. The rows are submitted after the cloudlets of
+	 * {@link #submitCloudletList(List)}, in order, through at most {@link #getCloudletTableWindow()}
+	 * cloudlets at the same time: a cloudlet is created for a row when the row is submitted, and its
+	 * results are stored in the row when it returns, instead of being added to the
+	 * {@link #getCloudletReceivedList() received list}.
+	 * <p>
+	 * The cloudlets are assigned to the broker, and the rows that are not bound to a guest with
+	 * {@link CloudletTable#setGuestId(int, int)} are sent to the created guests in round-robin.
+	 *
+	 * @param table the table
+	 */
+	public void submitCloudletTable(CloudletTable table) {
+		cloudletTables.add(table);
+	}
+
 	/**
 	 * Specifies that a given cloudlet must run in a specific virtual machine.
 	 * 
@@ -161,6 +196,10 @@ public class DatacenterBroker extends SimEntity {
         } else if (tag == CloudActionTags.VM_CREATE_ACK) {
             processVmCreateAck(ev);
 
+            // Batched VM Creation answer
+        } else if (tag == CloudActionTags.VM_CREATE_BATCH) {
+            processVmCreateBatchAck(ev);
+
             // A finished cloudlet returned
         } else if (tag == CloudActionTags.CLOUDLET_RETURN) {
             processCloudletReturn(ev);
@@ -221,14 +260,46 @@ public class DatacenterBroker extends SimEntity {
 	 * @post $none
 	 */
 	protected void processVmCreateAck(SimEvent ev) {
-		int[] data = (int[]) ev.getData();
-		int datacenterId = data[0];
-		int vmId = data[1];
-		int result = data[2];
+		int datacenterId = ev.getIntData(0);
+		int vmId = ev.getIntData(1);
+		int result = ev.getIntData(2);
 
-		GuestEntity guest = VmList.getById(getGuestList(), vmId);
+		recordVmCreation(datacenterId, VmList.getById(getGuestList(), vmId), result == CloudSimTags.TRUE);
+		incrementVmsAcks();
+		checkVmCreations();
+	}
 
-		if (result == CloudSimTags.TRUE) {
+	/**
+	 * Process the single ack received due to a request for the creation of a list of VMs.
+	 *
+	 * @param ev a SimEvent object, carrying a {@link Datacenter.GuestBatchAck}
+	 * @pre ev != null
+	 * @post $none
+	 */
+	protected void processVmCreateBatchAck(SimEvent ev) {
+		Datacenter.GuestBatchAck ack = (Datacenter.GuestBatchAck) ev.getData();
+
+		for (GuestEntity guest : ack.created()) {
+			recordVmCreation(ack.datacenterId(), guest, true);
+		}
+		for (GuestEntity guest : ack.failed()) {
+			recordVmCreation(ack.datacenterId(), guest, false);
+		}
+
+		setVmsAcks(getVmsAcks() + ack.created().size() + ack.failed().size());
+		checkVmCreations();
+	}
+
+	/**
+	 * Records the outcome of the creation of a VM.
+	 *
+	 * @param datacenterId the id of the datacenter the VM was requested to
+	 * @param guest the VM
+	 * @param created whether the VM has been created
+	 */
+	private void recordVmCreation(int datacenterId, GuestEntity guest, boolean created) {
+		int vmId = guest.getId();
+		if (created) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
 			getGuestsCreatedList().add(guest);
 			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": ", guest.getClassName(), " #", vmId,
@@ -238,9 +309,13 @@ public class DatacenterBroker extends SimEntity {
 			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Creation of ", guest.getClassName(), " #", vmId,
 					" failed in Datacenter #", datacenterId);
 		}
+	}
 
-		incrementVmsAcks();
-
+	/**
+	 * Submits the cloudlets once all the requested VMs have been created, or tries the next
+	 * datacenter once all the acks have been received but some VMs were not created.
+	 */
+	private void checkVmCreations() {
 		// all the requested VMs have been created
 		if (getGuestsCreatedList().size() == getGuestList().size() - getVmsDestroyed()) {
 			submitCloudlets();
@@ -276,16 +351,24 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
-		getCloudletReceivedList().add(cloudlet);
+		if (cloudlet instanceof CloudletTable.View view) {
+			view.store();
+		} else {
+			getCloudletReceivedList().add(cloudlet);
+		}
 		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": ", cloudlet.getClass().getSimpleName(), " #", cloudlet.getCloudletId(),
 				" return received");
 		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": The number of finished Cloudlets is:", getCloudletReceivedList().size());
 		cloudletsSubmitted--;
-		if (getCloudletList().isEmpty() && cloudletsSubmitted == 0) { // all cloudlets executed
+		if (getCloudletList().isEmpty() && cloudletsSubmitted == 0 && !hasCloudletTableRows()) { // all cloudlets executed
 			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": All Cloudlets executed. Finishing...");
 			clearDatacenters();
 			finishExecution();
 		} else { // some cloudlets haven't finished yet
+			if (hasCloudletTableRows() && getCloudletList().size() + cloudletsSubmitted <= getCloudletTableWindow() / 2) {
+				// half of the window has returned: submit the next rows
+				submitCloudlets();
+			}
 			if (!getCloudletList().isEmpty() && cloudletsSubmitted == 0) {
 				// all the cloudlets sent finished. It means that some bount
 				// cloudlet is waiting its VM be created
@@ -329,14 +412,22 @@ public class DatacenterBroker extends SimEntity {
 		// send as much vms as possible for this datacenter before trying the next one
 		int requestedVms = 0;
 		String datacenterName = CloudSim.getEntityName(datacenterId);
+		List<GuestEntity> batch = new ArrayList<>();
 		for (GuestEntity vm : getGuestList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
 				Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Trying to Create ", vm.getClassName(),
 						" #", vm.getId(), " in ", datacenterName);
-				sendNow(datacenterId, CloudActionTags.VM_CREATE_ACK, vm);
+				if (isVmCreationBatched()) {
+					batch.add(vm);
+				} else {
+					sendNow(datacenterId, CloudActionTags.VM_CREATE_ACK, vm);
+				}
 				requestedVms++;
 			}
 		}
+		if (!batch.isEmpty()) {
+			sendNow(datacenterId, CloudActionTags.VM_CREATE_BATCH, batch);
+		}
 
 		getDatacenterRequestedIdsList().add(datacenterId);
 
@@ -352,6 +443,7 @@ public class DatacenterBroker extends SimEntity {
          * @see #submitCloudletList(java.util.List) 
 	 */
 	protected void submitCloudlets() {
+		loadCloudletTableRows();
 		List<Cloudlet> successfullySubmitted = new ArrayList<>();
 		for (Cloudlet cloudlet : getCloudletList()) {
 			GuestEntity vm;
@@ -385,12 +477,44 @@ public class DatacenterBroker extends SimEntity {
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudActionTags.CLOUDLET_SUBMIT, cloudlet);
 			cloudletsSubmitted++;
 			guestIndex = (guestIndex + 1) % getGuestsCreatedList().size();
-			getCloudletSubmittedList().add(cloudlet);
+			if (!(cloudlet instanceof CloudletTable.View)) {
+				getCloudletSubmittedList().add(cloudlet);
+			}
 			successfullySubmitted.add(cloudlet);
 		}
 
 		// remove submitted cloudlets from waiting list
-		getCloudletList().removeAll(successfullySubmitted);
+		getCloudletList().removeAll(new HashSet<>(successfullySubmitted));
+	}
+
+	/**
+	 * Adds to the waiting list the cloudlets of the next rows of the submitted tables, until
+	 * {@link #getCloudletTableWindow()} cloudlets are waiting or in execution.
+	 *
+	 * @see #submitCloudletTable(CloudletTable)
+	 */
+	protected void loadCloudletTableRows() {
+		int pending = getCloudletList().size() + cloudletsSubmitted;
+		while (pending < getCloudletTableWindow() && hasCloudletTableRows()) {
+			Cloudlet cloudlet = cloudletTables.get(cloudletTableIndex).newCloudlet(cloudletTableRow++);
+			cloudlet.setUserId(getId());
+			getCloudletList().add(cloudlet);
+			pending++;
+		}
+	}
+
+	/**
+	 * Checks whether some rows of the submitted tables have not been added to the waiting list yet.
+	 *
+	 * @return true if there are rows left
+	 */
+	protected boolean hasCloudletTableRows() {
+		while (cloudletTableIndex < cloudletTables.size()
+				&& cloudletTableRow == cloudletTables.get(cloudletTableIndex).size()) {
+			cloudletTableIndex++;
+			cloudletTableRow = 0;
+		}
+		return cloudletTableIndex < cloudletTables.size();
 	}
 
 	/**
@@ -529,6 +653,51 @@ public class DatacenterBroker extends SimEntity {
 		this.vmsCreatedList = vmsCreatedList;
 	}
 
+	/**
+	 * Checks whether the VMs are requested to each datacenter with a single event, and
+	 * acknowledged with a single event, rather than one event per VM.
+	 *
+	 * @return true if the VM creation is batched
+	 */
+	public boolean isVmCreationBatched() {
+		return vmCreationBatched;
+	}
+
+	/**
+	 * Sets whether the VMs are requested to each datacenter with a single
+	 * {@link CloudActionTags#VM_CREATE_BATCH} event, so that the datacenter
+	 * {@link VmAllocationPolicy} can place them together.
+	 *
+	 * @param vmCreationBatched true to batch the VM creation
+	 */
+	public void setVmCreationBatched(boolean vmCreationBatched) {
+		this.vmCreationBatched = vmCreationBatched;
+	}
+
+	/**
+	 * Gets the maximum number of cloudlets created from the rows of the submitted tables that
+	 * are waiting or in execution at the same time.
+	 *
+	 * @return the window
+	 * @see #submitCloudletTable(CloudletTable)
+	 */
+	public int getCloudletTableWindow() {
+		return cloudletTableWindow;
+	}
+
+	/**
+	 * Sets the maximum number of cloudlets created from the rows of the submitted tables that
+	 * are waiting or in execution at the same time.
+	 *
+	 * @param cloudletTableWindow the window, at least 1
+	 */
+	public void setCloudletTableWindow(int cloudletTableWindow) {
+		if (cloudletTableWindow < 1) {
+			throw new IllegalArgumentException("The cloudlet table window must be at least 1.");
+		}
+		this.cloudletTableWindow = cloudletTableWindow;
+	}
+
 	/**
 	 * Gets the vms requested.
 	 * 
@@ -54,15 +54,9 @@ public class HddCloudletSchedulerTimeShared extends CloudletSchedulerTimeShared
      * @post $none
      */
     public HddCloudletSchedulerTimeShared() {
+        // the queues of the parent are already indexed by cloudlet id, which
+        // keeps the insertions and deletions cheap
         super();
-
-        // We replace the ArrayList from the parent with a LindedList, since we
-        // need better performance for insertion/deletion etc.
-        cloudletWaitingList = new LinkedList<>();
-        cloudletExecList = new LinkedList<>();
-        cloudletPausedList = new LinkedList<>();
-        cloudletFinishedList = new LinkedList<>();
-        cloudletFailedList = new LinkedList<>();
     }
 
     public HddVm getVm() {
@@ -347,11 +341,10 @@ public class HddCloudletSchedulerTimeShared extends CloudletSchedulerTimeShared
      */
     @Override
     public boolean cloudletPause(final int cloudletId) {
-        int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
+        HddCloudlet cl = CloudletList.removeById(this.<HddCloudlet> getCloudletExecList(), cloudletId);
 
-        if (position >= 0) {
+        if (cl != null) {
             // remove cloudlet from the exec list and put it in the paused list
-            HddCloudlet cl = this.<HddCloudlet> getCloudletExecList().remove(position);
             if (cl.isDone()) {
                 cloudletFinish(cl);
             } else {
@@ -375,10 +368,9 @@ public class HddCloudletSchedulerTimeShared extends CloudletSchedulerTimeShared
     // Changed
     @Override
     public double cloudletResume(final int cloudletId) {
-        int position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
+        HddCloudlet cl = CloudletList.removeById(this.<HddCloudlet> getCloudletPausedList(), cloudletId);
 
-        if (position >= 0) {
-            HddCloudlet cl = this.<HddCloudlet> getCloudletPausedList().remove(position);
+        if (cl != null) {
             cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
             getCloudletExecList().add(cl);
 
@@ -1,11 +1,13 @@
 package org.cloudbus.cloudsim.EX.util;
 
 import org.apache.commons.lang3.SystemUtils;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -13,11 +15,12 @@ import java.util.concurrent.Future;
 
 /**
  * 
- * A utility that runs a set of experiments in different JVM processes. Since
- * CloudSim makes heavy use of static data, experiments can not be run in
- * multiple threads within the same JVM. With this utility class one can spawn
- * multiple independent JVM process, redirect their standard outputs to a single
- * place and synchronize with their ends.
+ * A utility that runs a set of experiments in different JVM processes. With
+ * this utility class one can spawn multiple independent JVM process, redirect
+ * their standard outputs to a single place and synchronize with their ends.
+ * Alternatively, since the simulation state is bound to a per-thread
+ * {@link SimulationContext}, the experiments can be run on a thread pool within
+ * the current JVM.
  * 
  * <br>
  * <br>
@@ -99,6 +102,83 @@ public class ExperimentsRunner {
         System.err.println("All experiments are finished");
     }
 
+    /**
+     * Runs a set of experiments concurrently on a thread pool within the
+     * current JVM. Each experiment is executed in its own
+     * {@link SimulationContext}, hence the experiments do not share the
+     * simulation clock, the entities or the event queues. This avoids the
+     * start-up and JIT warm-up costs of
+     * {@link #runExperiments(List, int)}, but the experiments share the heap
+     * and the JVM arguments of the current process: the memory limits of the
+     * definitions are ignored, and definitions with "-X"/"-D" parameters are
+     * rejected. The experiments' main classes must not rely on static state of
+     * their own.
+     * 
+     * @param experimentsDefs
+     *            - the experiments' definitions.
+     * @param numFreeCPUs
+     *            - number of processors to leave unused. See
+     *            {@link #runExperiments(List, int)}.
+     * 
+     * @throws IllegalArgumentException
+     *             - if a definition has JVM parameters, before any
+     *             experiment is run.
+     * @throws Exception
+     *             - if something goes wrong.
+     */
+    public static void runExperimentsInProcess(final List<ExperimentDefinition> experimentsDefs,
+            final int numFreeCPUs) throws Exception {
+        for (ExperimentDefinition def : experimentsDefs) {
+            for (String param : def.getArguements()) {
+                if (isJvmParameter(param)) {
+                    throw new IllegalArgumentException("The JVM parameter " + param + " of experiment "
+                            + def.getMainClass().getCanonicalName()
+                            + " cannot be applied in process. Use runExperiments instead.");
+                }
+            }
+        }
+
+        if (!experimentsDefs.isEmpty()) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            int coresToUse = cores <= numFreeCPUs ? 1 : cores - numFreeCPUs;
+
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(coresToUse, experimentsDefs.size()));
+            Collection<Future<?>> futures = new ArrayList<>();
+
+            for (final ExperimentDefinition def : experimentsDefs) {
+                Runnable runnable = () -> {
+                    try {
+                        new SimulationContext().call(() -> invokeMain(def));
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        System.err.println("!!! Experiment " + def.getMainClass().getCanonicalName()
+                                + " has failed!!!");
+                    }
+                };
+                futures.add(pool.submit(runnable));
+            }
+
+            // Wait until all are finished
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            pool.shutdown();
+        }
+        System.err.println();
+        System.err.println("All experiments are finished");
+    }
+
+    private static Void invokeMain(final ExperimentDefinition def) throws ReflectiveOperationException {
+        Method main = def.getMainClass().getMethod("main", String[].class);
+        main.invoke(null, (Object) def.getArguements().clone());
+        return null;
+    }
+
+    private static boolean isJvmParameter(final String param) {
+        return param.startsWith("-X") || param.startsWith("-D");
+    }
+
     private static int[] getHeapArgs() {
         RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
         List<String> arguments = runtimeMxBean.getInputArguments();
@@ -169,7 +249,7 @@ public class ExperimentsRunner {
         }
 
         for (String param : def.getArguements()) {
-            if (param.startsWith("-X") || param.startsWith("-D")) {
+            if (isJvmParameter(param)) {
                 vmParams.add(param);
             } else {
                 appParams.add(param);
@@ -93,7 +93,8 @@ public class Host implements HostEntity {
 	}
 
 	/**
-	 * Requests updating of cloudlets' processing in VMs running in this host.
+	 * Requests updating of cloudlets' processing in VMs running in this host. The update is
+	 * reported to the datacenter of the host, which then checks the host for finished cloudlets.
 	 * 
 	 * @param currentTime the current time
 	 * @return expected time of completion of the next cloudlet in all VMs in this host or
@@ -117,6 +118,10 @@ public class Host implements HostEntity {
 				smallerTime = time;
 			}
 		}
+		if (getDatacenter() != null) {
+			// lets the datacenter track the updates it has not requested itself
+			getDatacenter().hostProcessingUpdated(this, smallerTime);
+		}
 
 		return smallerTime;
 	}
@@ -66,13 +66,7 @@ public class HostDynamicWorkload extends Host {
 		setUtilizationMips(0);
 		double hostTotalRequestedMips = 0;
 
-		for (GuestEntity vm : getGuestList()) {
-			getGuestScheduler().deallocatePesForGuest(vm);
-		}
-
-		for (GuestEntity vm : getGuestList()) {
-			getGuestScheduler().allocatePesForGuest(vm, vm.getCurrentRequestedMips());
-		}
+		getGuestScheduler().reallocatePesForGuests(getGuestList());
 
 		for (GuestEntity vm : getGuestList()) {
 			double totalRequestedMips = vm.getCurrentRequestedTotalMips();
@@ -257,6 +251,10 @@ public class HostDynamicWorkload extends Host {
 	 */
 	protected void setUtilizationMips(double utilizationMips) {
 		this.utilizationMips = utilizationMips;
+		if (getGuestScheduler() != null) {
+			// the utilization is part of the capacity seen by the selection policies
+			getGuestScheduler().allocationChanged();
+		}
 	}
 
 	/**
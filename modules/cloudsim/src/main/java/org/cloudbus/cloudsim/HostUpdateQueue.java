@@ -0,0 +1,244 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+
+/**
+ * Keeps track of the hosts of a {@link Datacenter} whose cloudlet processing has to be updated,
+ * so that a datacenter event does not need to update every host:
+ * <ul>
+ * <li>the <i>dirty</i> hosts, affected by an event (a submission, a VM creation, a migration...)
+ * since their last update;</li>
+ * <li>the <i>due</i> hosts, whose next cloudlet completion has been reached, found through a
+ * priority queue of the next event time of each host;</li>
+ * <li>the hosts whose processing depends on time, which are updated at every event.</li>
+ * </ul>
+ * Stale entries of the priority queue, left by hosts updated before their next event time, are
+ * discarded lazily.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+final class HostUpdateQueue {
+
+	/** The next event time of a host, as an entry of the priority queue. */
+	private record Entry(double time, int host) implements Comparable<Entry> {
+		@Override
+		public int compareTo(Entry o) {
+			int c = Double.compare(time, o.time);
+			return c != 0 ? c : Integer.compare(host, o.host);
+		}
+	}
+
+	/** Whether a host can be updated only when dirty or due. */
+	private final Predicate<HostEntity> incremental;
+
+	/** The host list of the datacenter, as seen at the last synchronisation. */
+	private List<? extends HostEntity> hosts;
+
+	/** The index of each host in the host list. */
+	private final Map<HostEntity, Integer> indexes = new IdentityHashMap<>();
+
+	/** The next event time of each host, {@link Double#MAX_VALUE} if none. */
+	private double[] nextEventTimes = new double[0];
+
+	/** The next event times of the hosts, earliest first. */
+	private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+
+	/** The hosts affected by an event since their last update. */
+	private final BitSet dirty = new BitSet();
+
+	/** The hosts that have to be updated at every event. */
+	private final BitSet volatileHosts = new BitSet();
+
+	/** The hosts updated or marked since the last completion check. */
+	private final BitSet touched = new BitSet();
+
+	/** The guests whose host was not known yet when they have been marked. */
+	private final List<GuestEntity> pendingGuests = new ArrayList<>();
+
+	/** Whether all the hosts have to be updated, e.g. because the host list has changed. */
+	private boolean allDirty = true;
+
+	/**
+	 * Creates a new queue.
+	 *
+	 * @param incremental checks if a host, once updated, can be skipped until it is dirty or due
+	 */
+	HostUpdateQueue(Predicate<HostEntity> incremental) {
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Marks a host as affected by an event.
+	 *
+	 * @param host the host, <tt>null</tt> or unknown hosts mark all the hosts
+	 */
+	void markDirty(HostEntity host) {
+		Integer index = host == null ? null : indexes.get(host);
+		if (index == null) {
+			allDirty = true;
+		} else {
+			dirty.set(index);
+		}
+	}
+
+	/**
+	 * Marks the host of a guest as affected by an event. If the guest has not been placed yet, its
+	 * host is resolved at the next update.
+	 *
+	 * @param guest the guest
+	 */
+	void markDirty(GuestEntity guest) {
+		HostEntity host = guest.getHost();
+		if (host != null) {
+			markDirty(host);
+		}
+		pendingGuests.add(guest);
+	}
+
+	/**
+	 * Marks all the hosts as affected by an event.
+	 */
+	void markAllDirty() {
+		allDirty = true;
+	}
+
+	/**
+	 * Gets the hosts to update at a given time and clears their dirty state.
+	 *
+	 * @param hostList the host list of the datacenter
+	 * @param time the current time
+	 * @param tolerance the tolerance on the next event times
+	 * @return the dirty, due and volatile hosts, in host list order
+	 */
+	List<HostEntity> pollHostsToUpdate(List<? extends HostEntity> hostList, double time, double tolerance) {
+		sync(hostList);
+		BitSet update = (BitSet) dirty.clone();
+		if (allDirty) {
+			update.set(0, hosts.size());
+			allDirty = false;
+		}
+		update.or(volatileHosts);
+		Entry e;
+		while ((e = queue.peek()) != null && e.time <= time + tolerance) {
+			queue.poll();
+			if (nextEventTimes[e.host] == e.time) {
+				update.set(e.host);
+			}
+		}
+		dirty.clear();
+
+		List<HostEntity> result = new ArrayList<>(update.cardinality());
+		for (int i = update.nextSetBit(0); i >= 0; i = update.nextSetBit(i + 1)) {
+			result.add(hosts.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Records the update of a host.
+	 *
+	 * @param host the host
+	 * @param nextEventTime the expected completion time of the next cloudlet in the host, or
+	 *            {@link Double#MAX_VALUE} if none
+	 */
+	void updated(HostEntity host, double nextEventTime) {
+		Integer index = indexes.get(host);
+		if (index == null) {
+			allDirty = true;
+			return;
+		}
+		touched.set(index);
+		volatileHosts.set(index, !incremental.test(host));
+		if (nextEventTimes[index] != nextEventTime) {
+			nextEventTimes[index] = nextEventTime;
+			if (nextEventTime != Double.MAX_VALUE) {
+				queue.add(new Entry(nextEventTime, index));
+			}
+		}
+	}
+
+	/**
+	 * Gets the earliest next event time among the hosts.
+	 *
+	 * @return the time, or {@link Double#MAX_VALUE} if no host expects an event
+	 */
+	double getNextEventTime() {
+		Entry e;
+		while ((e = queue.peek()) != null && nextEventTimes[e.host] != e.time) {
+			queue.poll();
+		}
+		return e == null ? Double.MAX_VALUE : e.time;
+	}
+
+	/**
+	 * Gets the hosts updated or marked since the last call, which are those that may hold
+	 * finished cloudlets.
+	 *
+	 * @param hostList the host list of the datacenter
+	 * @return the hosts, in host list order
+	 */
+	List<HostEntity> pollTouchedHosts(List<? extends HostEntity> hostList) {
+		sync(hostList);
+		BitSet result = (BitSet) touched.clone();
+		if (allDirty) {
+			result.set(0, hosts.size());
+		}
+		result.or(dirty);
+		touched.clear();
+
+		List<HostEntity> list = new ArrayList<>(result.cardinality());
+		for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+			list.add(hosts.get(i));
+		}
+		return list;
+	}
+
+	/**
+	 * Rebuilds the indexes if the host list has changed, and resolves the hosts of the pending
+	 * guests.
+	 *
+	 * @param hostList the host list of the datacenter
+	 */
+	private void sync(List<? extends HostEntity> hostList) {
+		if (hostList != hosts || hostList.size() != nextEventTimes.length) {
+			hosts = hostList;
+			indexes.clear();
+			for (int i = 0; i < hostList.size(); i++) {
+				indexes.put(hostList.get(i), i);
+			}
+			nextEventTimes = new double[hostList.size()];
+			Arrays.fill(nextEventTimes, Double.MAX_VALUE);
+			queue.clear();
+			dirty.clear();
+			volatileHosts.clear();
+			touched.clear();
+			allDirty = true;
+		}
+		for (GuestEntity guest : pendingGuests) {
+			HostEntity host = guest.getHost();
+			if (host != null) {
+				markDirty(host);
+			}
+		}
+		pendingGuests.clear();
+	}
+}
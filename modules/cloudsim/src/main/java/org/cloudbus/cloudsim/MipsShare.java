@@ -0,0 +1,289 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A MIPS share, i.e. the MIPS of each virtual PE of a guest, stored in a growable <tt>double</tt> array.
+ * <p>
+ * The schedulers and the provisioners keep their MIPS shares as instances of this class, and read and
+ * write them through the primitive methods ({@link #getMips(int)}, {@link #addMips(double)},
+ * {@link #getTotalMips()}, ...), so that no MIPS value is boxed. As it is also a mutable
+ * <tt>List&lt;Double&gt;</tt>, it is passed unchanged to the methods, and the overrides, that take or
+ * return a <tt>List&lt;Double&gt;</tt>; {@link #of(List)}, {@link #getTotalMips(List)} and
+ * {@link #getMaxMips(List)} adapt the lists of other types to it.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class MipsShare extends AbstractList<Double> implements RandomAccess {
+
+	private static final double[] EMPTY = {};
+
+	/** The MIPS of each virtual PE; only the first {@link #size} ones are used. */
+	private double[] mips;
+
+	/** The number of virtual PEs. */
+	private int size;
+
+	/**
+	 * Creates an empty MIPS share.
+	 */
+	public MipsShare() {
+		mips = EMPTY;
+	}
+
+	/**
+	 * Creates a MIPS share of virtual PEs having the same MIPS.
+	 *
+	 * @param pes the number of virtual PEs
+	 * @param mipsPerPe the MIPS of each virtual PE
+	 */
+	public MipsShare(int pes, double mipsPerPe) {
+		mips = new double[pes];
+		Arrays.fill(mips, mipsPerPe);
+		size = pes;
+	}
+
+	/**
+	 * Creates a copy of a MIPS share.
+	 *
+	 * @param mipsShare the MIPS share to copy
+	 */
+	public MipsShare(List<Double> mipsShare) {
+		mips = EMPTY;
+		setAll(mipsShare);
+	}
+
+	/**
+	 * Gets a list of MIPS as a MIPS share.
+	 *
+	 * @param mipsShare the list of MIPS
+	 * @return the list itself if it is a MIPS share, or a copy of it otherwise
+	 */
+	public static MipsShare of(List<Double> mipsShare) {
+		if (mipsShare instanceof MipsShare share) {
+			return share;
+		}
+		return new MipsShare(mipsShare);
+	}
+
+	/**
+	 * Gets the total MIPS of a list of MIPS, without unboxing them if it is a MIPS share.
+	 *
+	 * @param mipsShare the list of MIPS
+	 * @return the total MIPS
+	 */
+	public static double getTotalMips(List<Double> mipsShare) {
+		if (mipsShare instanceof MipsShare share) {
+			return share.getTotalMips();
+		}
+		double total = 0;
+		for (double mips : mipsShare) {
+			total += mips;
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the highest MIPS of a list of MIPS, without unboxing them if it is a MIPS share.
+	 *
+	 * @param mipsShare the list of MIPS
+	 * @return the highest MIPS, or 0 if the list is empty
+	 */
+	public static double getMaxMips(List<Double> mipsShare) {
+		if (mipsShare instanceof MipsShare share) {
+			return share.getMaxMips();
+		}
+		double max = 0;
+		for (double mips : mipsShare) {
+			max = Math.max(max, mips);
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the MIPS of a virtual PE.
+	 *
+	 * @param pe the index of the virtual PE
+	 * @return the MIPS
+	 */
+	public double getMips(int pe) {
+		checkIndex(pe);
+		return mips[pe];
+	}
+
+	/**
+	 * Sets the MIPS of a virtual PE.
+	 *
+	 * @param pe the index of the virtual PE
+	 * @param value the MIPS
+	 */
+	public void setMips(int pe, double value) {
+		checkIndex(pe);
+		mips[pe] = value;
+	}
+
+	/**
+	 * Adds a virtual PE.
+	 *
+	 * @param value the MIPS of the virtual PE
+	 */
+	public void addMips(double value) {
+		if (size == mips.length) {
+			mips = Arrays.copyOf(mips, Math.max(4, 2 * size));
+		}
+		mips[size++] = value;
+		modCount++;
+	}
+
+	/**
+	 * Gets the total MIPS of the virtual PEs.
+	 *
+	 * @return the total MIPS
+	 */
+	public double getTotalMips() {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += mips[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the highest MIPS among the virtual PEs.
+	 *
+	 * @return the highest MIPS, or 0 if there are no virtual PEs
+	 */
+	public double getMaxMips() {
+		double max = 0;
+		for (int i = 0; i < size; i++) {
+			max = Math.max(max, mips[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * Replaces the virtual PEs by the ones of a list of MIPS.
+	 *
+	 * @param mipsShare the list of MIPS
+	 */
+	public void setAll(List<Double> mipsShare) {
+		int n = mipsShare.size();
+		if (mips.length < n) {
+			mips = new double[n];
+		}
+		if (mipsShare instanceof MipsShare share) {
+			System.arraycopy(share.mips, 0, mips, 0, n);
+		} else {
+			for (int i = 0; i < n; i++) {
+				mips[i] = mipsShare.get(i);
+			}
+		}
+		size = n;
+		modCount++;
+	}
+
+	/**
+	 * Removes the virtual PEs having no MIPS.
+	 *
+	 * @return true if some virtual PEs were removed
+	 */
+	public boolean removeNonPositive() {
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			if (mips[i] > 0) {
+				mips[n++] = mips[i];
+			}
+		}
+		if (n == size) {
+			return false;
+		}
+		size = n;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Double get(int index) {
+		return getMips(index);
+	}
+
+	@Override
+	public Double set(int index, Double element) {
+		double previous = getMips(index);
+		mips[index] = element;
+		return previous;
+	}
+
+	@Override
+	public boolean add(Double element) {
+		addMips(element);
+		return true;
+	}
+
+	@Override
+	public void add(int index, Double element) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		double value = element;
+		addMips(0);
+		System.arraycopy(mips, index, mips, index + 1, size - 1 - index);
+		mips[index] = value;
+	}
+
+	@Override
+	public Double remove(int index) {
+		double previous = getMips(index);
+		System.arraycopy(mips, index + 1, mips, index, size - 1 - index);
+		size--;
+		modCount++;
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof MipsShare share) {
+			return Arrays.equals(mips, 0, size, share.mips, 0, share.size);
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + Double.hashCode(mips[i]);
+		}
+		return hash;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+}
@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
@@ -40,34 +41,51 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * A private default constructor would be created to avoid instantiation.
  */
 public class NetworkTopology {
-        /**
-         * The BRITE id to use for the next node to be created in the network.
-         */
-	protected static int nextIdx = 0;
 
-	private static boolean networkEnabled = false;
-
-        /**
-         * A matrix containing the delay between every pair of nodes in the network.
-         */
-	protected static DelayMatrix_Float delayMatrix = null;
-
-        /**
-         * A matrix containing the bandwidth between every pair of nodes in the network.
-         */
-	protected static double[][] bwMatrix = null;
-
-        /**
-         * The Topological Graph of the network.
-         */
-	protected static TopologicalGraph graph = null;
+	/**
+	 * The network topology state of a single simulation. Each {@link org.cloudbus.cloudsim.core.SimulationContext} owns one
+	 * instance, so that simulations running concurrently in the same JVM do not share their
+	 * networks.
+	 */
+	public static class Topology {
+		/**
+		 * The BRITE id to use for the next node to be created in the network.
+		 */
+		protected int nextIdx = 0;
+
+		protected boolean networkEnabled = false;
+
+		/**
+		 * A matrix containing the delay between every pair of nodes in the network.
+		 */
+		protected DelayMatrix_Float delayMatrix = null;
+
+		/**
+		 * A matrix containing the bandwidth between every pair of nodes in the network.
+		 */
+		protected double[][] bwMatrix = null;
+
+		/**
+		 * The Topological Graph of the network.
+		 */
+		protected TopologicalGraph graph = null;
+
+		/**
+		 * The map between CloudSim entities and BRITE entities.
+		 * Each key is a CloudSim entity ID and each value the corresponding
+		 * BRITE entity ID.
+		 */
+		protected Map<Integer, Integer> map = null;
+	}
 
 	/**
-         * The map between CloudSim entities and BRITE entities.
-         * Each key is a CloudSim entity ID and each value the corresponding
-         * BRITE entity ID.
-         */
-        protected static Map<Integer, Integer> map = null;
+	 * Gets the network topology of the simulation bound to the calling thread.
+	 *
+	 * @return the topology state
+	 */
+	protected static Topology topology() {
+		return CloudSim.getContext().getNetworkTopology();
+	}
 
 	/**
 	 * Creates the network topology if the file exists and can be successfully parsed. File is
@@ -83,10 +101,11 @@ public class NetworkTopology {
 		// try to find the file
 		GraphReaderBrite reader = new GraphReaderBrite();
 
+		Topology t = topology();
 		try {
-			graph = reader.readGraphFile(fileName);
-			map = new HashMap<>();
-			generateMatrices();
+			t.graph = reader.readGraphFile(fileName);
+			t.map = new HashMap<>();
+			generateMatrices(t);
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printlnConcat("Problem in processing BRITE file. Network simulation is disabled. Error: ",
@@ -97,15 +116,17 @@ public class NetworkTopology {
 
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements.
+	 *
+	 * @param t the topology to update
 	 */
-	private static void generateMatrices() {
+	private static void generateMatrices(Topology t) {
 		// creates the delay matrix
-		delayMatrix = new DelayMatrix_Float(graph, false);
+		t.delayMatrix = new DelayMatrix_Float(t.graph, false);
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		t.bwMatrix = createBwMatrix(t.graph, false);
 
-		networkEnabled = true;
+		t.networkEnabled = true;
 	}
 
 	/**
@@ -122,32 +143,33 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void addLink(int srcId, int destId, double bw, double lat) {
+		Topology t = topology();
 
-		if (graph == null) {
-			graph = new TopologicalGraph();
+		if (t.graph == null) {
+			t.graph = new TopologicalGraph();
 		}
 
-		if (map == null) {
-			map = new HashMap<>();
+		if (t.map == null) {
+			t.map = new HashMap<>();
 		}
 
 		// maybe add the nodes
-		if (!map.containsKey(srcId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
-			nextIdx++;
+		if (!t.map.containsKey(srcId)) {
+			t.graph.addNode(new TopologicalNode(t.nextIdx));
+			t.map.put(srcId, t.nextIdx);
+			t.nextIdx++;
 		}
 
-		if (!map.containsKey(destId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
-			nextIdx++;
+		if (!t.map.containsKey(destId)) {
+			t.graph.addNode(new TopologicalNode(t.nextIdx));
+			t.map.put(destId, t.nextIdx);
+			t.nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		t.graph.addLink(new TopologicalLink(t.map.get(srcId), t.map.get(destId), (float) lat, (float) bw));
 
-		generateMatrices();
+		generateMatrices(t);
 
 	}
 
@@ -194,7 +216,9 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void mapNode(int cloudSimEntityID, int briteID) {
-		if (networkEnabled) {
+		Topology t = topology();
+		Map<Integer, Integer> map = t.map;
+		if (t.networkEnabled) {
 			try {
 				// this CloudSim entity was already mapped?
 				if (!map.containsKey(cloudSimEntityID)) {
@@ -222,9 +246,10 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void unmapNode(int cloudSimEntityID) {
-		if (networkEnabled) {
+		Topology t = topology();
+		if (t.networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				t.map.remove(cloudSimEntityID);
 			} catch (Exception e) {
 				Log.printlnConcat("Error in network unmapping. CloudSim node: ", cloudSimEntityID);
 			}
@@ -242,10 +267,11 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
+		Topology t = topology();
+		if (t.networkEnabled) {
 			try {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
+				double delay = t.delayMatrix.getDelay(t.map.get(srcID), t.map.get(destID));
 
 				return delay;
 			} catch (Exception e) {
@@ -255,6 +281,31 @@ public class NetworkTopology {
 		return 0.0;
 	}
 
+	/**
+	 * Gets the minimum delay between any two distinct CloudSim entities mapped to the network.
+	 * It is the lookahead of a conservative parallel execution: no message between mapped
+	 * entities can arrive earlier than that.
+	 * 
+	 * @return the minimum delay, or 0 if the network is not enabled or has less than two mapped
+	 *         entities
+	 */
+	public static double getMinimumDelay() {
+		Topology t = topology();
+		if (!t.networkEnabled || t.map == null || t.map.size() < 2) {
+			return 0.0;
+		}
+
+		double min = Double.MAX_VALUE;
+		for (int src : t.map.keySet()) {
+			for (int dest : t.map.keySet()) {
+				if (src != dest) {
+					min = Math.min(min, getDelay(src, dest));
+				}
+			}
+		}
+		return min == Double.MAX_VALUE ? 0.0 : min;
+	}
+
 	/**
 	 * Checks if the network simulation is working. If there were some problem during
 	 * creation of network (e.g., during parsing of BRITE file) that does not allow a proper
@@ -265,7 +316,21 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static boolean isNetworkEnabled() {
-		return networkEnabled;
+		return topology().networkEnabled;
+	}
+
+	/**
+	 * Removes every node and link of the network topology, which disables the network
+	 * simulation until a new topology is built.
+	 */
+	public static void reset() {
+		Topology t = topology();
+		t.nextIdx = 0;
+		t.networkEnabled = false;
+		t.delayMatrix = null;
+		t.bwMatrix = null;
+		t.graph = null;
+		t.map = null;
 	}
 
 }
@@ -7,7 +7,9 @@
 
 package org.cloudbus.cloudsim;
 
+import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.GuestUtilizationSnapshot;
 import org.cloudbus.cloudsim.core.HostEntity;
 import org.cloudbus.cloudsim.core.VirtualEntity;
 import org.cloudbus.cloudsim.lists.PeList;
@@ -39,6 +41,9 @@ public class Vm implements VirtualEntity {
 	/** A Unique Identifier (UID) for the VM, that is compounded by the user id and VM id. */
 	private String uid;
 
+	/** The handle of the VM in the tables of schedulers and provisioners. */
+	private final int handle = GuestEntity.nextHandle(this);
+
 	/** The size the VM image size (the amount of storage it will use, at least initially). */
 	private long size;
 
@@ -122,6 +127,9 @@ public class Vm implements VirtualEntity {
 
 	private int virtualizationOverhead;
 
+	/** The CPU utilization at the current simulation time. */
+	private final GuestUtilizationSnapshot utilizationSnapshot = new GuestUtilizationSnapshot(this);
+
 	/**
 	 * Creates a new Vm object.
 	 * 
@@ -243,6 +251,7 @@ public class Vm implements VirtualEntity {
 	 * @post $none
 	 */
 	public double updateCloudletsProcessing(double currentTime, List<Double> mipsShare) {
+		utilizationSnapshot.invalidate();
 		double smallerTime = Double.MAX_VALUE;
 
 		if (mipsShare != null) {
@@ -304,10 +313,7 @@ public class Vm implements VirtualEntity {
 		List<Double> currentRequestedMips;
 
 		if (isBeingInstantiated()) {
-			currentRequestedMips = new ArrayList<>(getNumberOfPes());
-			for (int i = 0; i < getNumberOfPes(); i++) {
-				currentRequestedMips.add(getMips());
-			}
+			currentRequestedMips = new MipsShare(getNumberOfPes(), getMips());
 		} else {
 			currentRequestedMips = getCloudletScheduler().getCurrentRequestedMips();
 			for (GuestEntity guest : getGuestList()) {
@@ -396,6 +402,14 @@ public class Vm implements VirtualEntity {
 		return getTotalUtilizationOfCpu(time) * getMips();
 	}
 
+	@Override
+	public double getCurrentUtilizationOfCpuMips() {
+		if (!getGuestList().isEmpty()) { // the snapshot does not follow the nested guests
+			return getTotalUtilizationOfCpuMips(CloudSim.clock());
+		}
+		return utilizationSnapshot.getUtilizationOfCpuMips();
+	}
+
 	/**
 	 * Returns the MIPS share of each Pe that is allocated to a given guest entity.
 	 *
@@ -451,6 +465,8 @@ public class Vm implements VirtualEntity {
 	public String getUid() { return uid; }
 	public void setUid(String uid) { this.uid = uid; }
 
+	public int getHandle() { return handle; }
+
 	public int getUserId() { return userId; }
 	public void setUserId(int userId) { this.userId = userId; }
 
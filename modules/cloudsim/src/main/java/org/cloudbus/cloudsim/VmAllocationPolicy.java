@@ -123,6 +123,27 @@ public abstract class VmAllocationPolicy {
 	@Deprecated
 	public boolean allocateHostForVm(Vm vm, Host host) { return allocateHostForGuest(vm, host); }
 
+	/**
+	 * Allocates hosts for a batch of guests, as requested by a single
+	 * {@link org.cloudbus.cloudsim.core.CloudActionTags#VM_CREATE_BATCH} event.
+	 * The guests are allocated one after another, in the list order; policies able to
+	 * pack the whole batch better can override this method.
+	 *
+	 * @param guests the guests to allocate a host to
+	 * @return the guests that could be allocated, in the list order
+	 * @pre guests != null
+	 * @post $none
+	 */
+	public List<GuestEntity> allocateHostsForGuests(List<? extends GuestEntity> guests) {
+		List<GuestEntity> allocated = new ArrayList<>();
+		for (GuestEntity guest : guests) {
+			if (allocateHostForGuest(guest)) {
+				allocated.add(guest);
+			}
+		}
+		return allocated;
+	}
+
 	/**
 	 * Optimize allocation of the VMs according to current utilization.
 	 * 
@@ -137,6 +158,14 @@ public abstract class VmAllocationPolicy {
 	 */
 	public List<GuestMapping> optimizeAllocation(List<? extends GuestEntity> vmList) { return new ArrayList<>(); }
 
+	/**
+	 * Notifies the policy that the cloudlet processing of one of its hosts has been updated, which
+	 * may have changed the utilization of the host. It does nothing by default.
+	 *
+	 * @param host the host
+	 */
+	public void hostProcessingUpdated(HostEntity host) { }
+
 	/**
 	 * Releases the host used by a VM.
 	 *
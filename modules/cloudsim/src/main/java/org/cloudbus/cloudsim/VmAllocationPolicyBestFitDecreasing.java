@@ -0,0 +1,36 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+
+import java.util.List;
+
+/**
+ * A best-fit-decreasing VmAllocationPolicy: each guest is allocated to the suitable host with the
+ * least available capacity, and the guests of a batch are placed from the largest to the
+ * smallest one. A single guest is allocated as with {@link SelectionPolicyMostFull}.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see VmAllocationPolicyFirstFitDecreasing
+ */
+public class VmAllocationPolicyBestFitDecreasing extends VmAllocationWithSelectionPolicy {
+
+    public VmAllocationPolicyBestFitDecreasing(List<? extends HostEntity> list) {
+        super(list, new SelectionPolicyMostFull<>());
+    }
+
+    @Override
+    public List<GuestEntity> allocateHostsForGuests(List<? extends GuestEntity> guests) {
+        return allocateHostsInDecreasingOrder(guests);
+    }
+}
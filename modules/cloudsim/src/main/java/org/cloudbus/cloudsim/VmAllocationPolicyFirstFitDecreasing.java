@@ -0,0 +1,36 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+
+import java.util.List;
+
+/**
+ * A first-fit-decreasing VmAllocationPolicy: each guest is allocated to the first suitable host
+ * of the list, and the guests of a batch are placed from the largest to the smallest one.
+ * A single guest is allocated as with {@link SelectionPolicyFirstFit}.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see VmAllocationPolicyBestFitDecreasing
+ */
+public class VmAllocationPolicyFirstFitDecreasing extends VmAllocationWithSelectionPolicy {
+
+    public VmAllocationPolicyFirstFitDecreasing(List<? extends HostEntity> list) {
+        super(list, new SelectionPolicyFirstFit<>());
+    }
+
+    @Override
+    public List<GuestEntity> allocateHostsForGuests(List<? extends GuestEntity> guests) {
+        return allocateHostsInDecreasingOrder(guests);
+    }
+}
@@ -1,6 +1,12 @@
 package org.cloudbus.cloudsim;
 
+import org.cloudbus.cloudsim.selectionPolicies.HostCapacityIndex;
+import org.cloudbus.cloudsim.selectionPolicies.IndexedSelectionPolicy;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyWorstFit;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
 
@@ -11,10 +17,23 @@ import java.util.*;
  * Modified by Remo Andreoli (March 2024)
  */
 public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
+    /**
+     * The selection policies answered by the host capacity index. Their subclasses are not
+     * included, as they may redefine the selection.
+     */
+    private static final Set<Class<?>> INDEXED_POLICIES = Set.of(
+            SelectionPolicyFirstFit.class,
+            SelectionPolicyLeastFull.class,
+            SelectionPolicyMostFull.class,
+            SelectionPolicyWorstFit.class);
+
     private SelectionPolicy<HostEntity> selectionPolicy;
 
     private Set<HostEntity> excludedHostCandidates;
 
+    /** The capacity index of the host list, used by the {@link IndexedSelectionPolicy} policies. */
+    private HostCapacityIndex<HostEntity> hostCapacityIndex;
+
     public VmAllocationWithSelectionPolicy(List<? extends HostEntity> list, SelectionPolicy<HostEntity> selectionPolicy) {
         super(list);
         setExcludedHostCandidates(new HashSet<>());
@@ -27,9 +46,51 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
     public Set<HostEntity> getExcludedHostCandidates() { return excludedHostCandidates; }
     public void setExcludedHostCandidates(Set<HostEntity> excludedHostCandidates) { this.excludedHostCandidates = excludedHostCandidates; }
 
+    /**
+     * Gets the capacity index of the host list, which is rebuilt if the host list has changed.
+     * The previous index is then detached from its hosts.
+     *
+     * @return the index
+     */
+    public HostCapacityIndex<HostEntity> getHostCapacityIndex() {
+        List<HostEntity> hostList = getHostList();
+        if (hostCapacityIndex == null || hostCapacityIndex.getHosts() != hostList
+                || hostCapacityIndex.getHosts().size() != hostCapacityIndex.size()) {
+            if (hostCapacityIndex != null) {
+                hostCapacityIndex.detach();
+            }
+            hostCapacityIndex = new HostCapacityIndex<>(hostList);
+        }
+        return hostCapacityIndex;
+    }
+
+    /**
+     * Marks the host to be refreshed in the capacity index, as the utilization of power hosts
+     * changes with their cloudlet processing.
+     *
+     * @param host the host
+     */
+    @Override
+    public void hostProcessingUpdated(HostEntity host) {
+        if (hostCapacityIndex != null) {
+            hostCapacityIndex.markDirty(host);
+        }
+    }
+
+    /**
+     * Finds a host for a guest. The built-in selection policies query the host capacity index;
+     * the other ones, including the subclasses of the built-in policies, are asked to select a
+     * host among the non-excluded ones, until a suitable host is found.
+     *
+     * @param guest the guest
+     * @return the host, or <tt>null</tt> if no host is suitable
+     */
     @Override
     public HostEntity findHostForGuest(GuestEntity guest) {
         clearExcludedHostCandidates();
+        if (INDEXED_POLICIES.contains(getSelectionPolicy().getClass())) {
+            return ((IndexedSelectionPolicy) getSelectionPolicy()).selectSuitable(getHostCapacityIndex(), guest);
+        }
         int tries = 0;
 
         do{
@@ -48,6 +109,39 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
         return null;
     }
 
+    /**
+     * Allocates hosts for a batch of guests in decreasing order of size: the guests are sorted
+     * once, by requested MIPS, then RAM, bandwidth and storage, and then placed one after another
+     * by the selection policy. Together with the host capacity index, this is the classic
+     * first-fit-decreasing or best-fit-decreasing bin packing, depending on the policy.
+     *
+     * @param guests the guests to allocate a host to
+     * @return the guests that could be allocated, in the list order
+     */
+    protected List<GuestEntity> allocateHostsInDecreasingOrder(List<? extends GuestEntity> guests) {
+        List<GuestEntity> sorted = new ArrayList<>(guests);
+        sorted.sort(Comparator.comparingDouble(GuestEntity::getCurrentRequestedTotalMips)
+                .thenComparingInt(GuestEntity::getRam)
+                .thenComparingLong(GuestEntity::getBw)
+                .thenComparingLong(GuestEntity::getSize)
+                .reversed());
+
+        Set<GuestEntity> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GuestEntity guest : sorted) {
+            if (allocateHostForGuest(guest)) {
+                allocated.add(guest);
+            }
+        }
+
+        List<GuestEntity> result = new ArrayList<>(allocated.size());
+        for (GuestEntity guest : guests) {
+            if (allocated.contains(guest)) {
+                result.add(guest);
+            }
+        }
+        return result;
+    }
+
     public void clearExcludedHostCandidates() {
         excludedHostCandidates.clear();
     }
@@ -7,13 +7,21 @@
 
 package org.cloudbus.cloudsim;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 /**
  * VmScheduler is an abstract class that represents the policy used by a Virtual Machine Monitor (VMM) 
@@ -32,25 +40,28 @@ public abstract class VmScheduler {
 	/** The PEs of the host where the scheduler is associated. */
 	private List<? extends Pe> peList;
 
-	/** The map of VMs to PEs, where each key is a VM id and each value is
+	/** The map of VMs to PEs, where each key is a VM {@link GuestEntity#getHandle() handle} and each value is
          * a list of PEs allocated to that VM. */
-	private Map<String, List<Pe>> peMap;
+	private IntObjectMap<List<Pe>> peTable;
 
-	/** The map of VMs to MIPS, were each key is a VM id and each value is
+	/** The map of VMs to MIPS, were each key is a VM handle and each value is
          * the currently allocated MIPS from the respective PE to that VM. 
          * The PEs where the MIPS capacity is get are defined
-         * in the {@link #peMap}.
+         * in the {@link #peTable}.
          */
-	private Map<String, List<Double>> mipsMapAllocated;
+	private IntObjectMap<MipsShare> allocatedMipsTable;
 
 	/** The total available MIPS that can be allocated on demand for VMs. */
     private double availableMips;
 
-	/** The VMs migrating in the host (arriving). It is the list of VM ids */
-	private List<String> guestsMigratingIn;
+	/** The VMs migrating in the host (arriving). It is the set of VM handles */
+	private BitSet guestsMigratingIn;
 
-	/** The VMs migrating out the host (departing). It is the list of VM ids */
-	private List<String> guestsMigratingOut;
+	/** The VMs migrating out the host (departing). It is the set of VM handles */
+	private BitSet guestsMigratingOut;
+
+	/** The listeners notified when the allocation of the host changes, or <tt>null</tt> if none. */
+	private List<Runnable> allocationListeners;
 
 	/**
 	 * Creates a new VmScheduler.
@@ -61,11 +72,11 @@ public abstract class VmScheduler {
 	 */
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
-		setPeMap(new HashMap<>());
-		setMipsMapAllocated(new HashMap<>());
+		setPeTable(new IntObjectMap<>());
+		setAllocatedMipsTable(new IntObjectMap<>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
-		setGuestsMigratingIn(new ArrayList<>());
-		setGuestsMigratingOut(new ArrayList<>());
+		setGuestsMigratingInHandles(new BitSet());
+		setGuestsMigratingOutHandles(new BitSet());
 	}
 
 	/**
@@ -99,6 +110,22 @@ public abstract class VmScheduler {
 		deallocatePesForGuest(vm);
 	}
 
+	/**
+	 * Updates the allocation of the guests of the host to their current requested MIPS, as if they were
+	 * all deallocated, then allocated again in order. Schedulers can override it to only update the
+	 * allocation of the guests whose requests have changed.
+	 *
+	 * @param guests the guests of the host
+	 */
+	public void reallocatePesForGuests(List<? extends GuestEntity> guests) {
+		for (GuestEntity guest : guests) {
+			deallocatePesForGuest(guest);
+		}
+		for (GuestEntity guest : guests) {
+			allocatePesForGuest(guest, guest.getCurrentRequestedMips());
+		}
+	}
+
 	/**
 	 * Releases PEs allocated to all the VMs of the host the VmScheduler is associated to.
          * After that, all PEs will be available to be used on demand for requesting VMs.
@@ -107,7 +134,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public void deallocatePesForAllGuests() {
-		getMipsMapAllocated().clear();
+		getAllocatedMipsTable().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 		for (Pe pe : getPeList()) {
 			pe.getPeProvisioner().deallocateMipsForAllGuests();
@@ -126,7 +153,7 @@ public abstract class VmScheduler {
 	 * @return the pes allocated for the given vm
 	 */
 	public List<Pe> getPesAllocatedForGuest(GuestEntity guest) {
-		return getPeMap().get(guest.getUid());
+		return getPeTable().get(guest.getHandle());
 	}
 
 	@Deprecated
@@ -143,7 +170,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForGuest(GuestEntity guest) {
-		return getMipsMapAllocated().get(guest.getUid());
+		return getAllocatedMipsTable().get(guest.getHandle());
 	}
 
 	@Deprecated
@@ -158,14 +185,8 @@ public abstract class VmScheduler {
 	 * @return the total allocated mips for the vm
 	 */
 	public double getTotalAllocatedMipsForGuest(GuestEntity guest) {
-		double allocated = 0;
 		List<Double> mipsMap = getAllocatedMipsForGuest(guest);
-		if (mipsMap != null) {
-			for (double mips : mipsMap) {
-				allocated += mips;
-			}
-		}
-		return allocated;
+		return mipsMap != null ? MipsShare.getTotalMips(mipsMap) : 0;
 	}
 
 	@Deprecated
@@ -214,22 +235,92 @@ public abstract class VmScheduler {
 	public List<? extends Pe> getPeList() { return peList; }
 	protected void setPeList(List<? extends Pe> peList) { this.peList = peList; }
 
-	public Map<String, List<Pe>> getPeMap() { return peMap; }
-	protected void setPeMap(Map<String, List<Pe>> peMap) { this.peMap = peMap; }
+	public IntObjectMap<List<Pe>> getPeTable() { return peTable; }
+	protected void setPeTable(IntObjectMap<List<Pe>> peTable) { this.peTable = peTable; }
 
-	public Map<String, List<Double>> getMipsMapAllocated() { return mipsMapAllocated; }
-	protected void setMipsMapAllocated(Map<String, List<Double>> mipsMapAllocated) { this.mipsMapAllocated = mipsMapAllocated; }
+	/**
+	 * Gets the PEs allocated to each VM.
+	 *
+	 * @return an unmodifiable view of the {@link #getPeTable() PE table}, keyed by the VM uids
+	 */
+	public Map<String, List<Pe>> getPeMap() { return new UidMap<>(getPeTable()); }
+
+	public IntObjectMap<MipsShare> getAllocatedMipsTable() { return allocatedMipsTable; }
+	protected void setAllocatedMipsTable(IntObjectMap<MipsShare> allocatedMipsTable) { this.allocatedMipsTable = allocatedMipsTable; }
+
+	/**
+	 * Gets the MIPS allocated to each VM.
+	 *
+	 * @return an unmodifiable view of the {@link #getAllocatedMipsTable() allocated MIPS table}, keyed
+	 * by the VM uids
+	 */
+	public Map<String, List<Double>> getMipsMapAllocated() { return new UidMap<>(getAllocatedMipsTable()); }
 
 	public double getAvailableMips() { return availableMips; }
-	protected void setAvailableMips(double availableMips) { this.availableMips = availableMips; }
+	protected void setAvailableMips(double availableMips) {
+		this.availableMips = availableMips;
+		allocationChanged();
+	}
 
-	public List<String> getGuestsMigratingIn() {
+	/**
+	 * Adds a listener notified whenever the allocation of the host changes, e.g. when a guest is
+	 * created, destroyed or reallocated. It allows to keep an index of the host capacities, such
+	 * as the one of {@link VmAllocationWithSelectionPolicy}, without scanning the hosts.
+	 *
+	 * @param listener the listener
+	 */
+	public void addAllocationListener(Runnable listener) {
+		if (allocationListeners == null) {
+			allocationListeners = new ArrayList<>(1);
+		}
+		allocationListeners.add(listener);
+	}
+
+	/**
+	 * Removes an allocation listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void removeAllocationListener(Runnable listener) {
+		if (allocationListeners != null) {
+			allocationListeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Notifies the allocation listeners that the allocation of the host has changed.
+	 */
+	protected void allocationChanged() {
+		if (allocationListeners != null) {
+			for (Runnable listener : allocationListeners) {
+				listener.run();
+			}
+		}
+	}
+
+	public BitSet getGuestsMigratingInHandles() {
 		return guestsMigratingIn;
 	}
-	protected void setGuestsMigratingIn(List<String> guestsMigratingIn) { this.guestsMigratingIn = guestsMigratingIn; }
+	protected void setGuestsMigratingInHandles(BitSet guestsMigratingIn) { this.guestsMigratingIn = guestsMigratingIn; }
+
+	public BitSet getGuestsMigratingOutHandles() { return guestsMigratingOut; }
+	protected void setGuestsMigratingOutHandles(BitSet guestsMigratingOut) { this.guestsMigratingOut = guestsMigratingOut; }
 
-	public List<String> getGuestsMigratingOut() { return guestsMigratingOut; }
-	protected void setGuestsMigratingOut(List<String> guestsMigratingOut) { this.guestsMigratingOut = guestsMigratingOut; }
+	/**
+	 * Gets the VMs migrating in the host.
+	 *
+	 * @return an unmodifiable view of the {@link #getGuestsMigratingInHandles() VMs migrating in}, as
+	 * the list of their uids
+	 */
+	public List<String> getGuestsMigratingIn() { return new UidList(getGuestsMigratingInHandles()); }
+
+	/**
+	 * Gets the VMs migrating out the host.
+	 *
+	 * @return an unmodifiable view of the {@link #getGuestsMigratingOutHandles() VMs migrating out}, as
+	 * the list of their uids
+	 */
+	public List<String> getGuestsMigratingOut() { return new UidList(getGuestsMigratingOutHandles()); }
 
 	@Deprecated
 	public List<String> getVmsMigratingIn() { return getGuestsMigratingIn(); }
@@ -239,5 +330,100 @@ public abstract class VmScheduler {
 	public List<String> getVmsMigratingOut() { return getGuestsMigratingOut(); }
 
 	@Deprecated
-	public Map<String, List<Double>> getMipsMap() { return mipsMapAllocated; }
+	public Map<String, List<Double>> getMipsMap() { return getMipsMapAllocated(); }
+
+	/**
+	 * Gets the uid of a guest of the current simulation.
+	 *
+	 * @param handle the handle of the guest
+	 * @return the uid
+	 */
+	private static String getUid(int handle) {
+		return SimulationContext.current().getGuest(handle).getUid();
+	}
+
+	/**
+	 * An unmodifiable view of a table keyed by guest handles, keyed by the uids of the guests
+	 * instead. The uids are looked up while iterating, hence getting a single value takes linear time.
+	 *
+	 * @param <V> the type of the values
+	 */
+	private static class UidMap<V> extends AbstractMap<String, V> {
+
+		private final IntObjectMap<? extends V> table;
+
+		UidMap(IntObjectMap<? extends V> table) {
+			this.table = table;
+		}
+
+		@Override
+		public int size() {
+			return table.size();
+		}
+
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public int size() {
+					return table.size();
+				}
+
+				@Override
+				public Iterator<Entry<String, V>> iterator() {
+					return new Iterator<>() {
+						private int slot = table.nextSlot(0);
+
+						@Override
+						public boolean hasNext() {
+							return slot >= 0;
+						}
+
+						@Override
+						public Entry<String, V> next() {
+							if (slot < 0) {
+								throw new NoSuchElementException();
+							}
+							Entry<String, V> entry = new SimpleImmutableEntry<>(getUid(table.keyAt(slot)), table.valueAt(slot));
+							slot = table.nextSlot(slot + 1);
+							return entry;
+						}
+					};
+				}
+			};
+		}
+	}
+
+	/**
+	 * An unmodifiable view of a set of guest handles, as the list of the uids of the guests, in the
+	 * order of their handles.
+	 */
+	private static class UidList extends AbstractList<String> {
+
+		private final BitSet handles;
+
+		UidList(BitSet handles) {
+			this.handles = handles;
+		}
+
+		@Override
+		public int size() {
+			return handles.cardinality();
+		}
+
+		@Override
+		public String get(int index) {
+			if (index < 0) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			int handle = handles.nextSetBit(0);
+			for (int i = 0; i < index && handle >= 0; i++) {
+				handle = handles.nextSetBit(handle + 1);
+			}
+			if (handle < 0) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return getUid(handle);
+		}
+	}
 }
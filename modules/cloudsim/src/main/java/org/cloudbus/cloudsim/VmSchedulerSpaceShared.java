@@ -9,12 +9,11 @@
 package org.cloudbus.cloudsim;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * VmSchedulerSpaceShared is a VMM allocation policy that allocates one or more PEs from a host to a 
@@ -30,9 +29,9 @@ import java.util.Map;
  */
 public class VmSchedulerSpaceShared extends VmScheduler {
 
-	/** A map between each VM and its allocated PEs, where the key is a VM ID and
+	/** A map between each VM and its allocated PEs, where the key is a VM handle and
          * the value a list of PEs allocated to VM. */
-	private Map<String, List<Pe>> peAllocationMap;
+	private IntObjectMap<List<Pe>> peAllocationMap;
 
 	/** The list of free PEs yet available in the host. */
 	private List<Pe> freePes;
@@ -44,7 +43,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	public VmSchedulerSpaceShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setPeAllocationMap(new HashMap<>());
+		setPeAllocationMap(new IntObjectMap<>());
 		setFreePes(new ArrayList<>());
 		getFreePes().addAll(pelist);
 	}
@@ -77,26 +76,20 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 		getFreePes().removeAll(selectedPes);
 
-		getPeAllocationMap().put(guest.getUid(), selectedPes);
-		getMipsMapAllocated().put(guest.getUid(), mipsShare);
+		getPeAllocationMap().put(guest.getHandle(), selectedPes);
+		MipsShare mipsShareAllocated = MipsShare.of(mipsShare);
+		getAllocatedMipsTable().put(guest.getHandle(), mipsShareAllocated);
 		setAvailableMips(getAvailableMips() - totalMips);
-		guest.setCurrentAllocatedMips(mipsShare);
+		guest.setCurrentAllocatedMips(mipsShareAllocated);
 
 		return true;
 	}
 
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
-		getFreePes().addAll(getPeAllocationMap().get(guest.getUid()));
-		getPeAllocationMap().remove(guest.getUid());
+		getFreePes().addAll(getPeAllocationMap().remove(guest.getHandle()));
 
-		double totalMips = 0;
-		for (double mips : getMipsMapAllocated().get(guest.getUid())) {
-			totalMips += mips;
-		}
-		setAvailableMips(getAvailableMips() + totalMips);
-
-		getMipsMapAllocated().remove(guest.getUid());
+		setAvailableMips(getAvailableMips() + getAllocatedMipsTable().remove(guest.getHandle()).getTotalMips());
 	}
 
 	/**
@@ -104,7 +97,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @param peAllocationMap the pe allocation map
 	 */
-	protected void setPeAllocationMap(Map<String, List<Pe>> peAllocationMap) {
+	protected void setPeAllocationMap(IntObjectMap<List<Pe>> peAllocationMap) {
 		this.peAllocationMap = peAllocationMap;
 	}
 
@@ -113,7 +106,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @return the pe allocation map
 	 */
-	protected Map<String, List<Pe>> getPeAllocationMap() {
+	protected IntObjectMap<List<Pe>> getPeAllocationMap() {
 		return peAllocationMap;
 	}
 
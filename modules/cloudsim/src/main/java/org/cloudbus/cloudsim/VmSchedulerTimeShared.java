@@ -8,15 +8,14 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 /**
  * VmSchedulerTimeShared is a Virtual Machine Monitor (VMM) allocation policy that allocates one or more PEs 
@@ -33,10 +32,10 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
  */
 public class VmSchedulerTimeShared extends VmScheduler {
 
-	/** The map of requested mips, where each key is a VM
+	/** The map of requested mips, where each key is a VM handle
          * and each value is a list of MIPS requested by that VM. 
          */
-	private Map<String, List<Double>> mipsMapRequested;
+	private IntObjectMap<MipsShare> mipsMapRequested;
 
 	/** The number of host's PEs in use. */
 	private int pesInUse;
@@ -48,7 +47,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<>());
+		setMipsMapRequested(new IntObjectMap<>());
 	}
 
 	@Override
@@ -56,62 +55,167 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		/*
 		 * //@TODO add the same to RAM and BW provisioners
 		 */
+		updateMigrationState(guest);
+		// a copy is kept, as guests may reuse the list of their requested MIPS
+		boolean result = allocatePesForGuest(guest.getHandle(), new MipsShare(mipsShareRequested));
+		updatePeProvisioning();
+		return result;
+	}
+
+	/**
+	 * Marks a guest as migrating out of the host if it is in migration, and not migrating in.
+	 *
+	 * @param guest the guest
+	 */
+	private void updateMigrationState(GuestEntity guest) {
 		if (guest.isInMigration()) {
-			if (!getGuestsMigratingIn().contains(guest.getUid()) && !getGuestsMigratingOut().contains(guest.getUid())) {
-				getGuestsMigratingOut().add(guest.getUid());
+			if (!getGuestsMigratingInHandles().get(guest.getHandle())) {
+				getGuestsMigratingOutHandles().set(guest.getHandle());
 			}
 		} else {
-			getGuestsMigratingOut().remove(guest.getUid());
+			getGuestsMigratingOutHandles().clear(guest.getHandle());
+		}
+	}
+
+	/**
+	 * Updates the allocation of the guests incrementally when none of them is migrating and all their
+	 * requests fit in the host, since a complete reallocation would then fully allocate them as well:
+	 * only the guests whose requested MIPS have changed are reallocated, on the PEs they release and the
+	 * free ones. Otherwise, all the guests are reallocated in order, and the PEs are provisioned once.
+	 *
+	 * @param guests the guests of the host
+	 */
+	@Override
+	public void reallocatePesForGuests(List<? extends GuestEntity> guests) {
+		if (!reallocateChangedGuests(guests)) {
+			reallocateAllGuests(guests);
+		}
+	}
+
+	/**
+	 * Reallocates the guests whose requested MIPS have changed, if possible.
+	 *
+	 * @param guests the guests of the host
+	 * @return false if all the guests have to be reallocated instead
+	 */
+	private boolean reallocateChangedGuests(List<? extends GuestEntity> guests) {
+		IntObjectMap<MipsShare> mipsMapRequested = getMipsMapRequested();
+		if (!getGuestsMigratingInHandles().isEmpty() || !getGuestsMigratingOutHandles().isEmpty()
+				|| mipsMapRequested.size() != guests.size() || getAllocatedMipsTable().size() != guests.size()) {
+			return false;
+		}
+
+		double peMips = getPeCapacity();
+		double availableMips = PeList.getTotalMips(getPeList());
+		List<GuestEntity> changedGuests = null;
+		List<MipsShare> changedShares = null;
+		for (GuestEntity guest : guests) {
+			MipsShare previousShare = mipsMapRequested.get(guest.getHandle());
+			if (previousShare == null || guest.isInMigration()) {
+				return false;
+			}
+			MipsShare mipsShareRequested = MipsShare.of(guest.getCurrentRequestedMips());
+			// the same checks, in the same order, as when allocating the guests one after the other
+			if (mipsShareRequested.getMaxMips() > peMips) {
+				return false;
+			}
+			double totalRequestedMips = mipsShareRequested.getTotalMips();
+			if (availableMips < totalRequestedMips) {
+				return false;
+			}
+			availableMips -= totalRequestedMips;
+
+			if (!mipsShareRequested.equals(previousShare)) {
+				if (changedGuests == null) {
+					changedGuests = new ArrayList<>();
+					changedShares = new ArrayList<>();
+				}
+				changedGuests.add(guest);
+				changedShares.add(mipsShareRequested);
+			}
+		}
+
+		for (int i = 0; changedGuests != null && i < changedGuests.size(); i++) {
+			GuestEntity guest = changedGuests.get(i);
+			MipsShare requestedShare = mipsMapRequested.get(guest.getHandle());
+			setPesInUse(getPesInUse() - requestedShare.size() + changedShares.get(i).size());
+			// the requested share is only known to the scheduler, and is updated in place, while the
+			// allocated one is replaced, as the guest may still refer to the previous one
+			requestedShare.setAll(changedShares.get(i));
+			MipsShare mipsShareAllocated = new MipsShare(requestedShare);
+			getAllocatedMipsTable().put(guest.getHandle(), mipsShareAllocated);
+			updatePeProvisioning(guest, mipsShareAllocated);
+		}
+		setAvailableMips(availableMips);
+		return true;
+	}
+
+	/**
+	 * Reallocates all the guests, in order, as if they were deallocated one after the other, and then
+	 * allocated again.
+	 *
+	 * @param guests the guests of the host
+	 */
+	private void reallocateAllGuests(List<? extends GuestEntity> guests) {
+		IntObjectMap<MipsShare> mipsMapRequested = getMipsMapRequested();
+		for (GuestEntity guest : guests) {
+			mipsMapRequested.remove(guest.getHandle());
+		}
+		setPesInUse(0);
+		getAllocatedMipsTable().clear();
+		setAvailableMips(PeList.getTotalMips(getPeList()));
+		for (int slot = mipsMapRequested.nextSlot(0); slot >= 0; slot = mipsMapRequested.nextSlot(slot + 1)) {
+			allocatePesForGuest(mipsMapRequested.keyAt(slot), mipsMapRequested.valueAt(slot));
+		}
+
+		for (GuestEntity guest : guests) {
+			updateMigrationState(guest);
+			allocatePesForGuest(guest.getHandle(), new MipsShare(guest.getCurrentRequestedMips()));
 		}
-		boolean result = allocatePesForGuest(guest.getUid(), mipsShareRequested);
 		updatePeProvisioning();
-		return result;
 	}
 
 	/**
 	 * Allocate PEs for a vm.
 	 * 
-	 * @param vmUid the vm uid
-	 * @param mipsShareRequested the list of mips share requested by the vm
+	 * @param handle the vm handle
+	 * @param mipsShare the list of mips share requested by the vm, which is kept as the requested
+	 *                  share of the vm if it is a {@link MipsShare}, and copied into one otherwise
 	 * @return true, if successful
 	 */
-	protected boolean allocatePesForGuest(String vmUid, List<Double> mipsShareRequested) {
-		double totalRequestedMips = 0;
-		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			// each virtual PE of a VM must require not more than the capacity of a physical PE
-			if (mips > peMips) {
-				return false;
-			}
-			totalRequestedMips += mips;
+	protected boolean allocatePesForGuest(int handle, List<Double> mipsShare) {
+		MipsShare mipsShareRequested = MipsShare.of(mipsShare);
+		// each virtual PE of a VM must require not more than the capacity of a physical PE
+		if (mipsShareRequested.getMaxMips() > getPeCapacity()) {
+			return false;
 		}
+		double totalRequestedMips = mipsShareRequested.getTotalMips();
 
 		// This scheduler does not allow over-subscription
 		if (getAvailableMips() < totalRequestedMips) {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
+		getMipsMapRequested().put(handle, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
 
-		if (getGuestsMigratingIn().contains(vmUid)) {
+		if (getGuestsMigratingInHandles().get(handle)) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
-		List<Double> mipsShareAllocated = new ArrayList<>();
-		for (Double mipsRequested : mipsShareRequested) {
-			if (getGuestsMigratingOut().contains(vmUid)) {
+		MipsShare mipsShareAllocated = new MipsShare(mipsShareRequested);
+		for (int i = 0; i < mipsShareAllocated.size(); i++) {
+			if (getGuestsMigratingOutHandles().get(handle)) {
 				// performance degradation due to migration = 10% MIPS
-				mipsRequested *= 0.9;
-			} else if (getGuestsMigratingIn().contains(vmUid)) {
+				mipsShareAllocated.setMips(i, mipsShareAllocated.getMips(i) * 0.9);
+			} else if (getGuestsMigratingInHandles().get(handle)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
-				mipsRequested *= 0.1;
+				mipsShareAllocated.setMips(i, mipsShareAllocated.getMips(i) * 0.1);
 			}
-			mipsShareAllocated.add(mipsRequested);
 		}
 
-		getMipsMapAllocated().put(vmUid, mipsShareAllocated);
+		getAllocatedMipsTable().put(handle, mipsShareAllocated);
 		setAvailableMips(getAvailableMips() - totalRequestedMips);
 
 		return true;
@@ -123,7 +227,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
          * responsibility.
 	 */
 	protected void updatePeProvisioning() {
-		getPeMap().clear();
+		getPeTable().clear();
 		for (Pe pe : getPeList()) {
 			pe.getPeProvisioner().deallocateMipsForAllGuests();
 		}
@@ -133,27 +237,31 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		PeProvisioner peProvisioner = pe.getPeProvisioner();
 		double availableMips = peProvisioner.getAvailableMips();
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapAllocated().entrySet()) {
-			String vmUid = entry.getKey();
-			getPeMap().put(vmUid, new LinkedList<>());
+		IntObjectMap<MipsShare> mipsMapAllocated = getAllocatedMipsTable();
+		for (int slot = mipsMapAllocated.nextSlot(0); slot >= 0; slot = mipsMapAllocated.nextSlot(slot + 1)) {
+			int handle = mipsMapAllocated.keyAt(slot);
+			List<Pe> pes = new LinkedList<>();
+			getPeTable().put(handle, pes);
 
 			// Spread mips share among the Pes
-			for (double mips : entry.getValue()) {
+			MipsShare mipsShare = mipsMapAllocated.valueAt(slot);
+			for (int i = 0; i < mipsShare.size(); i++) {
+				double mips = mipsShare.getMips(i);
 				while (mips >= 0.1) { // rounding error
 					if (availableMips >= mips) {
-						peProvisioner.allocateMipsForGuest(vmUid, mips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForGuest(handle, mips);
+						pes.add(pe);
 						availableMips -= mips;
 						break;
 					} else { // next pe needed, no more space
-						peProvisioner.allocateMipsForGuest(vmUid, availableMips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForGuest(handle, availableMips);
+						pes.add(pe);
 						mips -= availableMips;
 						if (mips <= 0.1) {
 							break;
 						}
 						if (!peIterator.hasNext()) {
-							Log.printlnConcat("There is no enough MIPS (", mips, ") to accommodate VM ", vmUid);
+							Log.printlnConcat("There is no enough MIPS (", mips, ") to accommodate the VM with handle ", handle);
 							// System.exit(0);
 						}
 						pe = peIterator.next();
@@ -165,11 +273,56 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		}
 	}
 
+	/**
+	 * Moves the virtual PEs of a guest to a new MIPS share, filling the PEs in order, as
+	 * {@link #updatePeProvisioning()} does, without moving the other guests.
+	 *
+	 * @param guest the guest
+	 * @param mipsShare the MIPS allocated to each virtual PE of the guest
+	 */
+	protected void updatePeProvisioning(GuestEntity guest, List<Double> mipsShare) {
+		int handle = guest.getHandle();
+		List<Pe> previousPes = getPeTable().get(handle);
+		if (previousPes != null) {
+			for (Pe pe : previousPes) {
+				pe.getPeProvisioner().deallocateMipsForGuest(guest);
+			}
+		}
+		List<Pe> pes = new LinkedList<>();
+		getPeTable().put(handle, pes);
+
+		MipsShare share = MipsShare.of(mipsShare);
+		Iterator<? extends Pe> peIterator = getPeList().iterator();
+		Pe pe = peIterator.next();
+		for (int i = 0; i < share.size(); i++) {
+			double mips = share.getMips(i);
+			while (mips >= 0.1) { // rounding error
+				PeProvisioner peProvisioner = pe.getPeProvisioner();
+				double availableMips = peProvisioner.getAvailableMips();
+				if (availableMips >= mips) {
+					peProvisioner.allocateMipsForGuest(handle, mips);
+					pes.add(pe);
+					break;
+				}
+				if (availableMips > 0) { // next pe needed for the rest
+					peProvisioner.allocateMipsForGuest(handle, availableMips);
+					pes.add(pe);
+					mips -= availableMips;
+				}
+				if (!peIterator.hasNext()) {
+					Log.printlnConcat("There is no enough MIPS (", mips, ") to accommodate the VM with handle ", handle);
+					break;
+				}
+				pe = peIterator.next();
+			}
+		}
+	}
+
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
-		getMipsMapRequested().remove(guest.getUid());
+		getMipsMapRequested().remove(guest.getHandle());
 		setPesInUse(0);
-		getMipsMapAllocated().clear();
+		getAllocatedMipsTable().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 
 		for (Pe pe : getPeList()) {
@@ -177,8 +330,9 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		}
 
 		// Re-allocate to remaining guests
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-			allocatePesForGuest(entry.getKey(), entry.getValue());
+		IntObjectMap<MipsShare> mipsMapRequested = getMipsMapRequested();
+		for (int slot = mipsMapRequested.nextSlot(0); slot >= 0; slot = mipsMapRequested.nextSlot(slot + 1)) {
+			allocatePesForGuest(mipsMapRequested.keyAt(slot), mipsMapRequested.valueAt(slot));
 		}
 		updatePeProvisioning();
 	}
@@ -230,7 +384,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected IntObjectMap<MipsShare> getMipsMapRequested() {
 		return mipsMapRequested;
 	}
 
@@ -239,7 +393,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
-	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+	protected void setMipsMapRequested(IntObjectMap<MipsShare> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
 }
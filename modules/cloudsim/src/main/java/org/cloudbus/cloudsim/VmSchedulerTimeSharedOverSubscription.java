@@ -7,13 +7,10 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 /**
  * This is a Time-Shared VM Scheduler, which allows over-subscription. In other words, the scheduler
@@ -43,59 +40,65 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
          * It cannot be allocated more CPU capacity for each virtual PE than the MIPS 
          * capacity of a single physical PE.
 	 * 
-	 * @param vmUid the vm uid
-	 * @param mipsShareRequested the list of mips share requested
+	 * @param handle the vm handle
+	 * @param mipsShare the list of mips share requested
 	 * @return true, if successful
 	 */
 	@Override
-	protected boolean allocatePesForGuest(String vmUid, List<Double> mipsShareRequested) {
-		double totalRequestedMips = 0;
-
+	protected boolean allocatePesForGuest(int handle, List<Double> mipsShare) {
+		MipsShare mipsShareRequested = MipsShare.of(mipsShare);
 		// if the requested mips is bigger than the capacity of a single PE, we cap
 		// the request to the PE's capacity
-		List<Double> mipsShareRequestedCapped = new ArrayList<>();
-		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			if (mips > peMips) {
-				mipsShareRequestedCapped.add(peMips);
-				totalRequestedMips += peMips;
-			} else {
-				mipsShareRequestedCapped.add(mips);
-				totalRequestedMips += mips;
-			}
-		}
+		MipsShare mipsShareRequestedCapped = capMipsShare(mipsShareRequested);
+		double totalRequestedMips = mipsShareRequestedCapped.getTotalMips();
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
+		getMipsMapRequested().put(handle, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
 
-		if (getGuestsMigratingIn().contains(vmUid)) {
+		if (getGuestsMigratingInHandles().get(handle)) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
 		if (getAvailableMips() >= totalRequestedMips) {
-			List<Double> mipsShareAllocated = new ArrayList<>();
-			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getGuestsMigratingOut().contains(vmUid)) {
+			// the capped share is a new one, and becomes the allocated share
+			MipsShare mipsShareAllocated = mipsShareRequestedCapped;
+			for (int i = 0; i < mipsShareAllocated.size(); i++) {
+				if (getGuestsMigratingOutHandles().get(handle)) {
 					// performance degradation due to migration = 10% MIPS
-					mipsRequested *= 0.9;
-				} else if (getGuestsMigratingIn().contains(vmUid)) {
+					mipsShareAllocated.setMips(i, mipsShareAllocated.getMips(i) * 0.9);
+				} else if (getGuestsMigratingInHandles().get(handle)) {
 					// the destination host only experience 10% of the migrating VM's MIPS
-					mipsRequested *= 0.1;
+					mipsShareAllocated.setMips(i, mipsShareAllocated.getMips(i) * 0.1);
 				}
-				mipsShareAllocated.add(mipsRequested);
 			}
 
-			getMipsMapAllocated().put(vmUid, mipsShareAllocated);
+			getAllocatedMipsTable().put(handle, mipsShareAllocated);
 			setAvailableMips(getAvailableMips() - totalRequestedMips);
 		} else {
 			redistributeMipsDueToOverSubscription();
 		}
 
-        mipsShareRequestedCapped.clear();
         return true;
     }
 
+	/**
+	 * Caps the MIPS of each virtual PE of a share to the capacity of a single PE.
+	 *
+	 * @param mipsShare the MIPS share
+	 * @return the capped MIPS share, a new one
+	 */
+	private MipsShare capMipsShare(MipsShare mipsShare) {
+		double peMips = getPeCapacity();
+		MipsShare capped = new MipsShare(mipsShare);
+		for (int i = 0; i < capped.size(); i++) {
+			if (capped.getMips(i) > peMips) {
+				capped.setMips(i, peMips);
+			}
+		}
+		return capped;
+	}
+
 	/**
 	 * Recalculates distribution of MIPs among VMs, considering eventual shortage of MIPS
 	 * compared to the amount requested by VMs.
@@ -105,27 +108,17 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<>();
-		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-
-			double requiredMipsByThisVm = 0.0;
-			String vmId = entry.getKey();
-			List<Double> mipsShareRequested = entry.getValue();
-			List<Double> mipsShareRequestedCapped = new ArrayList<>();
-			double peMips = getPeCapacity();
-			for (Double mips : mipsShareRequested) {
-				if (mips > peMips) {
-					mipsShareRequestedCapped.add(peMips);
-					requiredMipsByThisVm += peMips;
-				} else {
-					mipsShareRequestedCapped.add(mips);
-					requiredMipsByThisVm += mips;
-				}
-			}
+		IntObjectMap<MipsShare> mipsMapRequested = getMipsMapRequested();
+		IntObjectMap<MipsShare> mipsMapCapped = new IntObjectMap<>();
+		for (int slot = mipsMapRequested.nextSlot(0); slot >= 0; slot = mipsMapRequested.nextSlot(slot + 1)) {
 
-			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
+			int handle = mipsMapRequested.keyAt(slot);
+			MipsShare mipsShareRequestedCapped = capMipsShare(mipsMapRequested.valueAt(slot));
+			double requiredMipsByThisVm = mipsShareRequestedCapped.getTotalMips();
 
-			if (getGuestsMigratingIn().contains(entry.getKey())) {
+			mipsMapCapped.put(handle, mipsShareRequestedCapped);
+
+			if (getGuestsMigratingInHandles().get(handle)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				requiredMipsByThisVm *= 0.1;
 			}
@@ -136,21 +129,20 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		double scalingFactor = totalAvailableMips / totalRequiredMipsByAllVms;
 
 		// Clear the old MIPS allocation
-		getMipsMapAllocated().clear();
+		getAllocatedMipsTable().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-			String vmUid = entry.getKey();
-			List<Double> requestedMips = entry.getValue();
-
-			List<Double> updatedMipsAllocation = new ArrayList<>();
-			for (Double mips : requestedMips) {
-				if (getGuestsMigratingOut().contains(vmUid)) {
+		for (int slot = mipsMapCapped.nextSlot(0); slot >= 0; slot = mipsMapCapped.nextSlot(slot + 1)) {
+			int handle = mipsMapCapped.keyAt(slot);
+			MipsShare updatedMipsAllocation = mipsMapCapped.valueAt(slot);
+			for (int i = 0; i < updatedMipsAllocation.size(); i++) {
+				double mips = updatedMipsAllocation.getMips(i);
+				if (getGuestsMigratingOutHandles().get(handle)) {
 					// the original amount is scaled
 					mips *= scalingFactor;
 					// performance degradation due to migration = 10% MIPS
 					mips *= 0.9;
-				} else if (getGuestsMigratingIn().contains(vmUid)) {
+				} else if (getGuestsMigratingInHandles().get(handle)) {
 					// the destination host only experiences 10% of the migrating VM's MIPS
 					mips *= 0.1;
 					// the final 10% of the requested MIPS are scaled
@@ -159,11 +151,11 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 					mips *= scalingFactor;
 				}
 
-				updatedMipsAllocation.add(Math.floor(mips));
+				updatedMipsAllocation.setMips(i, Math.floor(mips));
 			}
 
 			// add in the new map
-			getMipsMapAllocated().put(vmUid, updatedMipsAllocation);
+			getAllocatedMipsTable().put(handle, updatedMipsAllocation);
 
 		}
 
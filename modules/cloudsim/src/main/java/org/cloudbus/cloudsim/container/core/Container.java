@@ -9,9 +9,9 @@ package org.cloudbus.cloudsim.container.core;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.GuestUtilizationSnapshot;
 import org.cloudbus.cloudsim.core.HostEntity;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -30,6 +30,9 @@ public class Container implements GuestEntity {
     /** The uid. */
     private String uid;
 
+    /** The handle. */
+    private final int handle = GuestEntity.nextHandle(this);
+
     /** The size. */
     private long size;
 
@@ -79,6 +82,9 @@ public class Container implements GuestEntity {
     /** The previous time. */
     private double previousTime;
 
+    /** The CPU utilization at the current simulation time. */
+    private final GuestUtilizationSnapshot utilizationSnapshot = new GuestUtilizationSnapshot(this);
+
     private int virtualizationOverhead;
 
     /**
@@ -133,6 +139,7 @@ public class Container implements GuestEntity {
      * @post $none
      */
     public double updateCloudletsProcessing(double currentTime, List<Double> mipsShare) {
+        utilizationSnapshot.invalidate();
         if (mipsShare != null) {
             return getCloudletScheduler().updateCloudletsProcessing(currentTime, mipsShare);
         }
@@ -185,6 +192,11 @@ public class Container implements GuestEntity {
         return getTotalUtilizationOfCpu(time) * getMips();
     }
 
+    @Override
+    public double getCurrentUtilizationOfCpuMips() {
+        return utilizationSnapshot.getUtilizationOfCpuMips();
+    }
+
     /**
      * Sets the mips.
      *
@@ -217,14 +229,7 @@ public class Container implements GuestEntity {
     @Override
     public List<Double> getCurrentRequestedMips() {
         if (isBeingInstantiated()) {
-            List<Double> currentRequestedMips = new ArrayList<>();
-
-            for (int i = 0; i < getNumberOfPes(); i++) {
-                currentRequestedMips.add(getMips());
-
-            }
-
-            return currentRequestedMips;
+            return new MipsShare(getNumberOfPes(), getMips());
         }
 
 
@@ -247,6 +252,8 @@ public class Container implements GuestEntity {
     public String getUid() { return uid; }
     public void setUid(String uid) { this.uid = uid; }
 
+    public int getHandle() { return handle; }
+
     public long getSize() { return size; }
     public void setSize(long size) { this.size = size; }
 
@@ -88,8 +88,10 @@ public class ContainerDatacenter extends Datacenter {
         CloudSimTags tag = ev.getTag();
         if (tag == ContainerCloudSimTags.CONTAINER_SUBMIT) {
             processContainerSubmit(ev, true);
+            markAllHostsDirty();
         } else if (tag == ContainerCloudSimTags.CONTAINER_MIGRATE) {
             processContainerMigrate(ev, false);
+            markAllHostsDirty();
 
             // other (potentially unknown tags) are processed by the base class
         } else {
@@ -182,15 +182,12 @@ public class ContainerVm extends Vm {
      */
     @Override
     public List<Double> getCurrentRequestedMips() {
-        List<Double> currentRequestedMips = new ArrayList<>(getNumberOfPes());
         if (isBeingInstantiated()) {
-            for (int i = 0; i < getNumberOfPes(); i++) {
-                currentRequestedMips.add(getMips());
-            }
-        } else {
-            for (GuestEntity container : getGuestList()) {
-                currentRequestedMips.addAll(container.getCurrentRequestedMips());
-            }
+            return new MipsShare(getNumberOfPes(), getMips());
+        }
+        MipsShare currentRequestedMips = new MipsShare();
+        for (GuestEntity container : getGuestList()) {
+            currentRequestedMips.addAll(container.getCurrentRequestedMips());
         }
         //Log.printLine("Vm: get Current requested Mips" + currentRequestedMips);
         return currentRequestedMips;
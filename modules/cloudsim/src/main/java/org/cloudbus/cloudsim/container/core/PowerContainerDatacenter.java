@@ -214,7 +214,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
         for (PowerHost host : this.<PowerHost>getHostList()) {
             Log.println();
 
-            double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
+            double time = updateHostProcessing(host); // inform VMs to update processing
             if (time < minTime) {
                 minTime = time;
             }
@@ -235,7 +235,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
             for (PowerHost host : this.<PowerHost>getHostList()) {
                 double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
                 double utilizationOfCpu = host.getUtilizationOfCpu();
-                double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
+                double timeFrameHostEnergy = host.getEnergy(
                         previousUtilizationOfCpu,
                         utilizationOfCpu,
                         timeDiff);
@@ -253,5 +253,12 @@ public enum CloudActionTags implements CloudSimTags {
 
 	NETWORK_PKT_DOWN,
 
-    NETWORK_PKT_REACHED_HOST
+    NETWORK_PKT_REACHED_HOST,
+
+	/**
+	 * Denotes a request to create a list of VMs in a {@link Datacenter} at once,
+	 * and the single acknowledgement sent back by the Datacenter
+	 * with the VMs that were and were not created.
+	 */
+	VM_CREATE_BATCH
 }
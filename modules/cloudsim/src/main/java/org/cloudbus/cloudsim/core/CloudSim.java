@@ -8,14 +8,8 @@
 
 package org.cloudbus.cloudsim.core;
 
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
@@ -38,58 +32,26 @@ public class CloudSim {
 	/** The Constant CLOUDSIM_VERSION_STRING. */
 	private static final String CLOUDSIM_VERSION_STRING = "7.0";
 
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
-	/** The Constant NOT_FOUND. */
-	private static final int NOT_FOUND = -1;
-
-	/** The trace flag. */
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
+	/** The context bound to the calling thread. */
+	private static SimulationContext context() {
+		return SimulationContext.current();
+	}
 
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.01;
-	
 	/**
 	 * Initialises all the common attributes.
 	 * 
 	 * @param _calendar the _calendar
 	 * @param _traceFlag the _trace flag
 	 * @param numUser number of users
+	 * @param futureQueue the future event list
 	 * @throws Exception This happens when creating this entity before initialising CloudSim package
 	 *             or this entity name is <tt>null</tt> or empty
 	 * @pre $none
 	 * @post $none
 	 */
-	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
-			throws Exception {
-		initialize();
-		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
-
-		// Set the current Wall clock time as the starting time of
-		// simulation
-		if (_calendar == null) {
-			calendar = Calendar.getInstance();
-		} else {
-			calendar = _calendar;
-		}
-
-		// creates a CloudSimShutdown object
-		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
+	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser,
+			EventQueue futureQueue) throws Exception {
+		context().initCommonVariable(_calendar, _traceFlag, numUser, futureQueue);
 	}
 
 	/**
@@ -114,14 +76,32 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
+		init(numUser, cal, traceFlag, new EventQueueHeap());
+	}
+
+	/**
+	 * Initialises CloudSim parameters, using a specific implementation of the future event list.
+	 * This method should be called before creating any entities.
+	 * <p>
+	 * The default future event list is an {@link EventQueueHeap}; an {@link EventQueueCalendar}
+	 * has amortised O(1) insertion and removal, which pays off when millions of events are pending.
+	 * 
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureQueue an empty event queue, used as future event list
+	 * @see #init(int, Calendar, boolean)
+	 * @pre numUser >= 0
+	 * @pre futureQueue != null
+	 * @post $none
+	 */
+	public static void init(int numUser, Calendar cal, boolean traceFlag, EventQueue futureQueue) {
 		try {
-			initCommonVariable(cal, traceFlag, numUser);
+			initCommonVariable(cal, traceFlag, numUser, futureQueue);
 
 			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
-
-			// set all the above entity IDs
-			cisId = cis.getId();
+			context().initCloudInformationService();
 		} catch (Exception s) {
 			Log.println("CloudSim.init(): The simulation has been terminated due to an unexpected error");
 			Log.println(s.getMessage());
@@ -157,7 +137,7 @@ public class CloudSim {
 	    }
 	    
 	    init(numUser, cal, traceFlag);
-	    CloudSim.minTimeBetweenEvents = minTimeBetweenEvents;
+	    context().setMinTimeBetweenEvents(minTimeBetweenEvents);
 	}
 	
 	
@@ -181,12 +161,8 @@ public class CloudSim {
 		try {
 			double clock = run();
 
-			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
+			// reset the variables configured by init()
+			context().resetCommonVariable();
 
 			return clock;
 		} catch (IllegalArgumentException e) {
@@ -222,8 +198,7 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static void terminateSimulation() {
-		running = false;
-		printMessage("Simulation: Reached termination time.");
+		context().terminateSimulation();
 	}
 
 	/**
@@ -233,12 +208,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			terminateAt = time;
-		}
-		return true;
+		return context().terminateSimulation(time);
 	}
 
 	
@@ -247,7 +217,39 @@ public class CloudSim {
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+	    return context().getMinTimeBetweenEvents();
+	}
+
+	/**
+	 * Enables or disables the recycling of the delivered events in the current simulation. It is
+	 * disabled by default; see {@link SimulationContext#setEventPooling(boolean)} for the
+	 * constraints it puts on the entities.
+	 *
+	 * @param eventPooling <tt>true</tt> to recycle the delivered events
+	 */
+	public static void setEventPooling(boolean eventPooling) {
+		context().setEventPooling(eventPooling);
+	}
+
+	/**
+	 * Sets the number of threads used to run the entities of the current simulation; see
+	 * {@link SimulationContext#setParallelism(int)} for the constraints it puts on the entities.
+	 *
+	 * @param parallelism the number of threads, 1 (the default) for sequential execution
+	 */
+	public static void setParallelism(int parallelism) {
+		context().setParallelism(parallelism);
+	}
+
+	/**
+	 * Enables the lookahead-based parallel execution of the current simulation, which uses the
+	 * minimum delay of the {@link org.cloudbus.cloudsim.NetworkTopology} as lookahead; see
+	 * {@link SimulationContext#setLookaheadEnabled(boolean)}.
+	 *
+	 * @param lookaheadEnabled <tt>true</tt> to enable lookahead windows
+	 */
+	public static void setLookaheadEnabled(boolean lookaheadEnabled) {
+		context().setLookaheadEnabled(lookaheadEnabled);
 	}
 
 	/**
@@ -259,6 +261,7 @@ public class CloudSim {
 	 */
 	public static Calendar getSimulationCalendar() {
 		// make a new copy
+		Calendar calendar = context().getCalendar();
 		Calendar clone = calendar;
 		if (calendar != null) {
 			clone = (Calendar) calendar.clone();
@@ -275,7 +278,7 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		return context().getCloudInfoServiceEntityId();
 	}
 
 	/**
@@ -288,6 +291,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
+		CloudInformationService cis = context().getCloudInfoService();
 		if (cis == null) {
 			return null;
 		}
@@ -297,49 +301,14 @@ public class CloudSim {
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static EventQueue future;
-
-
-	/** 
-         * The current simulation clock.
-         */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
-
-	/** The paused. */
-	private static boolean paused = false;
-
-	/** The pause at. */
-	private static long pauseAt = -1;
-
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
-
 	/**
-	 * Initialise the simulation for stand alone simulations. This function should be called at the
-	 * start of the simulation.
+	 * Gets the simulation context bound to the calling thread.
+	 * 
+	 * @return the current simulation context
+	 * @see SimulationContext#call(java.util.concurrent.Callable)
 	 */
-	protected static void initialize() {
-		Log.println("Initialising...");
-		entities = new ArrayList<>();
-		entitiesByName = new LinkedHashMap<>();
-		future = new EventQueue();
-		waitPredicates = new HashMap<>();
-		clock = 0;
-		running = false;
+	public static SimulationContext getContext() {
+		return context();
 	}
 
 	// The two standard predicates
@@ -358,7 +327,7 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		return context().clock();
 	}
 
 	/**
@@ -367,7 +336,7 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		return context().getNumEntities();
 	}
 
 	/**
@@ -377,7 +346,7 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		return context().getEntity(id);
 	}
 
 	/**
@@ -387,7 +356,7 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		return context().getEntity(name);
 	}
 
 	/**
@@ -397,12 +366,7 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
-		if (obj == null) {
-			return NOT_FOUND;
-		} else {
-			return obj.getId();
-		}
+		return context().getEntityId(name);
 	}
 
 	/**
@@ -442,10 +406,7 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
-		// create a new list to prevent the user from changing
-		// the list of entities used by Simulation
-		List<SimEntity> list = new LinkedList<>(entities);
-		return list;
+		return context().getEntityList();
 	}
 
 	// Public update methods
@@ -457,102 +418,72 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
-		SimEvent evt;
-		if (running) {
-			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
-			future.addEvent(evt);
-		}
-		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
-			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
-		}
+		context().addEntity(e);
 	}
 
 	/**
-	 * Internal method used to add a new entity to the simulation when the simulation is running. It
-	 * should <b>not</b> be called from user simulations.
-	 * 
-	 * @param e The new entity
+	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
 	 */
-	protected static void addEntityDynamically(SimEntity e) {
-		if (e == null) {
-			throw new IllegalArgumentException("Adding null entity.");
-		} else {
-			printMessage("Adding: " + e.getName());
-		}
-		e.startEntity();
+	public static void runStop() {
+		context().runStop();
 	}
 
 	/**
-	 * Internal method used to run one tick of the simulation. This method should <b>not</b> be
-	 * called in simulations.
+	 * Used to pause an entity for some time.
 	 * 
-	 * @return true if there are events to be processed, false if event queue is empty
+	 * @param srcId the entity source id
+	 * @param delay the delay
 	 */
-	private static boolean runClockTick() {
-		SimEntity ent;
-		for (int i = 0; i < entities.size(); i++) {
-			ent = entities.get(i);
-			if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
-				ent.run();
-			}
-		}
-
-		if (future.isEmpty()) {
-			running = false;
-			printMessage(CloudSim.clock()+": Simulation: No more future events");
-			return false;
-		}
-
-		double clk = future.peek().eventTime();
-		while (!future.isEmpty() && future.peek().eventTime() == clk) {
-			dispatchEvent(future.poll());
-		}
-
-		return true;
+	public static void pause(int srcId, double delay) {
+		context().pause(srcId, delay);
 	}
 
 	/**
-	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
+	 * Used to send an event from one entity to another.
+	 * 
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the scheduled event, which can be used as handle for {@link #cancel(SimEvent)}
 	 */
-	public static void runStop() {
-		printMessage("Simulation completed.");
+	public static SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		return context().send(srcId, dstId, delay, tag, data);
 	}
 
 	/**
-	 * Used to pause an entity for some time.
+	 * Used to send an event from one entity to another, with a primitive int payload that is
+	 * carried without allocations (see {@link SimEvent#getIntData(int)}).
 	 * 
-	 * @param srcId the entity source id
+	 * @param srcId the src
+	 * @param dstId the dest
 	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data0 the first element of the payload
+	 * @param data1 the second element of the payload
+	 * @param data2 the third element of the payload
+	 * @return the scheduled event, which can be used as handle for {@link #cancel(SimEvent)}
 	 */
-	public static void pause(int srcId, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, srcId);
-		future.addEvent(e);
-		entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
+	public static SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, int data0, int data1, int data2) {
+		return context().send(srcId, dstId, delay, tag, data0, data1, data2);
 	}
 
 	/**
-	 * Used to send an event from one entity to another.
+	 * Used to send an event from one entity to another, with a primitive long and double payload
+	 * that is carried without allocations (see {@link SimEvent#getLongData()} and
+	 * {@link SimEvent#getDoubleData()}).
 	 * 
 	 * @param srcId the src
 	 * @param dstId the dest
 	 * @param delay the delay
 	 * @param tag the tag
-	 * @param data the data
+	 * @param longData the long payload
+	 * @param doubleData the double payload
+	 * @return the scheduled event, which can be used as handle for {@link #cancel(SimEvent)}
 	 */
-	public static void send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
-		if(delay >= Double.MAX_VALUE) {
-			throw new RuntimeException("Send delay can't be infinite.");
-		}
-
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEvent(e);
+	public static SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, long longData, double doubleData) {
+		return context().send(srcId, dstId, delay, tag, longData, doubleData);
 	}
 
 	/**
@@ -563,14 +494,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 * @param tag the tag
 	 * @param data the data
+	 * @return the scheduled event, which can be used as handle for {@link #cancel(SimEvent)}
 	 */
-	public static void sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
-
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEventFirst(e);
+	public static SimEvent sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		return context().sendFirst(srcId, dstId, delay, tag, data);
 	}
 
 	/**
@@ -582,11 +509,7 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int srcId, Predicate p) {
-		entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
-		if (p != SIM_ANY) {
-			// If a predicate has been used store it in order to check it
-			waitPredicates.put(srcId, p);
-		}
+		context().wait(srcId, p);
 	}
 
 	/**
@@ -597,80 +520,34 @@ public class CloudSim {
 	 * @return the sim event
 	 */
 	public static SimEvent cancel(int srcId, Predicate p) {
-		SimEvent ev;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
-				return ev;
-			}
-		}
-		return null;
+		return context().cancel(srcId, p);
+	}
+
+	/**
+	 * Cancels a scheduled event in O(1). The event is lazily removed from the future queue.
+	 * 
+	 * @param e the event handle returned by {@link #send(int, int, double, CloudSimTags, Object)}
+	 * @return true if the event was still pending; false if it had already been delivered or cancelled
+	 */
+	public static boolean cancel(SimEvent e) {
+		return context().cancel(e);
 	}
 
 	/**
 	 * Removes all events that match a given predicate from the future event queue returns true if
 	 * at least one event has been cancelled; false otherwise.
+	 * <p>
+	 * When the predicate is a {@link org.cloudbus.cloudsim.core.predicates.PredicateType},
+	 * {@link org.cloudbus.cloudsim.core.predicates.PredicateFrom} or {@link #SIM_ANY}, the events
+	 * are cancelled in O(1) through the (source, tag) index of the pending events; other
+	 * predicates require a scan of the future queue.
 	 * 
 	 * @param srcId the entity source id
 	 * @param p the p
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int srcId, Predicate p) {
-		SimEvent ev;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
-			}
-		}
-		return previousSize < future.size();
-	}
-
-	//
-	// Private internal methods
-	//
-
-	/**
-	 * Dispatch event to destination entity
-	 * 
-	 * @param e the e
-	 */
-	private static void dispatchEvent(SimEvent e) {
-		int dstId = e.getDestinationId();
-		int srcId = e.getSourceId();
-		SimEntity destEnt = entities.get(dstId);
-
-		// Update the system's clock
-		if (e.eventTime() < clock) {
-			throw new IllegalArgumentException("Past event detected.");
-		}
-		clock = e.eventTime();
-
-		// Ok now process it
-		switch (e.getType()) {
-			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
-			case SimEvent.CREATE -> {
-				addEntityDynamically((SimEntity) e.getData());
-			}
-			case SimEvent.SEND -> {
-                if (destEnt.getState() == SimEntity.EntityStatus.WAITING) { // NOTE: this branch is never used
-                    Predicate p = waitPredicates.get(dstId);
-
-                    if ((p == null) || (p.match(e))) {
-                        destEnt.setState(SimEntity.EntityStatus.RUNNABLE);
-                        waitPredicates.remove(dstId);
-                    }
-                }
-				destEnt.getIncomingEvents().add(e);
-            }
-			case SimEvent.HOLD_DONE -> entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
-			default -> {
-			}
-		}
+		return context().cancelAll(srcId, p);
 	}
 
 	/**
@@ -678,13 +555,7 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
-		// Start all the entities
-		for (SimEntity ent : entities) {
-			ent.startEntity();
-		}
-
-		printMessage("Entities started.");
+		context().runStart();
 	}
 
 	/**
@@ -694,7 +565,7 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		return context().running();
 	}
 
 	/**
@@ -703,8 +574,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		return context().pauseSimulation();
 	}
 
 	/**
@@ -714,12 +584,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			pauseAt = time;
-		}
-		return true;
+		return context().pauseSimulation(time);
 	}
 
 	/**
@@ -728,13 +593,7 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
-
-		if (pauseAt <= clock) {
-			pauseAt = -1;
-		}
-
-		return !paused;
+		return context().resumeSimulation();
 	}
 
 	/**
@@ -744,91 +603,14 @@ public class CloudSim {
 	 * @return the last clock value
 	 */
 	public static double run() {
-		if (!running) {
-			runStart();
-		}
-		while (true) {
-			if (!runClockTick() || abruptTerminate) {
-				break;
-			}
-
-			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
-				terminateSimulation();
-				clock = terminateAt;
-				break;
-			}
-
-			if (pauseAt != -1
-					&& ((!future.isEmpty() && clock <= pauseAt && pauseAt <= future.peek()
-							.eventTime()) || future.isEmpty() && pauseAt <= clock)) {
-				pauseSimulation();
-				clock = pauseAt;
-			}
-
-			while (paused) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
-		}
-
-		double clock = clock();
-
-		finishSimulation();
-		runStop();
-
-		return clock;
-	}
-
-	/**
-	 * Internal method that allows the entities to terminate. This method should <b>not</b> be used
-	 * in user simulations.
-	 */
-	private static void finishSimulation() {
-		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
-				if (ent.getState() != SimEntity.EntityStatus.FINISHED) {
-					ent.run();
-				}
-			}
-		}
-
-		for (SimEntity ent : entities) {
-			ent.shutdownEntity();
-		}
-
-		// reset all static variables
-		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		clock = 0L;
-		running = false;
-
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		return context().run();
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
-	}
-
-	/**
-	 * Prints a message about the progress of the simulation.
-	 * 
-	 * @param message the message
-	 */
-	private static void printMessage(String message) {
-		Log.println(message);
+		context().abruptallyTerminate();
 	}
 
 	/**
@@ -837,7 +619,7 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		return context().isPaused();
 	}
 
 }
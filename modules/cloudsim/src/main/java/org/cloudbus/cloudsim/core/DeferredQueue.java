@@ -0,0 +1,327 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * The deferred event queue of a {@link SimEntity}, holding the events delivered to the entity and
+ * not yet processed.
+ * <p>
+ * Since the simulation delivers the events in time order, the queue is a FIFO list ordered by
+ * arrival, with O(1) insertion and removal. The events are also chained by tag, so that lookups by
+ * {@link PredicateType} and {@link PredicateAny} do not need to scan the queue; any other
+ * {@link Predicate} is matched against the events in arrival order.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class DeferredQueue implements EventQueue {
+
+	/** A node of the queue, linked both in arrival order and in the chain of its tag. */
+	private static final class Node {
+		final SimEvent event;
+		/** The arrival rank, used to compare the heads of different tag chains. */
+		final long rank;
+		Node prev, next;
+		Node tagPrev, tagNext;
+
+		Node(SimEvent event, long rank) {
+			this.event = event;
+			this.rank = rank;
+		}
+	}
+
+	/** The events of a tag, in arrival order. */
+	private static final class Chain {
+		Node head, tail;
+		int size;
+	}
+
+	/** The first and last events of the queue. */
+	private Node head, tail;
+
+	/** The chain of each tag received so far. */
+	private final Map<CloudSimTags, Chain> chains = new HashMap<>();
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** Structural modification counter, used by the iterators. */
+	private int modCount;
+
+	/** The rank of the next event added at the tail; events added at the head get decreasing ranks. */
+	private long lastRank = 0, firstRank = 0;
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		Node node = new Node(newEvent, lastRank++);
+		node.prev = tail;
+		if (tail == null) {
+			head = node;
+		} else {
+			tail.next = node;
+		}
+		tail = node;
+
+		Chain chain = chains.computeIfAbsent(newEvent.getTag(), t -> new Chain());
+		node.tagPrev = chain.tail;
+		if (chain.tail == null) {
+			chain.head = node;
+		} else {
+			chain.tail.tagNext = node;
+		}
+		chain.tail = node;
+		added(chain);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		Node node = new Node(newEvent, --firstRank);
+		node.next = head;
+		if (head == null) {
+			tail = node;
+		} else {
+			head.prev = node;
+		}
+		head = node;
+
+		Chain chain = chains.computeIfAbsent(newEvent.getTag(), t -> new Chain());
+		node.tagNext = chain.head;
+		if (chain.head == null) {
+			chain.tail = node;
+		} else {
+			chain.head.tagPrev = node;
+		}
+		chain.head = node;
+		added(chain);
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (head == null) {
+			return null;
+		}
+		Node node = head;
+		unlink(node);
+		return node.event;
+	}
+
+	@Override
+	public SimEvent peek() {
+		return head == null ? null : head.event;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		head = tail = null;
+		chains.clear();
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Finds the first event matching a predicate, without removing it.
+	 *
+	 * @param p the event selection predicate
+	 * @return the first matching event, or <tt>null</tt> if none matches
+	 */
+	public SimEvent findFirst(Predicate p) {
+		Node node = first(p);
+		return node == null ? null : node.event;
+	}
+
+	/**
+	 * Removes the first event matching a predicate.
+	 *
+	 * @param p the event selection predicate
+	 * @return the removed event, or <tt>null</tt> if none matches
+	 */
+	public SimEvent removeFirst(Predicate p) {
+		Node node = first(p);
+		if (node == null) {
+			return null;
+		}
+		unlink(node);
+		return node.event;
+	}
+
+	/**
+	 * Counts the events matching a predicate.
+	 *
+	 * @param p the event selection predicate
+	 * @return the number of matching events
+	 */
+	public int count(Predicate p) {
+		if (p instanceof PredicateAny) {
+			return size;
+		}
+		if (p instanceof PredicateType type) {
+			CloudSimTags[] tags = type.getTags();
+			int count = 0;
+			for (int i = 0; i < tags.length; i++) {
+				Chain chain = chains.get(tags[i]);
+				if (chain != null && !repeated(tags, i)) {
+					count += chain.size;
+				}
+			}
+			return count;
+		}
+
+		int count = 0;
+		for (Node node = head; node != null; node = node.next) {
+			if (p.match(node.event)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<>() {
+			private Node cursor = head;
+			private Node lastReturned = null;
+			private int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor != null;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (cursor == null) {
+					throw new NoSuchElementException();
+				}
+				lastReturned = cursor;
+				cursor = cursor.next;
+				return lastReturned.event;
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned == null) {
+					throw new IllegalStateException();
+				}
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				unlink(lastReturned);
+				lastReturned = null;
+				expectedModCount = modCount;
+			}
+		};
+	}
+
+	/**
+	 * Finds the node of the first event matching a predicate.
+	 *
+	 * @param p the event selection predicate
+	 * @return the node, or <tt>null</tt> if none matches
+	 */
+	private Node first(Predicate p) {
+		if (p instanceof PredicateAny) {
+			return head;
+		}
+		if (p instanceof PredicateType type) {
+			// The first event is the earliest among the heads of the tag chains
+			Node first = null;
+			for (CloudSimTags tag : type.getTags()) {
+				Chain chain = chains.get(tag);
+				if (chain != null && chain.head != null && (first == null || chain.head.rank < first.rank)) {
+					first = chain.head;
+				}
+			}
+			return first;
+		}
+
+		for (Node node = head; node != null; node = node.next) {
+			if (p.match(node.event)) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if a tag appears twice in a tag array.
+	 *
+	 * @param tags the tag array
+	 * @param i the index of the tag
+	 * @return <tt>true</tt> if the tag appears before index <tt>i</tt>
+	 */
+	private static boolean repeated(CloudSimTags[] tags, int i) {
+		for (int j = 0; j < i; j++) {
+			if (tags[j] == tags[i]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void added(Chain chain) {
+		chain.size++;
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Removes a node from the queue and from its tag chain.
+	 *
+	 * @param node the node
+	 */
+	private void unlink(Node node) {
+		if (node.prev == null) {
+			head = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next == null) {
+			tail = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+
+		CloudSimTags tag = node.event.getTag();
+		Chain chain = chains.get(tag);
+		if (node.tagPrev == null) {
+			chain.head = node.tagNext;
+		} else {
+			node.tagPrev.tagNext = node.tagNext;
+		}
+		if (node.tagNext == null) {
+			chain.tail = node.tagPrev;
+		} else {
+			node.tagNext.tagPrev = node.tagPrev;
+		}
+		// Empty chains are kept, as the same tags are received over and over
+		chain.size--;
+
+		node.prev = node.next = node.tagPrev = node.tagNext = null;
+		size--;
+		modCount++;
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the pending events of the future queue by (source, tag), so that events can be cancelled
+ * in O(1) and lazily discarded when they reach the head of the queue.
+ * <p>
+ * Every scheduled event receives a sequence number. Cancelling all the events of a (source, tag)
+ * pair simply moves the pair's cancellation epoch to the current sequence number: any pending
+ * event of that pair with a lower sequence number is dead from then on. Single events are
+ * cancelled by detaching them from their pair.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+final class EventIndex {
+
+	/** The bookkeeping of the pending events of a (source, tag) pair. */
+	static final class Entry {
+		/** Events with a lower sequence number are cancelled. */
+		private long epoch;
+
+		/** The number of pending (live) events. */
+		private int pending;
+	}
+
+	/** The entries of each source entity, indexed by entity id. */
+	private final List<Map<CloudSimTags, Entry>> bySource = new ArrayList<>();
+
+	/** The entry shared by events without a valid source, which can only be cancelled one by one. */
+	private final Entry unindexed = new Entry();
+
+	/** The next sequence number. */
+	private long sequence = 0;
+
+	/**
+	 * Registers a newly scheduled event.
+	 *
+	 * @param e the event
+	 */
+	void scheduled(SimEvent e) {
+		Entry entry = e.getSourceId() < 0 ? unindexed : entry(e.getSourceId(), e.getTag(), true);
+		entry.pending++;
+		e.setIndexEntry(entry, sequence++);
+	}
+
+	/**
+	 * Checks if a scheduled event is still pending, i.e. neither cancelled nor delivered.
+	 *
+	 * @param e the event
+	 * @return <tt>true</tt> if the event is pending
+	 */
+	static boolean isPending(SimEvent e) {
+		Entry entry = e.getIndexEntry();
+		return entry != null && e.getSequence() >= entry.epoch;
+	}
+
+	/**
+	 * Unregisters a pending event that is being delivered or cancelled.
+	 *
+	 * @param e the event
+	 * @return <tt>true</tt> if the event was pending
+	 */
+	static boolean detach(SimEvent e) {
+		boolean pending = isPending(e);
+		if (pending) {
+			e.getIndexEntry().pending--;
+		}
+		e.setIndexEntry(null, e.getSequence());
+		return pending;
+	}
+
+	/**
+	 * Gets the number of pending events of a (source, tag) pair.
+	 *
+	 * @param src the source entity id
+	 * @param tag the tag
+	 * @return the number of pending events
+	 */
+	int pending(int src, CloudSimTags tag) {
+		Entry entry = entry(src, tag, false);
+		return entry == null ? 0 : entry.pending;
+	}
+
+	/**
+	 * Gets the number of pending events of a source.
+	 *
+	 * @param src the source entity id
+	 * @return the number of pending events
+	 */
+	int pending(int src) {
+		if (src < 0 || src >= bySource.size() || bySource.get(src) == null) {
+			return 0;
+		}
+		int pending = 0;
+		for (Entry entry : bySource.get(src).values()) {
+			pending += entry.pending;
+		}
+		return pending;
+	}
+
+	/**
+	 * Cancels all the pending events of a (source, tag) pair.
+	 *
+	 * @param src the source entity id
+	 * @param tag the tag
+	 * @return the number of cancelled events
+	 */
+	int cancelAll(int src, CloudSimTags tag) {
+		Entry entry = entry(src, tag, false);
+		return entry == null ? 0 : cancelAll(entry);
+	}
+
+	/**
+	 * Cancels all the pending events of a source.
+	 *
+	 * @param src the source entity id
+	 * @return the number of cancelled events
+	 */
+	int cancelAll(int src) {
+		if (src < 0 || src >= bySource.size() || bySource.get(src) == null) {
+			return 0;
+		}
+		int cancelled = 0;
+		for (Entry entry : bySource.get(src).values()) {
+			cancelled += cancelAll(entry);
+		}
+		return cancelled;
+	}
+
+	private int cancelAll(Entry entry) {
+		int cancelled = entry.pending;
+		entry.epoch = sequence;
+		entry.pending = 0;
+		return cancelled;
+	}
+
+	private Entry entry(int src, CloudSimTags tag, boolean create) {
+		while (create && bySource.size() <= src) {
+			bySource.add(null);
+		}
+		if (src < 0 || src >= bySource.size()) {
+			return null;
+		}
+
+		Map<CloudSimTags, Entry> entries = bySource.get(src);
+		if (entries == null) {
+			if (!create) {
+				return null;
+			}
+			entries = new HashMap<>();
+			bySource.set(src, entries);
+		}
+
+		Entry entry = entries.get(tag);
+		if (entry == null && create) {
+			entry = new Entry();
+			entries.put(tag, entry);
+		}
+		return entry;
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * Collects the events scheduled by an entity while it runs concurrently with other entities, so
+ * that they can be added to the future queue afterwards, in a deterministic order.
+ * <p>
+ * In lookahead mode the outbox also holds the local event queue of the entity for the current
+ * window: events that the entity sends to itself within the window are processed locally, while
+ * events to other entities must not fall within the window.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see SimulationContext#setParallelism(int)
+ */
+final class EventOutbox {
+
+	/** An event waiting to be scheduled. */
+	record Pending(SimEvent event, boolean first, double sendTime) {
+	}
+
+	/** The entity that owns the outbox. */
+	final SimEntity entity;
+
+	/** The local clock of the entity. */
+	double clock;
+
+	/** The end (exclusive) of the current lookahead window, or the clock in same-timestamp mode. */
+	final double windowEnd;
+
+	/** The events of the window destined to the entity, or <tt>null</tt> in same-timestamp mode. */
+	final EventQueue local;
+
+	/** The events to schedule, in program order. */
+	final List<Pending> pending = new ArrayList<>();
+
+	/** The number of times the entity has been run. */
+	int runs;
+
+	/** The number of events allocated by the entity. */
+	int allocated;
+
+	/**
+	 * Creates an outbox for an entity.
+	 *
+	 * @param entity the entity
+	 * @param clock the current simulation time
+	 * @param windowEnd the end of the lookahead window, or <tt>clock</tt> for same-timestamp
+	 *            parallelism
+	 */
+	EventOutbox(SimEntity entity, double clock, double windowEnd) {
+		this.entity = entity;
+		this.clock = clock;
+		this.windowEnd = windowEnd;
+		local = windowEnd > clock ? new EventQueueHeap() : null;
+	}
+
+	/**
+	 * Adds an event scheduled by the entity.
+	 *
+	 * @param e the event
+	 * @param first whether the event has to be placed before those with the same time
+	 * @throws IllegalStateException if the event is for another entity and falls within the
+	 *             lookahead window
+	 */
+	void add(SimEvent e, boolean first) {
+		if (local != null && e.eventTime() < windowEnd) {
+			int target = SimulationContext.target(e);
+			if (target != entity.getId()) {
+				throw new IllegalStateException("Lookahead violated: " + entity.getName() + " sent an event to #"
+						+ target + " at " + e.eventTime() + ", before the end of the window at " + windowEnd
+						+ ". All the events between entities must be delayed by the network topology.");
+			}
+			if (first) {
+				local.addEventFirst(e);
+			} else {
+				local.addEvent(e);
+			}
+			return;
+		}
+		pending.add(new Pending(e, first, clock));
+	}
+
+	/**
+	 * Cancels an event that has not been scheduled yet.
+	 *
+	 * @param e the event
+	 * @return <tt>true</tt> if the event was found in the outbox
+	 */
+	boolean cancel(SimEvent e) {
+		return remove(e, null, false) != null;
+	}
+
+	/**
+	 * Cancels the first event of the outbox matching a predicate.
+	 *
+	 * @param p the predicate
+	 * @return the cancelled event, or <tt>null</tt> if none matches
+	 */
+	SimEvent cancelFirst(Predicate p) {
+		return remove(null, p, false);
+	}
+
+	/**
+	 * Cancels all the events of the outbox matching a predicate.
+	 *
+	 * @param p the predicate
+	 * @return <tt>true</tt> if at least one event has been cancelled
+	 */
+	boolean cancelAll(Predicate p) {
+		return remove(null, p, true) != null;
+	}
+
+	/**
+	 * Removes either a given event or the events matching a predicate. Only the events created by
+	 * the entity in the current run or window are considered: the other events of the local queue
+	 * have already been delivered.
+	 *
+	 * @param target the event to remove, or <tt>null</tt> to use the predicate
+	 * @param p the predicate
+	 * @param all whether to remove all the matching events or just the first one
+	 * @return the last removed event, or <tt>null</tt> if none has been removed
+	 */
+	private SimEvent remove(SimEvent target, Predicate p, boolean all) {
+		SimEvent removed = null;
+		for (Iterator<Pending> it = pending.iterator(); it.hasNext();) {
+			SimEvent e = it.next().event();
+			if (matches(e, target, p)) {
+				it.remove();
+				removed = e;
+				if (!all) {
+					return removed;
+				}
+			}
+		}
+		if (local != null) {
+			for (Iterator<SimEvent> it = local.iterator(); it.hasNext();) {
+				SimEvent e = it.next();
+				if (e.getSequence() < 0 && matches(e, target, p)) {
+					it.remove();
+					removed = e;
+					if (!all) {
+						return removed;
+					}
+				}
+			}
+		}
+		return removed;
+	}
+
+	private boolean matches(SimEvent e, SimEvent target, Predicate p) {
+		if (target != null) {
+			return e == target;
+		}
+		return e.getType() == SimEvent.SEND && e.getSourceId() == entity.getId() && p.match(e);
+	}
+}
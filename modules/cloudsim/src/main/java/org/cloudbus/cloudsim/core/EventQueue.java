@@ -11,54 +11,81 @@ package org.cloudbus.cloudsim.core;
 import org.cloudbus.cloudsim.Log;
 
 import java.util.Iterator;
-import java.util.PriorityQueue;
 
 /**
- * This class implements the event queue used by {@link CloudSim}.
+ * The future event list used by {@link CloudSim}. Events are returned in increasing order of
+ * {@link SimEvent#eventTime()}; events scheduled for the same time are returned in the order they
+ * were added, with the exception of those added via {@link #addEventFirst(SimEvent)}.
+ * <p>
+ * The iteration order of {@link #iterator()} is not specified, but its <tt>remove</tt> operation
+ * must be supported, as it is used to cancel events.
  *
  * @author Remo Andreoli
  * @since CloudSim Toolkit 7.0
- *
+ * @see EventQueueHeap
+ * @see EventQueueCalendar
  */
-public class EventQueue extends PriorityQueue<SimEvent> {
-	/** A incremental number used for event attribute */
-	private long serial = 0;
+public interface EventQueue extends Iterable<SimEvent> {
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order of
 	 * the events in the queue.
-	 * 
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
-	public void addEvent(SimEvent newEvent) {
-		newEvent.setSerial(serial++);
-		this.add(newEvent);
-	}
+	void addEvent(SimEvent newEvent);
 
 	/**
-	 * Adds a new event to the head of the queue.
-	 * 
+	 * Adds a new event to the head of the queue, i.e. before any other event with the same time.
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
-	public void addEventFirst(SimEvent newEvent) {
-		newEvent.setSerial(0);
-		this.add(newEvent);
-	}
+	void addEventFirst(SimEvent newEvent);
 
-	@Override
-	public SimEvent poll() {
-		if (!CloudSim.running()) {
-			return null;
-		}
-		return super.poll();
+	/**
+	 * Retrieves and removes the first event of the queue.
+	 *
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	SimEvent poll();
+
+	/**
+	 * Retrieves, but does not remove, the first event of the queue.
+	 *
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Gets the number of events in the queue.
+	 *
+	 * @return the queue size
+	 */
+	int size();
+
+	/**
+	 * Checks if the queue is empty.
+	 *
+	 * @return <tt>true</tt> if there are no events in the queue
+	 */
+	default boolean isEmpty() {
+		return size() == 0;
 	}
 
-	public void print() {
+	/**
+	 * Removes all the events from the queue.
+	 */
+	void clear();
+
+	/**
+	 * Prints the events in the queue, in iteration order.
+	 */
+	default void print() {
 		Iterator<SimEvent> iter = iterator();
 		int i = 0;
-		while(iter.hasNext()) {
+		while (iter.hasNext()) {
 			Log.printlnConcat("[", i, "] -> ", iter.next().toString());
 			i++;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,403 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link EventQueue} implemented as a calendar queue, with amortised O(1) insertion and removal
+ * of the first event when the event times are reasonably well distributed.
+ * <p>
+ * Events are hashed by time into an array of buckets (the "days" of a "year"), each bucket being a
+ * sorted linked list whose tail is tracked, so that events later than all the others of their
+ * bucket, e.g. the many events scheduled at the same time, are appended in O(1). The number of
+ * buckets is doubled or halved as the queue grows or shrinks, and the bucket width is re-estimated
+ * on every resize by sampling the separation between the next events to be dequeued.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see <a href="https://doi.org/10.1145/63039.63045">R. Brown, Calendar queues: a fast O(1) priority
+ *      queue implementation for the simulation event set problem, Communications of the ACM, 1988</a>
+ */
+public class EventQueueCalendar implements EventQueue {
+
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 2;
+
+	/** The number of events sampled to estimate the bucket width. */
+	private static final int WIDTH_SAMPLE_SIZE = 25;
+
+	/** A node of a bucket list. */
+	private static final class Node {
+		final SimEvent event;
+		Node next;
+
+		Node(SimEvent event) {
+			this.event = event;
+		}
+	}
+
+	/** The buckets, each one a linked list sorted by event order. */
+	private Node[] buckets;
+
+	/** The last node of each bucket, or null if the bucket is empty. */
+	private Node[] tails;
+
+	/** The width of a bucket, in simulation time units. */
+	private double width;
+
+	/** The virtual (non-wrapped) index of the bucket where the search for the next event starts. */
+	private long currentBucket;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** Structural modification counter, used by the iterators. */
+	private int modCount;
+
+	/** Disables resizing while re-inserting events. */
+	private boolean resizeEnabled = true;
+
+	/** A incremental number used for event attribute */
+	private long serial = 0;
+
+	/**
+	 * Creates an empty calendar queue with a bucket width of one simulation time unit.
+	 */
+	public EventQueueCalendar() {
+		this(1.0);
+	}
+
+	/**
+	 * Creates an empty calendar queue.
+	 *
+	 * @param initialWidth the initial bucket width; it is re-estimated when the queue is resized
+	 */
+	public EventQueueCalendar(double initialWidth) {
+		if (initialWidth <= 0) {
+			throw new IllegalArgumentException("The bucket width must be positive, but is: " + initialWidth);
+		}
+		buckets = new Node[MIN_BUCKETS];
+		tails = new Node[MIN_BUCKETS];
+		width = initialWidth;
+		currentBucket = 0;
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		enqueue(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		enqueue(newEvent);
+	}
+
+	@Override
+	public SimEvent poll() {
+		int i = findFirst();
+		if (i < 0) {
+			return null;
+		}
+
+		Node head = buckets[i];
+		buckets[i] = head.next;
+		if (head.next == null) {
+			tails[i] = null;
+		}
+		size--;
+		modCount++;
+
+		if (resizeEnabled && buckets.length > MIN_BUCKETS && size < buckets.length / 2) {
+			resize(buckets.length / 2);
+		}
+		return head.event;
+	}
+
+	@Override
+	public SimEvent peek() {
+		int i = findFirst();
+		return i < 0 ? null : buckets[i].event;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(buckets, null);
+		Arrays.fill(tails, null);
+		size = 0;
+		currentBucket = 0;
+		modCount++;
+	}
+
+	/**
+	 * Gets the current bucket width.
+	 *
+	 * @return the bucket width
+	 */
+	public double getBucketWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the current number of buckets.
+	 *
+	 * @return the number of buckets
+	 */
+	public int getNumberOfBuckets() {
+		return buckets.length;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<>() {
+			/** The bucket of the next node to return. */
+			private int bucket = -1;
+			/** The next node to return. */
+			private Node cursor = null;
+			/** The predecessor of {@link #cursor} in its bucket, or null if it is the head. */
+			private Node prev = null;
+			private int lastBucket = -1;
+			private Node lastReturned = null;
+			private Node lastPrev = null;
+			private int expectedModCount = modCount;
+
+			{
+				nextBucket();
+			}
+
+			private void nextBucket() {
+				prev = null;
+				cursor = null;
+				while (cursor == null && ++bucket < buckets.length) {
+					cursor = buckets[bucket];
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return cursor != null;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (cursor == null) {
+					throw new NoSuchElementException();
+				}
+				lastReturned = cursor;
+				lastPrev = prev;
+				lastBucket = bucket;
+
+				prev = cursor;
+				cursor = cursor.next;
+				if (cursor == null) {
+					nextBucket();
+				}
+				return lastReturned.event;
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned == null) {
+					throw new IllegalStateException();
+				}
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+
+				if (lastPrev == null) {
+					buckets[lastBucket] = lastReturned.next;
+				} else {
+					lastPrev.next = lastReturned.next;
+				}
+				if (tails[lastBucket] == lastReturned) {
+					tails[lastBucket] = lastPrev;
+				}
+				if (prev == lastReturned) {
+					prev = lastPrev;
+				}
+				lastReturned = null;
+				size--;
+				expectedModCount = ++modCount;
+			}
+		};
+	}
+
+	/**
+	 * Inserts an event into its bucket, keeping the bucket sorted.
+	 *
+	 * @param e the event
+	 */
+	private void enqueue(SimEvent e) {
+		long vb = virtualBucket(e.eventTime());
+		if (size == 0 || vb < currentBucket) {
+			currentBucket = vb;
+		}
+
+		int i = bucketIndex(vb);
+		Node node = new Node(e);
+		Node cur = buckets[i];
+		if (cur == null) {
+			buckets[i] = node;
+			tails[i] = node;
+		} else if (e.compareTo(tails[i].event) >= 0) {
+			// Not earlier than any event of the bucket, as the events with the same time
+			tails[i].next = node;
+			tails[i] = node;
+		} else if (e.compareTo(cur.event) < 0) {
+			node.next = cur;
+			buckets[i] = node;
+		} else {
+			while (cur.next != null && cur.next.event.compareTo(e) < 0) {
+				cur = cur.next;
+			}
+			node.next = cur.next;
+			cur.next = node;
+		}
+		size++;
+		modCount++;
+
+		if (resizeEnabled && size > 2 * buckets.length) {
+			resize(2 * buckets.length);
+		}
+	}
+
+	/**
+	 * Finds the bucket holding the first event, updating {@link #currentBucket}.
+	 *
+	 * @return the (wrapped) index of the bucket, or -1 if the queue is empty
+	 */
+	private int findFirst() {
+		if (size == 0) {
+			return -1;
+		}
+
+		// Scan one "year" looking for an event in the current day
+		int n = buckets.length;
+		for (int k = 0; k < n; k++) {
+			long vb = currentBucket + k;
+			int i = bucketIndex(vb);
+			Node head = buckets[i];
+			if (head != null && virtualBucket(head.event.eventTime()) <= vb) {
+				currentBucket = vb;
+				return i;
+			}
+		}
+
+		// Sparse queue: direct search for the minimum among the bucket heads
+		int best = -1;
+		for (int i = 0; i < n; i++) {
+			if (buckets[i] != null && (best < 0 || buckets[i].event.compareTo(buckets[best].event) < 0)) {
+				best = i;
+			}
+		}
+		currentBucket = virtualBucket(buckets[best].event.eventTime());
+		return best;
+	}
+
+	/**
+	 * Changes the number of buckets, re-estimating the bucket width.
+	 *
+	 * @param newSize the new number of buckets
+	 */
+	private void resize(int newSize) {
+		double newWidth = estimateWidth();
+
+		Node[] old = buckets;
+		buckets = new Node[Math.max(MIN_BUCKETS, newSize)];
+		tails = new Node[buckets.length];
+		width = newWidth;
+		size = 0;
+
+		resizeEnabled = false;
+		for (Node head : old) {
+			for (Node node = head; node != null; node = node.next) {
+				enqueue(node.event);
+			}
+		}
+		resizeEnabled = true;
+	}
+
+	/**
+	 * Estimates a bucket width by sampling the separation between the next events to be dequeued,
+	 * discarding separations larger than twice the average (as suggested by Brown).
+	 *
+	 * @return the new bucket width
+	 */
+	private double estimateWidth() {
+		int samples = Math.min(size, WIDTH_SAMPLE_SIZE);
+		if (samples < 2) {
+			return width;
+		}
+
+		// Dequeue the sample and put it back afterwards
+		long savedBucket = currentBucket;
+		resizeEnabled = false;
+		SimEvent[] sample = new SimEvent[samples];
+		for (int i = 0; i < samples; i++) {
+			sample[i] = poll();
+		}
+		for (int i = samples - 1; i >= 0; i--) {
+			reinsertFirst(sample[i]);
+		}
+		currentBucket = savedBucket;
+		resizeEnabled = true;
+
+		double total = sample[samples - 1].eventTime() - sample[0].eventTime();
+		double average = total / (samples - 1);
+		double sum = 0;
+		int count = 0;
+		for (int i = 1; i < samples; i++) {
+			double separation = sample[i].eventTime() - sample[i - 1].eventTime();
+			if (separation <= 2 * average) {
+				sum += separation;
+				count++;
+			}
+		}
+
+		double newWidth = count > 0 ? 3 * sum / count : 0;
+		return newWidth > 0 ? newWidth : width;
+	}
+
+	/**
+	 * Puts back an event that has just been polled, preserving its serial number.
+	 *
+	 * @param e the event
+	 */
+	private void reinsertFirst(SimEvent e) {
+		int i = bucketIndex(virtualBucket(e.eventTime()));
+		Node node = new Node(e);
+		node.next = buckets[i];
+		buckets[i] = node;
+		if (node.next == null) {
+			tails[i] = node;
+		}
+		size++;
+	}
+
+	private long virtualBucket(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	private int bucketIndex(long virtualBucket) {
+		return (int) Math.floorMod(virtualBucket, (long) buckets.length);
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * The default {@link EventQueue} implementation, backed by a binary heap.
+ * Insertion and removal of the first event are O(log n).
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventQueueHeap implements EventQueue {
+	/** The binary heap holding the events. */
+	private final PriorityQueue<SimEvent> heap = new PriorityQueue<>();
+
+	/** A incremental number used for event attribute */
+	private long serial = 0;
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		heap.add(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		heap.add(newEvent);
+	}
+
+	@Override
+	public SimEvent poll() {
+		return heap.poll();
+	}
+
+	@Override
+	public SimEvent peek() {
+		return heap.peek();
+	}
+
+	@Override
+	public int size() {
+		return heap.size();
+	}
+
+	@Override
+	public void clear() {
+		heap.clear();
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return heap.iterator();
+	}
+}
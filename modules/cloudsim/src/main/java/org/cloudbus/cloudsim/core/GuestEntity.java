@@ -1,6 +1,7 @@
 package org.cloudbus.cloudsim.core;
 
 import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.MipsShare;
 import org.cloudbus.cloudsim.VmStateHistoryEntry;
 
 import java.util.List;
@@ -40,11 +41,7 @@ public interface GuestEntity extends CoreAttributes {
      * @return the current requested total mips
      */
     default double getCurrentRequestedTotalMips() {
-        double totalMips = 0.0;
-        for (Double mips : getCurrentRequestedMips()) {
-            totalMips += mips;
-        }
-        return totalMips;
+        return MipsShare.getTotalMips(getCurrentRequestedMips());
     }
 
     /**
@@ -53,13 +50,7 @@ public interface GuestEntity extends CoreAttributes {
      * @return the current requested max mips
      */
     default double getCurrentRequestedMaxMips() {
-        double maxMips = 0.0;
-        for (Double mips : getCurrentRequestedMips()) {
-            if (mips > maxMips) {
-                maxMips = mips;
-            }
-        }
-        return maxMips;
+        return MipsShare.getMaxMips(getCurrentRequestedMips());
     }
 
     /**
@@ -150,6 +141,16 @@ public interface GuestEntity extends CoreAttributes {
      */
     double getTotalUtilizationOfCpuMips(double time);
 
+    /**
+     * Gets the CPU utilization of all cloudlets running on this guest entity in MIPS, at the current
+     * simulation time. Guests may compute it once per simulation time, see {@link GuestUtilizationSnapshot}.
+     *
+     * @return total utilization
+     */
+    default double getCurrentUtilizationOfCpuMips() {
+        return getTotalUtilizationOfCpuMips(CloudSim.clock());
+    }
+
     /**
      * Gets the image size required to store the guest entity on a host.
      *
@@ -176,12 +177,35 @@ public interface GuestEntity extends CoreAttributes {
     int getUserId();
 
     /**
-     * Gets unique string identifier of the VM.
+     * Gets unique string identifier of the VM. Schedulers and provisioners no longer key their tables
+     * by it, but by the {@link #getHandle() handle} of the guest.
      *
      * @return string uid
      */
     String getUid();
 
+    /**
+     * Gets the handle of the guest, a dense integer assigned at its creation, which identifies it
+     * in the tables of the schedulers and provisioners.
+     *
+     * @return the handle
+     * @see #nextHandle(GuestEntity)
+     */
+    int getHandle();
+
+    /**
+     * Assigns the handle of a new guest. Handles are consecutive from 0, in the order the guests of
+     * the current {@link SimulationContext simulation} are created, and restart from 0 when it is
+     * initialised by {@link CloudSim#init(int, java.util.Calendar, boolean)}.
+     *
+     * @param guest the new guest, which can then be looked up by its handle with
+     *              {@link SimulationContext#getGuest(int)}
+     * @return the handle
+     */
+    static int nextHandle(GuestEntity guest) {
+        return SimulationContext.current().registerGuest(guest);
+    }
+
     /**
      * Generate unique string identifier of the VM.
      *
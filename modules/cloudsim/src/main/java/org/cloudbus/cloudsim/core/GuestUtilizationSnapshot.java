@@ -0,0 +1,76 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.lists.CloudletQueue;
+
+import java.util.List;
+
+/**
+ * The CPU utilization of a guest entity at the current simulation time, computed at most once per
+ * simulation time. Computing it goes through the utilization model of every running cloudlet, which
+ * may interpolate a trace, while the migration policies read it several times per optimization round,
+ * e.g. to sort and to select the guests to migrate.
+ * <p>
+ * The value is computed again when the clock advances, when the guest is told that its processing
+ * was updated, or when cloudlets are added to or removed from the execution list of its scheduler.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see GuestEntity#getCurrentUtilizationOfCpuMips()
+ */
+public class GuestUtilizationSnapshot {
+
+    /** The guest. */
+    private final GuestEntity guest;
+
+    /** The time of the snapshot, or NaN if there is none. */
+    private double time = Double.NaN;
+
+    /** The modification count of the execution list at the time of the snapshot. */
+    private int execListVersion;
+
+    /** The utilization in MIPS. */
+    private double utilizationMips;
+
+    /**
+     * Creates the snapshot of a guest.
+     *
+     * @param guest the guest
+     */
+    public GuestUtilizationSnapshot(GuestEntity guest) {
+        this.guest = guest;
+    }
+
+    /**
+     * Gets the CPU utilization of the guest in MIPS, at the current simulation time.
+     *
+     * @return the utilization, as computed by {@link GuestEntity#getTotalUtilizationOfCpuMips(double)}
+     */
+    public double getUtilizationOfCpuMips() {
+        double now = CloudSim.clock();
+        List<?> execList = guest.getCloudletScheduler().getCloudletExecList();
+        if (!(execList instanceof CloudletQueue<?> queue)) {
+            return guest.getTotalUtilizationOfCpuMips(now);
+        }
+        if (time != now || execListVersion != queue.getModificationCount()) {
+            utilizationMips = guest.getTotalUtilizationOfCpuMips(now);
+            execListVersion = queue.getModificationCount();
+            time = now;
+        }
+        return utilizationMips;
+    }
+
+    /**
+     * Discards the snapshot, e.g. after a processing update of the guest.
+     */
+    public void invalidate() {
+        time = Double.NaN;
+    }
+}
@@ -144,9 +144,7 @@ public interface HostEntity extends CoreAttributes {
             if (!getGuestList().contains(guest)) {
                 getGuestList().add(guest);
             }
-            if (!getGuestScheduler().getGuestsMigratingIn().contains(guest.getUid())) {
-                getGuestScheduler().getGuestsMigratingIn().add(guest.getUid());
-            }
+            getGuestScheduler().getGuestsMigratingInHandles().set(guest.getHandle());
             getGuestRamProvisioner().allocateRamForGuest(guest, guest.getCurrentRequestedRam());
             getGuestBwProvisioner().allocateBwForGuest(guest, guest.getCurrentRequestedBw());
             getGuestScheduler().allocatePesForGuest(guest, guest.getCurrentRequestedMips());
@@ -164,7 +162,7 @@ public interface HostEntity extends CoreAttributes {
         getGuestsMigratingIn().remove(guest);
         getGuestList().remove(guest);
         //Log.printlnConcat(getClassName()," # ",getId()," removeMigratingInGuest: ",guest.getClassName()," #",guest.getId()," is deleted from the list");
-        getGuestScheduler().getGuestsMigratingIn().remove(guest.getUid());
+        getGuestScheduler().getGuestsMigratingInHandles().clear(guest.getHandle());
         guest.setInMigration(false);
     }
 
@@ -195,7 +193,7 @@ public interface HostEntity extends CoreAttributes {
                 System.exit(0);
             }
 
-            getGuestScheduler().getGuestsMigratingIn().add(guest.getUid());
+            getGuestScheduler().getGuestsMigratingInHandles().set(guest.getHandle());
             if (!getGuestScheduler().allocatePesForGuest(guest, guest.getCurrentRequestedMips())) {
                 Log.printlnConcat("[host.addMigratingInGuest] Allocation of ", guest.getClassName(), " #", guest.getId(), " to ", getClassName(), " #",
 								  getId(), " failed by MIPS");
@@ -8,6 +8,7 @@
 package org.cloudbus.cloudsim.core;
 
 import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelTable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -43,6 +44,15 @@ public interface PowerHostEntity extends HostEntity {
      */
     PowerModel getPowerModel();
 
+    /**
+     * Gets the compiled power model, which implementations should cache until the power model changes.
+     *
+     * @return the compiled power model
+     */
+    default PowerModelTable getCompiledPowerModel() {
+        return getPowerModel().compile();
+    }
+
     /**
      * Gets the power. For this moment only consumed by all PEs.
      *
@@ -92,6 +102,22 @@ public interface PowerHostEntity extends HostEntity {
         return (fromPower + (toPower - fromPower) / 2) * time;
     }
 
+    /**
+     * Gets the energy consumption while the utilization changes linearly, integrated in closed form
+     * over the compiled power model.
+     *
+     * @param fromUtilization the initial utilization percentage
+     * @param toUtilization the final utilization percentage
+     * @param time the time
+     * @return the energy, or 0 if the host was switched off
+     */
+    default double getEnergy(double fromUtilization, double toUtilization, double time) {
+        if (fromUtilization == 0) {
+            return 0;
+        }
+        return getCompiledPowerModel().getEnergy(fromUtilization, toUtilization, time);
+    }
+
     /**
      * Gets the migratable containers.
      *
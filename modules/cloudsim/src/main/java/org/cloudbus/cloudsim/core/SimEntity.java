@@ -12,8 +12,6 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.NetworkTopology;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 
-import java.util.Iterator;
-
 /**
  * This class represents a simulation entity. An entity handles events and can send events to other
  * entities. When this class is extended, there are a few methods that need to be implemented:
@@ -43,7 +41,7 @@ public abstract class SimEntity implements Cloneable {
 	private String name;
 	private int id;
 	private EntityStatus state;
-	protected EventQueue incomingEvents;
+	protected DeferredQueue incomingEvents;
 
 	/**
 	 * Creates a new entity.
@@ -57,7 +55,7 @@ public abstract class SimEntity implements Cloneable {
 		this.name = name;
 		id = -1;
 		state = EntityStatus.RUNNABLE;
-		incomingEvents = new EventQueue();
+		incomingEvents = new DeferredQueue();
 
 		CloudSim.addEntity(this);
 	}
@@ -80,7 +78,7 @@ public abstract class SimEntity implements Cloneable {
 		return id;
 	}
 
-	public EventQueue getIncomingEvents() {
+	public DeferredQueue getIncomingEvents() {
 		return incomingEvents;
 	}
 
@@ -92,13 +90,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the int
 	 */
 	public int waiting(Predicate p) {
-		int count = 0;
-		for (SimEvent event : incomingEvents) {
-			if ((event.getDestinationId() == id) && (p.match(event))) {
-				count++;
-			}
-		}
-		return count;
+		return incomingEvents.count(p);
 	}
 
 	/**
@@ -112,16 +104,7 @@ public abstract class SimEntity implements Cloneable {
 			return null;
 		}
 
-		SimEvent ev;
-		Iterator<SimEvent> iterator = incomingEvents.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestinationId() == id && p.match(ev)) {
-				iterator.remove();
-				return ev;
-			}
-		}
-		return null;
+		return incomingEvents.removeFirst(p);
 	}
 
 	/**
@@ -131,14 +114,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the sim event
 	 */
 	public SimEvent findFirstDeferred(Predicate p) {
-		SimEvent ev;
-		for (SimEvent simEvent : incomingEvents) {
-			ev = simEvent;
-			if (ev.getDestinationId() == id && p.match(ev)) {
-				return ev;
-			}
-		}
-		return null;
+		return incomingEvents.findFirst(p);
 	}
 
 	/** Schedule event functions */
@@ -149,12 +125,15 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, which can be used as cancellation handle, or <tt>null</tt> if
+	 *         the simulation is not running
+	 * @see #cancelEvent(SimEvent)
 	 */
-	public void schedule(int dstId, double delay, CloudSimTags tag, Object data) {
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag, Object data) {
 		if (!CloudSim.running()) {
-			return;
+			return null;
 		}
-		CloudSim.send(id, dstId, delay, tag, data);
+		return CloudSim.send(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -163,9 +142,50 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the scheduled event, which can be used as cancellation handle
 	 */
-	public void schedule(int dstId, double delay, CloudSimTags tag) {
-		schedule(dstId, delay, tag, null);
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag) {
+		return schedule(dstId, delay, tag, null);
+	}
+
+	/**
+	 * Sends an event to another entity by id number, with a primitive int payload.
+	 * 
+	 * @param dstId The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag event type.
+	 * @param data0 the first element of the payload
+	 * @param data1 the second element of the payload
+	 * @param data2 the third element of the payload
+	 * @return the scheduled event, which can be used as cancellation handle, or <tt>null</tt> if
+	 *         the simulation is not running
+	 * @see SimEvent#getIntData(int)
+	 */
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag, int data0, int data1, int data2) {
+		if (!CloudSim.running()) {
+			return null;
+		}
+		return CloudSim.send(id, dstId, delay, tag, data0, data1, data2);
+	}
+
+	/**
+	 * Sends an event to another entity by id number, with a primitive long and double payload.
+	 * 
+	 * @param dstId The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag event type.
+	 * @param longData the long payload
+	 * @param doubleData the double payload
+	 * @return the scheduled event, which can be used as cancellation handle, or <tt>null</tt> if
+	 *         the simulation is not running
+	 * @see SimEvent#getLongData()
+	 * @see SimEvent#getDoubleData()
+	 */
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag, long longData, double doubleData) {
+		if (!CloudSim.running()) {
+			return null;
+		}
+		return CloudSim.send(id, dstId, delay, tag, longData, doubleData);
 	}
 
 	/**
@@ -243,12 +263,14 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, which can be used as cancellation handle, or <tt>null</tt> if
+	 *         the simulation is not running
 	 */
-	public void scheduleFirst(int dstId, double delay, CloudSimTags tag, Object data) {
+	public SimEvent scheduleFirst(int dstId, double delay, CloudSimTags tag, Object data) {
 		if (!CloudSim.running()) {
-			return;
+			return null;
 		}
-		CloudSim.sendFirst(id, dstId, delay, tag, data);
+		return CloudSim.sendFirst(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -382,6 +404,19 @@ public abstract class SimEntity implements Cloneable {
 		return CloudSim.cancel(id, p);
 	}
 
+	/**
+	 * Cancels an event previously scheduled by this entity, in O(1).
+	 * 
+	 * @param ev The event handle returned by {@link #schedule(int, double, CloudSimTags, Object)}
+	 * @return true if the event was still pending in the future queue
+	 */
+	public boolean cancelEvent(SimEvent ev) {
+		if (ev == null || ev.getSourceId() != id) {
+			return false;
+		}
+		return CloudSim.cancel(ev);
+	}
+
 	/**
 	 * Gets the first event matching a predicate from the deferred queue, or if none match, wait for
 	 * a matching event to arrive.
@@ -443,15 +478,18 @@ public abstract class SimEntity implements Cloneable {
 	 * The run loop to process events fired during the simulation.
 	 * The events that will be processed are defined
 	 * in the {@link #processEvent(org.cloudbus.cloudsim.core.SimEvent)} method.
+	 * The simulation invokes it only in the clock ticks in which the entity has received
+	 * events or has been woken up.
 	 *
 	 * @see #processEvent(org.cloudbus.cloudsim.core.SimEvent)
 	 */
 	public void run() {
-		SimEvent ev =  incomingEvents.poll();
+		SimEvent ev = CloudSim.running() ? incomingEvents.poll() : null;
 
 		while (ev != null) {
 			processEvent(ev);
-			if (state != EntityStatus.RUNNABLE) {
+			CloudSim.getContext().recycle(ev);
+			if (state != EntityStatus.RUNNABLE || !CloudSim.running()) {
 				break;
 			}
 			ev = incomingEvents.poll();
@@ -533,7 +571,57 @@ public abstract class SimEntity implements Cloneable {
 		if (dstId < 0) {
 			return;
 		}
+		schedule(dstId, sendDelay(dstId, delay), cloudSimTag, data);
+	}
+
+	/**
+	 * Sends an event/message to another entity by <tt>delaying</tt> the simulation time from the
+	 * current time, with a primitive int payload that is carried without allocations.
+	 *
+	 * @param dstId the id number of the destination entity
+	 * @param delay how long from the current simulation time the event should be sent. If delay is
+	 *            a negative number, then it will be changed to 0
+	 * @param cloudSimTag an user-defined number representing the type of an event/message
+	 * @param data0 the first element of the payload
+	 * @param data1 the second element of the payload
+	 * @param data2 the third element of the payload
+	 * @see SimEvent#getIntData(int)
+	 */
+	protected void send(int dstId, double delay, CloudSimTags cloudSimTag, int data0, int data1, int data2) {
+		if (dstId < 0) {
+			return;
+		}
+		schedule(dstId, sendDelay(dstId, delay), cloudSimTag, data0, data1, data2);
+	}
+
+	/**
+	 * Sends an event/message to another entity by <tt>delaying</tt> the simulation time from the
+	 * current time, with a primitive long and double payload that is carried without allocations.
+	 *
+	 * @param dstId the id number of the destination entity
+	 * @param delay how long from the current simulation time the event should be sent. If delay is
+	 *            a negative number, then it will be changed to 0
+	 * @param cloudSimTag an user-defined number representing the type of an event/message
+	 * @param longData the long payload
+	 * @param doubleData the double payload
+	 * @see SimEvent#getLongData()
+	 * @see SimEvent#getDoubleData()
+	 */
+	protected void send(int dstId, double delay, CloudSimTags cloudSimTag, long longData, double doubleData) {
+		if (dstId < 0) {
+			return;
+		}
+		schedule(dstId, sendDelay(dstId, delay), cloudSimTag, longData, doubleData);
+	}
 
+	/**
+	 * Computes the actual delay of a message sent to another entity, adding the network delay.
+	 *
+	 * @param dstId the id number of the destination entity
+	 * @param delay the requested delay; if negative, it is changed to 0
+	 * @return the delay of the message
+	 */
+	private double sendDelay(int dstId, double delay) {
 		// if delay is -ve, then it doesn't make sense. So resets to 0.0
 		if (delay < 0) {
 			delay = 0;
@@ -543,17 +631,11 @@ public abstract class SimEntity implements Cloneable {
 			throw new IllegalArgumentException("The specified delay is infinite value");
 		}
 
-		if (dstId < 0) {
-			Log.printlnConcat(getName(), ".send(): Error - invalid entity id ", dstId);
-			return;
-		}
-
 		int srcId = getId();
 		if (dstId != srcId) {// only delay messages between different entities
 			delay += getNetworkDelay(srcId, dstId);
 		}
-
-		schedule(dstId, delay, cloudSimTag, data);
+		return delay;
 	}
 
 	/**
@@ -634,6 +716,21 @@ public abstract class SimEntity implements Cloneable {
 		send(dstId, 0, tag, null);
 	}
 
+	/**
+	 * Sends an event/message to another entity, with a primitive int payload that is carried
+	 * without allocations.
+	 *
+	 * @param dstId the id number of the destination entity
+	 * @param tag      an user-defined number representing the type of an event/message
+	 * @param data0 the first element of the payload
+	 * @param data1 the second element of the payload
+	 * @param data2 the third element of the payload
+	 * @see SimEvent#getIntData(int)
+	 */
+	protected void sendNow(int dstId, CloudSimTags tag, int data0, int data1, int data2) {
+		send(dstId, 0, tag, data0, data1, data2);
+	}
+
 	/**
 	 * Sends an event/message to another entity, with a tag representing the event type.
 	 *
@@ -17,10 +17,10 @@ package org.cloudbus.cloudsim.core;
 public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	/** Internal event type. **/
-	private final int etype;
+	private int etype;
 
 	/** The time that this event was scheduled, at which it should occur. **/
-	private final double time;
+	private double time;
 
 	/** Time that the event was removed from the queue to start service. **/
 	private double endWaitingTime;
@@ -32,7 +32,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	private int entDst;
 
 	/** The user defined type of the event. **/
-	private final CloudSimTags tag;
+	private CloudSimTags tag;
 
 	/** 
          * Any data the event is carrying. 
@@ -40,7 +40,19 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          * But this modification would incur several changes in the simulator core
          * that has to be assessed first.
          **/
-	private final Object data;
+	private Object data;
+
+	/** Whether the event carries the primitive payload of {@link #getIntData(int)}. */
+	private boolean intPayload;
+
+	/** The primitive int payload, used to send ACKs without allocating an <tt>int[]</tt>. */
+	private int intData0, intData1, intData2;
+
+	/** The primitive long payload. */
+	private long longData;
+
+	/** The primitive double payload. */
+	private double doubleData;
 
         /**
          * An attribute to help CloudSim to identify the order of received events
@@ -52,6 +64,15 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          */
 	private long serial = -1;
 
+	/** The sequence number assigned when the event was scheduled in the future queue. */
+	private long sequence = -1;
+
+	/**
+	 * The (source, tag) index entry of the event while it is pending in the future queue,
+	 * <tt>null</tt> once it has been delivered or cancelled.
+	 */
+	private EventIndex.Entry indexEntry = null;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -64,6 +85,18 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	// ------------------- PACKAGE LEVEL METHODS --------------------------
 	SimEvent(int type, double time, int src, int dest, CloudSimTags tag, Object edata) {
+		init(type, time, src, dest, tag, edata);
+	}
+
+	SimEvent(int type, double time, int src) {
+		this(type, time, src, src, CloudActionTags.BLANK, null);
+	}
+
+	/**
+	 * Initialises the event, either a new one or one taken from the event pool of the
+	 * {@link SimulationContext}.
+	 */
+	void init(int type, double time, int src, int dest, CloudSimTags tag, Object edata) {
 		etype = type;
 		this.time = time;
 		entSrc = src;
@@ -71,16 +104,70 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.tag = tag;
 		data = edata;
 		endWaitingTime = -1.0;
+		serial = -1;
+		sequence = -1;
+		indexEntry = null;
+		intPayload = false;
+		intData0 = intData1 = intData2 = 0;
+		longData = 0;
+		doubleData = 0;
 	}
 
-	SimEvent(int type, double time, int src) {
-		this(type, time, src, src, CloudActionTags.BLANK, null);
+	/**
+	 * Clears the references held by the event before it is returned to the event pool.
+	 */
+	void recycle() {
+		etype = ENULL;
+		tag = null;
+		data = null;
+		indexEntry = null;
+	}
+
+	/**
+	 * Sets the primitive int payload of the event.
+	 */
+	void setIntData(int data0, int data1, int data2) {
+		intPayload = true;
+		intData0 = data0;
+		intData1 = data1;
+		intData2 = data2;
+	}
+
+	/**
+	 * Sets the primitive long and double payload of the event.
+	 */
+	void setPrimitiveData(long longData, double doubleData) {
+		this.longData = longData;
+		this.doubleData = doubleData;
 	}
 
 	protected void setSerial(long serial) {
 		this.serial = serial;
 	}
 
+	long getSequence() {
+		return sequence;
+	}
+
+	EventIndex.Entry getIndexEntry() {
+		return indexEntry;
+	}
+
+	void setIndexEntry(EventIndex.Entry indexEntry, long sequence) {
+		this.indexEntry = indexEntry;
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Checks if the event is still waiting in the future queue, i.e. it has neither been
+	 * delivered to its destination nor cancelled.
+	 * 
+	 * @return <tt>true</tt> if the event is pending
+	 */
+	public boolean isPending() {
+		return EventIndex.isPending(this);
+	}
+
 	/**
 	 * Sets the time that the event was removed from the queue to start service. 
 	 * 
@@ -197,11 +284,71 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return A reference to the data
 	 */
 	public Object getData() {
+		if (data == null && intPayload) {
+			// Receivers that expect an int[] still work, at the cost of an allocation
+			data = new int[] { intData0, intData1, intData2 };
+		}
 		return data;
 	}
 
+	/**
+	 * Gets an element of the int payload of this event, without allocations when it has been sent
+	 * with {@link CloudSim#send(int, int, double, CloudSimTags, int, int, int)}. For events
+	 * carrying an <tt>int[]</tt> as data, the corresponding element of the array is returned.
+	 *
+	 * @param index the index of the element, from 0 to 2
+	 * @return the element of the int payload
+	 */
+	public int getIntData(int index) {
+		if (!intPayload) {
+			return ((int[]) data)[index];
+		}
+		return switch (index) {
+			case 0 -> intData0;
+			case 1 -> intData1;
+			case 2 -> intData2;
+			default -> throw new IndexOutOfBoundsException(index);
+		};
+	}
+
+	/**
+	 * Checks if the event carries a primitive int payload.
+	 *
+	 * @return <tt>true</tt> if the event has been sent with an int payload
+	 */
+	public boolean hasIntData() {
+		return intPayload;
+	}
+
+	/**
+	 * Gets the long payload of this event.
+	 *
+	 * @return the long payload, 0 if none has been sent
+	 * @see CloudSim#send(int, int, double, CloudSimTags, long, double)
+	 */
+	public long getLongData() {
+		return longData;
+	}
+
+	/**
+	 * Gets the double payload of this event.
+	 *
+	 * @return the double payload, 0 if none has been sent
+	 * @see CloudSim#send(int, int, double, CloudSimTags, long, double)
+	 */
+	public double getDoubleData() {
+		return doubleData;
+	}
+
 	@Override
 	public Object clone() {
-		return new SimEvent(etype, time, entSrc, entDst, tag, data);
+		SimEvent copy = new SimEvent(etype, time, entSrc, entDst, tag, data);
+		copy.intPayload = intPayload;
+		copy.intData0 = intData0;
+		copy.intData1 = intData1;
+		copy.intData2 = intData2;
+		copy.longData = longData;
+		copy.doubleData = doubleData;
+		return copy;
 	}
 }
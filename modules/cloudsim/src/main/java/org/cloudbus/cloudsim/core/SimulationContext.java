@@ -0,0 +1,1456 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * Holds the whole state of one simulation run: the clock, the future event queue,
+ * the registered entities, the wait predicates and the ids of the core entities.
+ * <p>
+ * The static {@link CloudSim} API delegates to a process-wide default context, shared by all the
+ * threads, so that a thread can monitor, pause or resume the simulation run by another one. Several
+ * independent simulations can still be executed concurrently within the same JVM: a context is
+ * bound to a single thread only while that thread runs a task through {@link #call(Callable)}.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class SimulationContext {
+
+	/** The context of the threads that are not running a task of another context. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context bound to each thread by {@link #call(Callable)}, if any. */
+	private static final ThreadLocal<SimulationContext> BOUND = new ThreadLocal<>();
+
+	/** The Constant NOT_FOUND. */
+	private static final int NOT_FOUND = -1;
+
+	/** The id of CIS entity. */
+	private int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	private int shutdownId = -1;
+
+	/** The CIS object. */
+	private CloudInformationService cis = null;
+
+	/** The trace flag. */
+	private boolean traceFlag = false;
+
+	/** The calendar. */
+	private Calendar calendar = null;
+
+	/** The termination time. */
+	private double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	private double minTimeBetweenEvents = 0.01;
+
+	/** The entities. */
+	private List<SimEntity> entities;
+
+	/** The future event queue. */
+	private EventQueue future;
+
+	/** The (source, tag) index of the pending events of the future queue. */
+	private EventIndex eventIndex;
+
+	/** The current simulation clock. */
+	private double clock;
+
+	/** Flag for checking if the simulation is running. */
+	private volatile boolean running;
+
+	/** The entities by name. */
+	private Map<String, SimEntity> entitiesByName;
+
+	/** The ids of the entities that have something to do in the next tick, in insertion order. */
+	private int[] runnable = new int[16];
+
+	/** The number of valid ids in {@link #runnable}. */
+	private int runnableCount;
+
+	/** The entities already present in {@link #runnable}. */
+	private final BitSet runnableMarks = new BitSet();
+
+	/** The number of executed clock ticks. */
+	private long ticks;
+
+	/** The total number of entity runs over all the clock ticks. */
+	private long runnableEntitiesRun;
+
+	/** The number of entities run in the last clock tick. */
+	private int lastTickRunnableEntities;
+
+	/** The maximum number of events kept in the event pool. */
+	private static final int MAX_POOLED_EVENTS = 4096;
+
+	/** Whether delivered events are recycled through {@link #eventPool}. */
+	private boolean eventPooling = false;
+
+	/** The processed events available for reuse. */
+	private final ArrayDeque<SimEvent> eventPool = new ArrayDeque<>();
+
+	/** The number of events allocated since the initialisation of the simulation. */
+	private long eventsAllocated;
+
+	/** The number of events taken from the pool since the initialisation of the simulation. */
+	private long eventsReused;
+
+	/** The predicates used in entity wait methods. */
+	private Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	private volatile boolean paused = false;
+
+	/** The pause at. */
+	private volatile long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	private volatile boolean abruptTerminate = false;
+
+	/** The number of threads used to run the entities; 1 means sequential execution. */
+	private int parallelism = 1;
+
+	/** Whether the parallel execution may use the network topology as lookahead. */
+	private boolean lookaheadEnabled = false;
+
+	/** The lookahead of the running simulation, 0 if events are only parallelised per timestamp. */
+	private double lookahead = 0;
+
+	/** The threads that run the entities concurrently, created on first use. */
+	private ExecutorService workers;
+
+	/** Whether the entities are currently running concurrently. */
+	private boolean parallelPhase = false;
+
+	/** The outbox of the entity run by each worker thread during a parallel phase. */
+	private final ThreadLocal<EventOutbox> outboxes = new ThreadLocal<>();
+
+	/** The number of pending {@link SimEvent#CREATE} events, which prevent lookahead windows. */
+	private int pendingCreates = 0;
+
+	/**
+	 * The number of future events for an information service. Lookahead windows are not opened
+	 * while there are some, so that its registry is updated at the right time.
+	 */
+	private int registryEvents = 0;
+
+	/**
+	 * The guests created in this simulation, indexed by their {@link GuestEntity#getHandle() handle}.
+	 * It is synchronized on, as the guests may be created by entities running concurrently.
+	 */
+	private final List<GuestEntity> guests = new ArrayList<>();
+
+	/** The network topology used to delay messages between the entities of this simulation. */
+	private final NetworkTopology.Topology networkTopology = new NetworkTopology.Topology();
+
+	/**
+	 * Gets the context of the calling thread: the one it is running a task of, if any, or the
+	 * process-wide default context otherwise.
+	 *
+	 * @return the current simulation context
+	 */
+	public static SimulationContext current() {
+		SimulationContext context = BOUND.get();
+		return context != null ? context : DEFAULT;
+	}
+
+	/**
+	 * Runs a task with this context bound to the calling thread, restoring the previously bound
+	 * context afterwards. This is the entry point to run a whole simulation (from
+	 * {@link CloudSim#init(int, Calendar, boolean)} to {@link CloudSim#startSimulation()}) on a
+	 * pooled thread.
+	 *
+	 * @param task the task to execute
+	 * @param <T> the task result type
+	 * @return the task result
+	 * @throws Exception any exception thrown by the task
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = BOUND.get();
+		BOUND.set(this);
+		try {
+			return task.call();
+		} finally {
+			if (previous == null) {
+				BOUND.remove();
+			} else {
+				BOUND.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Initialise the simulation for stand alone simulations. This function should be called at the
+	 * start of the simulation.
+	 */
+	protected void initialize() {
+		initialize(new EventQueueHeap());
+	}
+
+	/**
+	 * Initialise the simulation for stand alone simulations, using a given future event list.
+	 *
+	 * @param futureQueue the (empty) future event queue to use
+	 */
+	protected void initialize(EventQueue futureQueue) {
+		if (!futureQueue.isEmpty()) {
+			throw new IllegalArgumentException("The future event queue must be empty.");
+		}
+		Log.println("Initialising...");
+		entities = new ArrayList<>();
+		entitiesByName = new LinkedHashMap<>();
+		future = futureQueue;
+		eventIndex = new EventIndex();
+		waitPredicates = new HashMap<>();
+		clock = 0;
+		running = false;
+		runnableCount = 0;
+		runnableMarks.clear();
+		ticks = 0;
+		runnableEntitiesRun = 0;
+		lastTickRunnableEntities = 0;
+		eventPool.clear();
+		eventsAllocated = 0;
+		eventsReused = 0;
+		pendingCreates = 0;
+		registryEvents = 0;
+		lookahead = 0;
+		synchronized (guests) {
+			guests.clear();
+		}
+	}
+
+	/**
+	 * Initialises all the common attributes.
+	 *
+	 * @param _calendar the _calendar
+	 * @param _traceFlag the _trace flag
+	 * @param numUser number of users
+	 * @param futureQueue the (empty) future event queue to use
+	 * @throws Exception This happens when creating this entity before initialising CloudSim package
+	 *             or this entity name is <tt>null</tt> or empty
+	 */
+	protected void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser,
+			EventQueue futureQueue) throws Exception {
+		initialize(futureQueue);
+		// NOTE: the order for the below 3 lines are important
+		traceFlag = _traceFlag;
+
+		// Set the current Wall clock time as the starting time of
+		// simulation
+		if (_calendar == null) {
+			calendar = Calendar.getInstance();
+		} else {
+			calendar = _calendar;
+		}
+
+		// creates a CloudSimShutdown object
+		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
+		shutdownId = shutdown.getId();
+	}
+
+	/**
+	 * Creates the Cloud Information Service of this simulation.
+	 *
+	 * @throws Exception if the entity cannot be created
+	 */
+	protected void initCloudInformationService() throws Exception {
+		cis = new CloudInformationService("CloudInformationService");
+		cisId = cis.getId();
+	}
+
+	/**
+	 * Resets the attributes configured by {@link CloudSim#init(int, Calendar, boolean)}.
+	 */
+	protected void resetCommonVariable() {
+		cisId = -1;
+		shutdownId = -1;
+		cis = null;
+		calendar = null;
+		traceFlag = false;
+	}
+
+	// ======== ACCESSORS ===============//
+
+	public double clock() {
+		if (parallelPhase) {
+			// Entities running within a lookahead window have their own clock
+			EventOutbox outbox = outboxes.get();
+			if (outbox != null) {
+				return outbox.clock;
+			}
+		}
+		return clock;
+	}
+
+	/**
+	 * Assigns the handle of a new guest of this simulation.
+	 *
+	 * @param guest the guest
+	 * @return the handle
+	 * @see GuestEntity#nextHandle(GuestEntity)
+	 */
+	int registerGuest(GuestEntity guest) {
+		synchronized (guests) {
+			guests.add(guest);
+			return guests.size() - 1;
+		}
+	}
+
+	/**
+	 * Gets a guest of this simulation by its handle.
+	 *
+	 * @param handle the {@link GuestEntity#getHandle() handle} of the guest
+	 * @return the guest, or <tt>null</tt> if no guest of this simulation has the handle
+	 */
+	public GuestEntity getGuest(int handle) {
+		synchronized (guests) {
+			return handle >= 0 && handle < guests.size() ? guests.get(handle) : null;
+		}
+	}
+
+	public boolean running() {
+		return running;
+	}
+
+	public boolean isPaused() {
+		return paused;
+	}
+
+	public double getMinTimeBetweenEvents() {
+		return minTimeBetweenEvents;
+	}
+
+	protected void setMinTimeBetweenEvents(double minTimeBetweenEvents) {
+		this.minTimeBetweenEvents = minTimeBetweenEvents;
+	}
+
+	public Calendar getCalendar() {
+		return calendar;
+	}
+
+	public boolean isTraceFlag() {
+		return traceFlag;
+	}
+
+	public int getCloudInfoServiceEntityId() {
+		return cisId;
+	}
+
+	public CloudInformationService getCloudInfoService() {
+		return cis;
+	}
+
+	public int getShutdownEntityId() {
+		return shutdownId;
+	}
+
+	/**
+	 * Gets the network topology of this simulation.
+	 *
+	 * @return the network topology state
+	 */
+	public NetworkTopology.Topology getNetworkTopology() {
+		return networkTopology;
+	}
+
+	/**
+	 * Gets the number of clock ticks (i.e. distinct event times) executed so far.
+	 *
+	 * @return the number of clock ticks
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Gets the total number of entity runs over all the clock ticks executed so far.
+	 * Divided by {@link #getTicks()}, it gives the average number of runnable entities per tick.
+	 *
+	 * @return the number of entity runs
+	 */
+	public long getRunnableEntitiesRun() {
+		return runnableEntitiesRun;
+	}
+
+	/**
+	 * Gets the number of entities run in the last clock tick.
+	 *
+	 * @return the number of runnable entities of the last tick
+	 */
+	public int getLastTickRunnableEntities() {
+		return lastTickRunnableEntities;
+	}
+
+	/**
+	 * Checks if event pooling is enabled.
+	 *
+	 * @return <tt>true</tt> if the delivered events are recycled
+	 * @see #setEventPooling(boolean)
+	 */
+	public boolean isEventPooling() {
+		return eventPooling;
+	}
+
+	/**
+	 * Enables or disables event pooling. When enabled, the events are returned to a pool as soon as
+	 * their destination entity has processed them, and reused by the next sends. The entities must
+	 * then not keep references to the events they process, nor use the handles returned by
+	 * {@link #send(int, int, double, CloudSimTags, Object)} after the event has been delivered.
+	 * Pooling is disabled by default.
+	 *
+	 * @param eventPooling <tt>true</tt> to recycle the delivered events
+	 */
+	public void setEventPooling(boolean eventPooling) {
+		this.eventPooling = eventPooling;
+		if (!eventPooling) {
+			eventPool.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of events allocated since the initialisation of the simulation.
+	 *
+	 * @return the number of allocated events
+	 */
+	public long getEventsAllocated() {
+		return eventsAllocated;
+	}
+
+	/**
+	 * Gets the number of events taken from the event pool since the initialisation of the simulation.
+	 *
+	 * @return the number of reused events
+	 */
+	public long getEventsReused() {
+		return eventsReused;
+	}
+
+	/**
+	 * Gets the number of threads used to run the entities.
+	 *
+	 * @return the parallelism, 1 for sequential execution
+	 * @see #setParallelism(int)
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of threads used to run the entities. With more than one thread, the entities
+	 * that receive events with the same timestamp are run concurrently, each one processing its own
+	 * events; the events they send are then scheduled in the same order as in a sequential
+	 * execution, so the results do not depend on the number of threads.
+	 * <p>
+	 * Entities running concurrently must only interact through events: they must not access the
+	 * state of other entities, nor create new entities. The only exception is the registry of the
+	 * {@link CloudInformationService}s, which are run before the other entities. Output printed
+	 * through {@link Log} may be interleaved differently.
+	 *
+	 * @param parallelism the number of threads, 1 (the default) for sequential execution
+	 * @see #setLookaheadEnabled(boolean)
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be positive, but is: " + parallelism);
+		}
+		if (parallelPhase) {
+			throw new IllegalStateException("The parallelism cannot be changed while the entities are running.");
+		}
+		shutdownWorkers();
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Shuts down the threads running the entities concurrently, if any. They are created again
+	 * by the next parallel clock tick.
+	 */
+	private void shutdownWorkers() {
+		if (workers != null) {
+			workers.shutdown();
+			workers = null;
+		}
+	}
+
+	/**
+	 * Checks if the parallel execution uses the network topology as lookahead.
+	 *
+	 * @return <tt>true</tt> if lookahead windows are enabled
+	 * @see #setLookaheadEnabled(boolean)
+	 */
+	public boolean isLookaheadEnabled() {
+		return lookaheadEnabled;
+	}
+
+	/**
+	 * Enables a conservative parallel execution based on lookahead, which takes effect when the
+	 * parallelism is greater than one and the network topology is enabled. The lookahead is the
+	 * minimum delay between the entities mapped to the {@link NetworkTopology}: all the events
+	 * falling within the lookahead from the first pending event are processed concurrently by
+	 * their entities, each one with its own clock.
+	 * <p>
+	 * Hence, every event sent between two entities must be delayed by at least the lookahead,
+	 * e.g. by mapping all of them to the network topology; an {@link IllegalStateException} is
+	 * thrown otherwise.
+	 *
+	 * @param lookaheadEnabled <tt>true</tt> to enable lookahead windows
+	 */
+	public void setLookaheadEnabled(boolean lookaheadEnabled) {
+		this.lookaheadEnabled = lookaheadEnabled;
+	}
+
+	/**
+	 * Gets the lookahead used by the running simulation.
+	 *
+	 * @return the lookahead, or 0 if no lookahead windows are used
+	 */
+	public double getLookahead() {
+		return lookahead;
+	}
+
+	/**
+	 * Gets the future event queue.
+	 *
+	 * @return the future event queue
+	 */
+	protected EventQueue getFutureQueue() {
+		return future;
+	}
+
+	public int getNumEntities() {
+		return entities.size();
+	}
+
+	public SimEntity getEntity(int id) {
+		return entities.get(id);
+	}
+
+	public SimEntity getEntity(String name) {
+		return entitiesByName.get(name);
+	}
+
+	public int getEntityId(String name) {
+		SimEntity obj = entitiesByName.get(name);
+		if (obj == null) {
+			return NOT_FOUND;
+		} else {
+			return obj.getId();
+		}
+	}
+
+	public List<SimEntity> getEntityList() {
+		// create a new list to prevent the user from changing
+		// the list of entities used by Simulation
+		return new LinkedList<>(entities);
+	}
+
+	// ======== SIMULATION METHODS ===============//
+
+	/**
+	 * Add a new entity to the simulation.
+	 *
+	 * @param e The new entity
+	 */
+	public void addEntity(SimEntity e) {
+		if (parallelPhase) {
+			throw new IllegalStateException("Entities cannot be created while entities run concurrently.");
+		}
+		SimEvent evt;
+		if (running) {
+			// Post an event to make this entity
+			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
+			schedule(evt, false);
+		}
+		if (e.getId() == -1) { // Only add once!
+			int id = entities.size();
+			e.setId(id);
+			entities.add(e);
+			entitiesByName.put(e.getName(), e);
+		}
+	}
+
+	/**
+	 * Internal method used to add a new entity to the simulation when the simulation is running.
+	 *
+	 * @param e The new entity
+	 */
+	protected void addEntityDynamically(SimEntity e) {
+		if (e == null) {
+			throw new IllegalArgumentException("Adding null entity.");
+		} else {
+			printMessage("Adding: " + e.getName());
+		}
+		e.startEntity();
+		markRunnable(e.getId());
+	}
+
+	/**
+	 * Internal method used to run one tick of the simulation.
+	 *
+	 * @return true if there are events to be processed, false if event queue is empty
+	 */
+	protected boolean runClockTick() {
+		// Run, in id order, only the entities that received events or have been woken up
+		int n = runnableCount;
+		int[] ids = runnable;
+		runnable = new int[Math.max(16, n)];
+		runnableCount = 0;
+		runnableMarks.clear();
+		if (n > 1) {
+			Arrays.sort(ids, 0, n);
+		}
+
+		int run = 0;
+		if (parallelism > 1 && n > 1) {
+			List<EventOutbox> boxes = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				SimEntity ent = entities.get(ids[i]);
+				if (ent.getState() != SimEntity.EntityStatus.RUNNABLE) {
+					continue;
+				}
+				if (ent instanceof CloudInformationService) {
+					// Its registry is read directly by the other entities: update it beforehand,
+					// as its low id would do in a sequential run
+					ent.run();
+					run++;
+				} else {
+					boxes.add(new EventOutbox(ent, clock, clock));
+				}
+			}
+			run += runConcurrently(boxes, o -> {
+				o.entity.run();
+				o.runs++;
+			});
+		} else {
+			SimEntity ent;
+			for (int i = 0; i < n; i++) {
+				ent = entities.get(ids[i]);
+				if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
+					ent.run();
+					run++;
+				}
+			}
+		}
+		ticks++;
+		runnableEntitiesRun += run;
+		lastTickRunnableEntities = run;
+
+		if (!running) {
+			// terminated by one of the entities
+			return false;
+		}
+
+		SimEvent first = peekFuture();
+		if (first == null) {
+			running = false;
+			printMessage(clock + ": Simulation: No more future events");
+			return false;
+		}
+
+		double clk = first.eventTime();
+		if (lookahead > 0 && runWindow(clk)) {
+			return true;
+		}
+		while (running && (first = peekFuture()) != null && first.eventTime() == clk) {
+			dispatchEvent(pollFuture());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Runs a set of entities concurrently, each one with its outbox, then schedules the events
+	 * they have sent: by send time, then by entity id, then in program order, as a sequential
+	 * execution would do.
+	 *
+	 * @param boxes the outboxes of the entities, sorted by entity id
+	 * @param body what to do with each entity
+	 * @return the number of entity runs
+	 */
+	private int runConcurrently(List<EventOutbox> boxes, Consumer<EventOutbox> body) {
+		if (workers == null) {
+			workers = Executors.newFixedThreadPool(parallelism, r -> {
+				Thread t = new Thread(r, "CloudSim-worker");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<>(boxes.size());
+		for (EventOutbox box : boxes) {
+			tasks.add(() -> call(() -> {
+				outboxes.set(box);
+				try {
+					body.accept(box);
+				} finally {
+					outboxes.remove();
+				}
+				return null;
+			}));
+		}
+
+		parallelPhase = true;
+		try {
+			for (Future<Void> f : workers.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running the entities.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException re) {
+				throw re;
+			} else if (cause instanceof Error err) {
+				throw err;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			parallelPhase = false;
+		}
+
+		int runs = 0;
+		List<EventOutbox.Pending> sent = new ArrayList<>();
+		for (EventOutbox box : boxes) {
+			runs += box.runs;
+			eventsAllocated += box.allocated;
+			sent.addAll(box.pending);
+		}
+		sent.sort(Comparator.comparingDouble(EventOutbox.Pending::sendTime));
+		for (EventOutbox.Pending pending : sent) {
+			schedule(pending.event(), pending.first());
+		}
+		return runs;
+	}
+
+	/**
+	 * Processes concurrently all the events within the lookahead from the current time, each
+	 * entity processing its own events with its own clock.
+	 *
+	 * @param clk the time of the first pending event
+	 * @return <tt>false</tt> if no window can be opened now and the events have to be dispatched
+	 *         sequentially
+	 */
+	private boolean runWindow(double clk) {
+		double end = clk + lookahead;
+		if (terminateAt > clk) {
+			end = Math.min(end, terminateAt);
+		}
+		if (pauseAt > clk) {
+			end = Math.min(end, pauseAt);
+		}
+		if (pendingCreates > 0 || registryEvents > 0 || end <= clk) {
+			return false;
+		}
+
+		// Split the events of the window by target entity, in id order
+		Map<Integer, EventOutbox> boxes = new TreeMap<>();
+		SimEvent e;
+		while ((e = peekFuture()) != null && e.eventTime() < end) {
+			pollFuture();
+			int target = target(e);
+			EventOutbox box = boxes.get(target);
+			if (box == null) {
+				box = new EventOutbox(entities.get(target), clk, end);
+				boxes.put(target, box);
+			}
+			box.local.addEvent(e);
+		}
+
+		int runs = runConcurrently(new ArrayList<>(boxes.values()), this::runLocally);
+		runnableEntitiesRun += runs;
+		for (EventOutbox box : boxes.values()) {
+			clock = Math.max(clock, box.clock);
+		}
+		return true;
+	}
+
+	/**
+	 * Processes the events of an entity within a lookahead window, in the same way as the
+	 * sequential loop: all the events with the same time are delivered, then the entity is run.
+	 *
+	 * @param box the outbox of the entity
+	 */
+	private void runLocally(EventOutbox box) {
+		SimEvent e;
+		while (running && !abruptTerminate && (e = box.local.peek()) != null) {
+			double t = e.eventTime();
+			box.clock = t;
+			boolean wake = false;
+			while ((e = box.local.peek()) != null && e.eventTime() == t) {
+				wake |= deliver(box.local.poll()) >= 0;
+			}
+			if (wake && box.entity.getState() == SimEntity.EntityStatus.RUNNABLE) {
+				box.entity.run();
+				box.runs++;
+			}
+		}
+	}
+
+	/**
+	 * Adds an event to the future queue, registering it in the event index.
+	 *
+	 * @param e the event
+	 * @param first whether the event has to be placed before those with the same time
+	 * @return the event, which can be used as cancellation handle
+	 */
+	private SimEvent schedule(SimEvent e, boolean first) {
+		if (parallelPhase) {
+			// Scheduled afterwards, in a deterministic order
+			outbox().add(e, first);
+			return e;
+		}
+		eventIndex.scheduled(e);
+		if (e.getType() == SimEvent.CREATE) {
+			pendingCreates++;
+		} else if (isRegistryEvent(e)) {
+			registryEvents++;
+		}
+		if (first) {
+			future.addEventFirst(e);
+		} else {
+			future.addEvent(e);
+		}
+		return e;
+	}
+
+	/**
+	 * Gets the first pending event of the future queue, discarding the cancelled ones found
+	 * at its head.
+	 *
+	 * @return the first pending event, or <tt>null</tt> if there is none
+	 */
+	private SimEvent peekFuture() {
+		SimEvent e = future.peek();
+		while (e != null && !EventIndex.isPending(e)) {
+			discarded(future.poll());
+			e = future.peek();
+		}
+		return e;
+	}
+
+	/**
+	 * Removes the first pending event from the future queue.
+	 *
+	 * @return the first pending event, or <tt>null</tt> if there is none
+	 */
+	private SimEvent pollFuture() {
+		SimEvent e = peekFuture();
+		if (e != null) {
+			discarded(future.poll());
+			EventIndex.detach(e);
+		}
+		return e;
+	}
+
+	/**
+	 * Gets the entity an event is for.
+	 *
+	 * @param e the event
+	 * @return the id of the entity
+	 */
+	static int target(SimEvent e) {
+		return e.getType() == SimEvent.HOLD_DONE ? e.getSourceId() : e.getDestinationId();
+	}
+
+	/**
+	 * Checks if an event is for an information service, whose registry is read directly by the
+	 * other entities.
+	 *
+	 * @param e the event
+	 * @return <tt>true</tt> if the event is for an information service
+	 */
+	private boolean isRegistryEvent(SimEvent e) {
+		int target = target(e);
+		return e.getType() == SimEvent.SEND && entities != null && target >= 0 && target < entities.size()
+				&& entities.get(target) instanceof CloudInformationService;
+	}
+
+	/**
+	 * Updates the counters when an event leaves the future queue, either to be dispatched or
+	 * because it was cancelled.
+	 *
+	 * @param e the event
+	 */
+	private void discarded(SimEvent e) {
+		if (e.getType() == SimEvent.CREATE) {
+			pendingCreates--;
+		} else if (isRegistryEvent(e)) {
+			registryEvents--;
+		}
+	}
+
+	/**
+	 * Used to pause an entity for some time.
+	 *
+	 * @param srcId the entity source id
+	 * @param delay the delay
+	 */
+	public void pause(int srcId, double delay) {
+		SimEvent e = newEvent(SimEvent.HOLD_DONE, clock() + delay, srcId, srcId, CloudActionTags.BLANK, null);
+		schedule(e, false);
+		entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
+	}
+
+	/**
+	 * Used to send an event from one entity to another.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the scheduled event, which can be used as cancellation handle
+	 */
+	public SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		checkSendDelay(delay);
+		SimEvent e = newEvent(SimEvent.SEND, clock() + delay, srcId, dstId, tag, data);
+		return schedule(e, false);
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with a primitive int payload that is
+	 * carried without allocations.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data0 the first element of the payload
+	 * @param data1 the second element of the payload
+	 * @param data2 the third element of the payload
+	 * @return the scheduled event, which can be used as cancellation handle
+	 * @see SimEvent#getIntData(int)
+	 */
+	public SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, int data0, int data1, int data2) {
+		checkSendDelay(delay);
+		SimEvent e = newEvent(SimEvent.SEND, clock() + delay, srcId, dstId, tag, null);
+		e.setIntData(data0, data1, data2);
+		return schedule(e, false);
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with a primitive long and double payload
+	 * that is carried without allocations.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param longData the long payload
+	 * @param doubleData the double payload
+	 * @return the scheduled event, which can be used as cancellation handle
+	 * @see SimEvent#getLongData()
+	 * @see SimEvent#getDoubleData()
+	 */
+	public SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, long longData, double doubleData) {
+		checkSendDelay(delay);
+		SimEvent e = newEvent(SimEvent.SEND, clock() + delay, srcId, dstId, tag, null);
+		e.setPrimitiveData(longData, doubleData);
+		return schedule(e, false);
+	}
+
+	private static void checkSendDelay(double delay) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+		if (delay >= Double.MAX_VALUE) {
+			throw new RuntimeException("Send delay can't be infinite.");
+		}
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with priority in the queue.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the scheduled event, which can be used as cancellation handle
+	 */
+	public SimEvent sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		SimEvent e = newEvent(SimEvent.SEND, clock() + delay, srcId, dstId, tag, data);
+		return schedule(e, true);
+	}
+
+	/**
+	 * Sets an entity's state to be waiting.
+	 *
+	 * @param srcId the src
+	 * @param p the p
+	 */
+	public void wait(int srcId, Predicate p) {
+		entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
+		if (p != CloudSim.SIM_ANY) {
+			// If a predicate has been used store it in order to check it
+			synchronized (waitPredicates) {
+				waitPredicates.put(srcId, p);
+			}
+		}
+	}
+
+	/**
+	 * Removes an event from the event queue.
+	 *
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return the sim event
+	 */
+	public SimEvent cancel(int srcId, Predicate p) {
+		if (parallelPhase) {
+			SimEvent ev;
+			synchronized (this) {
+				ev = cancelQueued(srcId, p);
+			}
+			EventOutbox outbox = outboxes.get();
+			return ev != null || outbox == null || outbox.entity.getId() != srcId ? ev : outbox.cancelFirst(p);
+		}
+		return cancelQueued(srcId, p);
+	}
+
+	/**
+	 * Removes an event from the future queue.
+	 *
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return the sim event
+	 */
+	private SimEvent cancelQueued(int srcId, Predicate p) {
+		// The pending events that may match: O(1) miss when there are none, and the scan stops
+		// once all of them have been seen
+		PredicateType pt = p instanceof PredicateType type ? type : null;
+		int candidates = 0;
+		if (pt != null) {
+			for (CloudSimTags tag : pt.getTags()) {
+				candidates += eventIndex.pending(srcId, tag);
+			}
+		} else {
+			candidates = eventIndex.pending(srcId);
+		}
+
+		SimEvent ev;
+		Iterator<SimEvent> iter = future.iterator();
+		while (candidates > 0 && iter.hasNext()) {
+			ev = iter.next();
+			if (!EventIndex.isPending(ev)) {
+				iter.remove();
+				discarded(ev);
+			} else if (ev.getSourceId() == srcId && (pt == null || pt.match(ev))) {
+				if (p.match(ev)) {
+					iter.remove();
+					discarded(ev);
+					EventIndex.detach(ev);
+					return ev;
+				}
+				candidates--;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Cancels a scheduled event. The event is lazily removed from the future queue.
+	 *
+	 * @param e the event handle, as returned by {@link #send(int, int, double, CloudSimTags, Object)}
+	 * @return <tt>true</tt> if the event was pending, <tt>false</tt> if it had already been
+	 *         delivered or cancelled
+	 */
+	public boolean cancel(SimEvent e) {
+		if (parallelPhase) {
+			EventOutbox outbox = outboxes.get();
+			if (outbox != null && outbox.cancel(e)) {
+				return true;
+			}
+			synchronized (this) {
+				return EventIndex.detach(e);
+			}
+		}
+		return EventIndex.detach(e);
+	}
+
+	/**
+	 * Removes all events that match a given predicate from the future event queue.
+	 *
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return true, if at least one event has been cancelled
+	 */
+	public boolean cancelAll(int srcId, Predicate p) {
+		if (parallelPhase) {
+			boolean cancelled;
+			synchronized (this) {
+				cancelled = cancelAllQueued(srcId, p);
+			}
+			EventOutbox outbox = outboxes.get();
+			if (outbox != null && outbox.entity.getId() == srcId) {
+				cancelled |= outbox.cancelAll(p);
+			}
+			return cancelled;
+		}
+		return cancelAllQueued(srcId, p);
+	}
+
+	/**
+	 * Removes all events that match a given predicate from the future event queue.
+	 *
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return true, if at least one event has been cancelled
+	 */
+	private boolean cancelAllQueued(int srcId, Predicate p) {
+		// Lazy cancellation through the index for the common predicates
+		if (p instanceof PredicateType pt) {
+			int cancelled = 0;
+			for (CloudSimTags tag : pt.getTags()) {
+				cancelled += eventIndex.cancelAll(srcId, tag);
+			}
+			return cancelled > 0;
+		} else if (p instanceof PredicateFrom pf) {
+			for (int id : pf.getIds()) {
+				if (id == srcId) {
+					return eventIndex.cancelAll(srcId) > 0;
+				}
+			}
+			return false;
+		} else if (p instanceof PredicateAny) {
+			return eventIndex.cancelAll(srcId) > 0;
+		}
+
+		SimEvent ev;
+		boolean cancelled = false;
+		Iterator<SimEvent> iter = future.iterator();
+		while (iter.hasNext()) {
+			ev = iter.next();
+			if (!EventIndex.isPending(ev)) {
+				iter.remove();
+				discarded(ev);
+			} else if (ev.getSourceId() == srcId && p.match(ev)) {
+				iter.remove();
+				discarded(ev);
+				EventIndex.detach(ev);
+				cancelled = true;
+			}
+		}
+		return cancelled;
+	}
+
+	/**
+	 * Dispatch event to destination entity
+	 *
+	 * @param e the e
+	 */
+	protected void dispatchEvent(SimEvent e) {
+		// Update the system's clock
+		if (e.eventTime() < clock) {
+			throw new IllegalArgumentException("Past event detected.");
+		}
+		clock = e.eventTime();
+
+		// Ok now process it
+		if (e.getType() == SimEvent.CREATE) {
+			addEntityDynamically((SimEntity) e.getData());
+		} else {
+			int runnableId = deliver(e);
+			if (runnableId >= 0) {
+				markRunnable(runnableId);
+			}
+		}
+	}
+
+	/**
+	 * Delivers a {@link SimEvent#SEND} event to its destination or a {@link SimEvent#HOLD_DONE}
+	 * event to its source.
+	 *
+	 * @param e the event
+	 * @return the id of the entity to run, or -1 if the entity is not runnable
+	 */
+	private int deliver(SimEvent e) {
+		int dstId = e.getDestinationId();
+		int srcId = e.getSourceId();
+
+		switch (e.getType()) {
+			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
+			case SimEvent.SEND -> {
+				SimEntity destEnt = entities.get(dstId);
+				if (destEnt.getState() == SimEntity.EntityStatus.WAITING) { // NOTE: this branch is never used
+					synchronized (waitPredicates) {
+						Predicate p = waitPredicates.get(dstId);
+
+						if ((p == null) || (p.match(e))) {
+							destEnt.setState(SimEntity.EntityStatus.RUNNABLE);
+							waitPredicates.remove(dstId);
+						}
+					}
+				}
+				destEnt.getIncomingEvents().addEvent(e);
+				return destEnt.getState() == SimEntity.EntityStatus.RUNNABLE ? dstId : -1;
+			}
+			case SimEvent.HOLD_DONE -> {
+				entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
+				recycle(e);
+				return srcId;
+			}
+			default -> {
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * Creates an event, reusing a pooled one if event pooling is enabled.
+	 */
+	private SimEvent newEvent(int type, double time, int src, int dest, CloudSimTags tag, Object data) {
+		if (parallelPhase) {
+			outbox().allocated++;
+			return new SimEvent(type, time, src, dest, tag, data);
+		}
+		SimEvent e = eventPool.pollLast();
+		if (e == null) {
+			eventsAllocated++;
+			return new SimEvent(type, time, src, dest, tag, data);
+		}
+		eventsReused++;
+		e.init(type, time, src, dest, tag, data);
+		return e;
+	}
+
+	/**
+	 * Gets the outbox of the entity run by the calling thread during a parallel phase.
+	 *
+	 * @return the outbox
+	 */
+	private EventOutbox outbox() {
+		EventOutbox outbox = outboxes.get();
+		if (outbox == null) {
+			throw new IllegalStateException("Events can only be scheduled by the running entities.");
+		}
+		return outbox;
+	}
+
+	/**
+	 * Returns a delivered event to the event pool, if event pooling is enabled.
+	 *
+	 * @param e the processed event
+	 */
+	void recycle(SimEvent e) {
+		if (eventPooling && !parallelPhase && !EventIndex.isPending(e) && eventPool.size() < MAX_POOLED_EVENTS) {
+			e.recycle();
+			eventPool.addLast(e);
+		}
+	}
+
+	/**
+	 * Schedules an entity to be run in the next clock tick.
+	 *
+	 * @param id the entity id
+	 */
+	private void markRunnable(int id) {
+		if (!runnableMarks.get(id)) {
+			runnableMarks.set(id);
+			if (runnableCount == runnable.length) {
+				runnable = Arrays.copyOf(runnable, 2 * runnableCount);
+			}
+			runnable[runnableCount++] = id;
+		}
+	}
+
+	/**
+	 * Internal method used to start the simulation.
+	 */
+	public void runStart() {
+		running = true;
+		lookahead = lookaheadEnabled && parallelism > 1 ? NetworkTopology.getMinimumDelay() : 0;
+		// Start all the entities
+		for (SimEntity ent : entities) {
+			ent.startEntity();
+			markRunnable(ent.getId());
+		}
+
+		printMessage("Entities started.");
+	}
+
+	/**
+	 * Internal method used to stop the simulation.
+	 */
+	public void runStop() {
+		printMessage("Simulation completed.");
+	}
+
+	/**
+	 * Start the simulation running.
+	 *
+	 * @return the last clock value
+	 */
+	public double run() {
+		if (!running) {
+			runStart();
+		}
+		while (true) {
+			if (!runClockTick() || abruptTerminate) {
+				break;
+			}
+
+			// this block allows termination of simulation at a specific time
+			if (terminateAt > 0.0 && clock >= terminateAt) {
+				terminateSimulation();
+				clock = terminateAt;
+				break;
+			}
+
+			SimEvent first = peekFuture();
+			if (pauseAt != -1
+					&& ((first != null && clock <= pauseAt && pauseAt <= first.eventTime())
+							|| first == null && pauseAt <= clock)) {
+				pauseSimulation();
+				clock = pauseAt;
+			}
+
+			while (paused) {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		double lastClock = clock;
+
+		finishSimulation();
+		runStop();
+
+		return lastClock;
+	}
+
+	/**
+	 * Internal method that allows the entities to terminate.
+	 */
+	protected void finishSimulation() {
+		// Allow all entities to exit their body method
+		if (!abruptTerminate) {
+			for (SimEntity ent : entities) {
+				if (ent.getState() != SimEntity.EntityStatus.FINISHED) {
+					ent.run();
+				}
+			}
+		}
+
+		for (SimEntity ent : entities) {
+			ent.shutdownEntity();
+		}
+		shutdownWorkers();
+
+		// reset all simulation variables
+		entities = null;
+		entitiesByName = null;
+		future = null;
+		eventIndex = null;
+		clock = 0L;
+		running = false;
+
+		waitPredicates = null;
+		paused = false;
+		pauseAt = -1;
+		abruptTerminate = false;
+	}
+
+	/**
+	 * Terminates the simulation.
+	 */
+	public void terminateSimulation() {
+		running = false;
+		printMessage("Simulation: Reached termination time.");
+	}
+
+	/**
+	 * Terminates the simulation at a given time.
+	 *
+	 * @param time the time at which the simulation has to be terminated
+	 * @return true, if successful otherwise.
+	 */
+	public boolean terminateSimulation(double time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			terminateAt = time;
+		}
+		return true;
+	}
+
+	public boolean pauseSimulation() {
+		paused = true;
+		return paused;
+	}
+
+	public boolean pauseSimulation(long time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			pauseAt = time;
+		}
+		return true;
+	}
+
+	public boolean resumeSimulation() {
+		paused = false;
+
+		if (pauseAt <= clock) {
+			pauseAt = -1;
+		}
+
+		return !paused;
+	}
+
+	public void abruptallyTerminate() {
+		abruptTerminate = true;
+	}
+
+	/**
+	 * Prints a message about the progress of the simulation.
+	 *
+	 * @param message the message
+	 */
+	private void printMessage(String message) {
+		Log.println(message);
+	}
+}
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim.lists;
 
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Cloudlet;
@@ -30,6 +31,9 @@ public class CloudletList {
 	 * @return a Cloudlet with the given ID or $null if not found
 	 */
 	public static <T extends Cloudlet> T getById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof CloudletQueue<T> queue) {
+			return queue.getById(id);
+		}
 		for (T cl : cloudletList) {
 			if (cl.getCloudletId() == id) {
 				return cl;
@@ -82,6 +86,28 @@ public class CloudletList {
 		}
 		return -1;
 	}
+
+	/**
+	 * Removes the first {@link Cloudlet} with a given id. If the list is a {@link CloudletQueue},
+	 * the cloudlet is found through its id index.
+	 *
+	 * @param cloudletList the list of existing cloudlets
+	 * @param id the cloudlet id
+	 * @return the removed cloudlet, or $null if not found
+	 */
+	public static <T extends Cloudlet> T removeById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof CloudletQueue<T> queue) {
+			return queue.removeById(id);
+		}
+		for (Iterator<T> it = cloudletList.iterator(); it.hasNext();) {
+			T cl = it.next();
+			if (cl.getCloudletId() == id) {
+				it.remove();
+				return cl;
+			}
+		}
+		return null;
+	}
 	
 	/**
 	 * Sorts the Cloudlets in a list based on their lengths.
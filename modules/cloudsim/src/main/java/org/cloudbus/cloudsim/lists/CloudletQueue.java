@@ -0,0 +1,384 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * CloudletQueue is a linked list of {@link Cloudlet Cloudlets} indexed by cloudlet id, used by
+ * the {@link org.cloudbus.cloudsim.CloudletScheduler CloudletScheduler} queues. Finding or
+ * removing a cloudlet by id (or by reference) costs O(1) instead of a linear scan, while the
+ * list keeps the insertion order and the O(1) operations at both ends of a
+ * {@link java.util.LinkedList}.
+ * <p>
+ * If several cloudlets with the same id are in the queue at the same time, the lookups fall back
+ * to a linear scan, so that they still return the first one. The queue does not permit
+ * <tt>null</tt> elements.
+ *
+ * @param <T> the type of the cloudlets
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletQueue<T extends Cloudlet> extends AbstractSequentialList<T> {
+
+	/** A node of the list. */
+	private static final class Node<T> {
+		T item;
+		Node<T> prev;
+		Node<T> next;
+
+		Node(Node<T> prev, T item, Node<T> next) {
+			this.prev = prev;
+			this.item = item;
+			this.next = next;
+		}
+	}
+
+	private Node<T> first;
+
+	private Node<T> last;
+
+	private int size;
+
+	/** A node for each cloudlet id in the queue. */
+	private final Map<Integer, Node<T>> index = new HashMap<>();
+
+	/** The number of cloudlets whose id is shared with another cloudlet of the queue. */
+	private int duplicates;
+
+	/**
+	 * Creates an empty queue.
+	 */
+	public CloudletQueue() {
+		super();
+	}
+
+	/**
+	 * Creates a queue with the cloudlets of a collection, in the collection order.
+	 *
+	 * @param c the cloudlets
+	 */
+	public CloudletQueue(Collection<? extends T> c) {
+		this();
+		addAll(c);
+	}
+
+	/**
+	 * Gets the cloudlet with a given id.
+	 *
+	 * @param id the cloudlet id
+	 * @return the cloudlet, or <tt>null</tt> if not found
+	 */
+	public T getById(int id) {
+		Node<T> node = nodeById(id);
+		return node == null ? null : node.item;
+	}
+
+	/**
+	 * Removes the cloudlet with a given id.
+	 *
+	 * @param id the cloudlet id
+	 * @return the removed cloudlet, or <tt>null</tt> if not found
+	 */
+	public T removeById(int id) {
+		Node<T> node = nodeById(id);
+		if (node == null) {
+			return null;
+		}
+		T item = node.item;
+		unlink(node);
+		return item;
+	}
+
+	/**
+	 * Gets the number of structural modifications of the queue so far, so that a value computed
+	 * from its cloudlets can be reused until the queue changes.
+	 *
+	 * @return the modification count
+	 */
+	public int getModificationCount() {
+		return modCount;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean add(T cl) {
+		linkBefore(cl, null);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return nodeOf(o) != null;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Node<T> node = nodeOf(o);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	/**
+	 * Removes the given cloudlets through the id index, hence in O(m) for m cloudlets.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		if (duplicates > 0) {
+			return super.removeAll(c);
+		}
+		boolean modified = false;
+		for (Object o : c) {
+			modified |= remove(o);
+		}
+		return modified;
+	}
+
+	@Override
+	public void clear() {
+		first = last = null;
+		size = 0;
+		index.clear();
+		duplicates = 0;
+		modCount++;
+	}
+
+	@Override
+	public ListIterator<T> listIterator(int position) {
+		if (position < 0 || position > size) {
+			throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+		}
+		return new Itr(position);
+	}
+
+	/**
+	 * Gets the node of a cloudlet equal to a given object.
+	 */
+	private Node<T> nodeOf(Object o) {
+		if (!(o instanceof Cloudlet cl)) {
+			return null;
+		}
+		if (duplicates == 0) {
+			Node<T> node = index.get(cl.getCloudletId());
+			return node != null && Objects.equals(o, node.item) ? node : null;
+		}
+		for (Node<T> node = first; node != null; node = node.next) {
+			if (Objects.equals(o, node.item)) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the first node of the cloudlet with a given id.
+	 */
+	private Node<T> nodeById(int id) {
+		if (duplicates == 0) {
+			return index.get(id);
+		}
+		for (Node<T> node = first; node != null; node = node.next) {
+			if (node.item.getCloudletId() == id) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	private void linkBefore(T cl, Node<T> succ) {
+		Objects.requireNonNull(cl);
+		Node<T> pred = succ == null ? last : succ.prev;
+		Node<T> node = new Node<>(pred, cl, succ);
+		if (pred == null) {
+			first = node;
+		} else {
+			pred.next = node;
+		}
+		if (succ == null) {
+			last = node;
+		} else {
+			succ.prev = node;
+		}
+		size++;
+		modCount++;
+		indexNode(node);
+	}
+
+	private void unlink(Node<T> node) {
+		Node<T> prev = node.prev;
+		Node<T> next = node.next;
+		if (prev == null) {
+			first = next;
+		} else {
+			prev.next = next;
+		}
+		if (next == null) {
+			last = prev;
+		} else {
+			next.prev = prev;
+		}
+		size--;
+		modCount++;
+		unindexNode(node);
+		node.item = null;
+		node.prev = node.next = null;
+	}
+
+	private void indexNode(Node<T> node) {
+		if (index.putIfAbsent(node.item.getCloudletId(), node) != null) {
+			duplicates++;
+		}
+	}
+
+	private void unindexNode(Node<T> node) {
+		int id = node.item.getCloudletId();
+		if (index.get(id) != node) {
+			duplicates--;
+			return;
+		}
+		index.remove(id);
+		if (duplicates > 0) {
+			for (Node<T> other = first; other != null; other = other.next) {
+				if (other != node && other.item.getCloudletId() == id) {
+					index.put(id, other);
+					duplicates--;
+					return;
+				}
+			}
+		}
+	}
+
+	/** A list iterator over the nodes, as the one of {@link java.util.LinkedList}. */
+	private final class Itr implements ListIterator<T> {
+		private Node<T> lastReturned;
+		private Node<T> next;
+		private int nextIndex;
+		private int expectedModCount = modCount;
+
+		Itr(int position) {
+			if (position == size) {
+				next = null;
+			} else if (position < (size >> 1)) {
+				next = first;
+				for (int i = 0; i < position; i++) {
+					next = next.next;
+				}
+			} else {
+				next = last;
+				for (int i = size - 1; i > position; i--) {
+					next = next.prev;
+				}
+			}
+			nextIndex = position;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		public T next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next;
+			next = next.next;
+			nextIndex++;
+			return lastReturned.item;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		public T previous() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next = next == null ? last : next.prev;
+			nextIndex--;
+			return lastReturned.item;
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		@Override
+		public void remove() {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			Node<T> lastNext = lastReturned.next;
+			if (next == lastReturned) {
+				next = lastNext;
+			} else {
+				nextIndex--;
+			}
+			unlink(lastReturned);
+			lastReturned = null;
+			expectedModCount++;
+		}
+
+		@Override
+		public void set(T cl) {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			Objects.requireNonNull(cl);
+			unindexNode(lastReturned);
+			lastReturned.item = cl;
+			indexNode(lastReturned);
+		}
+
+		@Override
+		public void add(T cl) {
+			checkForComodification();
+			lastReturned = null;
+			linkBefore(cl, next);
+			nextIndex++;
+			expectedModCount++;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+}
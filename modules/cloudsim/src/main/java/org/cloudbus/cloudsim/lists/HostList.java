@@ -8,7 +8,6 @@
 
 package org.cloudbus.cloudsim.lists;
 
-import java.util.Collections;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Host;
@@ -155,22 +154,11 @@ public class HostList {
      * @param hostList the vm list
      */
     public static <T extends HostEntity> void sortByCpuUtilization(List<T> hostList) {
-        hostList.sort((a, b) -> {
-            Double aUtilization = ((PowerHost) a).getUtilizationOfCpu();
-            Double bUtilization = ((PowerHost) b).getUtilizationOfCpu();
-            return bUtilization.compareTo(aUtilization);
-        });
+        KeyedSort.sortDescending(hostList, host -> ((PowerHost) host).getUtilizationOfCpu());
     }
 
     public static <T extends HostEntity> void sortByCpuUtilizationDescending(List<T> hostList) {
-
-        hostList.sort(Collections.reverseOrder((a, b) -> {
-            Double aUtilization = ((PowerHost) a).getUtilizationOfCpu();
-            Double bUtilization = ((PowerHost) b).getUtilizationOfCpu();
-            return bUtilization.compareTo(aUtilization);
-        }));
-
-
+        KeyedSort.sortAscending(hostList, host -> ((PowerHost) host).getUtilizationOfCpu());
     }
 
 }
@@ -0,0 +1,70 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * KeyedSort sorts lists by a numeric key that is computed once per element, instead of twice per
+ * comparison as a comparator calling the key function would do. The elements are paired with their
+ * key, the pairs are sorted, and the elements are written back to the list.
+ * <p>
+ * The sorts are stable, and order the keys as {@link Double#compare(double, double)} does.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public final class KeyedSort {
+
+	/** An element and its key. */
+	private record Keyed<T>(double key, T element) {}
+
+	private KeyedSort() {
+	}
+
+	/**
+	 * Sorts a list by increasing key.
+	 *
+	 * @param list the list to be sorted
+	 * @param key the key of an element
+	 */
+	public static <T> void sortAscending(List<T> list, ToDoubleFunction<? super T> key) {
+		sort(list, key, Comparator.comparingDouble(Keyed::key));
+	}
+
+	/**
+	 * Sorts a list by decreasing key.
+	 *
+	 * @param list the list to be sorted
+	 * @param key the key of an element
+	 */
+	public static <T> void sortDescending(List<T> list, ToDoubleFunction<? super T> key) {
+		sort(list, key, (a, b) -> Double.compare(b.key(), a.key()));
+	}
+
+	private static <T> void sort(List<T> list, ToDoubleFunction<? super T> key, Comparator<Keyed<T>> order) {
+		if (list.size() < 2) {
+			return;
+		}
+		List<Keyed<T>> decorated = new ArrayList<>(list.size());
+		for (T element : list) {
+			decorated.add(new Keyed<>(key.applyAsDouble(element), element));
+		}
+		decorated.sort(order);
+		ListIterator<T> it = list.listIterator();
+		for (Keyed<T> keyed : decorated) {
+			it.next();
+			it.set(keyed.element());
+		}
+	}
+}
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.lists;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 
 /**
@@ -78,15 +77,12 @@ public class VmList {
 	}
 
 	/**
-	 * Sort a given list of VMs by cpu utilization.
+	 * Sort a given list of VMs by cpu utilization, from the most to the least utilized one.
+	 * The utilization of each VM is read once, see {@link GuestEntity#getCurrentUtilizationOfCpuMips()}.
 	 *
 	 * @param vmList the vm list to be sorted
 	 */
 	public static <T extends GuestEntity> void sortByCpuUtilization(List<T> vmList) {
-		vmList.sort((a, b) -> {
-			Double aUtilization = a.getTotalUtilizationOfCpuMips(CloudSim.clock());
-			Double bUtilization = b.getTotalUtilizationOfCpuMips(CloudSim.clock());
-			return bUtilization.compareTo(aUtilization);
-		});
+		KeyedSort.sortDescending(vmList, GuestEntity::getCurrentUtilizationOfCpuMips);
 	}
 }
@@ -0,0 +1,168 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.PowerHostEntity;
+import org.cloudbus.cloudsim.util.HistoryStat;
+import org.cloudbus.cloudsim.util.WindowRegression;
+
+/**
+ * A read-only, what-if view of a power host, as it would be if a candidate guest were placed on
+ * it. It lets the migration policies evaluate a candidate host without allocating the guest, i.e.
+ * without going through the RAM, BW and PE provisioners of the host twice, once to create the
+ * guest and once to destroy it.
+ * <p>
+ * The view is not updated: it has to be created again after the host changes.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see PowerVmAllocationPolicyMigrationAbstract#isHostOverUtilized(HostAllocationSnapshot)
+ */
+public class HostAllocationSnapshot {
+
+	/** The host. */
+	private final PowerHost host;
+
+	/** The candidate guest, not yet on the host, or <tt>null</tt>. */
+	private final GuestEntity guest;
+
+	/** The total MIPS requested by the guests, computed on first use. */
+	private double requestedTotalMips = Double.NaN;
+
+	/**
+	 * Creates a view of a host as it currently is.
+	 *
+	 * @param host the host
+	 */
+	public HostAllocationSnapshot(PowerHost host) {
+		this(host, null);
+	}
+
+	/**
+	 * Creates a view of a host as it would be with a candidate guest.
+	 *
+	 * @param host the host
+	 * @param guest the candidate guest, which is not on the host, or <tt>null</tt>
+	 */
+	public HostAllocationSnapshot(PowerHost host, GuestEntity guest) {
+		this.host = host;
+		this.guest = guest;
+	}
+
+	/**
+	 * Gets the host.
+	 *
+	 * @return the host
+	 */
+	public PowerHost getHost() {
+		return host;
+	}
+
+	/**
+	 * Gets the candidate guest.
+	 *
+	 * @return the guest, or <tt>null</tt> if the view is of the host as it is
+	 */
+	public GuestEntity getGuest() {
+		return guest;
+	}
+
+	/**
+	 * Checks whether the candidate guest can be created on the host, i.e. whether the host has
+	 * enough PE capacity, MIPS, RAM, BW and storage for it.
+	 *
+	 * @return true if there is no candidate, or if it fits
+	 */
+	public boolean isAllocatable() {
+		return guest == null || (host.getStorage() >= guest.getSize() && host.isSuitableForGuest(guest));
+	}
+
+	/**
+	 * Gets the total MIPS currently requested by the guests of the host, candidate included.
+	 *
+	 * @return the requested MIPS
+	 */
+	public double getRequestedTotalMips() {
+		if (Double.isNaN(requestedTotalMips)) {
+			double mips = 0;
+			for (GuestEntity vm : host.getGuestList()) {
+				mips += vm.getCurrentRequestedTotalMips();
+			}
+			if (guest != null) {
+				mips += guest.getCurrentRequestedTotalMips();
+			}
+			requestedTotalMips = mips;
+		}
+		return requestedTotalMips;
+	}
+
+	/**
+	 * Gets the CPU utilization requested by the guests of the host, candidate included.
+	 *
+	 * @return the requested MIPS over the total MIPS of the host
+	 */
+	public double getRequestedUtilization() {
+		return getRequestedTotalMips() / host.getTotalMips();
+	}
+
+	/**
+	 * Gets the largest RAM of the guests of the host, candidate included.
+	 *
+	 * @return the RAM, or {@link Integer#MIN_VALUE} if there are no guests
+	 */
+	public int getMaxGuestRam() {
+		int maxRam = Integer.MIN_VALUE;
+		for (GuestEntity vm : host.getGuestList()) {
+			maxRam = Math.max(maxRam, vm.getRam());
+		}
+		if (guest != null) {
+			maxRam = Math.max(maxRam, guest.getRam());
+		}
+		return maxRam;
+	}
+
+	/**
+	 * Gets the CPU utilization history of the host, candidate included, as computed by
+	 * {@link PowerHost#getUtilizationHistory()}.
+	 *
+	 * @return the utilization history
+	 */
+	public double[] getUtilizationHistory() {
+		if (!(guest instanceof PowerVm vm)) {
+			return host.getUtilizationHistory();
+		}
+		double[] hostHistory = host.getUtilizationHistory();
+		double[] utilizationHistory = Arrays.copyOf(hostHistory, PowerHostEntity.HISTORY_LENGTH);
+		double guestMips = vm.getMips();
+		double hostMips = host.getTotalMips();
+		HistoryStat guestHistory = vm.getUtilizationHistory();
+		for (int i = 0; i < guestHistory.size(); i++) {
+			utilizationHistory[i] += guestHistory.get(i) * guestMips / hostMips;
+		}
+		return Arrays.copyOf(utilizationHistory, Math.max(hostHistory.length, guestHistory.size()));
+	}
+
+	/**
+	 * Gets the regression sums of the first samples of the CPU utilization history of the host, candidate
+	 * included, as computed by {@link PowerHost#getUtilizationRegression(int)}.
+	 *
+	 * @param n the number of samples of the regression window
+	 * @return the sums
+	 */
+	public WindowRegression getUtilizationRegression(int n) {
+		WindowRegression regression = host.getUtilizationRegression(n);
+		if (guest instanceof PowerVm vm) {
+			regression.add(vm.getUtilizationHistory().getLeadingRegression(n), vm.getMips() / host.getTotalMips());
+		}
+		return regression;
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.cloudbus.cloudsim.VmScheduler;
+
+/**
+ * Keeps the hosts of a list sorted by CPU utilization, so that the least utilized hosts, or the
+ * switched off ones, are found without scanning the whole list. Hosts with the same utilization
+ * are kept in the list order.
+ * <p>
+ * A host is re-sorted when its {@link org.cloudbus.cloudsim.VmScheduler} reports an allocation
+ * change, which {@link org.cloudbus.cloudsim.HostDynamicWorkload} also does whenever it
+ * recomputes its utilization.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class HostUtilizationIndex implements Iterable<PowerHost> {
+
+	/** The position of a host in the sorted set. */
+	private record Entry(double utilization, int position) implements Comparable<Entry> {
+		@Override
+		public int compareTo(Entry other) {
+			int c = Double.compare(utilization, other.utilization);
+			return c != 0 ? c : Integer.compare(position, other.position);
+		}
+	}
+
+	/** The indexed hosts. */
+	private final List<PowerHost> hosts;
+
+	/** The entry of each host, as currently sorted. */
+	private final Entry[] entries;
+
+	/** The hosts, sorted by utilization, then position. */
+	private final TreeSet<Entry> sorted = new TreeSet<>();
+
+	/** The hosts whose utilization may have changed since the last query. */
+	private final BitSet dirty = new BitSet();
+
+	/** The guest scheduler of each host, as of the index creation. */
+	private final VmScheduler[] schedulers;
+
+	/** The allocation listener registered on the guest scheduler of each host. */
+	private final Runnable[] listeners;
+
+	/**
+	 * Creates an index over a host list, which is expected not to change.
+	 *
+	 * @param hosts the hosts
+	 */
+	public HostUtilizationIndex(List<PowerHost> hosts) {
+		this.hosts = hosts;
+		entries = new Entry[hosts.size()];
+		schedulers = new VmScheduler[hosts.size()];
+		listeners = new Runnable[hosts.size()];
+		for (int i = 0; i < hosts.size(); i++) {
+			entries[i] = new Entry(hosts.get(i).getUtilizationOfCpu(), i);
+			sorted.add(entries[i]);
+			final int position = i;
+			schedulers[i] = hosts.get(i).getGuestScheduler();
+			listeners[i] = () -> dirty.set(position);
+			schedulers[i].addAllocationListener(listeners[i]);
+		}
+	}
+
+	/**
+	 * Stops tracking the allocation changes of the indexed hosts, once the index is replaced.
+	 */
+	public void detach() {
+		for (int i = 0; i < listeners.length; i++) {
+			schedulers[i].removeAllocationListener(listeners[i]);
+		}
+	}
+
+	/**
+	 * Gets the indexed hosts.
+	 *
+	 * @return the hosts
+	 */
+	public List<PowerHost> getHosts() {
+		return hosts;
+	}
+
+	/**
+	 * Gets the number of indexed hosts, which differs from the size of the host list if hosts
+	 * have been added or removed since the index creation.
+	 *
+	 * @return the number of hosts
+	 */
+	public int size() {
+		return entries.length;
+	}
+
+	/**
+	 * Iterates over the hosts, from the least to the most utilized one.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<PowerHost> iterator() {
+		refresh();
+		return toHosts(sorted.iterator());
+	}
+
+	/**
+	 * Iterates over the hosts with a utilization greater than a given value, from the least to
+	 * the most utilized one.
+	 *
+	 * @param minUtilization the utilization the hosts have to exceed
+	 * @return the iterator
+	 */
+	public Iterator<PowerHost> iteratorAbove(double minUtilization) {
+		refresh();
+		return toHosts(sorted.tailSet(new Entry(minUtilization, Integer.MAX_VALUE), false).iterator());
+	}
+
+	/**
+	 * Gets the hosts with a utilization not greater than a given value, in the list order if
+	 * they all have the same utilization.
+	 *
+	 * @param maxUtilization the utilization the hosts cannot exceed
+	 * @return the hosts, from the least to the most utilized one
+	 */
+	public List<PowerHost> getHostsAtMost(double maxUtilization) {
+		refresh();
+		List<PowerHost> result = new ArrayList<>();
+		for (Entry entry : sorted.headSet(new Entry(maxUtilization, Integer.MAX_VALUE), true)) {
+			result.add(hosts.get(entry.position()));
+		}
+		return result;
+	}
+
+	private Iterator<PowerHost> toHosts(Iterator<Entry> it) {
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public PowerHost next() {
+				return hosts.get(it.next().position());
+			}
+		};
+	}
+
+	/**
+	 * Re-sorts the hosts whose allocation has changed.
+	 */
+	private void refresh() {
+		for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+			double utilization = hosts.get(i).getUtilizationOfCpu();
+			if (utilization != entries[i].utilization()) {
+				sorted.remove(entries[i]);
+				entries[i] = new Entry(utilization, i);
+				sorted.add(entries[i]);
+			}
+		}
+		dirty.clear();
+	}
+}
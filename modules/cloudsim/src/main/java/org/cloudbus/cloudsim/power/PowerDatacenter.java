@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Datacenter;
@@ -176,10 +177,15 @@ public class PowerDatacenter extends Datacenter {
 		Log.println("\n\n--------------------------------------------------------------\n\n");
 		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
 
+		List<PowerHost> updatedHosts = new ArrayList<>();
 		for (PowerHost host : this.<PowerHost> getHostList()) {
+			if (isSwitchedOff(host)) {
+				continue;
+			}
+			updatedHosts.add(host);
 			Log.println();
 
-			double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
+			double time = updateHostProcessing(host); // inform VMs to update processing
 			if (time < minTime) {
 				minTime = time;
 			}
@@ -197,10 +203,11 @@ public class PowerDatacenter extends Datacenter {
 					getLastProcessTime(),
 					currentTime);
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
+			// the hosts switched off consume no energy
+			for (PowerHost host : updatedHosts) {
 				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
 				double utilizationOfCpu = host.getUtilizationOfCpu();
-				double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
+				double timeFrameHostEnergy = host.getEnergy(
 						previousUtilizationOfCpu,
 						utilizationOfCpu,
 						timeDiff);
@@ -232,7 +239,7 @@ public class PowerDatacenter extends Datacenter {
 		checkCloudletCompletion();
 
 		/** Remove completed VMs **/
-		for (PowerHost host : this.<PowerHost> getHostList()) {
+		for (PowerHost host : updatedHosts) {
 			for (GuestEntity vm : host.getCompletedVms()) {
 				getVmAllocationPolicy().deallocateHostForGuest(vm);
 				getVmList().remove(vm);
@@ -246,6 +253,24 @@ public class PowerDatacenter extends Datacenter {
 		return minTime;
 	}
 
+	/**
+	 * Checks if a host is switched off and stays so: it has no guests, not even migrating in, and
+	 * it was already idle at its last update. Updating such a host would only add an inactive entry
+	 * to its state history, which already ends with one, and it consumes no energy, so it is
+	 * skipped until it receives a guest.
+	 *
+	 * @param host the host
+	 * @return <tt>true</tt> if the host does not need to be updated
+	 */
+	protected boolean isSwitchedOff(PowerHost host) {
+		return host.getGuestList().isEmpty()
+				&& host.getGuestsMigratingIn().isEmpty()
+				&& host.getUtilizationMips() == 0
+				&& host.getPreviousUtilizationMips() == 0
+				&& !host.getStateHistory().isEmpty()
+				&& !host.getStateHistory().getLast().isActive();
+	}
+
 	@Override
 	protected void processVmMigrate(SimEvent ev, boolean ack) {
 		updateCloudetProcessingWithoutSchedulingFutureEvents();
@@ -262,6 +287,17 @@ public class PowerDatacenter extends Datacenter {
 		setCloudletSubmitted(CloudSim.clock());
 	}
 
+	/**
+	 * Shuts down the datacenter, releasing the threads of its allocation policy, if any.
+	 */
+	@Override
+	public void shutdownEntity() {
+		if (getVmAllocationPolicy() instanceof PowerVmAllocationPolicyMigrationAbstract policy) {
+			policy.releaseEvaluationThreads();
+		}
+		super.shutdownEntity();
+	}
+
 	/**
 	 * Gets the power.
 	 * 
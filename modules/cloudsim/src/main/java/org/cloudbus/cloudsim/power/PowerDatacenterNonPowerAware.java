@@ -108,8 +108,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 			for (PowerHost host : this.<PowerHost> getHostList()) {
 				Log.formatLine("\n%.2f: Host #%d", CloudSim.clock(), host.getId());
 
-				double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update
-																		// processing
+				double time = updateHostProcessing(host); // inform VMs to update processing
 				if (time < minTime) {
 					minTime = time;
 				}
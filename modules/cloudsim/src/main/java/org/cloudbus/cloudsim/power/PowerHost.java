@@ -16,8 +16,11 @@ import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.VmScheduler;
 import org.cloudbus.cloudsim.core.PowerHostEntity;
 import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelTable;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistoryStat;
+import org.cloudbus.cloudsim.util.WindowRegression;
 
 /**
  * PowerHost class enables simulation of power-aware hosts.
@@ -43,6 +46,24 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	/** The power model used by the host. */
 	private PowerModel powerModel;
 
+	/** The compiled power model, created on first use. */
+	private PowerModelTable compiledPowerModel;
+
+	/** The CPU utilization history, as last aggregated from the histories of the guests. */
+	private double[] utilizationHistory = new double[0];
+
+	/** The guests whose histories were aggregated. */
+	private PowerVm[] historyGuests = new PowerVm[0];
+
+	/** The modification counts of the guest histories when they were aggregated. */
+	private int[] historyVersions = new int[0];
+
+	/** The total MIPS of the host when the histories were aggregated. */
+	private double historyMips;
+
+	/** The regression sums of the first samples of the history, or null if not computed yet. */
+	private WindowRegression utilizationRegression;
+
 	/**
 	 * Instantiates a new PowerHost.
 	 * 
@@ -100,6 +121,7 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	 */
 	public void setPowerModel(PowerModel powerModel) {
 		this.powerModel = powerModel;
+		compiledPowerModel = null;
 	}
 
 	/**
@@ -111,24 +133,88 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 		return powerModel;
 	}
 
+	@Override
+	public PowerModelTable getCompiledPowerModel() {
+		if (compiledPowerModel == null) {
+			compiledPowerModel = getPowerModel().compile();
+		}
+		return compiledPowerModel;
+	}
+
+	/**
+	 * Gets the host CPU utilization percentage history. It is aggregated from the histories of the
+	 * guests only when one of them, or the guest list, has changed since the last call.
+	 *
+	 * @return a copy of the host CPU utilization percentage history
+	 */
+	public synchronized double[] getUtilizationHistory() {
+		refreshUtilizationHistory();
+		return utilizationHistory.clone();
+	}
+
 	/**
-	 * Gets the host CPU utilization percentage history.
+	 * Gets the regression sums of the first samples of the host CPU utilization history, from the sums of
+	 * the guests, which they keep up to date as their histories grow.
 	 *
-	 * @return the host CPU utilization percentage history
+	 * @param n the number of samples of the regression window
+	 * @return a copy of the sums
+	 * @see org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression
 	 */
-	public double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerHostEntity.HISTORY_LENGTH];
-		double hostMips = getTotalMips();
-		int maxlen = 0;
-		for (PowerVm vm : this.<PowerVm>getGuestList()) {
-			double guestMips = vm.getMips();
-			int i = 0;
-			for (double u : vm.getUtilizationHistory()) {
-				utilizationHistory[i++] += u * guestMips / hostMips;
+	public synchronized WindowRegression getUtilizationRegression(int n) {
+		refreshUtilizationHistory();
+		if (utilizationRegression == null || utilizationRegression.getWindow() != n) {
+			utilizationRegression = new WindowRegression(n);
+			for (PowerVm vm : historyGuests) {
+				utilizationRegression.add(vm.getUtilizationHistory().getLeadingRegression(n), vm.getMips() / historyMips);
+			}
+		}
+		return utilizationRegression.copy();
+	}
+
+	/**
+	 * Aggregates the histories of the guests again, if the guest list or one of them has changed.
+	 */
+	private void refreshUtilizationHistory() {
+		List<PowerVm> guests = getGuestList();
+		if (!isUtilizationHistoryCurrent(guests)) {
+			double[] history = new double[PowerHostEntity.HISTORY_LENGTH];
+			double hostMips = getTotalMips();
+			int maxlen = 0;
+			historyMips = hostMips;
+			historyGuests = guests.toArray(new PowerVm[0]);
+			historyVersions = new int[historyGuests.length];
+			for (int g = 0; g < historyGuests.length; g++) {
+				PowerVm vm = historyGuests[g];
+				HistoryStat vmHistory = vm.getUtilizationHistory();
+				double guestMips = vm.getMips();
+				for (int i = 0; i < vmHistory.size(); i++) {
+					history[i] += vmHistory.get(i) * guestMips / hostMips;
+				}
+				maxlen = Math.max(maxlen, vmHistory.size());
+				historyVersions[g] = vmHistory.getModificationCount();
+			}
+			utilizationHistory = Arrays.copyOf(history, maxlen);
+			utilizationRegression = null;
+		}
+	}
+
+	/**
+	 * Checks whether the aggregated history is up to date, i.e. whether the host has the same guests
+	 * and none of their histories has changed since the aggregation.
+	 *
+	 * @param guests the current guests
+	 * @return true if the aggregated history can be reused
+	 */
+	private boolean isUtilizationHistoryCurrent(List<PowerVm> guests) {
+		if (guests.size() != historyGuests.length || getTotalMips() != historyMips) {
+			return false;
+		}
+		for (int g = 0; g < historyGuests.length; g++) {
+			PowerVm vm = guests.get(g);
+			if (vm != historyGuests[g] || vm.getUtilizationHistory().getModificationCount() != historyVersions[g]) {
+				return false;
 			}
-			if (i > maxlen)
-				maxlen = i;
 		}
-		return Arrays.copyOf(utilizationHistory, maxlen);
+		return true;
 	}
 }
@@ -11,15 +11,20 @@ package org.cloudbus.cloudsim.power;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
@@ -95,6 +100,22 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
          */
 	private final List<Double> executionTimeHistoryTotal = new ArrayList<>();
 
+	/** The number of threads evaluating the hosts, 1 for a sequential evaluation.
+         * @see #setParallelism(int)
+         */
+	private int parallelism = 1;
+
+	/** The threads evaluating the hosts, created on first use. */
+	private ForkJoinPool evaluationPool;
+
+	/** Whether {@link #isHostOverUtilized(HostAllocationSnapshot)} is overridden, so that the
+         * candidate hosts can be evaluated concurrently.
+         */
+	private final boolean snapshotEvaluationOverridden = isSnapshotEvaluationOverridden(getClass());
+
+	/** The hosts sorted by utilization, to find the switched off and under-utilized ones. */
+	private HostUtilizationIndex hostUtilizationIndex;
+
 	/**
 	 * Instantiates a new PowerVmAllocationPolicyMigrationAbstract.
 	 * 
@@ -241,48 +262,109 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the host found to host the VM
 	 */
 	public PowerHost findHostForGuest(GuestEntity vm, Set<? extends HostEntity> excludedHosts) {
+		List<PowerHost> hosts = getHostList();
+		// the default snapshot evaluation creates the VM on each host in turn
+		List<Double> powerDiffs = evaluateHosts(hosts, snapshotEvaluationOverridden, host -> {
+			if (excludedHosts.contains(host) || !host.isSuitableForGuest(vm)) {
+				return null;
+			}
+			if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
+				return null;
+			}
+
+			try {
+				double powerAfterAllocation = getPowerAfterAllocation(host, vm);
+				if (powerAfterAllocation != -1) {
+					return powerAfterAllocation - host.getPower();
+				}
+			} catch (Exception e) {
+			}
+			return null;
+		});
+
+		// the first host of the list wins a tie, whatever the parallelism
 		double minPower = Double.MAX_VALUE;
 		PowerHost allocatedHost = null;
+		for (int i = 0; i < hosts.size(); i++) {
+			Double powerDiff = powerDiffs.get(i);
+			if (powerDiff != null && powerDiff < minPower) {
+				minPower = powerDiff;
+				allocatedHost = hosts.get(i);
+			}
+		}
+		return allocatedHost;
+	}
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
+	/**
+	 * Evaluates each host of a list, concurrently if the {@link #getParallelism() parallelism}
+	 * is greater than one. The evaluation is run with the simulation context of the caller.
+	 * 
+	 * @param hosts the hosts
+	 * @param evaluation the evaluation of a host, which must not modify the other hosts
+	 * @return the results, in the order of the hosts
+	 */
+	protected <T> List<T> evaluateHosts(List<PowerHost> hosts, Function<PowerHost, T> evaluation) {
+		return evaluateHosts(hosts, true, evaluation);
+	}
+
+	/**
+	 * Evaluates each host of a list, concurrently only if allowed.
+	 *
+	 * @param hosts the hosts
+	 * @param concurrent whether the hosts may be evaluated concurrently
+	 * @param evaluation the evaluation of a host
+	 * @return the results, in the order of the hosts
+	 */
+	private <T> List<T> evaluateHosts(List<PowerHost> hosts, boolean concurrent, Function<PowerHost, T> evaluation) {
+		if (!concurrent || parallelism == 1 || hosts.size() < 2) {
+			List<T> results = new ArrayList<>(hosts.size());
+			for (PowerHost host : hosts) {
+				results.add(evaluation.apply(host));
 			}
-			if (host.isSuitableForGuest(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
+			return results;
+		}
 
-				try {
-					double powerAfterAllocation = getPowerAfterAllocation(host, vm);
-					if (powerAfterAllocation != -1) {
-						double powerDiff = powerAfterAllocation - host.getPower();
-						if (powerDiff < minPower) {
-							minPower = powerDiff;
-							allocatedHost = host;
-						}
-					}
-				} catch (Exception e) {
-				}
+		SimulationContext context = SimulationContext.current();
+		Function<PowerHost, T> task = host -> {
+			try {
+				return context.call(() -> evaluation.apply(host));
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
 			}
+		};
+		if (evaluationPool == null) {
+			evaluationPool = new ForkJoinPool(parallelism);
+		}
+		try {
+			return evaluationPool.submit(() -> hosts.parallelStream().map(task).toList()).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while evaluating the hosts.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException re) {
+				throw re;
+			} else if (cause instanceof Error err) {
+				throw err;
+			}
+			throw new IllegalStateException(cause);
 		}
-		return allocatedHost;
 	}
 
 	/**
 	 * Checks if a host will be over utilized after placing of a candidate VM.
+	 * The VM is not in fact placed at the host.
 	 * 
 	 * @param host the host to verify
 	 * @param vm the candidate vm 
-	 * @return true, if the host will be over utilized after VM placement; false otherwise
+	 * @return true, if the host will be over utilized after VM placement, or if the VM
+	 *         cannot be placed at all; false otherwise
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, GuestEntity vm) {
-		boolean isHostOverUtilizedAfterAllocation = true;
-		if (host.guestCreate(vm)) {
-			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
-			host.guestDestroy(vm);
-		}
-		return isHostOverUtilizedAfterAllocation;
+		HostAllocationSnapshot snapshot = new HostAllocationSnapshot(host, vm);
+		return !snapshot.isAllocatable() || isHostOverUtilized(snapshot);
 	}
 
 	@Override
@@ -408,10 +490,12 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the over utilized hosts
 	 */
 	protected List<PowerHost> getOverUtilizedHosts() {
+		List<PowerHost> hosts = getHostList();
+		List<Boolean> overUtilized = evaluateHosts(hosts, this::isHostOverUtilized);
 		List<PowerHost> overUtilizedHosts = new LinkedList<>();
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (isHostOverUtilized(host)) {
-				overUtilizedHosts.add(host);
+		for (int i = 0; i < hosts.size(); i++) {
+			if (overUtilized.get(i)) {
+				overUtilizedHosts.add(hosts.get(i));
 			}
 		}
 		return overUtilizedHosts;
@@ -423,13 +507,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the switched off hosts
 	 */
 	protected List<PowerHost> getSwitchedOffHosts() {
-		List<PowerHost> switchedOffHosts = new LinkedList<>();
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (host.getUtilizationOfCpu() == 0) {
-				switchedOffHosts.add(host);
-			}
-		}
-		return switchedOffHosts;
+		return new LinkedList<>(getHostUtilizationIndex().getHostsAtMost(0));
 	}
 
 	/**
@@ -439,20 +517,36 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the most under utilized host
 	 */
 	protected PowerHost getUnderUtilizedHost(Set<? extends Host> excludedHosts) {
-		double minUtilization = 1;
-		PowerHost underUtilizedHost = null;
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
+		// the hosts are visited from the least utilized one, the first of the list on a tie
+		Iterator<PowerHost> it = getHostUtilizationIndex().iteratorAbove(0);
+		while (it.hasNext()) {
+			PowerHost host = it.next();
+			if (!(host.getUtilizationOfCpu() < 1)) {
+				break;
 			}
-			double utilization = host.getUtilizationOfCpu();
-			if (utilization > 0 && utilization < minUtilization
-					&& !areAllVmsMigratingOutOrAnyVmMigratingIn(host)) {
-				minUtilization = utilization;
-				underUtilizedHost = host;
+			if (!excludedHosts.contains(host) && !areAllVmsMigratingOutOrAnyVmMigratingIn(host)) {
+				return host;
 			}
 		}
-		return underUtilizedHost;
+		return null;
+	}
+
+	/**
+	 * Gets the index of the hosts by utilization, which is rebuilt if the host list has changed.
+	 * The previous index is then detached from its hosts.
+	 * 
+	 * @return the index
+	 */
+	protected HostUtilizationIndex getHostUtilizationIndex() {
+		List<PowerHost> hostList = getHostList();
+		if (hostUtilizationIndex == null || hostUtilizationIndex.getHosts() != hostList
+				|| hostList.size() != hostUtilizationIndex.size()) {
+			if (hostUtilizationIndex != null) {
+				hostUtilizationIndex.detach();
+			}
+			hostUtilizationIndex = new HostUtilizationIndex(hostList);
+		}
+		return hostUtilizationIndex;
 	}
 
 	/**
@@ -481,13 +575,61 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected abstract boolean isHostOverUtilized(PowerHost host);
 
+	/**
+	 * Checks if a host would be over utilized with the candidate VM of a snapshot.
+	 * The built-in policies evaluate the snapshot without touching the host; by default,
+	 * the candidate VM is temporarily created on the host, which is then checked by
+	 * {@link #isHostOverUtilized(PowerHost)}, and the VM is then given back its current host.
+	 * As the host of the candidate VM changes in between, the candidate hosts are then
+	 * evaluated sequentially, whatever the parallelism.
+	 * 
+	 * @param snapshot the host with the candidate VM
+	 * @return true, if the host would be over utilized; false otherwise
+	 */
+	protected boolean isHostOverUtilized(HostAllocationSnapshot snapshot) {
+		PowerHost host = snapshot.getHost();
+		GuestEntity vm = snapshot.getGuest();
+		if (vm == null) {
+			return isHostOverUtilized(host);
+		}
+		HostEntity currentHost = vm.getHost();
+		boolean isHostOverUtilized = true;
+		if (host.guestCreate(vm)) {
+			isHostOverUtilized = isHostOverUtilized(host);
+			host.guestDestroy(vm);
+		}
+		// the trial destroys the VM on the candidate host, which unsets its host
+		vm.setHost(currentHost);
+		return isHostOverUtilized;
+	}
+
+	/**
+	 * Checks if a policy class, or one of its superclasses, overrides
+	 * {@link #isHostOverUtilized(HostAllocationSnapshot)}.
+	 *
+	 * @param policyClass the class of the policy
+	 * @return true, if the snapshot evaluation is overridden; false otherwise
+	 */
+	private static boolean isSnapshotEvaluationOverridden(Class<?> policyClass) {
+		for (Class<?> c = policyClass; c != PowerVmAllocationPolicyMigrationAbstract.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("isHostOverUtilized", HostAllocationSnapshot.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// looks in the superclass
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Adds an entry for each history map of a host.
+	 * It may be called concurrently, when the hosts are evaluated in parallel.
 	 * 
 	 * @param host the host to add metric history entries
 	 * @param metric the metric to be added to the metric history map
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		growIfNeeded(timeHistory, hostId);
 		if (timeHistory.get(hostId) == null) {
@@ -601,6 +743,51 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		return hostUtilizationMips;
 	}
 
+	/**
+	 * Gets the number of threads evaluating the hosts.
+	 * 
+	 * @return the parallelism, 1 for a sequential evaluation
+	 * @see #setParallelism(int)
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of threads evaluating the hosts, i.e. detecting the over-utilized hosts and
+	 * scoring the candidate hosts of a VM. The result does not depend on the parallelism: the
+	 * hosts are collected in the order of the host list, which also breaks the ties between
+	 * candidate hosts.
+	 * <p>
+	 * With more than one thread, {@link #isHostOverUtilized(PowerHost)} and
+	 * {@link #isHostOverUtilized(HostAllocationSnapshot)} are called concurrently for different
+	 * hosts, and must not modify anything but the history of the evaluated host; this is the case
+	 * of the built-in policies. The candidate hosts of a VM are only scored concurrently if
+	 * {@link #isHostOverUtilized(HostAllocationSnapshot)} is overridden.
+	 * 
+	 * @param parallelism the number of threads, 1 (the default) for a sequential evaluation
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be positive, but is: " + parallelism);
+		}
+		releaseEvaluationThreads();
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Shuts down the threads evaluating the hosts, if any. They are created again if the
+	 * policy evaluates hosts concurrently afterwards.
+	 * 
+	 * @see PowerDatacenter#shutdownEntity()
+	 */
+	public void releaseEvaluationThreads() {
+		if (evaluationPool != null) {
+			evaluationPool.shutdown();
+			evaluationPool = null;
+		}
+	}
+
 	/**
 	 * Gets the saved allocation.
 	 * 
@@ -101,19 +101,19 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-        double upperThreshold = 0;
+		return isHostOverUtilized(new HostAllocationSnapshot(host));
+	}
+
+	@Override
+	protected boolean isHostOverUtilized(HostAllocationSnapshot snapshot) {
+		double upperThreshold = 0;
 		try {
-			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationIqr((PowerHost) host);
+			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationIqr(snapshot.getUtilizationHistory());
 		} catch (IllegalArgumentException e) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
+			return getFallbackVmAllocationPolicy().isHostOverUtilized(snapshot);
 		}
-		addHistoryEntry(host, upperThreshold);
-		double totalRequestedMips = 0;
-		for (GuestEntity vm : host.getGuestList()) {
-			totalRequestedMips += vm.getCurrentRequestedTotalMips();
-		}
-		double utilization = totalRequestedMips / host.getTotalMips();
-		return utilization > upperThreshold;
+		addHistoryEntry(snapshot.getHost(), upperThreshold);
+		return snapshot.getRequestedUtilization() > upperThreshold;
 	}
 
 	/**
@@ -123,7 +123,16 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * @return the host CPU utilization percentage IQR
 	 */
 	protected double getHostUtilizationIqr(PowerHost host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
+		return getHostUtilizationIqr(host.getUtilizationHistory());
+	}
+
+	/**
+	 * Gets the IQR of a host CPU utilization history.
+	 * 
+	 * @param data the utilization history
+	 * @return the IQR of the utilization history
+	 */
+	protected double getHostUtilizationIqr(double[] data) throws IllegalArgumentException {
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
 			return MathUtil.iqr(data);
 		}
@@ -14,6 +14,7 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.WindowRegression;
 
 /**
  * A VM allocation policy that uses Local Regression (LR) to predict host utilization (load)
@@ -34,6 +35,9 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllocationPolicyMigrationAbstract {
 
+	/** The number of history samples of the regression; we use 10 to make the regression responsive enough to latest values. */
+	private static final int REGRESSION_WINDOW = 10;
+
 	/** The scheduling interval that defines the periodicity of VM migrations. */
 	private double schedulingInterval;
 
@@ -108,23 +112,20 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-        double[] utilizationHistory = host.getUtilizationHistory();
-		int length = 10; // we use 10 to make the regression responsive enough to latest values
-		if (utilizationHistory.length < length) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
-		}
-		double[] utilizationHistoryReversed = new double[length];
-		for (int i = 0; i < length; i++) {
-			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
-		}
-		double[] estimates = null;
-		try {
-			estimates = getParameterEstimates(utilizationHistoryReversed);
-		} catch (IllegalArgumentException e) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
+		return isHostOverUtilized(new HostAllocationSnapshot(host));
+	}
+
+	@Override
+	protected boolean isHostOverUtilized(HostAllocationSnapshot snapshot) {
+		// the regression sums are kept up to date by the guest histories, instead of fitting the history again
+		WindowRegression regression = snapshot.getUtilizationRegression(REGRESSION_WINDOW);
+		if (regression.getCount() < REGRESSION_WINDOW) {
+			return getFallbackVmAllocationPolicy().isHostOverUtilized(snapshot);
 		}
-		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime((PowerHost) host) / getSchedulingInterval());
-		double predictedUtilization = estimates[0] + estimates[1] * (length + migrationIntervals);
+		double[] estimates = regression.getParameterEstimates();
+		PowerHost host = snapshot.getHost();
+		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime(host, snapshot.getMaxGuestRam()) / getSchedulingInterval());
+		double predictedUtilization = estimates[0] + estimates[1] * (REGRESSION_WINDOW + migrationIntervals);
 		predictedUtilization *= getSafetyParameter();
 
 		addHistoryEntry(host, predictedUtilization);
@@ -133,7 +134,8 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	}
 
 	/**
-	 * Gets utilization estimates.
+	 * Gets utilization estimates by fitting the given history. The over-utilization detection gets the
+	 * same estimates, up to rounding, from {@link WindowRegression} sums instead.
 	 * 
 	 * @param utilizationHistoryReversed the utilization history in reverse order
 	 * @return the utilization estimates
@@ -149,13 +151,17 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 * @return the maximum vm migration time
 	 */
 	protected double getMaximumVmMigrationTime(PowerHost host) {
-		int maxRam = Integer.MIN_VALUE;
-		for (GuestEntity vm : host.getGuestList()) {
-			int ram = vm.getRam();
-			if (ram > maxRam) {
-				maxRam = ram;
-			}
-		}
+		return getMaximumVmMigrationTime(host, new HostAllocationSnapshot(host).getMaxGuestRam());
+	}
+
+	/**
+	 * Gets the time to migrate the largest VM of a host.
+	 * 
+	 * @param host the host
+	 * @param maxRam the RAM of the largest VM
+	 * @return the maximum vm migration time
+	 */
+	private double getMaximumVmMigrationTime(PowerHost host, int maxRam) {
 		return maxRam / ((double) host.getBw() / (2 * 8000));
 	}
 
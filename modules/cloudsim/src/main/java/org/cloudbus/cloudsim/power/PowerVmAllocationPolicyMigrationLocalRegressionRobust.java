@@ -78,7 +78,9 @@ public class PowerVmAllocationPolicyMigrationLocalRegressionRobust extends
 	}
 
 	/**
-	 * Gets the utilization estimates.
+	 * Gets the utilization estimates. The tricube and bisquare weights are never zero, so
+	 * {@link MathUtil#createWeigthedLinearRegression} does not apply them, and the estimates are the same
+	 * as the ones of the non-robust policy.
 	 * 
 	 * @param utilizationHistoryReversed the utilization history reversed
 	 * @return the utilization estimates
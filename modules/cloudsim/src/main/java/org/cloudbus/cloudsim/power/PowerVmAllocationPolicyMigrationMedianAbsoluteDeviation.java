@@ -111,19 +111,19 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-        double upperThreshold = 0;
+		return isHostOverUtilized(new HostAllocationSnapshot(host));
+	}
+
+	@Override
+	protected boolean isHostOverUtilized(HostAllocationSnapshot snapshot) {
+		double upperThreshold = 0;
 		try {
-    			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationMad(host);
+			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationMad(snapshot.getUtilizationHistory());
 		} catch (IllegalArgumentException e) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
+			return getFallbackVmAllocationPolicy().isHostOverUtilized(snapshot);
 		}
-		addHistoryEntry(host, upperThreshold);
-		double totalRequestedMips = 0;
-		for (GuestEntity vm : host.getGuestList()) {
-			totalRequestedMips += vm.getCurrentRequestedTotalMips();
-		}
-		double utilization = totalRequestedMips / host.getTotalMips();
-		return utilization > upperThreshold;
+		addHistoryEntry(snapshot.getHost(), upperThreshold);
+		return snapshot.getRequestedUtilization() > upperThreshold;
 	}
 
 	/**
@@ -133,7 +133,16 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 * @return the host utilization MAD
 	 */
 	protected double getHostUtilizationMad(PowerHost host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
+		return getHostUtilizationMad(host.getUtilizationHistory());
+	}
+
+	/**
+	 * Gets the MAD of a host CPU utilization history.
+	 * 
+	 * @param data the utilization history
+	 * @return the MAD of the utilization history
+	 */
+	protected double getHostUtilizationMad(double[] data) throws IllegalArgumentException {
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
 			return MathUtil.mad(data);
 		}
@@ -62,13 +62,13 @@ public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-		addHistoryEntry(host, getUtilizationThreshold());
-		double totalRequestedMips = 0;
-		for (GuestEntity vm : host.getGuestList()) {
-			totalRequestedMips += vm.getCurrentRequestedTotalMips();
-		}
-		double utilization = totalRequestedMips / host.getTotalMips();
-		return utilization > getUtilizationThreshold();
+		return isHostOverUtilized(new HostAllocationSnapshot(host));
+	}
+
+	@Override
+	protected boolean isHostOverUtilized(HostAllocationSnapshot snapshot) {
+		addHistoryEntry(snapshot.getHost(), getUtilizationThreshold());
+		return snapshot.getRequestedUtilization() > getUtilizationThreshold();
 	}
 
 	/**
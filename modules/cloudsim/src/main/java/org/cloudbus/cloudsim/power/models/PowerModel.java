@@ -39,4 +39,14 @@ public interface PowerModel {
 	 */
 	double getPower(double utilization) throws IllegalArgumentException;
 
+	/**
+	 * Compiles the power model into a lookup table, which is sampled at
+	 * {@link PowerModelTable#DEFAULT_RESOLUTION} unless the model is defined exactly by fewer samples.
+	 * 
+	 * @return the compiled power model
+	 */
+	default PowerModelTable compile() {
+		return PowerModelTable.of(this, PowerModelTable.DEFAULT_RESOLUTION);
+	}
+
 }
@@ -66,6 +66,14 @@ public class PowerModelLinear implements PowerModel {
 		return getStaticPower() + getConstant() * utilization * 100;
 	}
 
+	/**
+	 * Compiles the model into a table of a single cell, which is exact.
+	 */
+	@Override
+	public PowerModelTable compile() {
+		return new PowerModelTable(new double[] { getStaticPower(), getStaticPower() + getConstant() * 100 }, 0);
+	}
+
 	/**
 	 * Gets the max power.
 	 * 
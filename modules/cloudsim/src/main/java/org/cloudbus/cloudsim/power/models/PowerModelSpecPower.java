@@ -42,6 +42,18 @@ public abstract class PowerModelSpecPower implements PowerModel {
         return power1 + delta * (utilization - (double) utilization1 / 10) * 100;
 	}
 
+	/**
+	 * Compiles the model from its power data, which the model interpolates linearly.
+	 */
+	@Override
+	public PowerModelTable compile() {
+		double[] power = new double[11];
+		for (int i = 0; i <= 10; i++) {
+			power[i] = getPowerData(i);
+		}
+		return new PowerModelTable(power, power[0]);
+	}
+
 	/**
 	 * Gets the power consumption for a given utilization percentage.
 	 * 
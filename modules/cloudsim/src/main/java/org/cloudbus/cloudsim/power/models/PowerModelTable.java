@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+/**
+ * A compiled power model: the power consumption sampled at a fixed resolution of the utilization,
+ * and linearly interpolated in between, together with the integral of the power from 0 up to each
+ * sample. The energy consumed while the utilization changes linearly over a time frame is then
+ * computed in closed form, from the samples and integrals of the cells the change goes through.
+ * <p>
+ * Utilization values are clamped to [0, 1] rather than checked.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see PowerModel#compile()
+ */
+public final class PowerModelTable implements PowerModel {
+
+	/** The number of cells a model is sampled in by default. */
+	public static final int DEFAULT_RESOLUTION = 100;
+
+	/** The number of cells of the table. */
+	private final int resolution;
+
+	/**
+	 * The power at each multiple of 1/resolution. The first one is the power at the smallest
+	 * positive utilization, as some models drop to 0 at 0 utilization.
+	 */
+	private final double[] power;
+
+	/** The integral of the power from 0 up to each sample. */
+	private final double[] integral;
+
+	/** The power at 0 utilization. */
+	private final double idlePower;
+
+	/**
+	 * Creates a table from its samples.
+	 *
+	 * @param power the power at each multiple of 1/(power.length - 1)
+	 * @param idlePower the power at 0 utilization
+	 */
+	public PowerModelTable(double[] power, double idlePower) {
+		if (power.length < 2) {
+			throw new IllegalArgumentException("At least two samples are needed");
+		}
+		this.resolution = power.length - 1;
+		this.power = power.clone();
+		this.idlePower = idlePower;
+		integral = new double[power.length];
+		for (int i = 1; i < power.length; i++) {
+			integral[i] = integral[i - 1] + (power[i - 1] + power[i]) / 2 / resolution;
+		}
+	}
+
+	/**
+	 * Samples a power model at a given resolution.
+	 *
+	 * @param model the power model
+	 * @param resolution the number of cells of the table
+	 * @return the table
+	 */
+	public static PowerModelTable of(PowerModel model, int resolution) {
+		double[] power = new double[resolution + 1];
+		power[0] = model.getPower(Double.MIN_VALUE);
+		for (int i = 1; i <= resolution; i++) {
+			power[i] = model.getPower((double) i / resolution);
+		}
+		return new PowerModelTable(power, model.getPower(0));
+	}
+
+	@Override
+	public PowerModelTable compile() {
+		return this;
+	}
+
+	@Override
+	public double getPower(double utilization) {
+		if (utilization <= 0) {
+			return idlePower;
+		}
+		return interpolate(Math.min(utilization, 1));
+	}
+
+	/**
+	 * Gets the energy consumed over a time frame, while the utilization changes linearly
+	 * from a value to another.
+	 * <p>
+	 * If the model drops to a different power at 0 utilization, as the linear, square root, square
+	 * and cubic models do, a change from or to 0 is not a ramp of the sampled power: its energy
+	 * is the average of the power at both ends over the time frame, as computed by
+	 * {@link org.cloudbus.cloudsim.core.PowerHostEntity#getEnergyLinearInterpolation}.
+	 *
+	 * @param fromUtilization the utilization at the start of the time frame
+	 * @param toUtilization the utilization at the end of the time frame
+	 * @param time the length of the time frame
+	 * @return the energy
+	 */
+	public double getEnergy(double fromUtilization, double toUtilization, double time) {
+		double lo = Math.max(0, Math.min(1, Math.min(fromUtilization, toUtilization)));
+		double hi = Math.max(0, Math.min(1, Math.max(fromUtilization, toUtilization)));
+		if (lo == 0 && idlePower != power[0]) {
+			return (getPower(fromUtilization) + getPower(toUtilization)) / 2 * time;
+		}
+		int i = cell(lo);
+		int j = cell(hi);
+		if (i == j) {
+			// the power is linear all along the change
+			return (interpolate(lo) + interpolate(hi)) / 2 * time;
+		}
+		double area = (interpolate(lo) + power[i + 1]) / 2 * ((double) (i + 1) / resolution - lo)
+				+ integral[j] - integral[i + 1]
+				+ (power[j] + interpolate(hi)) / 2 * (hi - (double) j / resolution);
+		return area / (hi - lo) * time;
+	}
+
+	/**
+	 * Gets the number of cells of the table.
+	 *
+	 * @return the resolution
+	 */
+	public int getResolution() {
+		return resolution;
+	}
+
+	private int cell(double utilization) {
+		return Math.min((int) (utilization * resolution), resolution - 1);
+	}
+
+	private double interpolate(double utilization) {
+		int i = cell(utilization);
+		return power[i] + (power[i + 1] - power[i]) * (utilization * resolution - i);
+	}
+
+}
@@ -8,10 +8,9 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntLongMap;
 
 /**
  * BwProvisionerSimple is an extension of {@link BwProvisioner} which uses a best-effort policy to
@@ -25,9 +24,9 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class BwProvisionerSimple extends BwProvisioner {
 
-	/** The BW map, where each key is a VM id and each value
+	/** The BW map, where each key is a VM handle and each value
          * is the amount of BW allocated to that VM. */
-	private Map<String, Long> bwTable;
+	private IntLongMap bwTable;
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -36,7 +35,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<>());
+		setBwTable(new IntLongMap());
 	}
 
 	@Override
@@ -45,7 +44,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() + old_bw >= bw) {
 			setAvailableBw(getAvailableBw() + old_bw - bw);
-			bwTable.put(guest.getUid(), bw);
+			bwTable.put(guest.getHandle(), bw);
 			guest.setCurrentAllocatedBw(bw);
 			return true;
 		}
@@ -55,18 +54,12 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public long getAllocatedBwForGuest(GuestEntity guest) {
-		Long bw = bwTable.get(guest.getUid());
-		if (bw != null)
-			return bw;
-		else
-			return 0;
+		return bwTable.get(guest.getHandle());
 	}
 
 	@Override
 	public void deallocateBwForGuest(GuestEntity guest) {
-		Long allocatedBw = bwTable.remove(guest.getUid());
-		if (allocatedBw != null)
-			setAvailableBw(getAvailableBw() + allocatedBw);
+		setAvailableBw(getAvailableBw() + bwTable.remove(guest.getHandle()));
 		guest.setCurrentAllocatedBw(0);
 	}
 
@@ -92,7 +85,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @return the bw map
 	 */
-	protected Map<String, Long> getBwTable() {
+	protected IntLongMap getBwTable() {
 		return bwTable;
 	}
 
@@ -101,7 +94,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @param bwTable the bw map
 	 */
-	protected void setBwTable(Map<String, Long> bwTable) {
+	protected void setBwTable(IntLongMap bwTable) {
 		this.bwTable = bwTable;
 	}
 
@@ -65,9 +65,9 @@ public abstract class PeProvisioner {
 	public boolean allocateMipsForVm(Vm vm, double mips) { return allocateMipsForGuest(vm, mips); }
 
 	/**
-	 * Allocates a new virtual PE with a specific capacity for a given VM id.
+	 * Allocates a new virtual PE with a specific capacity for a given VM handle.
 	 * 
-	 * @param vmUid the virtual machine for which the new virtual PE is being allocated
+	 * @param handle the {@link GuestEntity#getHandle() handle} of the virtual machine for which the new virtual PE is being allocated
 	 * @param mips the mips to be allocated to the virtual PE of the given VM
 	 * 
 	 * @return $true if the virtual PE could be allocated; $false otherwise
@@ -75,10 +75,10 @@ public abstract class PeProvisioner {
 	 * @post $none
          * @see #allocateMipsForGuest(GuestEntity, double)
 	 */
-	public abstract boolean allocateMipsForGuest(String vmUid, double mips);
+	public abstract boolean allocateMipsForGuest(int handle, double mips);
 
 	@Deprecated
-	public boolean allocateMipsForVm(String vmUid, double mips) { return allocateMipsForGuest(vmUid, mips);}
+	public boolean allocateMipsForVm(int handle, double mips) { return allocateMipsForGuest(handle, mips);}
 
 	/**
 	 * Allocates a new set of virtual PE with a specific capacity, replacing the old set (if any), for a given VM.
@@ -8,12 +8,11 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import org.cloudbus.cloudsim.MipsShare;
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 /**
  * PeProvisionerSimple is an extension of {@link PeProvisioner} which uses a best-effort policy to
@@ -26,9 +25,9 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class PeProvisionerSimple extends PeProvisioner {
 
-	/** The PE map, where each key is a VM id and each value
+	/** The PE map, where each key is a VM handle and each value
          * is the list of in terms of their allocated amount of MIPS to that VM. */
-	private Map<String, List<Double>> peTable;
+	private IntObjectMap<MipsShare> peTable;
 
 	/**
 	 * Instantiates a new pe provisioner simple.
@@ -40,23 +39,23 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
+		setPeTable(new IntObjectMap<>());
 	}
 
 	@Override
 	public boolean allocateMipsForGuest(GuestEntity guest, double mips) {
-		return allocateMipsForGuest(guest.getUid(), mips);
+		return allocateMipsForGuest(guest.getHandle(), mips);
 	}
 
 	@Override
-	public boolean allocateMipsForGuest(String vmUid, double mips) {
+	public boolean allocateMipsForGuest(int handle, double mips) {
 		if (getAvailableMips() < mips) {
 			return false;
 		}
 
-        List<Double> allocatedMips = getPeTable().computeIfAbsent(vmUid, k -> new ArrayList<>());
+        MipsShare allocatedMips = getPeTable().computeIfAbsent(handle, k -> new MipsShare());
 
-        allocatedMips.add(mips);
+        allocatedMips.addMips(mips);
 		setAvailableMips(getAvailableMips() - mips);
 
 		return true;
@@ -66,7 +65,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	public boolean allocateMipsForGuest(GuestEntity guest, List<Double> mips) {
 		deallocateMipsForGuest(guest);
 		for (double _mips : mips) {
-			if (!allocateMipsForGuest(guest.getUid(), _mips)) {
+			if (!allocateMipsForGuest(guest.getHandle(), _mips)) {
 				return false;
 			}
 		}
@@ -82,44 +81,33 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 	@Override
 	public double getAllocatedMipsForGuestByVirtualPeId(GuestEntity guest, int peId) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
+		MipsShare allocatedMips = getPeTable().get(guest.getHandle());
 		if (allocatedMips != null && peId < allocatedMips.size()) {
-			return allocatedMips.get(peId);
+			return allocatedMips.getMips(peId);
 		}
 		return 0;
 	}
 
 	@Override
 	public List<Double> getAllocatedMipsForGuest(GuestEntity guest) {
-		if (getPeTable().containsKey(guest.getUid())) {
-			return getPeTable().get(guest.getUid());
-		}
-		return null;
+		return getPeTable().get(guest.getHandle());
 	}
 
 	@Override
 	public double getTotalAllocatedMipsForGuest(GuestEntity guest) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
-
-		if (allocatedMips != null) {
-			double totalAllocatedMips = 0.0;
-			for (double mips : allocatedMips) {
-				totalAllocatedMips += mips;
-			}
-			return totalAllocatedMips;
-		}
-		return 0;
+		MipsShare allocatedMips = getPeTable().get(guest.getHandle());
+		return allocatedMips != null ? allocatedMips.getTotalMips() : 0;
 	}
 
 	@Override
 	public void deallocateMipsForGuest(GuestEntity guest) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
+		MipsShare allocatedMips = getPeTable().get(guest.getHandle());
 
 		if (allocatedMips != null) {
-			for (double mips : allocatedMips) {
-				setAvailableMips(getAvailableMips() + mips);
+			for (int i = 0; i < allocatedMips.size(); i++) {
+				setAvailableMips(getAvailableMips() + allocatedMips.getMips(i));
 			}
-			getPeTable().remove(guest.getUid());
+			getPeTable().remove(guest.getHandle());
 		}
 	}
 
@@ -128,7 +116,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @return the pe map
 	 */
-	protected Map<String, List<Double>> getPeTable() {
+	protected IntObjectMap<MipsShare> getPeTable() {
 		return peTable;
 	}
 
@@ -137,8 +125,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @param peTable the peTable to set
 	 */
-	@SuppressWarnings("unchecked")
-	protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-		this.peTable = (Map<String, List<Double>>) peTable;
+	protected void setPeTable(IntObjectMap<MipsShare> peTable) {
+		this.peTable = peTable;
 	}
 }
@@ -8,11 +8,10 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntLongMap;
 
 /**
  * RamProvisionerSimple is an extension of {@link RamProvisioner} which uses a best-effort policy to
@@ -25,9 +24,9 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class RamProvisionerSimple extends RamProvisioner {
 
-	/** The RAM map, where each key is a VM id and each value
+	/** The RAM map, where each key is a VM handle and each value
          * is the amount of RAM allocated to that VM. */
-	private Map<String, Integer> ramTable;
+	private IntLongMap ramTable;
 
 	/**
 	 * Instantiates a new ram provisioner simple.
@@ -36,7 +35,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	public RamProvisionerSimple(int availableRam) {
 		super(availableRam);
-		setRamTable(new HashMap<>());
+		setRamTable(new IntLongMap());
 	}
 
 	@Override
@@ -53,7 +52,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 		if (getAvailableRam() >= ram) {
 			setAvailableRam(getAvailableRam() - ram);
-			getRamTable().put(guest.getUid(), ram);
+			getRamTable().put(guest.getHandle(), ram);
 			guest.setCurrentAllocatedRam(getAllocatedRamForGuest(guest));
 			return true;
 		}
@@ -65,17 +64,14 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 	@Override
 	public int getAllocatedRamForGuest(GuestEntity guest) {
-		if (getRamTable().containsKey(guest.getUid())) {
-			return getRamTable().get(guest.getUid());
-		}
-		return 0;
+		return (int) getRamTable().get(guest.getHandle());
 	}
 
 	@Override
 	public void deallocateRamForGuest(GuestEntity guest) {
 		int allocatedRam = getAllocatedRamForGuest(guest);
 		if (allocatedRam > 0) {
-			int amountFreed = getRamTable().remove(guest.getUid());
+			int amountFreed = (int) getRamTable().remove(guest.getHandle());
 			setAvailableRam(getAvailableRam() + amountFreed);
 			guest.setCurrentAllocatedRam(0);
 		}
@@ -103,7 +99,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @return the ram map
 	 */
-	protected Map<String, Integer> getRamTable() {
+	protected IntLongMap getRamTable() {
 		return ramTable;
 	}
 
@@ -112,7 +108,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @param ramTable the ram map
 	 */
-	protected void setRamTable(Map<String, Integer> ramTable) {
+	protected void setRamTable(IntLongMap ramTable) {
 		this.ramTable = ramTable;
 	}
 
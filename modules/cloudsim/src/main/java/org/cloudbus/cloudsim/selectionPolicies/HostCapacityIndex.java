@@ -0,0 +1,377 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.power.PowerHost;
+
+/**
+ * A segment tree over a host list, holding the capacities used by the built-in selection
+ * policies, so that the best suitable host for a guest is found in O(log n) rather than by
+ * scanning every host, and every host again after each unsuitable one.
+ * <p>
+ * The MIPS requested by the guest prune the subtrees without enough available MIPS, or PE
+ * capacity; the other requirements are checked with {@link HostEntity#isSuitableForGuest} on
+ * the candidate hosts only. Ties are broken in favour of the first host of the list, as the
+ * scanning policies do.
+ * <p>
+ * A host is refreshed when its {@link org.cloudbus.cloudsim.VmScheduler} reports an allocation
+ * change, or when it is {@link #markDirty(HostEntity) marked}, e.g. because the utilization of a
+ * power host has changed with its cloudlet processing. The other hosts are left as they are.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim toolkit 7.0
+ * @see IndexedSelectionPolicy
+ */
+public class HostCapacityIndex<T extends HostEntity> {
+
+	/** The host metrics the index can be queried on. */
+	public enum Metric {
+		/** The available capacity, as defined by {@link #getAvailableCapacity(HostEntity)}. */
+		AVAILABLE_CAPACITY,
+		/** The number of free PEs. */
+		FREE_PES
+	}
+
+	/** The indexed hosts. */
+	private final List<T> hosts;
+
+	/** The number of leaves of the tree, a power of two. */
+	private final int leaves;
+
+	/** The maximum available capacity of each subtree. */
+	private final double[] maxCapacity;
+
+	/** The minimum available capacity of each subtree. */
+	private final double[] minCapacity;
+
+	/** The maximum number of free PEs of each subtree. */
+	private final double[] maxFreePes;
+
+	/** The minimum number of free PEs of each subtree. */
+	private final double[] minFreePes;
+
+	/** The maximum available MIPS of each subtree. */
+	private final double[] maxMips;
+
+	/** The maximum PE capacity of each subtree. */
+	private final double[] maxPeCapacity;
+
+	/** The position of the first host of each subtree. */
+	private final int[] first;
+
+	/** Whether the MIPS requirements of the default suitability check apply to each host. */
+	private final boolean[] prunable;
+
+	/** The hosts whose allocation or utilization has changed since the last query. */
+	private final BitSet dirty = new BitSet();
+
+	/** Whether all the hosts have to be refreshed. */
+	private boolean allDirty = true;
+
+	/** The position of each host in the host list. */
+	private final Map<HostEntity, Integer> positions = new IdentityHashMap<>();
+
+	/** The guest scheduler of each host, as of the index creation. */
+	private final VmScheduler[] schedulers;
+
+	/** The allocation listener registered on the guest scheduler of each host. */
+	private final Runnable[] listeners;
+
+	/** Whether each host class keeps the default suitability check. */
+	private static final Map<Class<?>, Boolean> DEFAULT_SUITABILITY = new HashMap<>();
+
+	/**
+	 * Creates an index over a host list, which is expected not to change.
+	 *
+	 * @param hosts the hosts
+	 */
+	public HostCapacityIndex(List<T> hosts) {
+		this.hosts = hosts;
+		int n = Integer.highestOneBit(Math.max(1, hosts.size()));
+		leaves = n < hosts.size() ? n << 1 : n;
+		maxCapacity = new double[2 * leaves];
+		minCapacity = new double[2 * leaves];
+		maxFreePes = new double[2 * leaves];
+		minFreePes = new double[2 * leaves];
+		maxMips = new double[2 * leaves];
+		maxPeCapacity = new double[2 * leaves];
+		first = new int[2 * leaves];
+		prunable = new boolean[hosts.size()];
+		schedulers = new VmScheduler[hosts.size()];
+		listeners = new Runnable[hosts.size()];
+
+		for (int i = 0; i < leaves; i++) {
+			first[leaves + i] = i;
+			clearLeaf(leaves + i);
+		}
+		for (int k = leaves - 1; k >= 1; k--) {
+			first[k] = first[2 * k];
+		}
+		for (int i = 0; i < hosts.size(); i++) {
+			T host = hosts.get(i);
+			prunable[i] = hasDefaultSuitability(host);
+			final int position = i;
+			positions.put(host, position);
+			schedulers[i] = host.getGuestScheduler();
+			listeners[i] = () -> dirty.set(position);
+			schedulers[i].addAllocationListener(listeners[i]);
+		}
+	}
+
+	/**
+	 * Stops tracking the allocation changes of the indexed hosts, once the index is replaced.
+	 */
+	public void detach() {
+		for (int i = 0; i < listeners.length; i++) {
+			schedulers[i].removeAllocationListener(listeners[i]);
+		}
+	}
+
+	/**
+	 * Gets the indexed hosts.
+	 *
+	 * @return the hosts
+	 */
+	public List<T> getHosts() {
+		return hosts;
+	}
+
+	/**
+	 * Gets the number of indexed hosts, which differs from the size of the host list if hosts
+	 * have been added or removed since the index creation.
+	 *
+	 * @return the number of hosts
+	 */
+	public int size() {
+		return prunable.length;
+	}
+
+	/**
+	 * Gets the available capacity of a host, as compared by {@link SelectionPolicyLeastFull} and
+	 * {@link SelectionPolicyMostFull}: the unused CPU fraction of power hosts, the available MIPS
+	 * of the other hosts.
+	 *
+	 * @param host the host
+	 * @return the available capacity
+	 */
+	public static double getAvailableCapacity(HostEntity host) {
+		//@todo: this doesn't work well if we mix powerHosts and normal Hosts because it would compare
+		//       normalized (cpu utilization) and "raw" (available mips) metrics
+		if (host instanceof PowerHost powerHost) {
+			return 1.0 - powerHost.getUtilizationOfCpu();
+		}
+		return host.getGuestScheduler().getAvailableMips();
+	}
+
+	/**
+	 * Marks a host to be refreshed at the next query, after a change that is not reported by its
+	 * scheduler, such as an update of its cloudlet processing.
+	 *
+	 * @param host the host, unknown hosts are ignored
+	 */
+	public void markDirty(HostEntity host) {
+		Integer position = positions.get(host);
+		if (position != null) {
+			dirty.set(position);
+		}
+	}
+
+	/**
+	 * Marks all the hosts to be refreshed at the next query, e.g. after a change that is not
+	 * reported by the host schedulers.
+	 */
+	public void markAllDirty() {
+		allDirty = true;
+	}
+
+	/**
+	 * Finds the first host of the list that is suitable for a guest.
+	 *
+	 * @param guest the guest
+	 * @return the host, or <tt>null</tt> if none is suitable
+	 */
+	public T findFirst(GuestEntity guest) {
+		refresh();
+		double mips = guest.getCurrentRequestedTotalMips();
+		double peMips = guest.getCurrentRequestedMaxMips();
+		return findFirst(1, guest, mips, peMips);
+	}
+
+	private T findFirst(int node, GuestEntity guest, double mips, double peMips) {
+		if (!mayFit(node, mips, peMips)) {
+			return null;
+		}
+		if (node >= leaves) {
+			T host = hosts.get(node - leaves);
+			return host.isSuitableForGuest(guest) ? host : null;
+		}
+		T host = findFirst(2 * node, guest, mips, peMips);
+		return host != null ? host : findFirst(2 * node + 1, guest, mips, peMips);
+	}
+
+	/**
+	 * Finds the suitable host with the highest value of a metric, above a threshold.
+	 *
+	 * @param metric the metric
+	 * @param guest the guest
+	 * @param threshold the value the metric has to exceed
+	 * @return the first host with the highest value, or <tt>null</tt> if no suitable host exceeds
+	 *         the threshold
+	 */
+	public T findMax(Metric metric, GuestEntity guest, double threshold) {
+		double[] values = switch (metric) {
+			case AVAILABLE_CAPACITY -> maxCapacity;
+			case FREE_PES -> maxFreePes;
+		};
+		return findBest(values, 1, guest, threshold);
+	}
+
+	/**
+	 * Finds the suitable host with the lowest value of a metric, below a threshold.
+	 *
+	 * @param metric the metric
+	 * @param guest the guest
+	 * @param threshold the value the metric has to be below
+	 * @return the first host with the lowest value, or <tt>null</tt> if no suitable host is below
+	 *         the threshold
+	 */
+	public T findMin(Metric metric, GuestEntity guest, double threshold) {
+		double[] values = switch (metric) {
+			case AVAILABLE_CAPACITY -> minCapacity;
+			case FREE_PES -> minFreePes;
+		};
+		return findBest(values, -1, guest, threshold);
+	}
+
+	/**
+	 * Finds the best suitable host through a best-first visit of the tree: the subtrees are
+	 * visited by best bound, then by position, so that the first suitable host reached is the
+	 * first one with the best value.
+	 *
+	 * @param values the bounds of the subtrees
+	 * @param sign 1 to maximise, -1 to minimise
+	 */
+	private T findBest(double[] values, int sign, GuestEntity guest, double threshold) {
+		refresh();
+		double mips = guest.getCurrentRequestedTotalMips();
+		double peMips = guest.getCurrentRequestedMaxMips();
+		PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> {
+			int c = Double.compare(sign * values[b], sign * values[a]);
+			return c != 0 ? c : Integer.compare(first[a], first[b]);
+		});
+		queue.add(1);
+		Integer node;
+		while ((node = queue.poll()) != null) {
+			if (!(sign * values[node] > sign * threshold) || !mayFit(node, mips, peMips)) {
+				continue;
+			}
+			if (node >= leaves) {
+				T host = hosts.get(node - leaves);
+				if (host.isSuitableForGuest(guest)) {
+					return host;
+				}
+			} else {
+				queue.add(2 * node);
+				queue.add(2 * node + 1);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether a subtree may hold a host with enough MIPS for a guest.
+	 */
+	private boolean mayFit(int node, double mips, double peMips) {
+		return maxMips[node] >= mips && maxPeCapacity[node] >= peMips;
+	}
+
+	/**
+	 * Refreshes the hosts marked since the last query, or all of them the first time.
+	 */
+	private void refresh() {
+		if (allDirty) {
+			allDirty = false;
+			dirty.clear();
+			for (int i = 0; i < hosts.size(); i++) {
+				setLeaf(i);
+			}
+			for (int k = leaves - 1; k >= 1; k--) {
+				merge(k);
+			}
+			return;
+		}
+		for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+			setLeaf(i);
+			for (int k = (leaves + i) >> 1; k >= 1; k >>= 1) {
+				merge(k);
+			}
+		}
+		dirty.clear();
+	}
+
+	private void setLeaf(int position) {
+		T host = hosts.get(position);
+		int leaf = leaves + position;
+		double capacity = getAvailableCapacity(host);
+		maxCapacity[leaf] = capacity;
+		minCapacity[leaf] = capacity;
+		maxFreePes[leaf] = host.getNumberOfFreePes();
+		minFreePes[leaf] = maxFreePes[leaf];
+		if (prunable[position]) {
+			maxMips[leaf] = host.getGuestScheduler().getAvailableMips();
+			maxPeCapacity[leaf] = host.getGuestScheduler().getPeCapacity();
+		} else {
+			maxMips[leaf] = Double.POSITIVE_INFINITY;
+			maxPeCapacity[leaf] = Double.POSITIVE_INFINITY;
+		}
+	}
+
+	private void clearLeaf(int leaf) {
+		maxCapacity[leaf] = Double.NEGATIVE_INFINITY;
+		minCapacity[leaf] = Double.POSITIVE_INFINITY;
+		maxFreePes[leaf] = Double.NEGATIVE_INFINITY;
+		minFreePes[leaf] = Double.POSITIVE_INFINITY;
+		maxMips[leaf] = Double.NEGATIVE_INFINITY;
+		maxPeCapacity[leaf] = Double.NEGATIVE_INFINITY;
+	}
+
+	private void merge(int k) {
+		maxCapacity[k] = Math.max(maxCapacity[2 * k], maxCapacity[2 * k + 1]);
+		minCapacity[k] = Math.min(minCapacity[2 * k], minCapacity[2 * k + 1]);
+		maxFreePes[k] = Math.max(maxFreePes[2 * k], maxFreePes[2 * k + 1]);
+		minFreePes[k] = Math.min(minFreePes[2 * k], minFreePes[2 * k + 1]);
+		maxMips[k] = Math.max(maxMips[2 * k], maxMips[2 * k + 1]);
+		maxPeCapacity[k] = Math.max(maxPeCapacity[2 * k], maxPeCapacity[2 * k + 1]);
+	}
+
+	/**
+	 * Checks whether a host keeps the suitability check of {@link HostEntity}, whose MIPS
+	 * requirements can be used to prune the tree.
+	 */
+	private static boolean hasDefaultSuitability(HostEntity host) {
+		synchronized (DEFAULT_SUITABILITY) {
+			return DEFAULT_SUITABILITY.computeIfAbsent(host.getClass(), c -> {
+				try {
+					return c.getMethod("isSuitableForGuest", GuestEntity.class).getDeclaringClass() == HostEntity.class;
+				} catch (NoSuchMethodException e) {
+					return false;
+				}
+			});
+		}
+	}
+}
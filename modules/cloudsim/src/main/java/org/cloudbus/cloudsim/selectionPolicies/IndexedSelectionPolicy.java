@@ -0,0 +1,34 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+
+/**
+ * A host selection policy that can be answered by a {@link HostCapacityIndex}.
+ * <p>
+ * The result must be the one of {@link SelectionPolicy#select} repeated until a suitable host
+ * is found, the unsuitable hosts being excluded, as done by
+ * {@link org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy}. That allocation policy only
+ * queries the index for the built-in policies, not for their subclasses, which may redefine
+ * <tt>select</tt>.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim toolkit 7.0
+ */
+public interface IndexedSelectionPolicy {
+    /**
+     * Selects a host suitable for a guest.
+     *
+     * @param index the index of the candidate hosts
+     * @param guest the guest
+     * @return the selected host, or <tt>null</tt> if no host is suitable
+     */
+    HostEntity selectSuitable(HostCapacityIndex<? extends HostEntity> index, GuestEntity guest);
+}
@@ -8,14 +8,16 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.cloudbus.cloudsim.core.PowerGuestEntity;
+import org.cloudbus.cloudsim.util.HistoryStat;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.MultipleCorrelation;
 
 /**
  * A VM selection policy that selects for migration the VM with the Maximum Correlation Coefficient (MCC) among 
@@ -41,6 +43,15 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
          * the  Maximum Correlation policy doesn't have data to be computed. */
 	private SelectionPolicy<PowerGuestEntity> fallbackPolicy;
 
+	/** The candidates of the last selection, whose correlations can be reused if one of them is removed. */
+	private List<PowerGuestEntity> lastCandidates = List.of();
+
+	/** The modification counts of the histories of the last candidates. */
+	private int[] lastHistoryVersions;
+
+	/** The correlations of the last candidates, or null if they could not be computed incrementally. */
+	private MultipleCorrelation lastCorrelation;
+
 	/**
 	 * Instantiates a new PowerSelectionPolicyMaximumCorrelation.
 	 * 
@@ -52,21 +63,21 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 	}
 
 	@Override
-	public PowerGuestEntity select(List<PowerGuestEntity> candidates, Object host, Set<PowerGuestEntity> excludedCandidates) {
+	public synchronized PowerGuestEntity select(List<PowerGuestEntity> candidates, Object host, Set<PowerGuestEntity> excludedCandidates) {
 		if (candidates.isEmpty()) {
 			return null;
 		}
 
-		List<Double> metrics = null;
+		double[] metrics = null;
 		try {
-			metrics = getCorrelationCoefficients(getUtilizationMatrix(candidates));
+			metrics = getCorrelationCoefficients(candidates);
 		} catch (IllegalArgumentException e) { // the degrees of freedom must be greater than zero
 			return getFallbackPolicy().select(candidates, host, excludedCandidates);
 		}
 		double maxMetric = Double.MIN_VALUE;
 		int maxIndex = 0;
-		for (int i = 0; i < metrics.size(); i++) {
-			double metric = metrics.get(i);
+		for (int i = 0; i < metrics.length; i++) {
+			double metric = metrics[i];
 			if (metric > maxMetric) {
 				maxMetric = metric;
 				maxIndex = i;
@@ -93,10 +104,9 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 		int m = getMinUtilizationHistorySize(vmList);
 		double[][] utilization = new double[n][m];
 		for (int i = 0; i < n; i++) {
-			ArrayDeque<Double> vmUtilization = vmList.get(i).getUtilizationHistory();
-			int j = 0;
-			for (double u : vmUtilization)
-				utilization[i][j++] = u;
+			HistoryStat vmUtilization = vmList.get(i).getUtilizationHistory();
+			for (int j = 0; j < vmUtilization.size(); j++)
+				utilization[i][j] = vmUtilization.get(j);
 		}
 		return utilization;
 	}
@@ -119,7 +129,97 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 	}
 
 	/**
-	 * Gets the correlation coefficients.
+	 * Gets the correlation coefficients of a list of VMs, as {@link #getCorrelationCoefficients(double[][])}
+	 * computes them from their utilization matrix. They are computed together with a
+	 * {@link MultipleCorrelation}, which is downdated rather than computed again when the VMs are the ones
+	 * of the previous call but one, e.g. when a VM has been selected and removed from the host.
+	 * Collinear utilization histories, as well as two VMs, fall back to one regression per VM:
+	 * the two coefficients of two VMs are equal, so that only the rounding of the regressions
+	 * decides which VM is selected.
+	 * 
+	 * @param candidates the VMs
+	 * @return the correlation coefficients, in the order of the VMs
+	 * @throws IllegalArgumentException if there are not enough VMs or history values
+	 */
+	protected double[] getCorrelationCoefficients(final List<PowerGuestEntity> candidates) {
+		if (candidates.size() == 2) {
+			lastCandidates = List.of();
+			lastCorrelation = null;
+			return toArray(getCorrelationCoefficients(getUtilizationMatrix(candidates)));
+		}
+
+		int removed = getRemovedCandidate(candidates);
+		if (removed >= 0) {
+			lastCorrelation.remove(removed);
+			lastCandidates = new ArrayList<>(candidates);
+			lastHistoryVersions = getHistoryVersions(candidates);
+			return lastCorrelation.getRSquared();
+		}
+
+		double[][] data = getUtilizationMatrix(candidates);
+		lastCandidates = new ArrayList<>(candidates);
+		lastHistoryVersions = getHistoryVersions(candidates);
+		try {
+			lastCorrelation = new MultipleCorrelation(data);
+			return lastCorrelation.getRSquared();
+		} catch (IllegalArgumentException e) {
+			lastCorrelation = null;
+		}
+		return toArray(getCorrelationCoefficients(data));
+	}
+
+	private static double[] toArray(final List<Double> correlationCoefficients) {
+		double[] metrics = new double[correlationCoefficients.size()];
+		int i = 0;
+		for (double metric : correlationCoefficients) {
+			metrics[i++] = metric;
+		}
+		return metrics;
+	}
+
+	/**
+	 * Finds the VM of the previous call that is missing from a list of VMs, provided that the other
+	 * ones are the same, in the same order, with the same utilization histories.
+	 * 
+	 * @param candidates the VMs
+	 * @return the position of the missing VM among the previous ones, or -1 if the correlations of
+	 *         the previous call cannot be reused
+	 */
+	private int getRemovedCandidate(final List<PowerGuestEntity> candidates) {
+		if (lastCorrelation == null || lastCorrelation.size() <= 2
+				|| candidates.size() != lastCandidates.size() - 1) {
+			return -1;
+		}
+		int removed = -1;
+		int j = 0;
+		for (int i = 0; i < lastCandidates.size(); i++) {
+			PowerGuestEntity vm = lastCandidates.get(i);
+			if (j < candidates.size() && candidates.get(j) == vm
+					&& vm.getUtilizationHistory().getModificationCount() == lastHistoryVersions[i]) {
+				j++;
+			} else if (removed < 0) {
+				removed = i;
+			} else {
+				return -1;
+			}
+		}
+		// the matrix uses the shortest history, which may have been the one of the removed VM
+		if (getMinUtilizationHistorySize(candidates) != getMinUtilizationHistorySize(lastCandidates)) {
+			return -1;
+		}
+		return removed;
+	}
+
+	private static int[] getHistoryVersions(final List<PowerGuestEntity> candidates) {
+		int[] versions = new int[candidates.size()];
+		for (int i = 0; i < versions.length; i++) {
+			versions[i] = candidates.get(i).getUtilizationHistory().getModificationCount();
+		}
+		return versions;
+	}
+
+	/**
+	 * Gets the correlation coefficients, by regressing each row of the data on the other ones.
 	 * 
 	 * @param data the data
 	 * @return the correlation coefficients
@@ -8,6 +8,7 @@
 package org.cloudbus.cloudsim.selectionPolicies;
 
 
+import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
 
 import java.util.List;
@@ -20,7 +21,7 @@ import java.util.Set;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy<CandidateEntity> {
+public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy<CandidateEntity>, IndexedSelectionPolicy {
     @Override
     public CandidateEntity select(List<CandidateEntity> candidates, Object obj, Set<CandidateEntity> excludedCandidates) {
         CandidateEntity selectedHost = null;
@@ -33,4 +34,9 @@ public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy
         }
         return selectedHost;
     }
+
+    @Override
+    public HostEntity selectSuitable(HostCapacityIndex<? extends HostEntity> index, GuestEntity guest) {
+        return index.findFirst(guest);
+    }
 }
@@ -7,8 +7,8 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
+import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
-import org.cloudbus.cloudsim.power.PowerHost;
 
 import java.util.List;
 import java.util.Set;
@@ -19,7 +19,7 @@ import java.util.Set;
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyLeastFull<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyLeastFull<T extends HostEntity> implements SelectionPolicy<T>, IndexedSelectionPolicy {
     @Override
     public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
         double maxAvailable = 0;
@@ -30,14 +30,7 @@ public class SelectionPolicyLeastFull<T extends HostEntity> implements Selection
                 continue;
             }
 
-            //@todo: this doesn't work well if we mix powerHosts and normal Hosts because it would compare
-            //       normalized (cpu utilization) and "raw" (available mips) metrics
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = 1.0 - powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
+            double hostAvailable = HostCapacityIndex.getAvailableCapacity(hostCandidate);
 
             if (hostAvailable > maxAvailable) {
                 maxAvailable = hostAvailable;
@@ -46,4 +39,9 @@ public class SelectionPolicyLeastFull<T extends HostEntity> implements Selection
         }
         return selectedHost;
     }
+
+    @Override
+    public HostEntity selectSuitable(HostCapacityIndex<? extends HostEntity> index, GuestEntity guest) {
+        return index.findMax(HostCapacityIndex.Metric.AVAILABLE_CAPACITY, guest, 0);
+    }
 }
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.selectionPolicies;
 import java.util.List;
 import java.util.Set;
 
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 
 /**
@@ -46,7 +45,7 @@ public class SelectionPolicyMinimumUtilization implements SelectionPolicy<GuestE
 			if (vm.isInMigration()) {
 				continue;
 			}
-			double metric = vm.getTotalUtilizationOfCpuMips(CloudSim.clock()) / vm.getMips();
+			double metric = vm.getCurrentUtilizationOfCpuMips() / vm.getMips();
 			if (metric < minMetric) {
 				minMetric = metric;
 				selectedGuest = vm;
@@ -7,6 +7,7 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
+import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
 
 import java.util.*;
@@ -20,7 +21,7 @@ import java.util.*;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyWorstFit<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyWorstFit<T extends HostEntity> implements SelectionPolicy<T>, IndexedSelectionPolicy {
     /** The map between each VM and the number of Pes used.
      * The map key is a VM UID and the value is the number of used Pes for that VM. */
     private Map<String, Integer> usedPes;
@@ -46,6 +47,11 @@ public class SelectionPolicyWorstFit<T extends HostEntity> implements SelectionP
         return selectedHost;
     }
 
+    @Override
+    public HostEntity selectSuitable(HostCapacityIndex<? extends HostEntity> index, GuestEntity guest) {
+        return index.findMax(HostCapacityIndex.Metric.FREE_PES, guest, Integer.MIN_VALUE);
+    }
+
     protected List<Integer> getFreePes() { return freePes; }
     protected void setFreePes(List<Integer> freePes) { this.freePes = freePes; }
 
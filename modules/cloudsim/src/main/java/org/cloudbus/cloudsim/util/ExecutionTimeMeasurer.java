@@ -13,6 +13,9 @@ import java.util.Map;
 
 /**
  * Measurement of execution times of CloudSim's methods.
+ * The measurements are kept per thread, so that simulations running concurrently in the same JVM,
+ * or entities of one simulation running concurrently, do not overwrite each other's start times.
+ * A measurement must therefore be ended by the thread that started it.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 3.0
@@ -30,7 +33,7 @@ public class ExecutionTimeMeasurer {
          * It in fact stores the method/process start time,
          * no the time it spent executing.
          */
-	private final static Map<String, Long> executionTimes = new HashMap<>();
+	private final static ThreadLocal<Map<String, Long>> executionTimes = ThreadLocal.withInitial(HashMap::new);
 
 	/**
 	 * Start measuring the execution time of a method/process.
@@ -58,13 +61,13 @@ public class ExecutionTimeMeasurer {
 	}
 
 	/**
-	 * Gets map the execution times.
+	 * Gets map the execution times of the calling thread.
 	 * 
 	 * @return the execution times map
          * @see #executionTimes
 	 */
 	public static Map<String, Long> getExecutionTimes() {
-		return executionTimes;
+		return executionTimes.get();
 	}
 
 }
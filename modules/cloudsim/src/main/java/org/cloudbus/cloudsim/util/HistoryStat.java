@@ -1,88 +1,217 @@
 package org.cloudbus.cloudsim.util;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
- * Variant of ArrayDeque that provides fast computation of the mean and median of a moving window of last offer()ed samples.
- * The median uses two heaps that are not used until the first invocation of the getMedian() method.
- * 
- * @TODO The implementation needs to be completed with all methods from the ArrayDeque interface.
+ * A moving window of the last offer()ed samples, which provides fast computation of their mean, median and
+ * order statistics. The samples are kept in a ring buffer, from the oldest to the most recent one, and in a
+ * sorted array that is updated on each offer() with a binary search, so that no sample is boxed.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
  */
-public class HistoryStat extends ArrayDeque<Double> {
+public class HistoryStat implements Iterable<Double> {
     private final int max_size;
+
+    /** The samples, as a ring buffer starting at {@link #head}. */
+    private final double[] samples;
+
+    /** The samples, in increasing order. */
+    private final double[] sorted;
+
+    private int head = 0;
+    private int size = 0;
     private double sum = 0.0;
-    private PriorityQueue<Double> lower;
-    private PriorityQueue<Double> higher;
+
+    /** The number of samples offer()ed so far. */
+    private int modCount = 0;
+
+    /** The regression sums of the first samples, kept up to date once requested. */
+    private WindowRegression leadingRegression;
 
     public HistoryStat(int max_size) {
-        super(max_size);
         assert(max_size >= 2);
         this.max_size = max_size;
+        samples = new double[max_size];
+        sorted = new double[max_size];
     }
 
-    private void enableFastMedian() {
-        lower = new PriorityQueue<>((max_size + 1) / 2, Comparator.reverseOrder());
-        higher  = new PriorityQueue<>((max_size + 1) / 2, Comparator.naturalOrder());
-        for (double val : this)
-            addHeaps(val);
+    /**
+     * Adds a sample, discarding the oldest one if the window is full.
+     *
+     * @param val the sample
+     * @return always true
+     */
+    public boolean offer(double val) {
+        if (size == max_size) {
+            double oldest = samples[head];
+            head = (head + 1) % max_size;
+            size--;
+            sum -= oldest;
+            int pos = Arrays.binarySearch(sorted, 0, size + 1, oldest);
+            System.arraycopy(sorted, pos + 1, sorted, pos, size - pos);
+            if (leadingRegression != null) {
+                leadingRegression.shift(oldest);
+                if (size >= leadingRegression.getWindow())
+                    leadingRegression.append(get(leadingRegression.getWindow() - 1));
+            }
+        }
+        if (leadingRegression != null)
+            leadingRegression.append(val);
+        samples[(head + size) % max_size] = val;
+        int pos = Arrays.binarySearch(sorted, 0, size, val);
+        if (pos < 0) {
+            pos = -pos - 1;
+        }
+        System.arraycopy(sorted, pos, sorted, pos + 1, size - pos);
+        sorted[pos] = val;
+        size++;
+        sum += val;
+        modCount++;
+        return true;
     }
 
-    private void addHeaps(double val) {
-        double low = Double.MAX_VALUE;
-        if (!lower.isEmpty())
-            low = lower.peek();
-        if (val <= low) {
-            lower.add(val);
-            if (lower.size() > higher.size() + 1)
-                higher.add(lower.poll());
-        } else {
-            higher.add(val);
-            if (higher.size() > lower.size() + 1)
-                lower.add(higher.poll());
-        }
+    public int size() {
+        return size;
     }
 
-    private void delHeaps(double val) {
-        if (!lower.isEmpty() && val <= lower.peek())
-            lower.remove(val);
-        else
-            higher.remove(val);
+    public boolean isEmpty() {
+        return size == 0;
     }
 
-    @Override
-    public boolean offer(Double val) {
-        if (size() == max_size) {
-            double oldest = poll();
-            sum -= oldest;
-            if (lower != null)
-                delHeaps(oldest);
-        }
-        boolean rv = super.offer(val);
-        sum += val;
-        if (lower != null)
-            addHeaps(val);
-        return rv;
+    /**
+     * Gets a sample of the window.
+     *
+     * @param i the index of the sample, 0 being the oldest one
+     * @return the sample
+     */
+    public double get(int i) {
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException(i);
+        return samples[(head + i) % max_size];
+    }
+
+    /**
+     * Gets the samples, from the oldest to the most recent one.
+     *
+     * @return a new array with the samples
+     */
+    public double[] toArray() {
+        double[] array = new double[size];
+        for (int i = 0; i < size; i++)
+            array[i] = samples[(head + i) % max_size];
+        return array;
+    }
+
+    /**
+     * Gets the number of samples offer()ed so far, which tells whether the window has changed.
+     *
+     * @return the modification count
+     */
+    public int getModificationCount() {
+        return modCount;
+    }
+
+    /**
+     * Gets the k-th smallest sample of the window.
+     *
+     * @param k the rank of the sample, 0 being the smallest one
+     * @return the sample
+     */
+    public double getOrderStatistic(int k) {
+        if (k < 0 || k >= size)
+            throw new IndexOutOfBoundsException(k);
+        return sorted[k];
+    }
+
+    /**
+     * Gets the regression sums of the first (oldest) samples of the window. They are updated in O(1) on each
+     * offer() from then on, as long as the same window length is requested.
+     *
+     * @param n the number of samples of the regression window
+     * @return a copy of the sums
+     */
+    public synchronized WindowRegression getLeadingRegression(int n) {
+        if (leadingRegression == null || leadingRegression.getWindow() != n)
+            leadingRegression = WindowRegression.of(toArray(), n);
+        return leadingRegression.copy();
     }
 
     public double getMedian() {
-        if (lower == null) {
-            enableFastMedian();
-        }
-        if (lower.isEmpty() && higher.isEmpty())
+        if (size == 0)
+            return 0.0;
+        if (size % 2 == 1)
+            return sorted[size / 2];
+        return (sorted[size / 2 - 1] + sorted[size / 2]) / 2.0;
+    }
+
+    /**
+     * Gets the median of the absolute deviations of the samples from their median, as
+     * {@link MathUtil#mad(double[])} computes it. The deviations are already ordered on both sides
+     * of the median, so they are merged rather than sorted.
+     *
+     * @return the median absolute deviation, or 0 if there are no samples
+     */
+    public double getMedianAbsoluteDeviation() {
+        if (size == 0)
             return 0.0;
-        if (lower.isEmpty() || lower.size() < higher.size())
-            return higher.peek();
-        if (higher.isEmpty() || higher.size() < lower.size())
-            return lower.peek();
-        if (lower.size() == higher.size())
-            return (lower.peek() + higher.peek()) / 2.0;
-        assert(false);
-        return 0.0;
+        double median = getMedian();
+        // the 50th percentile of the deviations, estimated as by DescriptiveStatistics
+        double pos = 0.5 * (size + 1);
+        int intPos = (int) Math.floor(pos);
+        double dif = pos - intPos;
+        int lowerRank = pos < 1 ? 0 : Math.min(intPos, size) - 1;
+        int upperRank = Math.min(intPos, size - 1);
+
+        int right = Arrays.binarySearch(sorted, 0, size, Math.nextUp(median));
+        if (right < 0)
+            right = -right - 1;
+        while (right > 0 && sorted[right - 1] > median)
+            right--;
+        int left = right - 1;
+        double lower = 0;
+        double upper = 0;
+        for (int rank = 0; rank <= upperRank; rank++) {
+            double deviation;
+            if (left >= 0 && (right >= size || median - sorted[left] <= sorted[right] - median))
+                deviation = Math.abs(median - sorted[left--]);
+            else
+                deviation = Math.abs(median - sorted[right++]);
+            if (rank == lowerRank)
+                lower = deviation;
+            if (rank == upperRank)
+                upper = deviation;
+        }
+        if (pos < 1 || pos >= size)
+            return lower;
+        return lower + dif * (upper - lower);
     }
 
     public double getMean() {
         return sum / size();
     }
+
+    /**
+     * Iterates over the samples, from the oldest to the most recent one.
+     */
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (i >= size)
+                    throw new NoSuchElementException();
+                return samples[(head + i++) % max_size];
+            }
+        };
+    }
 }
@@ -0,0 +1,145 @@
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from int keys to long values, with open addressing and linear probing, so that
+ * neither keys nor values are boxed. Absent keys have the value 0.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see IntObjectMap
+ */
+public class IntLongMap {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntLongMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Gets the slot of a key, or of the free slot where it would be inserted.
+     */
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (used[i] && keys[i] != key)
+            i = (i + 1) & mask;
+        return i;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return used[slot(key)];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value, or 0 if the key is absent
+     */
+    public long get(int key) {
+        return values[slot(key)];
+    }
+
+    /**
+     * Associates a value to a key.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the previous value, or 0 if the key was absent
+     */
+    public long put(int key, long value) {
+        int i = slot(key);
+        long previous = values[i];
+        if (!used[i]) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                i = slot(key);
+            }
+            used[i] = true;
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+        return previous;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the value of the key, or 0 if it was absent
+     */
+    public long remove(int key) {
+        int i = slot(key);
+        if (!used[i])
+            return 0;
+        long previous = values[i];
+        // shift back the following keys of the probe sequence
+        int mask = keys.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (!used[j])
+                break;
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        used[i] = false;
+        values[i] = 0;
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(used, false);
+            Arrays.fill(values, 0);
+            size = 0;
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int j = slot(oldKeys[i]);
+                used[j] = true;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * A hash map from int keys to objects, with open addressing and linear probing, so that keys are
+ * neither boxed nor wrapped in entries. It is meant for the tables indexed by
+ * {@link org.cloudbus.cloudsim.core.GuestEntity#getHandle() guest handles}.
+ * <p>
+ * The entries are iterated by slot, as {@link java.util.BitSet} bits are:
+ * <pre>
+ * for (int i = map.nextSlot(0); i &gt;= 0; i = map.nextSlot(i + 1)) {
+ *     use(map.keyAt(i), map.valueAt(i));
+ * }
+ * </pre>
+ * Replacing the value of an existing key during the iteration is allowed; adding or removing keys is not.
+ *
+ * @param <V> the type of the values
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see IntLongMap
+ */
+public class IntObjectMap<V> {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntObjectMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Gets the slot of a key, or of the free slot where it would be inserted.
+     */
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (used[i] && keys[i] != key)
+            i = (i + 1) & mask;
+        return i;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return used[slot(key)];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[slot(key)];
+    }
+
+    /**
+     * Associates a value to a key.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the previous value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int i = slot(key);
+        V previous = (V) values[i];
+        if (!used[i]) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                i = slot(key);
+            }
+            used[i] = true;
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+        return previous;
+    }
+
+    /**
+     * Gets the value of a key, associating it to a new value first if the key is absent.
+     *
+     * @param key the key
+     * @param mappingFunction the function creating the value of an absent key
+     * @return the value
+     */
+    public V computeIfAbsent(int key, IntFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the value of the key, or null if it was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = slot(key);
+        if (!used[i])
+            return null;
+        V previous = (V) values[i];
+        // shift back the following keys of the probe sequence
+        int mask = keys.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (!used[j])
+                break;
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        used[i] = false;
+        values[i] = null;
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(used, false);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Gets the first used slot from a given one.
+     *
+     * @param from the first slot to check
+     * @return the slot, or -1 if there are none
+     */
+    public int nextSlot(int from) {
+        for (int i = from; i < used.length; i++) {
+            if (used[i])
+                return i;
+        }
+        return -1;
+    }
+
+    public int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    /**
+     * Replaces the value of a used slot.
+     *
+     * @param slot the slot
+     * @param value the new value
+     */
+    public void setValueAt(int slot, V value) {
+        values[slot] = value;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int j = slot(oldKeys[i]);
+                used[j] = true;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.cloudbus.cloudsim.util;
+
+/**
+ * The coefficients of determination (R<sup>2</sup>) of a set of variables, each one regressed with an
+ * intercept on all the other ones, as computed by {@link MathUtil#createLinearRegression(double[][], double[])}.
+ * <p>
+ * Instead of one regression per variable, they are all read from the inverse P of the centered
+ * sums-of-products matrix S of the variables: R<sup>2</sup><sub>i</sub> = 1 - 1 / (S<sub>ii</sub> P<sub>ii</sub>).
+ * A variable can then be removed by a rank-one downdate of P, in O(n<sup>2</sup>) instead of O(n<sup>3</sup>).
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class MultipleCorrelation {
+    /**
+     * The smallest residual variance of a variable, given the previous ones, relative to its variance,
+     * below which the variables are considered collinear.
+     */
+    private static final double COLLINEARITY_TOLERANCE = 1e-10;
+
+    /** The centered sums of products of the variables. */
+    private final double[][] gram;
+
+    /** The inverse of the sums of products of the remaining variables. */
+    private final double[][] inverse;
+
+    /** The indices of the remaining variables. */
+    private final int[] variables;
+
+    /** The number of remaining variables. */
+    private int size;
+
+    /**
+     * Computes the coefficients of a set of variables.
+     *
+     * @param data the observations of each variable, one variable per row
+     * @throws IllegalArgumentException if there are less than two variables, less observations than
+     *         variables, or if the variables are collinear
+     */
+    public MultipleCorrelation(double[][] data) {
+        int n = data.length;
+        if (n < 2)
+            throw new IllegalArgumentException("At least two variables are needed");
+        int m = data[0].length;
+        if (m < n)
+            throw new IllegalArgumentException("Not enough observations for the number of variables");
+
+        double[][] centered = new double[n][m];
+        for (int i = 0; i < n; i++) {
+            double mean = 0;
+            for (int t = 0; t < m; t++)
+                mean += data[i][t];
+            mean /= m;
+            for (int t = 0; t < m; t++)
+                centered[i][t] = data[i][t] - mean;
+        }
+        gram = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double s = 0;
+                for (int t = 0; t < m; t++)
+                    s += centered[i][t] * centered[j][t];
+                gram[i][j] = gram[j][i] = s;
+            }
+        }
+        inverse = invert(gram);
+        size = n;
+        variables = new int[n];
+        for (int i = 0; i < n; i++)
+            variables[i] = i;
+    }
+
+    /**
+     * Inverts a symmetric positive definite matrix by Gauss-Jordan elimination.
+     */
+    private static double[][] invert(double[][] matrix) {
+        int n = matrix.length;
+        double[][] a = new double[n][];
+        double[][] inv = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            a[i] = matrix[i].clone();
+            inv[i][i] = 1;
+        }
+        for (int k = 0; k < n; k++) {
+            double pivot = a[k][k];
+            // the pivot is the residual variance of the k-th variable given the previous ones
+            if (!(pivot > COLLINEARITY_TOLERANCE * matrix[k][k]))
+                throw new IllegalArgumentException("The variables are collinear");
+            for (int j = 0; j < n; j++) {
+                a[k][j] /= pivot;
+                inv[k][j] /= pivot;
+            }
+            for (int i = 0; i < n; i++) {
+                double factor = a[i][k];
+                if (i == k || factor == 0)
+                    continue;
+                for (int j = 0; j < n; j++) {
+                    a[i][j] -= factor * a[k][j];
+                    inv[i][j] -= factor * inv[k][j];
+                }
+            }
+        }
+        return inv;
+    }
+
+    /**
+     * Gets the number of remaining variables.
+     *
+     * @return the number of variables
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the coefficient of determination of each remaining variable.
+     *
+     * @return the coefficients, in the order of the remaining variables
+     */
+    public double[] getRSquared() {
+        double[] rSquared = new double[size];
+        for (int k = 0; k < size; k++) {
+            int v = variables[k];
+            rSquared[k] = 1 - 1 / (gram[v][v] * inverse[v][v]);
+        }
+        return rSquared;
+    }
+
+    /**
+     * Removes a variable, so that the other ones are no longer regressed on it.
+     *
+     * @param k the position of the variable among the remaining ones
+     * @throws IllegalStateException if only two variables remain
+     */
+    public void remove(int k) {
+        if (size <= 2)
+            throw new IllegalStateException("At least two variables are needed");
+        int v = variables[k];
+        double pivot = inverse[v][v];
+        for (int a = 0; a < size; a++) {
+            int i = variables[a];
+            if (i == v)
+                continue;
+            double factor = inverse[i][v] / pivot;
+            for (int b = 0; b < size; b++) {
+                int j = variables[b];
+                inverse[i][j] -= factor * inverse[v][j];
+            }
+        }
+        System.arraycopy(variables, k + 1, variables, k, size - k - 1);
+        size--;
+    }
+}
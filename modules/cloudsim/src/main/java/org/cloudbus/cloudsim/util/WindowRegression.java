@@ -0,0 +1,126 @@
+package org.cloudbus.cloudsim.util;
+
+/**
+ * The sums needed to fit a least-squares line over the first (oldest) samples of a utilization
+ * history, as {@link MathUtil#getLoessParameterEstimates(double[])} does on these samples in reverse
+ * order: the j-th sample of a window of n samples is at x = n - j.
+ * <p>
+ * The sums are linear in the samples, so the sums of several histories (e.g. of the guests of a host)
+ * add up to the sums of their total, and they can be updated in O(1) as samples come and go.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ * @see HistoryStat#getLeadingRegression(int)
+ */
+public class WindowRegression {
+    /** The length of the window. */
+    private final int n;
+
+    /** The number of samples in the window, at most n. */
+    private int count;
+
+    /** The sum of the samples. */
+    private double sumY;
+
+    /** The sum of the samples times their x. */
+    private double sumXY;
+
+    /**
+     * Creates the sums of an empty window.
+     *
+     * @param n the length of the window
+     */
+    public WindowRegression(int n) {
+        this.n = n;
+    }
+
+    /**
+     * Creates the sums of the first samples of a history.
+     *
+     * @param history the history, from the oldest sample
+     * @param n the length of the window
+     * @return the sums
+     */
+    public static WindowRegression of(double[] history, int n) {
+        WindowRegression regression = new WindowRegression(n);
+        regression.count = Math.min(n, history.length);
+        for (int j = 0; j < regression.count; j++) {
+            regression.sumY += history[j];
+            regression.sumXY += (n - j) * history[j];
+        }
+        return regression;
+    }
+
+    /**
+     * Adds a sample after the last one, if the window is not full yet.
+     *
+     * @param y the sample
+     */
+    void append(double y) {
+        if (count < n) {
+            sumY += y;
+            sumXY += (n - count) * y;
+            count++;
+        }
+    }
+
+    /**
+     * Removes the first sample, and moves the following ones one position towards the start of the window,
+     * where the next sample can be {@link #append(double) appended}.
+     *
+     * @param first the sample removed
+     */
+    void shift(double first) {
+        sumXY += sumY - (n + 1) * first;
+        sumY -= first;
+        count--;
+    }
+
+    /**
+     * Adds the sums of another history, aligned on the first sample, to these ones.
+     *
+     * @param other the sums of the other history, with the same window length
+     * @param scale the factor applied to the samples of the other history
+     */
+    public void add(WindowRegression other, double scale) {
+        if (other.n != n)
+            throw new IllegalArgumentException("The windows have different lengths");
+        count = Math.max(count, other.count);
+        sumY += other.sumY * scale;
+        sumXY += other.sumXY * scale;
+    }
+
+    /**
+     * Gets a copy of the sums.
+     *
+     * @return the copy
+     */
+    public WindowRegression copy() {
+        WindowRegression copy = new WindowRegression(n);
+        copy.add(this, 1);
+        return copy;
+    }
+
+    public int getWindow() {
+        return n;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the parameters of the least-squares line through the window, once it is full.
+     *
+     * @return the intercept and the slope
+     */
+    public double[] getParameterEstimates() {
+        if (count < n)
+            throw new IllegalStateException("The window is not full");
+        double meanX = (n + 1) / 2.0;
+        double sxx = n * ((double) n * n - 1) / 12.0;
+        double slope = (sumXY - meanX * sumY) / sxx;
+        double intercept = sumY / n - slope * meanX;
+        return new double[] { intercept, slope };
+    }
+}
@@ -21,6 +21,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletTable;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelFull;
 
@@ -83,6 +84,11 @@ public class WorkloadFileReader implements WorkloadModel {
      */
     private ArrayList<Cloudlet> jobs = null;
 
+    /**
+     * Table of the jobs read from the trace {@link #file}, one row per job.
+     */
+    private CloudletTable table = null;
+
     
     /* Index of fields from the Standard Workload Format. */
     
@@ -190,7 +196,38 @@ public class WorkloadFileReader implements WorkloadModel {
     @Override
     public ArrayList<Cloudlet> generateWorkload() {
             if (jobs == null) {
-                    jobs = new ArrayList<>();
+                    final CloudletTable rows = generateCloudletTable();
+                    final UtilizationModel utilizationModel = rows.getUtilizationModelCpu();
+                    jobs = new ArrayList<>(rows.size());
+                    for (int row = 0; row < rows.size(); row++) {
+                            jobs.add(new Cloudlet(
+                                            rows.getCloudletId(row),
+                                            rows.getCloudletLength(row),
+                                            rows.getNumberOfPes(row),
+                                            0,
+                                            0,
+                                            utilizationModel,
+                                            utilizationModel,
+                                            utilizationModel));
+                    }
+            }
+
+            return jobs;
+    }
+
+    /**
+     * Reads job information from a trace file into a {@link CloudletTable}, one row per job, without
+     * creating a cloudlet per job. The rows keep the submit times of the jobs, and share a
+     * {@link UtilizationModelFull}. This is meant for traces too large to be held as a list of
+     * cloudlets; see {@link org.cloudbus.cloudsim.DatacenterBroker#submitCloudletTable(CloudletTable)}.
+     * 
+     * @return the table of the jobs read from the file
+     * @see #file
+     */
+    public CloudletTable generateCloudletTable() {
+            if (table == null) {
+                    final UtilizationModel utilizationModel = new UtilizationModelFull();
+                    table = new CloudletTable(0, 0, utilizationModel, utilizationModel, utilizationModel);
 
                     // create a temp array
                     fieldArray = new String[MAX_FIELD];
@@ -211,7 +248,7 @@ public class WorkloadFileReader implements WorkloadModel {
                     }
             }
 
-            return jobs;
+            return table;
     }
 
     /**
@@ -306,7 +343,7 @@ public class WorkloadFileReader implements WorkloadModel {
     // ------------------- PRIVATE METHODS -------------------
 
     /**
-     * Creates a Cloudlet with the given information and adds to the list of {@link #jobs}.
+     * Adds a row with the given information to the {@link #table} of jobs.
      * 
      * @param id a Cloudlet ID
      * @param submitTime Cloudlet's submit time
@@ -332,19 +369,9 @@ public class WorkloadFileReader implements WorkloadModel {
                     final int reqRunTime,
                     final int userID,
                     final int groupID) {
-            // create the cloudlet
+            // add the row of the cloudlet
             final int len = runTime * rating;
-            UtilizationModel utilizationModel = new UtilizationModelFull();
-            final Cloudlet wgl = new Cloudlet(
-                            id,
-                            len,
-                            numProc,
-                            0,
-                            0,
-                            utilizationModel,
-                            utilizationModel,
-                            utilizationModel);
-            jobs.add(wgl);
+            table.addRow(id, len, numProc, submitTime);
     }
 
     /**
@@ -365,7 +392,7 @@ public class WorkloadFileReader implements WorkloadModel {
                     // get the job number
                     int id = 0;
                     if (JOB_NUM == IRRELEVANT) {
-                            id = jobs.size() + 1;
+                            id = table.size() + 1;
                     } else {
                             obj = Integer.valueOf(array[JOB_NUM].trim());
                             id = obj;
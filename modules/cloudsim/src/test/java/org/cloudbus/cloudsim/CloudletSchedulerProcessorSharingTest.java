@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletSchedulerProcessorSharingTest {
+
+	private static final double MIPS = 1000;
+
+	private static final int PES_NUMBER = 2;
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testCompletionsBetweenUpdates() {
+		CloudSim.init(1, null, false);
+		CloudletSchedulerProcessorSharing scheduler = new CloudletSchedulerProcessorSharing();
+		List<Double> mipsShare = new ArrayList<>();
+		mipsShare.add(MIPS);
+		assertEquals(0.0, scheduler.updateCloudletsProcessing(0, mipsShare), 0);
+
+		Cloudlet shortCloudlet = createCloudlet(0, 1000, 1);
+		Cloudlet longCloudlet = createCloudlet(1, 3000, 1);
+		scheduler.cloudletSubmit(shortCloudlet);
+		scheduler.cloudletSubmit(longCloudlet);
+		assertEquals(MIPS / 2, scheduler.getCurrentCapacity(), 0);
+
+		// the short cloudlet finishes at 2, then the long one runs alone until 4
+		assertEquals(4.0, scheduler.updateCloudletsProcessing(3, mipsShare), 1e-9);
+		assertEquals(Cloudlet.CloudletStatus.SUCCESS, shortCloudlet.getStatus());
+		assertSame(shortCloudlet, scheduler.getNextFinishedCloudlet());
+		assertEquals(1, scheduler.runningCloudlets());
+		assertEquals(MIPS, scheduler.getCurrentCapacity(), 0);
+
+		// pausing brings the progress of the cloudlet up to date
+		assertTrue(scheduler.cloudletPause(1));
+		assertEquals(0.0, scheduler.updateCloudletsProcessing(3, mipsShare), 0);
+		assertEquals(1000, longCloudlet.getRemainingCloudletLength());
+	}
+
+	@Test
+	public void testOverriddenCurrentMipsShare() {
+		// subclasses may still override the share with any list of MIPS
+		List<Double> mipsShare = List.of(MIPS, 0.0);
+		CloudletSchedulerProcessorSharing scheduler = new CloudletSchedulerProcessorSharing() {
+			@Override
+			public List<Double> getCurrentMipsShare() {
+				return mipsShare;
+			}
+		};
+		assertEquals(MIPS, scheduler.updateCurrentCapacity(), 0);
+		assertEquals(List.of(MIPS, 0.0), scheduler.getCurrentMipsShare());
+	}
+
+	@Test
+	public void testSameCompletionTimesAsTimeShared() throws Exception {
+		List<Cloudlet> expected = runSimulation(CloudletSchedulerTimeShared::new);
+		List<Cloudlet> actual = runSimulation(CloudletSchedulerProcessorSharing::new);
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getCloudletId(), actual.get(i).getCloudletId());
+			assertEquals(expected.get(i).getFinishTime(), actual.get(i).getFinishTime(), 0.01);
+			assertEquals(expected.get(i).getActualCPUTime(), actual.get(i).getActualCPUTime(), 0.01);
+		}
+	}
+
+	private static Cloudlet createCloudlet(int id, long length, int pes) {
+		Cloudlet cloudlet = new Cloudlet(id, length, pes, 0, 0,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cloudlet.setResourceParameter(0, 0, 0);
+		return cloudlet;
+	}
+
+	private static List<Cloudlet> runSimulation(Supplier<CloudletScheduler> schedulers) throws Exception {
+		CloudSim.init(1, null, false);
+
+		List<Pe> peList = new ArrayList<>();
+		for (int i = 0; i < PES_NUMBER; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(MIPS)));
+		}
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+				peList, new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		vmList.add(new Vm(0, broker.getId(), MIPS, PES_NUMBER, 512, 1000, 10000, "Xen", schedulers.get()));
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			Cloudlet cloudlet = new Cloudlet(i, 5000L * (1 + (i * 7) % 5), 1 + i % PES_NUMBER, 0, 0,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(broker.getId());
+			cloudlet.setGuestId(0);
+			cloudletList.add(cloudlet);
+		}
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.startSimulation();
+
+		List<Cloudlet> received = new ArrayList<>(broker.getCloudletReceivedList());
+		for (Cloudlet cloudlet : received) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+		}
+		received.sort((a, b) -> Integer.compare(a.getCloudletId(), b.getCloudletId()));
+		return received;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletSchedulerTimeSharedTest {
+
+	private static final double MIPS = 1000;
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testEstimateAfterCompletion() {
+		CloudSim.init(1, null, false);
+		CloudletSchedulerTimeShared scheduler = new CloudletSchedulerTimeShared();
+		List<Double> mipsShare = new ArrayList<>();
+		mipsShare.add(MIPS);
+		assertEquals(0.0, scheduler.updateCloudletsProcessing(0, mipsShare), 0);
+
+		Cloudlet shortCloudlet = createCloudlet(0, 1000);
+		Cloudlet longCloudlet = createCloudlet(1, 3000);
+		scheduler.cloudletSubmit(shortCloudlet);
+		scheduler.cloudletSubmit(longCloudlet);
+		assertEquals(2.0, scheduler.updateCloudletsProcessing(0, mipsShare), 1e-9);
+
+		// once the short cloudlet finishes, the long one is expected to run alone, i.e. to
+		// finish at 4 rather than at 6 as if it still shared the PE
+		assertEquals(4.0, scheduler.updateCloudletsProcessing(2, mipsShare), 1e-9);
+		assertEquals(Cloudlet.CloudletStatus.SUCCESS, shortCloudlet.getStatus());
+		assertEquals(MIPS, scheduler.getCurrentCapacity(), 0);
+
+		assertEquals(0.0, scheduler.updateCloudletsProcessing(4, mipsShare), 0);
+		assertEquals(Cloudlet.CloudletStatus.SUCCESS, longCloudlet.getStatus());
+	}
+
+	private static Cloudlet createCloudlet(int id, long length) {
+		Cloudlet cloudlet = new Cloudlet(id, length, 1, 0, 0,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cloudlet.setResourceParameter(0, 0, 0);
+		return cloudlet;
+	}
+}
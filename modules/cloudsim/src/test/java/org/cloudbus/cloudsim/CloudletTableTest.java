@@ -0,0 +1,133 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet.CloudletStatus;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletTableTest {
+
+	private static final double MIPS = 1000;
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testRows() {
+		CloudSim.init(1, null, false);
+		UtilizationModel full = new UtilizationModelFull();
+		CloudletTable table = new CloudletTable(2, 300, 400, full, full, full);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(i, table.addRow(10 + i, 1000 * (i + 1), i + 1, 2.5 * i));
+		}
+		assertEquals(5, table.size());
+		assertEquals(13, table.getCloudletId(3));
+		assertEquals(4000, table.getCloudletLength(3));
+		assertEquals(4, table.getNumberOfPes(3));
+		assertEquals(7.5, table.getSubmitTime(3), 0);
+		assertEquals(-1, table.getGuestId(3));
+		assertEquals(CloudletStatus.CREATED, table.getStatus(3));
+		assertEquals(-1, table.getExecFinishTime(3), 0);
+		assertThrows(IndexOutOfBoundsException.class, () -> table.getCloudletId(5));
+
+		table.setGuestId(3, 7);
+		CloudletTable.View cloudlet = table.newCloudlet(3);
+		assertSame(table, cloudlet.getTable());
+		assertEquals(3, cloudlet.getRow());
+		assertEquals(13, cloudlet.getCloudletId());
+		assertEquals(4000, cloudlet.getCloudletLength());
+		assertEquals(4, cloudlet.getNumberOfPes());
+		assertEquals(300, cloudlet.getCloudletFileSize());
+		assertEquals(400, cloudlet.getCloudletOutputSize());
+		assertEquals(7, cloudlet.getGuestId());
+		assertSame(full, cloudlet.getUtilizationModelCpu());
+
+		cloudlet.setResourceParameter(0, 1.0);
+		cloudlet.setCloudletFinishedSoFar(1234);
+		cloudlet.updateStatus(CloudletStatus.SUCCESS);
+		cloudlet.store();
+		assertEquals(1234, table.getCloudletFinishedSoFar(3));
+		assertEquals(CloudletStatus.SUCCESS, table.getStatus(3));
+		assertEquals(CloudletStatus.CREATED, table.getStatus(2));
+	}
+
+	@Test
+	public void testBrokerSubmitsRowsInWindows() throws Exception {
+		CloudSim.init(1, null, false);
+
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+				peList, new VmSchedulerSpaceShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.setCloudletTableWindow(4);
+		List<Vm> vmList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			vmList.add(new Vm(i, broker.getId(), MIPS, 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerSpaceShared()));
+		}
+		broker.submitGuestList(vmList);
+
+		UtilizationModel full = new UtilizationModelFull();
+		CloudletTable table = new CloudletTable(1, 1, full, full, full);
+		for (int i = 0; i < 25; i++) {
+			table.addRow(i, (long) MIPS, 1, 0);
+		}
+		table.setGuestId(24, 1);
+		broker.submitCloudletTable(table);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		// the results are only in the table
+		assertTrue(broker.getCloudletReceivedList().isEmpty());
+		assertTrue(broker.getCloudletSubmittedList().isEmpty());
+		double lastFinish = 0;
+		for (int row = 0; row < table.size(); row++) {
+			assertEquals(CloudletStatus.SUCCESS, table.getStatus(row));
+			assertTrue(table.getExecFinishTime(row) > table.getExecStartTime(row));
+			lastFinish = Math.max(lastFinish, table.getExecFinishTime(row));
+		}
+		assertEquals(1, table.getGuestId(24));
+
+		// the window never lets a VM go idle: 25 cloudlets of 1 second on 2 VMs
+		assertEquals(13, lastFinish, 0.5);
+	}
+
+}
@@ -17,7 +17,11 @@ import org.junit.jupiter.api.Test;
 
 import java.util.LinkedList;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
@@ -96,4 +100,59 @@ public class CloudletTest {
 		testGetUtilizationOfBw();
 	}
 
+	@Test
+	public void testResourceRecords() {
+		CloudSim.init(1, null, false);
+		assertEquals(-1, cloudlet.getResourceId());
+		assertNull(cloudlet.getAllResourceId());
+
+		cloudlet.setResourceParameter(5, 3.0);
+		cloudlet.setCloudletFinishedSoFar(400);
+		cloudlet.setExecParam(10, 8);
+		assertArrayEquals(new int[] { 5 }, cloudlet.getAllResourceId());
+
+		cloudlet.setResourceParameter(7, 4.0);
+		cloudlet.setCloudletFinishedSoFar(100);
+		assertEquals(7, cloudlet.getResourceId());
+		assertArrayEquals(new int[] { 5, 7 }, cloudlet.getAllResourceId());
+		assertEquals(2, cloudlet.getAllResourceName().length);
+		assertEquals(4.0, cloudlet.getCostPerSec(), 0);
+		assertEquals(100, cloudlet.getCloudletFinishedSoFar());
+		assertEquals(0, cloudlet.getWallClockTime(), 0);
+
+		assertEquals(3.0, cloudlet.getCostPerSec(5), 0);
+		assertEquals(400, cloudlet.getCloudletFinishedSoFar(5));
+		assertEquals(10, cloudlet.getWallClockTime(5), 0);
+		assertEquals(8, cloudlet.getActualCPUTime(5), 0);
+		assertEquals(100, cloudlet.getCloudletFinishedSoFar(7));
+		assertNull(cloudlet.getResourceById(9));
+	}
+
+	@Test
+	public void testCloudletHistory() {
+		CloudSim.init(1, null, false);
+		assertEquals("No history is recorded for Cloudlet #0", cloudlet.getCloudletHistory());
+
+		cloudlet = new Cloudlet(0, CLOUDLET_LENGTH, PES_NUMBER, CLOUDLET_FILE_SIZE, CLOUDLET_OUTPUT_SIZE,
+				utilizationModelCpu, utilizationModelRam, utilizationModelBw, true, new LinkedList<>());
+		cloudlet.setResourceParameter(5, 3.0);
+		cloudlet.updateStatus(Cloudlet.CloudletStatus.INEXEC);
+		cloudlet.updateCloudletFinishedSoFar(250);
+		cloudlet.setResourceParameter(7, 4.0);
+		cloudlet.setExecParam(1.5, 1.25);
+
+		String[] lines = cloudlet.getCloudletHistory().split(System.lineSeparator());
+		assertEquals("Time below denotes the simulation time.", lines[0]);
+		assertEquals("0.00   Creates Cloudlet ID #0", lines[3]);
+		assertEquals("0.00   Allocates this Cloudlet to null (ID #5) with cost = $3.0/sec", lines[4]);
+		assertEquals("0.00   Sets the submission time to 0.00", lines[5]);
+		assertEquals("0.00   Sets Cloudlet status from CREATED to INEXEC", lines[6]);
+		assertEquals("0.00   Sets the execution start time to 0.00", lines[7]);
+		assertEquals("0.00   Sets the length's finished so far to 250", lines[8]);
+		assertEquals("0.00   Moves Cloudlet from null (ID #5) to null (ID #7) with cost = $4.0/sec", lines[9]);
+		assertEquals("0.00   Sets the submission time to 0.00", lines[10]);
+		assertEquals("0.00   Sets the wall clock time to 1.50 and the actual CPU time to 1.25", lines[11]);
+		assertEquals(12, lines.length);
+	}
+
 }
@@ -0,0 +1,304 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class DatacenterTest {
+
+	private static final double MIPS = 1000;
+
+	private static final long LONG_LENGTH = 100000;
+
+	/** The datacenter of the last simulation run by {@link #runSimulation}. */
+	private static RecordingDatacenter datacenter;
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testSingleHostTimeShared() throws Exception {
+		// The long cloudlet speeds up as soon as the short one finishes, even if no other
+		// host has events in between
+		List<Cloudlet> cloudlets = runSimulation(1, 0);
+		assertEquals(2, cloudlets.size());
+		for (Cloudlet cl : cloudlets) {
+			assertEquals(expectedCpuTime(0, cl), cl.getActualCPUTime(), 0.01);
+		}
+	}
+
+	@Test
+	public void testOnlyAffectedHostsUpdated() throws Exception {
+		// Each host finishes its cloudlets at different times, while the idle hosts
+		// never need to be updated
+		List<Cloudlet> cloudlets = runSimulation(8, 4);
+		assertEquals(16, cloudlets.size());
+		for (Cloudlet cl : cloudlets) {
+			assertEquals(expectedCpuTime(cl.getGuestId(), cl), cl.getActualCPUTime(), 0.01);
+		}
+
+		// the idle hosts are not updated once the cloudlets start; after the first datacenter
+		// event, expected when the first cloudlet would finish alone, each busy host is only
+		// updated when one of its own cloudlets finishes
+		double start = cloudlets.get(0).getExecStartTime();
+		double firstEvent = start + shortLength(0) / MIPS;
+		for (int host = 8; host < 12; host++) {
+			assertEquals(List.of(), updatesAfter(host, start), "host " + host);
+		}
+		for (int host = 0; host < 8; host++) {
+			assertEquals(finishTimes(cloudlets, host), updatesAfter(host, firstEvent), "host " + host);
+		}
+	}
+
+	@Test
+	public void testSchedulerSubclassUpdatedAtEveryEvent() throws Exception {
+		// a subclass of a built-in scheduler may change its processing between its own
+		// completions, so its host is updated whenever any host is
+		List<Cloudlet> cloudlets = runSimulation(2, 0, false, () -> new CloudletSchedulerTimeShared() { });
+		assertEquals(4, cloudlets.size());
+		for (Cloudlet cl : cloudlets) {
+			assertEquals(expectedCpuTime(cl.getGuestId(), cl), cl.getActualCPUTime(), 0.01);
+		}
+		double start = cloudlets.get(0).getExecStartTime();
+		for (int host = 0; host < 2; host++) {
+			List<Double> updates = updatesAfter(host, start);
+			assertTrue(updates.containsAll(finishTimes(cloudlets, 0)), "host " + host);
+			assertTrue(updates.containsAll(finishTimes(cloudlets, 1)), "host " + host);
+		}
+	}
+
+	@Test
+	public void testBatchedVmCreation() throws Exception {
+		List<Cloudlet> cloudlets = runSimulation(8, 4, true);
+		assertEquals(16, cloudlets.size());
+		for (Cloudlet cl : cloudlets) {
+			assertEquals(expectedCpuTime(cl.getGuestId(), cl), cl.getActualCPUTime(), 0.01);
+		}
+	}
+
+	@Test
+	public void testFirstFitDecreasing() throws Exception {
+		// In the submission order, the two small VMs take the first host and the second
+		// large one does not fit anywhere
+		assertEquals(3, runPacking(VmAllocationPolicySimpler::new).size());
+		List<Vm> created = runPacking(VmAllocationPolicyFirstFitDecreasing::new);
+		assertEquals(4, created.size());
+		assertEquals(List.of(0, 1, 0, 1), hostIds(created));
+	}
+
+	@Test
+	public void testBestFitDecreasing() throws Exception {
+		List<Vm> created = runPacking(VmAllocationPolicyBestFitDecreasing::new);
+		assertEquals(4, created.size());
+		assertEquals(List.of(0, 1, 0, 1), hostIds(created));
+	}
+
+	/**
+	 * Creates two small and two large VMs, with a single batched request, on two hosts that can
+	 * hold one VM of each size.
+	 *
+	 * @return the created VMs, in the submission order
+	 */
+	private static List<Vm> runPacking(Function<List<Host>, VmAllocationPolicy> policy) throws Exception {
+		CloudSim.init(1, null, false);
+
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+			hostList.add(new Host(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, policy.apply(hostList), new LinkedList<Storage>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.setVmCreationBatched(true);
+		List<Vm> vmList = new ArrayList<>();
+		for (double mips : new double[] { 300, 300, 700, 700 }) {
+			vmList.add(new Vm(vmList.size(), broker.getId(), mips, 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+
+		CloudSim.startSimulation();
+
+		List<Vm> created = new ArrayList<>();
+		for (Vm vm : vmList) {
+			if (broker.getGuestsCreatedList().contains(vm)) {
+				created.add(vm);
+			}
+		}
+		return created;
+	}
+
+	private static List<Integer> hostIds(List<Vm> vms) {
+		List<Integer> ids = new ArrayList<>();
+		for (Vm vm : vms) {
+			ids.add(vm.getHost().getId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Gets the expected CPU time of a cloudlet: the short cloudlet of each VM shares the PE with
+	 * the long one until it finishes, then the long one runs alone.
+	 */
+	private static double expectedCpuTime(int vmId, Cloudlet cl) {
+		double shortLength = shortLength(vmId);
+		double shortFinish = 2 * shortLength / MIPS;
+		if (cl.getCloudletLength() == shortLength) {
+			return shortFinish;
+		}
+		return shortFinish + (LONG_LENGTH - shortLength) / MIPS;
+	}
+
+	private static long shortLength(int vmId) {
+		return 10000L * (vmId + 1);
+	}
+
+	private static List<Cloudlet> runSimulation(int busyHosts, int idleHosts) throws Exception {
+		return runSimulation(busyHosts, idleHosts, false);
+	}
+
+	private static List<Cloudlet> runSimulation(int busyHosts, int idleHosts, boolean batched) throws Exception {
+		return runSimulation(busyHosts, idleHosts, batched, CloudletSchedulerTimeShared::new);
+	}
+
+	/**
+	 * Gets the finish times of the cloudlets that ran in a host, earliest first.
+	 */
+	private static List<Double> finishTimes(List<Cloudlet> cloudlets, int hostId) {
+		List<Double> times = new ArrayList<>();
+		for (Cloudlet cl : cloudlets) {
+			if (datacenter.guestHosts.get(cl.getGuestId()) == hostId) {
+				times.add(cl.getExecFinishTime());
+			}
+		}
+		times.sort(null);
+		return times;
+	}
+
+	/**
+	 * Gets the times at which the processing of a host has been updated, after a given time, by
+	 * the last simulation.
+	 */
+	private static List<Double> updatesAfter(int hostId, double time) {
+		List<Double> times = new ArrayList<>();
+		for (double t : datacenter.updates.getOrDefault(hostId, List.of())) {
+			if (t > time) {
+				times.add(t);
+			}
+		}
+		return times;
+	}
+
+	/**
+	 * Runs a simulation where each busy host runs a VM with a short and a long cloudlet, while the
+	 * idle hosts run nothing.
+	 *
+	 * @return the received cloudlets, in the order they have been received
+	 */
+	private static List<Cloudlet> runSimulation(int busyHosts, int idleHosts, boolean batched,
+			Supplier<CloudletScheduler> schedulers) throws Exception {
+		CloudSim.init(1, null, false);
+
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < busyHosts + idleHosts; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+			hostList.add(new Host(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		datacenter = new RecordingDatacenter(characteristics, new VmAllocationPolicySimple(hostList));
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.setVmCreationBatched(batched);
+		List<Vm> vmList = new ArrayList<>();
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < busyHosts; i++) {
+			vmList.add(new Vm(i, broker.getId(), MIPS, 1, 512, 1000, 10000, "Xen", schedulers.get()));
+			for (long length : new long[] { shortLength(i), LONG_LENGTH }) {
+				Cloudlet cloudlet = new Cloudlet(cloudletList.size(), length, 1, 0, 0,
+						new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setGuestId(i);
+				cloudletList.add(cloudlet);
+			}
+		}
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.startSimulation();
+
+		List<Cloudlet> received = broker.getCloudletReceivedList();
+		for (Cloudlet cloudlet : received) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+		}
+		return received;
+	}
+
+	/**
+	 * A datacenter recording the times at which the processing of each host is updated.
+	 */
+	private static class RecordingDatacenter extends Datacenter {
+
+		/** The update times, by host id. */
+		final Map<Integer, List<Double>> updates = new HashMap<>();
+
+		/** The id of the host of each guest, by guest id. */
+		final Map<Integer, Integer> guestHosts = new HashMap<>();
+
+		RecordingDatacenter(DatacenterCharacteristics characteristics, VmAllocationPolicy policy)
+				throws Exception {
+			super("Datacenter", characteristics, policy, new LinkedList<Storage>(), 0);
+		}
+
+		@Override
+		protected double updateHostProcessing(HostEntity host) {
+			updates.computeIfAbsent(host.getId(), id -> new ArrayList<>()).add(CloudSim.clock());
+			for (GuestEntity guest : host.getGuestList()) {
+				guestHosts.put(guest.getId(), host.getId());
+			}
+			return super.updateHostProcessing(host);
+		}
+	}
+}
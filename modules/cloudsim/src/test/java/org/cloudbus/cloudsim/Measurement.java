@@ -0,0 +1,90 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The time, the bytes allocated by the current thread and the garbage collections of a piece of
+ * code, as measured by the benchmarks of the test sources. A benchmark runs
+ * {@link #WARMUP_ROUNDS} rounds before the last one and keeps the fastest, see
+ * {@link #best(Supplier, ToLongFunction)}.
+ *
+ * @param nanos the elapsed time, in nanoseconds
+ * @param bytes the allocated bytes, 0 if the JVM does not support the measurement
+ * @param gcCount the number of garbage collections
+ * @param gcMillis the time spent in garbage collections, in milliseconds
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public record Measurement(long nanos, long bytes, long gcCount, long gcMillis) {
+
+	/** The number of rounds run before the last one, to warm up the JVM. */
+	public static final int WARMUP_ROUNDS = 3;
+
+	/**
+	 * Measures a piece of code.
+	 *
+	 * @param code the code
+	 * @return the measurement
+	 */
+	public static Measurement of(Runnable code) {
+		long gcCount = 0, gcMillis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gcCount -= gc.getCollectionCount();
+			gcMillis -= gc.getCollectionTime();
+		}
+		long bytes = -allocatedBytes();
+		long start = System.nanoTime();
+
+		code.run();
+
+		long nanos = System.nanoTime() - start;
+		bytes += allocatedBytes();
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gcCount += gc.getCollectionCount();
+			gcMillis += gc.getCollectionTime();
+		}
+		return new Measurement(nanos, bytes, gcCount, gcMillis);
+	}
+
+	/**
+	 * Runs the warm-up rounds and the measured round of a benchmark.
+	 *
+	 * @param round runs one round and returns its result
+	 * @param nanos gets the elapsed time of a result
+	 * @return the result of the fastest round
+	 */
+	public static <T> T best(Supplier<T> round, ToLongFunction<T> nanos) {
+		T best = null;
+		for (int i = 0; i <= WARMUP_ROUNDS; i++) {
+			T result = round.get();
+			if (best == null || nanos.applyAsLong(result) < nanos.applyAsLong(best)) {
+				best = result;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the bytes allocated so far by the current thread.
+	 *
+	 * @return the allocated bytes, or 0 if the JVM does not support the measurement
+	 */
+	private static long allocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+				&& bean.isThreadAllocatedMemoryEnabled()) {
+			return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+
+/**
+ * Measures the allocations caused by the updates of a host whose VMs change their requested MIPS at
+ * every update, as the MIPS shares flow from the cloudlet schedulers to the VM scheduler and the PE
+ * provisioners, and back. The host either fits all the requests, or is oversubscribed.
+ * <p>
+ * Run it with <tt>java -cp ... org.cloudbus.cloudsim.MipsShareBenchmark [updates]</tt>.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class MipsShareBenchmark {
+
+	private static final int PES = 8;
+
+	private static final double MIPS = 1000;
+
+	public static void main(String[] args) {
+		int updates = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		Log.disable();
+		CloudSim.init(0, null, false);
+
+		System.out.printf("%-15s %8s %12s %12s %10s %10s%n",
+				"host", "vms", "ns/update", "bytes/update", "gc count", "gc ms");
+		run("fitting", 16, updates);
+		run("oversubscribed", 48, updates);
+	}
+
+	private static void run(String name, int vms, int updates) {
+		Measurement best = Measurement.best(() -> simulate(vms, updates), Measurement::nanos);
+		System.out.printf("%-15s %8d %12.1f %12.1f %10d %10d%n", name, vms,
+				(double) best.nanos() / updates, (double) best.bytes() / updates, best.gcCount(), best.gcMillis());
+	}
+
+	private static Measurement simulate(int vms, int updates) {
+		List<Pe> peList = new ArrayList<>();
+		for (int i = 0; i < PES; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(MIPS)));
+		}
+		HostDynamicWorkload host = new HostDynamicWorkload(0, new RamProvisionerSimple(Integer.MAX_VALUE),
+				new BwProvisionerSimple(Long.MAX_VALUE), Long.MAX_VALUE, peList,
+				new VmSchedulerTimeSharedOverSubscription(peList));
+		for (int i = 0; i < vms; i++) {
+			Vm vm = new Vm(i, 0, MIPS / 2, 1, 0, 0, 0, "", new CloudletSchedulerDynamicWorkload(MIPS / 2, 1));
+			host.guestCreate(vm);
+			vm.setBeingInstantiated(false);
+			double frequency = 1 + i % 7;
+			UtilizationModel cpu = time -> 0.5 + 0.4 * Math.sin(time * frequency);
+			Cloudlet cloudlet = new Cloudlet(i, Long.MAX_VALUE / 2, 1, 0, 0, cpu,
+					new UtilizationModelNull(), new UtilizationModelNull());
+			vm.getCloudletScheduler().cloudletSubmit(cloudlet);
+		}
+
+		return Measurement.of(() -> {
+			for (int i = 1; i <= updates; i++) {
+				host.updateCloudletsProcessing(i);
+			}
+		});
+	}
+}
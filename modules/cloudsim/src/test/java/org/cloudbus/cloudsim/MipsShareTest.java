@@ -0,0 +1,84 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author		Remo Andreoli
+ * @since		CloudSim Toolkit 7.0
+ */
+public class MipsShareTest {
+
+	@Test
+	public void testPrimitiveAccess() {
+		MipsShare share = new MipsShare();
+		for (int i = 0; i < 10; i++) {
+			share.addMips(i * 100);
+		}
+		assertEquals(10, share.size());
+		assertEquals(300, share.getMips(3), 0);
+		share.setMips(3, 350);
+		assertEquals(350, share.get(3), 0);
+		assertEquals(4550, share.getTotalMips(), 0);
+		assertEquals(900, share.getMaxMips(), 0);
+		assertThrows(IndexOutOfBoundsException.class, () -> share.getMips(10));
+	}
+
+	@Test
+	public void testBehavesAsList() {
+		List<Double> expected = new ArrayList<>(Arrays.asList(100.0, 0.0, 250.0));
+		MipsShare share = new MipsShare(expected);
+		assertEquals(expected, share);
+		assertEquals(share, expected);
+		assertEquals(expected.hashCode(), share.hashCode());
+
+		expected.add(1, 50.0);
+		share.add(1, 50.0);
+		expected.remove(0);
+		share.remove(0);
+		expected.addAll(List.of(10.0, 20.0));
+		share.addAll(List.of(10.0, 20.0));
+		assertEquals(expected, share);
+		assertEquals(expected, new ArrayList<>(share));
+
+		expected.removeIf(mips -> mips <= 0);
+		assertTrue(share.removeNonPositive());
+		assertFalse(share.removeNonPositive());
+		assertEquals(expected, share);
+	}
+
+	@Test
+	public void testAdapters() {
+		MipsShare share = new MipsShare(3, 200);
+		assertSame(share, MipsShare.of(share));
+		assertEquals(600, MipsShare.getTotalMips(share), 0);
+
+		List<Double> list = List.of(200.0, 300.0);
+		assertEquals(list, MipsShare.of(list));
+		assertEquals(500, MipsShare.getTotalMips(list), 0);
+		assertEquals(300, MipsShare.getMaxMips(list), 0);
+
+		share.setAll(list);
+		assertEquals(list, share);
+		share.setAll(new MipsShare(4, 100));
+		assertEquals(new MipsShare(4, 100), share);
+	}
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.HostCapacityIndex;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyWorstFit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class VmAllocationWithSelectionPolicyTest {
+
+	private static final int HOSTS = 64;
+
+	private static final int STEPS = 400;
+
+	@Test
+	public void testFirstFit() {
+		testSameSelectionAsScan(new SelectionPolicyFirstFit<>());
+	}
+
+	@Test
+	public void testLeastFull() {
+		testSameSelectionAsScan(new SelectionPolicyLeastFull<>());
+	}
+
+	@Test
+	public void testMostFull() {
+		testSameSelectionAsScan(new SelectionPolicyMostFull<>());
+	}
+
+	@Test
+	public void testWorstFit() {
+		testSameSelectionAsScan(new SelectionPolicyWorstFit<>());
+	}
+
+	@Test
+	public void testPolicySubclassNotIndexed() {
+		List<Host> hostList = createHosts(4);
+		// prefers the last host, rather than the least full one
+		SelectionPolicy<HostEntity> policy = new SelectionPolicyLeastFull<>() {
+			@Override
+			public HostEntity select(List<HostEntity> candidates, Object obj, Set<HostEntity> excludedCandidates) {
+				for (int i = candidates.size() - 1; i >= 0; i--) {
+					if (!excludedCandidates.contains(candidates.get(i))) {
+						return candidates.get(i);
+					}
+				}
+				return null;
+			}
+		};
+		VmAllocationWithSelectionPolicy allocation = new VmAllocationWithSelectionPolicy(hostList, policy);
+		assertSame(hostList.get(3), allocation.findHostForGuest(createVm(0)));
+	}
+
+	@Test
+	public void testIndexRebuildRemovesListeners() {
+		List<Host> hostList = createHosts(4);
+		VmAllocationWithSelectionPolicy allocation = new VmAllocationWithSelectionPolicy(hostList,
+				new SelectionPolicyLeastFull<>());
+		for (int i = 0; i < 3; i++) {
+			assertNotNull(allocation.findHostForGuest(createVm(i)));
+			// adding a host rebuilds the index at the next selection
+			hostList.add(createHost(hostList.size()));
+		}
+		assertNotNull(allocation.findHostForGuest(createVm(3)));
+		for (Host host : hostList) {
+			assertEquals(1, ((CountingVmScheduler) host.getGuestScheduler()).listeners, "host " + host.getId());
+		}
+	}
+
+	@Test
+	public void testFindMinFreePes() {
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int j = 0; j < 4 - i % 2; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(1000)));
+			}
+			hostList.add(new Host(i, new RamProvisionerSimple(1024), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		HostCapacityIndex<Host> index = new HostCapacityIndex<>(hostList);
+		// the host with the fewest free PEs, the first one on ties
+		assertSame(hostList.get(1), index.findMin(HostCapacityIndex.Metric.FREE_PES, createVm(0), Double.MAX_VALUE));
+		assertNull(index.findMin(HostCapacityIndex.Metric.FREE_PES, createVm(1), 3));
+		assertSame(hostList.get(0), index.findMax(HostCapacityIndex.Metric.FREE_PES, createVm(2), 0));
+	}
+
+	@Test
+	public void testProcessingUpdateRefreshesHost() {
+		List<PowerHost> hostList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new PowerHost(i, new RamProvisionerSimple(1024), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.5)));
+		}
+		VmAllocationWithSelectionPolicy allocation = new VmAllocationWithSelectionPolicy(hostList,
+				new SelectionPolicyLeastFull<>());
+		assertSame(hostList.get(0), allocation.findHostForGuest(createVm(0)));
+
+		// the utilization of a power host changes with its cloudlet processing only
+		hostList.get(0).setUtilizationMips(500);
+		allocation.hostProcessingUpdated(hostList.get(0));
+		assertSame(hostList.get(1), allocation.findHostForGuest(createVm(1)));
+
+		hostList.get(1).setUtilizationMips(800);
+		allocation.hostProcessingUpdated(hostList.get(1));
+		assertSame(hostList.get(0), allocation.findHostForGuest(createVm(2)));
+	}
+
+	private static List<Host> createHosts(int count) {
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			hostList.add(createHost(i));
+		}
+		return hostList;
+	}
+
+	private static Host createHost(int id) {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		return new Host(id, new RamProvisionerSimple(1024), new BwProvisionerSimple(10000), 1000000, peList,
+				new CountingVmScheduler(peList));
+	}
+
+	private static Vm createVm(int id) {
+		return new Vm(id, 0, 250, 1, 256, 100, 1000, "Xen", new CloudletSchedulerTimeShared());
+	}
+
+	/**
+	 * Creates and destroys random guests, checking that the indexed selection finds the same
+	 * host as the selection retried over the whole host list.
+	 */
+	private static void testSameSelectionAsScan(SelectionPolicy<HostEntity> policy) {
+		Random random = new Random(42);
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < HOSTS; i++) {
+			List<Pe> peList = new ArrayList<>();
+			int pes = 1 + random.nextInt(4);
+			for (int j = 0; j < pes; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(1000 * (1 + i % 3))));
+			}
+			hostList.add(new Host(i, new RamProvisionerSimple(1024 * (1 + random.nextInt(4))),
+					new BwProvisionerSimple(10000), 1000000, peList, new VmSchedulerTimeShared(peList)));
+		}
+
+		VmAllocationWithSelectionPolicy indexed = new VmAllocationWithSelectionPolicy(hostList, policy);
+		// a selection policy that does not implement the index queries
+		VmAllocationWithSelectionPolicy scanning = new VmAllocationWithSelectionPolicy(hostList,
+				policy::select);
+
+		List<GuestEntity> guests = new ArrayList<>();
+		int created = 0;
+		for (int step = 0; step < STEPS; step++) {
+			if (!guests.isEmpty() && random.nextInt(3) == 0) {
+				GuestEntity guest = guests.remove(random.nextInt(guests.size()));
+				guest.getHost().guestDestroy(guest);
+				continue;
+			}
+			Vm vm = new Vm(step, 0, 250 * (1 + random.nextInt(8)), 1 + random.nextInt(2),
+					256 * (1 + random.nextInt(4)), 100, 1000, "Xen", new CloudletSchedulerTimeShared());
+			HostEntity expected = scanning.findHostForGuest(vm);
+			assertSame(expected, indexed.findHostForGuest(vm));
+			if (expected != null) {
+				assertTrue(expected.guestCreate(vm));
+				guests.add(vm);
+				created++;
+			}
+		}
+		assertTrue(created > HOSTS);
+	}
+
+	/**
+	 * A VM scheduler counting its allocation listeners.
+	 */
+	private static class CountingVmScheduler extends VmSchedulerTimeShared {
+
+		int listeners;
+
+		CountingVmScheduler(List<? extends Pe> pelist) {
+			super(pelist);
+		}
+
+		@Override
+		public void addAllocationListener(Runnable listener) {
+			super.addAllocationListener(listener);
+			listeners++;
+		}
+
+		@Override
+		public void removeAllocationListener(Runnable listener) {
+			super.removeAllocationListener(listener);
+			listeners--;
+		}
+	}
+}
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.cloudbus.cloudsim.lists.PeList;
@@ -159,4 +160,96 @@ public class VmSchedulerTimeSharedTest {
 		assertEquals(0, vmScheduler.getTotalAllocatedMipsForGuest(vm2), 0);
 	}
 
+	@Test
+	public void testUidViews() {
+		vm2.setInMigration(true);
+		assertTrue(vmScheduler.allocatePesForGuest(vm1, Arrays.asList(MIPS / 4)));
+		assertTrue(vmScheduler.allocatePesForGuest(vm2, Arrays.asList(MIPS / 2, MIPS / 8)));
+
+		assertEquals(2, vmScheduler.getPeMap().size());
+		assertEquals(vmScheduler.getPesAllocatedForGuest(vm1), vmScheduler.getPeMap().get(vm1.getUid()));
+		assertEquals(vmScheduler.getPesAllocatedForGuest(vm2), vmScheduler.getPeMap().get(vm2.getUid()));
+		assertEquals(Arrays.asList(MIPS / 4), vmScheduler.getMipsMapAllocated().get(vm1.getUid()));
+		assertEquals(vmScheduler.getAllocatedMipsForGuest(vm2), vmScheduler.getMipsMap().get(vm2.getUid()));
+		assertEquals(List.of(vm2.getUid()), vmScheduler.getGuestsMigratingOut());
+		assertTrue(vmScheduler.getGuestsMigratingIn().isEmpty());
+		assertThrows(UnsupportedOperationException.class, () -> vmScheduler.getPeMap().remove(vm1.getUid()));
+
+		vmScheduler.deallocatePesForGuest(vm1);
+
+		assertFalse(vmScheduler.getMipsMapAllocated().containsKey(vm1.getUid()));
+		assertTrue(vmScheduler.getMipsMapAllocated().containsKey(vm2.getUid()));
+	}
+
+	/** A VM whose requested MIPS are set by the test. */
+	private static class RequestingVm extends Vm {
+		private List<Double> requestedMips = new ArrayList<>();
+
+		RequestingVm(int id, double mips, int numberOfPes) {
+			super(id, 0, mips, numberOfPes, 0, 0, 0, "", null);
+		}
+
+		@Override
+		public List<Double> getCurrentRequestedMips() {
+			return requestedMips;
+		}
+	}
+
+	/** Reallocates the VMs as before the incremental update, to compare with it. */
+	private static void reallocateAll(VmScheduler scheduler, List<? extends Vm> vms) {
+		for (Vm vm : vms) {
+			scheduler.deallocatePesForGuest(vm);
+		}
+		for (Vm vm : vms) {
+			scheduler.allocatePesForGuest(vm, vm.getCurrentRequestedMips());
+		}
+	}
+
+	private static double getTotalMipsOnPes(List<Pe> pes, Vm vm) {
+		double total = 0;
+		for (Pe pe : pes) {
+			total += pe.getPeProvisioner().getTotalAllocatedMipsForGuest(vm);
+		}
+		return total;
+	}
+
+	@Test
+	public void testReallocatePesForGuests() {
+		List<Pe> otherPeList = new ArrayList<>();
+		otherPeList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		otherPeList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		VmSchedulerTimeShared otherScheduler = new VmSchedulerTimeShared(otherPeList);
+
+		RequestingVm vm1 = new RequestingVm(0, MIPS, 1);
+		RequestingVm vm2 = new RequestingVm(1, MIPS, 2);
+		RequestingVm vm3 = new RequestingVm(2, MIPS, 1);
+		List<RequestingVm> vms = Arrays.asList(vm1, vm2, vm3);
+		double[][] requests = {
+				{ MIPS / 4, MIPS / 2, MIPS / 8, MIPS / 8 },
+				{ MIPS / 4, MIPS / 2, MIPS / 8, MIPS / 2 }, // only vm3 changes
+				{ MIPS * 3 / 4, MIPS / 2, MIPS / 8, MIPS / 2 },
+				{ MIPS, MIPS, MIPS / 8, MIPS / 2 }, // vm2 does not fit
+				{ MIPS / 2, MIPS / 2, MIPS / 2, MIPS / 4 },
+		};
+		for (double[] request : requests) {
+			vm1.requestedMips = new ArrayList<>(List.of(request[0]));
+			vm2.requestedMips = new ArrayList<>(List.of(request[1], request[2]));
+			vm3.requestedMips = new ArrayList<>(List.of(request[3]));
+
+			vmScheduler.reallocatePesForGuests(vms);
+			reallocateAll(otherScheduler, vms);
+
+			assertEquals(otherScheduler.getAvailableMips(), vmScheduler.getAvailableMips(), 0);
+			for (RequestingVm vm : vms) {
+				assertEquals(otherScheduler.getAllocatedMipsForGuest(vm), vmScheduler.getAllocatedMipsForGuest(vm));
+				assertEquals(vmScheduler.getTotalAllocatedMipsForGuest(vm), getTotalMipsOnPes(peList, vm), 1e-9);
+			}
+			if (request[0] == MIPS) {
+				assertNull(vmScheduler.getAllocatedMipsForGuest(vm2));
+			}
+		}
+		assertEquals(MIPS / 2, vmScheduler.getTotalAllocatedMipsForGuest(vm1), 0);
+		assertEquals(MIPS / 4, vmScheduler.getTotalAllocatedMipsForGuest(vm3), 0);
+	}
+
 }
@@ -117,6 +117,13 @@ public class VmTest {
 		assertEquals(USER_ID + "-" + ID, vm.getUid());
 	}
 
+	@Test
+	public void testGetHandle() {
+		Vm other = new Vm(ID, USER_ID, MIPS, PES_NUMBER, RAM, BW, SIZE, VMM, null);
+		assertEquals(vm.getUid(), other.getUid());
+		assertEquals(vm.getHandle() + 1, other.getHandle());
+	}
+
 	@Test
 	public void testUpdateVmProcessing() {
 		assertEquals(0, vm.updateCloudletsProcessing(0, null), 0);
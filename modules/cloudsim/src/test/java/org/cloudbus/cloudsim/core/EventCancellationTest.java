@@ -0,0 +1,118 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventCancellationTest {
+
+	/** An entity that runs a scenario on start and records the tags of the events it receives. */
+	private static class Recorder extends SimEntity {
+		private final List<CloudSimTags> received = new ArrayList<>();
+		private final Runnable scenario;
+
+		Recorder(String name, Runnable scenario) {
+			super(name);
+			this.scenario = scenario;
+		}
+
+		@Override
+		public void startEntity() {
+			scenario.run();
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			received.add(ev.getTag());
+		}
+	}
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testCancelHandle() {
+		CloudSim.init(0, null, false);
+		List<SimEvent> handles = new ArrayList<>();
+		Recorder[] recorder = new Recorder[1];
+		recorder[0] = new Recorder("Recorder", () -> {
+			handles.add(recorder[0].schedule(recorder[0].getId(), 1, CloudActionTags.VM_CREATE));
+			handles.add(recorder[0].schedule(recorder[0].getId(), 2, CloudActionTags.VM_DESTROY));
+			assertTrue(recorder[0].cancelEvent(handles.get(0)));
+			assertFalse(recorder[0].cancelEvent(handles.get(0)));
+		});
+		CloudSim.startSimulation();
+
+		assertEquals(List.of(CloudActionTags.VM_DESTROY), recorder[0].received);
+		assertFalse(handles.get(0).isPending());
+		assertFalse(handles.get(1).isPending());
+		assertFalse(CloudSim.cancel(handles.get(1)));
+	}
+
+	@Test
+	public void testCancelAllByType() {
+		CloudSim.init(0, null, false);
+		Recorder[] recorder = new Recorder[1];
+		recorder[0] = new Recorder("Recorder", () -> {
+			int id = recorder[0].getId();
+			for (int i = 1; i <= 3; i++) {
+				recorder[0].schedule(id, i, CloudActionTags.VM_CREATE);
+				recorder[0].schedule(id, i, CloudActionTags.VM_DESTROY);
+			}
+			assertTrue(CloudSim.cancelAll(id, new PredicateType(CloudActionTags.VM_CREATE)));
+			assertFalse(CloudSim.cancelAll(id, new PredicateType(CloudActionTags.VM_CREATE)));
+			// events scheduled after the cancellation are not affected
+			recorder[0].schedule(id, 4, CloudActionTags.VM_CREATE);
+			assertNull(CloudSim.cancel(id, new PredicateType(CloudActionTags.VM_MIGRATE)));
+		});
+		CloudSim.startSimulation();
+
+		assertEquals(List.of(CloudActionTags.VM_DESTROY, CloudActionTags.VM_DESTROY,
+				CloudActionTags.VM_DESTROY, CloudActionTags.VM_CREATE), recorder[0].received);
+	}
+
+	@Test
+	public void testCancelAllBySource() {
+		CloudSim.init(0, null, false);
+		Recorder[] recorder = new Recorder[2];
+		recorder[0] = new Recorder("Recorder0", () -> {
+			recorder[0].schedule(recorder[1].getId(), 1, CloudActionTags.VM_CREATE);
+			recorder[0].schedule(recorder[1].getId(), 2, CloudActionTags.VM_DESTROY);
+		});
+		recorder[1] = new Recorder("Recorder1", () -> {
+			recorder[1].schedule(recorder[1].getId(), 3, CloudActionTags.VM_MIGRATE);
+			assertFalse(CloudSim.cancelAll(recorder[0].getId(), new PredicateFrom(recorder[1].getId())));
+			assertTrue(CloudSim.cancelAll(recorder[0].getId(), new PredicateFrom(recorder[0].getId())));
+		});
+		CloudSim.startSimulation();
+
+		assertEquals(List.of(CloudActionTags.VM_MIGRATE), recorder[1].received);
+	}
+}
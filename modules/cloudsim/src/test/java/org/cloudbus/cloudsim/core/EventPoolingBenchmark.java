@@ -0,0 +1,106 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Measurement;
+
+/**
+ * Measures the allocations and the garbage collections caused by the events of a simulation in
+ * which pairs of entities exchange ACK-like messages, with and without event pooling and
+ * primitive payloads.
+ * <p>
+ * Run it with <tt>java -cp ... org.cloudbus.cloudsim.core.EventPoolingBenchmark [messages]</tt>.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventPoolingBenchmark {
+
+	private static final int PAIRS = 50;
+
+	/** An entity that answers every message with another message, until the budget is exhausted. */
+	private static class Echo extends SimEntity {
+		private final boolean primitive;
+		private int peer;
+		private int budget;
+		private long checksum;
+
+		Echo(String name, boolean primitive, int budget) {
+			super(name);
+			this.primitive = primitive;
+			this.budget = budget;
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			int value = primitive ? ev.getIntData(1) : ((int[]) ev.getData())[1];
+			checksum += value;
+			reply(value + 1);
+		}
+
+		private void reply(int value) {
+			if (budget-- <= 0) {
+				return;
+			}
+			if (primitive) {
+				schedule(peer, 1, CloudActionTags.VM_CREATE_ACK, getId(), value, CloudSimTags.TRUE);
+			} else {
+				schedule(peer, 1, CloudActionTags.VM_CREATE_ACK, new int[] { getId(), value, CloudSimTags.TRUE });
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		int messages = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		Log.disable();
+
+		System.out.printf("%-10s %-10s %12s %12s %10s %10s %10s%n",
+				"pooling", "payload", "ns/event", "bytes/event", "reused", "gc count", "gc ms");
+		for (boolean pooling : new boolean[] { false, true }) {
+			for (boolean primitive : new boolean[] { false, true }) {
+				run(pooling, primitive, messages);
+			}
+		}
+	}
+
+	private static void run(boolean pooling, boolean primitive, int messages) {
+		Result best = Measurement.best(() -> simulate(pooling, primitive, messages), r -> r.measurement.nanos());
+		Measurement m = best.measurement;
+		System.out.printf("%-10s %-10s %12.1f %12.1f %10d %10d %10d%n", pooling, primitive ? "int" : "int[]",
+				(double) m.nanos() / best.events, (double) m.bytes() / best.events, best.reused,
+				m.gcCount(), m.gcMillis());
+	}
+
+	private record Result(long events, long reused, Measurement measurement) {
+	}
+
+	private static Result simulate(boolean pooling, boolean primitive, int messages) {
+		CloudSim.init(0, null, false);
+		CloudSim.setEventPooling(pooling);
+		Echo[] echoes = new Echo[2 * PAIRS];
+		for (int i = 0; i < echoes.length; i++) {
+			echoes[i] = new Echo("Echo" + i, primitive, messages / echoes.length);
+		}
+		for (int i = 0; i < echoes.length; i++) {
+			echoes[i].peer = echoes[i ^ 1].getId();
+		}
+		for (int i = 0; i < echoes.length; i += 2) {
+			Echo echo = echoes[i];
+			CloudSim.send(echo.getId(), echo.peer, 0, CloudActionTags.VM_CREATE_ACK, echo.getId(), 0, 0);
+		}
+
+		Measurement measurement = Measurement.of(CloudSim::startSimulation);
+
+		SimulationContext context = CloudSim.getContext();
+		long events = context.getEventsAllocated() + context.getEventsReused();
+		CloudSim.setEventPooling(false);
+		return new Result(events, context.getEventsReused(), measurement);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.Measurement;
+
+/**
+ * A classic "hold model" benchmark of the {@link EventQueue} implementations: the queue is filled
+ * with <tt>n</tt> events, then each hold operation removes the first event and schedules a new one
+ * at its time plus a random increment, so the queue size stays constant. With the <tt>equal</tt>
+ * increment all the events have the same time, as the ones scheduled at once by a broker.
+ * <p>
+ * Run it with <tt>java -cp ... org.cloudbus.cloudsim.core.EventQueueBenchmark [holds]</tt>.
+ *
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventQueueBenchmark {
+
+	private static final int[] QUEUE_SIZES = {1_000, 10_000, 100_000, 1_000_000};
+
+	public static void main(String[] args) {
+		int holds = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+		System.out.printf("%-10s %-12s %-10s %14s%n", "queue", "increment", "size", "ns/hold");
+		for (String distribution : new String[] {"exponential", "uniform", "bimodal", "equal"}) {
+			for (int size : QUEUE_SIZES) {
+				run("heap", EventQueueHeap::new, distribution, size, holds);
+				run("calendar", EventQueueCalendar::new, distribution, size, holds);
+			}
+		}
+	}
+
+	private static void run(String name, Supplier<EventQueue> factory, String distribution, int size, int holds) {
+		Measurement best = Measurement.best(() -> hold(factory.get(), distribution, size, holds), Measurement::nanos);
+		System.out.printf("%-10s %-12s %-10d %14.1f%n", name, distribution, size, (double) best.nanos() / holds);
+	}
+
+	/**
+	 * Runs the hold model once.
+	 *
+	 * @return the measurement of the hold operations
+	 */
+	private static Measurement hold(EventQueue queue, String distribution, int size, int holds) {
+		Random random = new Random(42);
+		for (int i = 0; i < size; i++) {
+			queue.addEvent(new SimEvent(SimEvent.SEND, increment(random, distribution), 0, 0, CloudActionTags.BLANK, null));
+		}
+
+		return Measurement.of(() -> {
+			for (int i = 0; i < holds; i++) {
+				SimEvent first = queue.poll();
+				queue.addEvent(new SimEvent(SimEvent.SEND, first.eventTime() + increment(random, distribution), 0, 0,
+						CloudActionTags.BLANK, null));
+			}
+		});
+	}
+
+	private static double increment(Random random, String distribution) {
+		return switch (distribution) {
+			case "exponential" -> -Math.log(1 - random.nextDouble());
+			case "uniform" -> 2 * random.nextDouble();
+			case "equal" -> 0;
+			default -> random.nextDouble() < 0.9 ? 0.95 + 0.1 * random.nextDouble() : 9.5 + random.nextDouble();
+		};
+	}
+}
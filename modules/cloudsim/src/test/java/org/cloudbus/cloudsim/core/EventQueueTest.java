@@ -0,0 +1,207 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventQueueTest {
+
+	private static SimEvent event(double time, int tag) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, CloudActionTags.BLANK, tag);
+	}
+
+	@Test
+	public void testCalendarQueueOrder() {
+		EventQueue queue = new EventQueueCalendar();
+		queue.addEvent(event(5.0, 0));
+		queue.addEvent(event(1.0, 1));
+		queue.addEvent(event(1.0, 2));
+		queue.addEvent(event(1000.0, 3));
+		queue.addEventFirst(event(1.0, 4));
+
+		assertEquals(5, queue.size());
+		assertEquals(4, queue.peek().getData());
+		assertEquals(4, queue.poll().getData());
+		assertEquals(1, queue.poll().getData());
+		assertEquals(2, queue.poll().getData());
+		assertEquals(0, queue.poll().getData());
+		assertEquals(3, queue.poll().getData());
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testHoldModelMatchesHeap() {
+		EventQueue heap = new EventQueueHeap();
+		EventQueue calendar = new EventQueueCalendar();
+		Random random = new Random(7);
+
+		int tag = 0;
+		for (int i = 0; i < 2000; i++) {
+			double time = random.nextDouble() * 100;
+			heap.addEvent(event(time, tag));
+			calendar.addEvent(event(time, tag));
+			tag++;
+		}
+
+		for (int i = 0; i < 20000; i++) {
+			SimEvent expected = heap.poll();
+			SimEvent actual = calendar.poll();
+			assertEquals(expected.eventTime(), actual.eventTime());
+			assertEquals(expected.getData(), actual.getData());
+
+			// hold: reschedule a new event, sometimes at the same time or very far in the future
+			int n = i % 3 == 0 ? 2 : i % 3 == 1 ? 1 : 0;
+			for (int j = 0; j < n; j++) {
+				double delay = i % 101 == 0 ? 1e6 : i % 7 == 0 ? 0 : -Math.log(random.nextDouble());
+				heap.addEvent(event(expected.eventTime() + delay, tag));
+				calendar.addEvent(event(expected.eventTime() + delay, tag));
+				tag++;
+			}
+			assertEquals(heap.size(), calendar.size());
+		}
+
+		while (!heap.isEmpty()) {
+			assertEquals(heap.poll().getData(), calendar.poll().getData());
+		}
+		assertTrue(calendar.isEmpty());
+	}
+
+	@Test
+	public void testCalendarQueueEqualTimestamps() {
+		// As a broker submitting all its VMs and cloudlets at the same time: appending to a bucket
+		// must not walk it, or this takes seconds instead of milliseconds
+		int n = 40000;
+		EventQueue heap = new EventQueueHeap();
+		EventQueue calendar = new EventQueueCalendar();
+		assertTimeout(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < n; i++) {
+				double time = i < n / 2 ? 0 : 10;
+				heap.addEvent(event(time, i));
+				calendar.addEvent(event(time, i));
+			}
+		});
+		heap.addEventFirst(event(0, -1));
+		calendar.addEventFirst(event(0, -1));
+
+		// remove the last event of each time, then append after them again
+		for (EventQueue queue : List.of(heap, calendar)) {
+			Iterator<SimEvent> iter = queue.iterator();
+			while (iter.hasNext()) {
+				int data = (Integer) iter.next().getData();
+				if (data == n / 2 - 1 || data == n - 1) {
+					iter.remove();
+				}
+			}
+			queue.addEvent(event(0, n));
+			queue.addEvent(event(10, n + 1));
+		}
+
+		assertEquals(heap.size(), calendar.size());
+		while (!heap.isEmpty()) {
+			SimEvent expected = heap.poll();
+			SimEvent actual = calendar.poll();
+			assertEquals(expected.eventTime(), actual.eventTime());
+			assertEquals(expected.getData(), actual.getData());
+		}
+		assertTrue(calendar.isEmpty());
+	}
+
+	@Test
+	public void testCalendarQueueIteratorRemove() {
+		EventQueue queue = new EventQueueCalendar();
+		for (int i = 0; i < 100; i++) {
+			queue.addEvent(event(i % 10, i));
+		}
+
+		Iterator<SimEvent> iter = queue.iterator();
+		int visited = 0;
+		while (iter.hasNext()) {
+			SimEvent ev = iter.next();
+			visited++;
+			if ((Integer) ev.getData() % 2 == 0) {
+				iter.remove();
+			}
+		}
+		assertEquals(100, visited);
+		assertEquals(50, queue.size());
+
+		List<Integer> polled = new ArrayList<>();
+		double last = -1;
+		while (!queue.isEmpty()) {
+			SimEvent ev = queue.poll();
+			assertTrue(ev.eventTime() >= last);
+			last = ev.eventTime();
+			polled.add((Integer) ev.getData());
+		}
+		assertEquals(50, polled.size());
+		for (int data : polled) {
+			assertEquals(1, data % 2);
+		}
+	}
+
+	@Test
+	public void testDeferredQueueMatchesLinearScan() {
+		CloudSimTags[] tags = { CloudActionTags.BLANK, CloudActionTags.VM_CREATE,
+				CloudActionTags.VM_MIGRATE, CloudActionTags.CLOUDLET_SUBMIT };
+		DeferredQueue queue = new DeferredQueue();
+		List<SimEvent> reference = new ArrayList<>();
+		Random random = new Random(11);
+
+		for (int i = 0; i < 5000; i++) {
+			int op = random.nextInt(4);
+			if (op < 2) {
+				SimEvent ev = new SimEvent(SimEvent.SEND, i, 0, 0, tags[random.nextInt(tags.length)], i);
+				if (op == 0) {
+					queue.addEvent(ev);
+					reference.add(ev);
+				} else {
+					queue.addEventFirst(ev);
+					reference.add(0, ev);
+				}
+			} else {
+				Predicate p = op == 2 ? new PredicateType(tags[random.nextInt(tags.length)])
+						: new PredicateType(new CloudSimTags[] { tags[0], tags[random.nextInt(tags.length)] });
+				SimEvent expected = reference.stream().filter(p::match).findFirst().orElse(null);
+				assertEquals(reference.stream().filter(p::match).count(), queue.count(p));
+				assertSame(expected, queue.findFirst(p));
+				assertSame(expected, queue.removeFirst(p));
+				reference.remove(expected);
+			}
+			assertEquals(reference.size(), queue.size());
+		}
+
+		Predicate even = new Predicate() {
+			@Override
+			public boolean match(SimEvent ev) {
+				return (Integer) ev.getData() % 2 == 0;
+			}
+		};
+		assertEquals(reference.stream().filter(even::match).count(), queue.count(even));
+		assertEquals(reference.size(), queue.count(CloudSim.SIM_ANY));
+		for (SimEvent expected : reference) {
+			assertSame(expected, queue.poll());
+		}
+		assertNull(queue.poll());
+	}
+}
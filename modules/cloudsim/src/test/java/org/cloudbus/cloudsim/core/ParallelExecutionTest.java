@@ -0,0 +1,155 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class ParallelExecutionTest {
+
+	private static final int ENTITIES = 8;
+
+	private static final int MESSAGES = 50;
+
+	/**
+	 * An entity that answers each message of its peer after a local timer, recording the times of
+	 * what it receives.
+	 */
+	private static class Echo extends SimEntity {
+		private final List<String> trace = new ArrayList<>();
+		private int peer;
+		/** Whether to answer without the network delay. */
+		private boolean direct;
+		private int budget = MESSAGES;
+
+		Echo(String name) {
+			super(name);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			trace.add(CloudSim.clock() + " " + ev.getTag() + " " + ev.getIntData(1));
+			if (ev.getTag() == CloudActionTags.VM_CREATE_ACK) {
+				// wait a bit before answering, with an event sent to itself
+				schedule(getId(), 0.25 * (1 + getId() % 3), CloudActionTags.VM_DATACENTER_EVENT,
+						getId(), ev.getIntData(1) + 1, 0);
+			} else if (budget-- > 0) {
+				if (direct) {
+					schedule(peer, 0, CloudActionTags.VM_CREATE_ACK, getId(), ev.getIntData(1), 0);
+				} else {
+					send(peer, 0, CloudActionTags.VM_CREATE_ACK, getId(), ev.getIntData(1), 0);
+				}
+			}
+		}
+	}
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@AfterEach
+	public void reset() {
+		CloudSim.setParallelism(1);
+		CloudSim.setLookaheadEnabled(false);
+		// the links between the echoes would delay the messages of the other tests
+		NetworkTopology.reset();
+	}
+
+	@Test
+	public void testSameTimestampParallelism() {
+		List<List<String>> expected = run(1, false);
+		assertEquals(expected, run(4, false));
+	}
+
+	@Test
+	public void testLookaheadParallelism() {
+		List<List<String>> expected = run(1, false);
+		assertEquals(expected, run(4, true));
+		assertEquals(1.0, CloudSim.getContext().getLookahead(), 1e-9);
+	}
+
+	@Test
+	public void testWorkersReleasedAtTheEnd() throws Exception {
+		run(4, false);
+		for (Thread t : Thread.getAllStackTraces().keySet()) {
+			if (t.getName().equals("CloudSim-worker")) {
+				t.join(10000);
+				assertFalse(t.isAlive());
+			}
+		}
+	}
+
+	@Test
+	public void testLookaheadViolation() {
+		CloudSim.init(0, null, false);
+		CloudSim.setParallelism(2);
+		CloudSim.setLookaheadEnabled(true);
+		Echo[] echoes = createEchoes();
+		// the answer of this entity is not delayed by the network
+		echoes[0].direct = true;
+		CloudSim.send(echoes[0].getId(), echoes[0].getId(), 0, CloudActionTags.VM_DATACENTER_EVENT, 0, 0, 0);
+
+		assertThrows(IllegalStateException.class, CloudSim::startSimulation);
+	}
+
+	private static List<List<String>> run(int parallelism, boolean lookahead) {
+		CloudSim.init(0, null, false);
+		CloudSim.setParallelism(parallelism);
+		CloudSim.setLookaheadEnabled(lookahead);
+		Echo[] echoes = createEchoes();
+		for (Echo echo : echoes) {
+			CloudSim.send(echo.peer, echo.getId(), 0, CloudActionTags.VM_CREATE_ACK, echo.peer, 0, 0);
+		}
+
+		CloudSim.startSimulation();
+
+		List<List<String>> traces = new ArrayList<>();
+		for (Echo echo : echoes) {
+			assertFalse(echo.trace.isEmpty());
+			traces.add(echo.trace);
+		}
+		return traces;
+	}
+
+	/**
+	 * Creates pairs of peers, connected in a line with links of unitary latency.
+	 */
+	private static Echo[] createEchoes() {
+		Echo[] echoes = new Echo[ENTITIES];
+		for (int i = 0; i < ENTITIES; i++) {
+			echoes[i] = new Echo("Echo" + i);
+		}
+		for (int i = 0; i < ENTITIES; i++) {
+			echoes[i].peer = echoes[i ^ 1].getId();
+			if (i > 0) {
+				NetworkTopology.addLink(echoes[i - 1].getId(), echoes[i].getId(), 1000, 1.0);
+			}
+		}
+		return echoes;
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class SimulationContextTest {
+
+	private static final int SIMULATIONS = 8;
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testContextIsBoundPerThread() throws Exception {
+		SimulationContext context = new SimulationContext();
+		assertNotSame(context, SimulationContext.current());
+		assertSame(context, context.call(CloudSim::getContext));
+	}
+
+	@Test
+	public void testPauseFromAnotherThread() throws Exception {
+		List<Double> expected = runSimulation(new EventQueueHeap());
+
+		// As in CloudSimExample7, a monitor thread pauses and resumes the simulation
+		CountDownLatch pauseRequested = new CountDownLatch(1);
+		double[] pausedAt = { -1 };
+		Thread monitor = new Thread(() -> {
+			assertSame(CloudSim.getContext(), SimulationContext.current());
+			assertTrue(CloudSim.pauseSimulation(150));
+			pauseRequested.countDown();
+			while (!CloudSim.isPaused()) {
+				Thread.onSpinWait();
+			}
+			pausedAt[0] = CloudSim.clock();
+			CloudSim.resumeSimulation();
+		});
+		List<Double> finishTimes = runSimulation(new EventQueueHeap(), () -> {
+			monitor.start();
+			try {
+				pauseRequested.await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		monitor.join(10000);
+
+		assertFalse(monitor.isAlive());
+		assertEquals(150, pausedAt[0], 0);
+		assertEquals(expected, finishTimes);
+	}
+
+	@Test
+	public void testConcurrentSimulations() throws Exception {
+		List<Double> expected = runSimulation(new EventQueueHeap());
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		List<Future<List<Double>>> futures = new ArrayList<>();
+		for (int i = 0; i < SIMULATIONS; i++) {
+			futures.add(pool.submit(() -> new SimulationContext().call(() -> runSimulation(new EventQueueHeap()))));
+		}
+		for (Future<List<Double>> future : futures) {
+			assertEquals(expected, future.get());
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void testGuestHandlesPerSimulation() throws Exception {
+		CloudSim.init(1, null, false);
+		Vm vm = createVm(0);
+		assertEquals(0, vm.getHandle());
+		assertEquals(1, createVm(1).getHandle());
+
+		// another simulation has its own handles, and does not advance the ones of this one
+		assertEquals(0, new SimulationContext().call(() -> {
+			CloudSim.init(1, null, false);
+			return createVm(0).getHandle();
+		}));
+		assertEquals(2, createVm(2).getHandle());
+
+		// the handles restart with each simulation
+		CloudSim.init(1, null, false);
+		assertEquals(0, createVm(0).getHandle());
+	}
+
+	@Test
+	public void testCalendarFutureQueue() throws Exception {
+		assertEquals(runSimulation(new EventQueueHeap()), runSimulation(new EventQueueCalendar()));
+	}
+
+	@Test
+	public void testRunnableEntitiesCounters() throws Exception {
+		runSimulation(new EventQueueHeap());
+		SimulationContext context = CloudSim.getContext();
+		assertTrue(context.getTicks() > 0);
+		assertTrue(context.getRunnableEntitiesRun() > 0);
+		// Only the entities with something to do are run: on average fewer than all of them
+		// (the information service, the shutdown entity, the datacenter and the broker)
+		int entities = 4;
+		assertTrue(context.getRunnableEntitiesRun() < (long) entities * context.getTicks());
+	}
+
+	@Test
+	public void testParallelEntities() throws Exception {
+		List<Double> expected = runSimulation(new EventQueueHeap());
+		CloudSim.setParallelism(4);
+		try {
+			assertEquals(expected, runSimulation(new EventQueueHeap()));
+		} finally {
+			CloudSim.setParallelism(1);
+		}
+	}
+
+	@Test
+	public void testEventPooling() throws Exception {
+		List<Double> expected = runSimulation(new EventQueueHeap());
+		long allocated = CloudSim.getContext().getEventsAllocated();
+
+		CloudSim.setEventPooling(true);
+		try {
+			assertEquals(expected, runSimulation(new EventQueueHeap()));
+			SimulationContext context = CloudSim.getContext();
+			assertTrue(context.getEventsReused() > 0);
+			assertTrue(context.getEventsAllocated() < allocated);
+		} finally {
+			CloudSim.setEventPooling(false);
+		}
+	}
+
+	@Test
+	public void testIntPayload() {
+		SimEvent ev = new SimEvent(SimEvent.SEND, 0, 0, 0, CloudActionTags.VM_CREATE_ACK, null);
+		ev.setIntData(3, 4, CloudSimTags.TRUE);
+		assertTrue(ev.hasIntData());
+		assertEquals(4, ev.getIntData(1));
+		assertArrayEquals(new int[] { 3, 4, CloudSimTags.TRUE }, (int[]) ev.getData());
+
+		SimEvent legacy = new SimEvent(SimEvent.SEND, 0, 0, 0, CloudActionTags.VM_CREATE_ACK, new int[] { 5, 6, 7 });
+		assertFalse(legacy.hasIntData());
+		assertEquals(7, legacy.getIntData(2));
+	}
+
+	private static List<Double> runSimulation(EventQueue futureQueue) throws Exception {
+		return runSimulation(futureQueue, () -> {});
+	}
+
+	private static List<Double> runSimulation(EventQueue futureQueue, Runnable beforeStart) throws Exception {
+		CloudSim.init(1, null, false, futureQueue);
+
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+				peList, new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			vmList.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Cloudlet cloudlet = new Cloudlet(i, 100000L * (i + 1), 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(broker.getId());
+			cloudlet.setGuestId(i % 2);
+			cloudletList.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudletList);
+
+		beforeStart.run();
+		CloudSim.startSimulation();
+
+		List<Double> finishTimes = new ArrayList<>();
+		for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+			finishTimes.add(cloudlet.getExecFinishTime());
+		}
+		return finishTimes;
+	}
+
+	private static Vm createVm(int id) {
+		return new Vm(id, 0, 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared());
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletQueueTest {
+
+	private CloudletQueue<Cloudlet> queue;
+
+	@BeforeEach
+	public void setUp() {
+		queue = new CloudletQueue<>();
+	}
+
+	@Test
+	public void testGetAndRemoveById() {
+		Cloudlet cl0 = createCloudlet(0);
+		Cloudlet cl1 = createCloudlet(1);
+		Cloudlet cl2 = createCloudlet(2);
+		queue.add(cl0);
+		queue.add(cl1);
+		queue.add(cl2);
+
+		assertSame(cl1, CloudletList.getById(queue, 1));
+		assertNull(queue.getById(3));
+		assertSame(cl1, CloudletList.removeById(queue, 1));
+		assertNull(queue.removeById(1));
+		assertEquals(List.of(cl0, cl2), queue);
+		assertSame(cl0, queue.removeFirst());
+		assertSame(cl2, queue.getById(2));
+		assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void testRemoveAll() {
+		List<Cloudlet> expected = new LinkedList<>();
+		List<Cloudlet> finished = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Cloudlet cl = createCloudlet(i);
+			queue.add(cl);
+			if (i % 3 == 0) {
+				finished.add(cl);
+			} else {
+				expected.add(cl);
+			}
+		}
+
+		assertTrue(queue.removeAll(finished));
+		assertFalse(queue.removeAll(finished));
+		assertEquals(expected, queue);
+		for (Cloudlet cl : finished) {
+			assertNull(queue.getById(cl.getCloudletId()));
+		}
+	}
+
+	@Test
+	public void testListIterator() {
+		Cloudlet cl0 = createCloudlet(0);
+		Cloudlet cl1 = createCloudlet(1);
+		Cloudlet cl2 = createCloudlet(2);
+		queue.add(cl0);
+		queue.add(cl2);
+
+		ListIterator<Cloudlet> it = queue.listIterator(1);
+		it.add(cl1);
+		assertEquals(List.of(cl0, cl1, cl2), queue);
+		assertSame(cl1, it.previous());
+		it.remove();
+		assertEquals(List.of(cl0, cl2), queue);
+		assertSame(cl2, it.next());
+		Cloudlet other = createCloudlet(3);
+		it.set(other);
+		assertNull(queue.getById(2));
+		assertSame(other, queue.getById(3));
+		assertEquals(1, queue.indexOf(other));
+	}
+
+	@Test
+	public void testDuplicateIds() {
+		Cloudlet first = createCloudlet(0);
+		Cloudlet second = createCloudlet(0);
+		queue.add(createCloudlet(1));
+		queue.add(first);
+		queue.add(second);
+
+		assertSame(first, queue.getById(0));
+		assertSame(first, queue.removeById(0));
+		assertSame(second, queue.getById(0));
+		assertTrue(queue.remove(second));
+		assertNull(queue.getById(0));
+		assertEquals(1, queue.size());
+	}
+
+	private static Cloudlet createCloudlet(int id) {
+		return new Cloudlet(id, 1000, 1, 0, 0,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+	}
+}
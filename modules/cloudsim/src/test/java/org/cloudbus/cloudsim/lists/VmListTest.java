@@ -12,10 +12,14 @@ package org.cloudbus.cloudsim.lists;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.UtilizationModelNull;
 import org.cloudbus.cloudsim.Vm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
@@ -74,4 +78,40 @@ public class VmListTest {
 		assertSame(vm4, VmList.getByIdAndUserId(vmList, 1, 1));
 	}
 
+	@Test
+	public void testSortByCpuUtilization() {
+		double[] utilizations = { 0.2, 0.5, 0.2, 0.9, 0, 0.5 };
+		for (int i = 0; i < utilizations.length; i++) {
+			Vm vm = new Vm(i, 0, 1000, 1, 0, 0, 0, "", new CloudletSchedulerTimeShared());
+			submit(vm, i, utilizations[i]);
+			vmList.add(vm);
+		}
+
+		VmList.sortByCpuUtilization(vmList);
+
+		// decreasing utilization, ties in the former order
+		int[] expectedIds = { 3, 1, 5, 0, 2, 4 };
+		for (int i = 0; i < expectedIds.length; i++) {
+			assertEquals(expectedIds[i], vmList.get(i).getId());
+		}
+	}
+
+	@Test
+	public void testCurrentUtilizationOfCpuMips() {
+		Vm vm = new Vm(0, 0, 1000, 1, 0, 0, 0, "", new CloudletSchedulerTimeShared());
+		submit(vm, 0, 0.25);
+		assertEquals(250, vm.getCurrentUtilizationOfCpuMips(), 1e-9);
+
+		// a cloudlet submitted at the same simulation time is taken into account
+		submit(vm, 1, 0.5);
+		assertEquals(750, vm.getCurrentUtilizationOfCpuMips(), 1e-9);
+		assertEquals(vm.getTotalUtilizationOfCpuMips(0), vm.getCurrentUtilizationOfCpuMips(), 0);
+	}
+
+	private static void submit(Vm vm, int cloudletId, double utilization) {
+		Cloudlet cloudlet = new Cloudlet(cloudletId, 1000, 1, 0, 0, time -> utilization,
+				new UtilizationModelNull(), new UtilizationModelNull());
+		vm.getCloudletScheduler().cloudletSubmit(cloudlet);
+	}
+
 }
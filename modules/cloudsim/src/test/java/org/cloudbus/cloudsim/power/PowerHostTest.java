@@ -12,12 +12,20 @@ package org.cloudbus.cloudsim.power;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
 import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelCubic;
 import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.power.models.PowerModelSqrt;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -57,6 +65,52 @@ public class PowerHostTest {
 			fail();
 		}
 		assertEquals(expectedEnergy, host.getEnergyLinearInterpolation(0.2, 0.9, TIME), 0);
+		assertEquals(0, host.getEnergy(0, 0.9, TIME), 0);
+		assertEquals(expectedEnergy, host.getEnergy(0.2, 0.9, TIME), 1e-9);
+	}
+
+	@Test
+	public void testGetEnergyToAndFromZero() {
+		PowerModel[] models = { new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT),
+				new PowerModelSqrt(MAX_POWER, STATIC_POWER_PERCENT), new PowerModelCubic(MAX_POWER, STATIC_POWER_PERCENT) };
+		for (PowerModel model : models) {
+			host.setPowerModel(model);
+			assertEquals(host.getEnergyLinearInterpolation(0.5, 0, TIME), host.getEnergy(0.5, 0, TIME), 1e-9);
+			assertEquals(model.getPower(0.5) / 2 * TIME, host.getEnergy(0.5, 0, TIME), 1e-9);
+			// the host was switched off
+			assertEquals(0, host.getEnergyLinearInterpolation(0, 0.5, TIME), 0);
+			assertEquals(0, host.getEnergy(0, 0.5, TIME), 0);
+		}
+	}
+
+	@Test
+	public void testGetUtilizationHistory() {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		PowerHost host = new PowerHost(0, new RamProvisionerSimple(1024), new BwProvisionerSimple(1000), 1000,
+				peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT));
+		PowerVm vm1 = new PowerVm(0, 0, 500, 1, 128, 100, 0, 0, "", new CloudletSchedulerDynamicWorkload(500, 1), 300);
+		PowerVm vm2 = new PowerVm(1, 0, 250, 1, 128, 100, 0, 0, "", new CloudletSchedulerDynamicWorkload(250, 1), 300);
+		assertArrayEquals(new double[0], host.getUtilizationHistory(), 0);
+
+		host.guestCreate(vm1);
+		vm1.addUtilizationHistoryValue(0.5);
+		vm1.addUtilizationHistoryValue(1);
+		assertArrayEquals(new double[] { 0.25, 0.5 }, host.getUtilizationHistory(), 0);
+
+		// the returned history is a copy
+		host.getUtilizationHistory()[0] = 1;
+		assertArrayEquals(new double[] { 0.25, 0.5 }, host.getUtilizationHistory(), 0);
+
+		host.guestCreate(vm2);
+		vm2.addUtilizationHistoryValue(0.4);
+		assertArrayEquals(new double[] { 0.35, 0.5 }, host.getUtilizationHistory(), 1e-12);
+
+		vm1.addUtilizationHistoryValue(0);
+		assertArrayEquals(new double[] { 0.35, 0.5, 0 }, host.getUtilizationHistory(), 1e-12);
+
+		host.guestDestroy(vm1);
+		assertArrayEquals(new double[] { 0.1 }, host.getUtilizationHistory(), 1e-12);
 	}
 
 }
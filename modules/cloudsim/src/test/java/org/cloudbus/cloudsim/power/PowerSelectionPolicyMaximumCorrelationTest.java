@@ -1,14 +1,22 @@
 package org.cloudbus.cloudsim.power;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.core.PowerGuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyRandomSelection;
+import org.cloudbus.cloudsim.util.MultipleCorrelation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class PowerSelectionPolicyMaximumCorrelationTest {
 
@@ -35,4 +43,84 @@ public class PowerSelectionPolicyMaximumCorrelationTest {
 		}
 	}
 
+	@Test
+	public void testMultipleCorrelation() {
+		assertArrayEquals(CORRELATION, new MultipleCorrelation(DATA).getRSquared(), 0.00001);
+
+		Random random = new Random(13);
+		double[][] data = new double[6][20];
+		for (int t = 0; t < 20; t++) {
+			double common = random.nextDouble();
+			for (int i = 0; i < data.length; i++) {
+				data[i][t] = i * common + random.nextDouble();
+			}
+		}
+		MultipleCorrelation correlation = new MultipleCorrelation(data);
+		List<double[]> remaining = new ArrayList<>(List.of(data));
+		while (true) {
+			double[] expected = vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(remaining.toArray(new double[0][]))
+					.stream().mapToDouble(Double::doubleValue).toArray();
+			assertArrayEquals(expected, correlation.getRSquared(), 1e-9);
+			if (remaining.size() == 2) {
+				break;
+			}
+			int k = random.nextInt(remaining.size());
+			remaining.remove(k);
+			correlation.remove(k);
+		}
+	}
+
+	@Test
+	public void testSelectionAsVmsAreRemoved() {
+		assertSameSelectionsAsRegressions(new Random(17), 8);
+	}
+
+	@Test
+	public void testSelectionDownToTwoVms() {
+		// with two VMs both coefficients are equal: the selection must not depend on how they
+		// have been computed, incrementally or not
+		for (int seed = 0; seed < 200; seed++) {
+			vmSelectionPolicyMaximumCorrelation = new PowerSelectionPolicyMaximumCorrelation(
+					new SelectionPolicyRandomSelection<>());
+			assertSameSelectionsAsRegressions(new Random(seed), 3 + seed % 4);
+		}
+	}
+
+	/**
+	 * Selects VMs with random utilization histories one after another, removing each selected VM,
+	 * and checks that each selection is the one of the VM with the largest coefficient, computed by
+	 * one regression per VM.
+	 */
+	private void assertSameSelectionsAsRegressions(Random random, int vms) {
+		List<PowerGuestEntity> candidates = new ArrayList<>();
+		for (int i = 0; i < vms; i++) {
+			candidates.add(new PowerVm(i, 0, 1000, 1, 128, 1000, 100, 0, "Xen",
+					new CloudletSchedulerDynamicWorkload(1000, 1), 300));
+		}
+		for (int t = 0; t < PowerGuestEntity.HISTORY_LENGTH; t++) {
+			double common = random.nextDouble();
+			for (int i = 0; i < candidates.size(); i++) {
+				((PowerVm) candidates.get(i)).addUtilizationHistoryValue((i % 3) * common / 3 + random.nextDouble() / 2);
+			}
+		}
+
+		while (candidates.size() > 1) {
+			double[][] data = new double[candidates.size()][];
+			for (int i = 0; i < data.length; i++) {
+				data[i] = candidates.get(i).getUtilizationHistory().toArray();
+			}
+			List<Double> metrics = vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(data);
+			int expected = 0;
+			for (int i = 1; i < metrics.size(); i++) {
+				if (metrics.get(i) > metrics.get(expected)) {
+					expected = i;
+				}
+			}
+
+			PowerGuestEntity selected = vmSelectionPolicyMaximumCorrelation.select(candidates, null, Set.of());
+			assertSame(candidates.get(expected), selected, candidates.size() + " VMs");
+			candidates.remove(selected);
+		}
+	}
+
 }
@@ -0,0 +1,369 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.PowerGuestEntity;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumUtilization;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Remo Andreoli
+ * @since CloudSim Toolkit 7.0
+ */
+public class PowerVmAllocationPolicyMigrationTest {
+
+	private static final int HOSTS = 16;
+
+	private static final int VMS = 48;
+
+	@BeforeAll
+	public static void setUp() {
+		Log.disable();
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testStaticThreshold() {
+		List<PowerHost> hosts = createHosts();
+		testSameDecisionsAsTrialAllocation(hosts,
+				new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, new SelectionPolicyMinimumUtilization(), 0.8));
+	}
+
+	@Test
+	public void testInterQuartileRange() {
+		List<PowerHost> hosts = createHosts();
+		testSameDecisionsAsTrialAllocation(hosts,
+				new PowerVmAllocationPolicyMigrationInterQuartileRange(hosts, new SelectionPolicyMinimumUtilization(), 1.5,
+						new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, new SelectionPolicyMinimumUtilization(), 0.8)));
+	}
+
+	@Test
+	public void testMedianAbsoluteDeviation() {
+		List<PowerHost> hosts = createHosts();
+		testSameDecisionsAsTrialAllocation(hosts,
+				new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(hosts, new SelectionPolicyMinimumUtilization(), 2.5,
+						new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, new SelectionPolicyMinimumUtilization(), 0.8)));
+	}
+
+	@Test
+	public void testLocalRegression() {
+		List<PowerHost> hosts = createHosts();
+		testSameDecisionsAsTrialAllocation(hosts,
+				new PowerVmAllocationPolicyMigrationLocalRegressionRobust(hosts, new SelectionPolicyMinimumUtilization(), 1.2, 300,
+						new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, new SelectionPolicyMinimumUtilization(), 0.8)));
+	}
+
+	@Test
+	public void testLocalRegressionPrediction() {
+		List<PowerHost> hosts = createHosts();
+		placeVms(hosts);
+		PowerVmAllocationPolicyMigrationLocalRegression lr = (PowerVmAllocationPolicyMigrationLocalRegression) createLocalRegression(hosts);
+		PowerVmAllocationPolicyMigrationLocalRegression lrr = new PowerVmAllocationPolicyMigrationLocalRegressionRobust(hosts,
+				new SelectionPolicyMinimumUtilization(), 2.5, 300,
+				new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, new SelectionPolicyMinimumUtilization(), 0.8));
+
+		int predictions = 0;
+		for (PowerHost host : hosts) {
+			double[] history = host.getUtilizationHistory();
+			if (history.length < 10) {
+				continue;
+			}
+			double[] reversed = new double[10];
+			for (int i = 0; i < 10; i++) {
+				reversed[i] = history[9 - i];
+			}
+			double migrationIntervals = Math.ceil(lr.getMaximumVmMigrationTime(host) / 300);
+			for (PowerVmAllocationPolicyMigrationLocalRegression policy : List.of(lr, lrr)) {
+				// the former prediction, fitting the whole window
+				double[] estimates = policy.getParameterEstimates(reversed);
+				double expected = (estimates[0] + estimates[1] * (10 + migrationIntervals)) * 2.5;
+
+				assertEquals(expected >= 1, policy.isHostOverUtilized(host));
+				assertEquals(expected, policy.getMetricHistory(host.getId()).getLast(), 1e-9);
+			}
+			predictions++;
+		}
+		assertTrue(predictions > 0);
+	}
+
+	@Test
+	public void testParallelEvaluation() {
+		List<PowerHost> hosts = createHosts();
+		List<PowerVm> vms = placeVms(hosts);
+		PowerVmAllocationPolicyMigrationAbstract sequential = createLocalRegression(hosts);
+		PowerVmAllocationPolicyMigrationAbstract parallel = createLocalRegression(hosts);
+		parallel.setParallelism(4);
+
+		List<PowerHost> overUtilizedHosts = sequential.getOverUtilizedHosts();
+		assertFalse(overUtilizedHosts.isEmpty());
+		assertEquals(overUtilizedHosts, parallel.getOverUtilizedHosts());
+		int placed = 0;
+		for (PowerVm vm : vms) {
+			PowerHost expected = sequential.findHostForGuest(vm);
+			assertSame(expected, parallel.findHostForGuest(vm));
+			if (expected != null) {
+				placed++;
+			}
+		}
+		assertTrue(placed > 0);
+		for (PowerHost host : hosts) {
+			assertEquals(sequential.getMetricHistory(host.getId()), parallel.getMetricHistory(host.getId()));
+		}
+	}
+
+	@Test
+	public void testParallelEvaluationWithTrialAllocation() {
+		// a policy keeping the default snapshot evaluation creates the candidate VM on each host,
+		// so its candidate hosts are still scored one at a time
+		List<PowerHost> hosts = createHosts();
+		List<PowerVm> vms = placeVms(hosts);
+		PowerVmAllocationPolicyMigrationAbstract sequential = createTrialAllocationPolicy(hosts);
+		PowerVmAllocationPolicyMigrationAbstract parallel = createTrialAllocationPolicy(hosts);
+		parallel.setParallelism(4);
+
+		for (int round = 0; round < 2; round++) {
+			for (PowerVm vm : vms) {
+				HostEntity host = vm.getHost();
+				assertSame(sequential.findHostForGuest(vm), parallel.findHostForGuest(vm));
+				assertSame(host, vm.getHost());
+			}
+			// the threads are created again when needed
+			parallel.releaseEvaluationThreads();
+		}
+	}
+
+	@Test
+	public void testUnderUtilizedAndSwitchedOffHosts() {
+		Random random = new Random(11);
+		List<UtilizationHost> hosts = new ArrayList<>();
+		for (int i = 0; i < HOSTS * 2; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			UtilizationHost host = new UtilizationHost(i, peList);
+			host.guestCreate(new PowerVm(i, 0, 100, 1, 128, 1000, 100, 0, "Xen",
+					new CloudletSchedulerDynamicWorkload(100, 1), 300));
+			hosts.add(host);
+		}
+		PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationStaticThreshold(hosts,
+				new SelectionPolicyMinimumUtilization(), 0.8);
+
+		for (int round = 0; round < 200; round++) {
+			for (UtilizationHost host : hosts) {
+				if (random.nextInt(4) == 0) {
+					// few distinct values, to have ties, idle and fully utilized hosts
+					host.setUtilization(250 * random.nextInt(5));
+				}
+			}
+			Set<PowerHost> excludedHosts = new HashSet<>();
+			for (UtilizationHost host : hosts) {
+				if (random.nextInt(3) == 0) {
+					excludedHosts.add(host);
+				}
+			}
+
+			List<PowerHost> switchedOffHosts = new ArrayList<>();
+			PowerHost underUtilizedHost = null;
+			double minUtilization = 1;
+			for (PowerHost host : hosts) {
+				double utilization = host.getUtilizationOfCpu();
+				if (utilization == 0) {
+					switchedOffHosts.add(host);
+				}
+				if (!excludedHosts.contains(host) && utilization > 0 && utilization < minUtilization) {
+					minUtilization = utilization;
+					underUtilizedHost = host;
+				}
+			}
+			assertEquals(switchedOffHosts, policy.getSwitchedOffHosts());
+			assertSame(underUtilizedHost, policy.getUnderUtilizedHost(excludedHosts));
+		}
+	}
+
+	@Test
+	public void testIndexRebuildRemovesListeners() {
+		List<UtilizationHost> hosts = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			hosts.add(createUtilizationHost(i));
+		}
+		PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationStaticThreshold(hosts,
+				new SelectionPolicyMinimumUtilization(), 0.8);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(hosts, policy.getSwitchedOffHosts());
+			// adding a host rebuilds the index at the next query
+			hosts.add(createUtilizationHost(hosts.size()));
+		}
+		assertEquals(hosts, policy.getSwitchedOffHosts());
+		for (UtilizationHost host : hosts) {
+			assertEquals(1, ((CountingVmScheduler) host.getGuestScheduler()).listeners, "host " + host.getId());
+		}
+	}
+
+	private static UtilizationHost createUtilizationHost(int id) {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		return new UtilizationHost(id, peList);
+	}
+
+	/** A power host whose utilization can be set directly. */
+	private static class UtilizationHost extends PowerHost {
+		UtilizationHost(int id, List<Pe> peList) {
+			super(id, new RamProvisionerSimple(2048), new BwProvisionerSimple(100000), 10000,
+					peList, new CountingVmScheduler(peList), new PowerModelLinear(200, 0.3));
+		}
+
+		void setUtilization(double mips) {
+			setUtilizationMips(mips);
+		}
+	}
+
+	/** A VM scheduler counting its allocation listeners. */
+	private static class CountingVmScheduler extends VmSchedulerTimeShared {
+
+		int listeners;
+
+		CountingVmScheduler(List<? extends Pe> pelist) {
+			super(pelist);
+		}
+
+		@Override
+		public void addAllocationListener(Runnable listener) {
+			super.addAllocationListener(listener);
+			listeners++;
+		}
+
+		@Override
+		public void removeAllocationListener(Runnable listener) {
+			super.removeAllocationListener(listener);
+			listeners--;
+		}
+	}
+
+	private static PowerVmAllocationPolicyMigrationAbstract createLocalRegression(List<PowerHost> hosts) {
+		return new PowerVmAllocationPolicyMigrationLocalRegression(hosts, new SelectionPolicyMinimumUtilization(), 2.5, 300,
+				new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, new SelectionPolicyMinimumUtilization(), 0.8));
+	}
+
+	/**
+	 * Creates a policy overriding only {@link PowerVmAllocationPolicyMigrationAbstract#isHostOverUtilized(PowerHost)}.
+	 */
+	private static PowerVmAllocationPolicyMigrationAbstract createTrialAllocationPolicy(List<PowerHost> hosts) {
+		return new PowerVmAllocationPolicyMigrationAbstract(hosts, new SelectionPolicyMinimumUtilization()) {
+			@Override
+			protected boolean isHostOverUtilized(PowerHost host) {
+				return host.getUtilizationOfCpu() > 0.8;
+			}
+		};
+	}
+
+	/**
+	 * Checks, for every host and every VM placed elsewhere, that the snapshot evaluation gives the
+	 * same answer as creating the VM on the host, and that it leaves the host untouched.
+	 */
+	private static void testSameDecisionsAsTrialAllocation(List<PowerHost> hosts, PowerVmAllocationPolicyMigrationAbstract policy) {
+		List<PowerVm> vms = placeVms(hosts);
+
+		int overUtilized = 0;
+		int evaluations = 0;
+		for (PowerHost host : hosts) {
+			for (PowerVm vm : vms) {
+				if (vm.getHost() == host) {
+					continue;
+				}
+				double availableMips = host.getGuestScheduler().getAvailableMips();
+				int availableRam = host.getGuestRamProvisioner().getAvailableRam();
+				int guests = host.getGuestList().size();
+
+				boolean actual = policy.isHostOverUtilizedAfterAllocation(host, vm);
+
+				assertEquals(availableMips, host.getGuestScheduler().getAvailableMips(), 0);
+				assertEquals(availableRam, host.getGuestRamProvisioner().getAvailableRam());
+				assertEquals(guests, host.getGuestList().size());
+				assertEquals(trialAllocation(policy, host, vm), actual);
+				if (actual) {
+					overUtilized++;
+				}
+				evaluations++;
+			}
+		}
+		assertTrue(overUtilized > 0 && overUtilized < evaluations);
+	}
+
+	/**
+	 * The former evaluation of a candidate host, creating and destroying the VM on it.
+	 */
+	private static boolean trialAllocation(PowerVmAllocationPolicyMigrationAbstract policy, PowerHost host, GuestEntity vm) {
+		boolean isHostOverUtilized = true;
+		if (host.guestCreate(vm)) {
+			isHostOverUtilized = policy.isHostOverUtilized(host);
+			host.guestDestroy(vm);
+		}
+		return isHostOverUtilized;
+	}
+
+	/**
+	 * Places VMs with random utilization histories on random hosts.
+	 *
+	 * @return the VMs that could be placed
+	 */
+	private static List<PowerVm> placeVms(List<PowerHost> hosts) {
+		Random random = new Random(7);
+		List<PowerVm> vms = new ArrayList<>();
+		for (int i = 0; i < VMS; i++) {
+			double mips = 250 * (1 + random.nextInt(4));
+			PowerVm vm = new PowerVm(i, 0, mips, 1, 256 * (1 + random.nextInt(4)), 1000, 2500, 0, "Xen",
+					new CloudletSchedulerDynamicWorkload(mips, 1), 300);
+			int length = random.nextInt(PowerGuestEntity.HISTORY_LENGTH + 1);
+			for (int j = 0; j < length; j++) {
+				vm.addUtilizationHistoryValue(random.nextDouble());
+			}
+			PowerHost host = hosts.get(random.nextInt(hosts.size()));
+			if (host.guestCreate(vm)) {
+				vms.add(vm);
+			}
+		}
+		return vms;
+	}
+
+	private static List<PowerHost> createHosts() {
+		List<PowerHost> hosts = new ArrayList<>();
+		for (int i = 0; i < HOSTS; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int j = 0; j < 1 + i % 2; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(1000 + 500 * (i % 3))));
+			}
+			hosts.add(new PowerHost(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(100000), 10000,
+					peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.3)));
+		}
+		return hosts;
+	}
+}
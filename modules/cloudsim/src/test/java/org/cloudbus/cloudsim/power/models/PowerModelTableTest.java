@@ -0,0 +1,115 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author		Remo Andreoli
+ * @since		CloudSim Toolkit 7.0
+ */
+public class PowerModelTableTest {
+
+	private static final double TIME = 10;
+
+	/** Integrates the power of a model over a linear change of utilization, with the midpoint rule. */
+	private static double integrate(PowerModel model, double from, double to, double time) {
+		int steps = 100000;
+		double energy = 0;
+		for (int i = 0; i < steps; i++) {
+			energy += model.getPower(from + (to - from) * (i + 0.5) / steps);
+		}
+		return energy / steps * time;
+	}
+
+	@Test
+	public void testSpecPowerIsCompiledExactly() {
+		PowerModel model = new PowerModelSpecPowerIbmX3550XeonX5675();
+		PowerModelTable table = model.compile();
+		assertEquals(10, table.getResolution());
+		for (int i = 0; i <= 1000; i++) {
+			double utilization = i / 1000.0;
+			assertEquals(model.getPower(utilization), table.getPower(utilization), 1e-9);
+		}
+	}
+
+	@Test
+	public void testLinearIsCompiledExactly() {
+		PowerModel model = new PowerModelLinear(200, 0.3);
+		PowerModelTable table = model.compile();
+		assertEquals(1, table.getResolution());
+		assertEquals(0, table.getPower(0), 0);
+		for (int i = 1; i <= 100; i++) {
+			double utilization = i / 100.0;
+			assertEquals(model.getPower(utilization), table.getPower(utilization), 1e-9);
+		}
+		assertEquals(
+				(model.getPower(0.2) + model.getPower(0.9)) / 2 * TIME,
+				table.getEnergy(0.2, 0.9, TIME),
+				1e-9);
+	}
+
+	@Test
+	public void testGetPowerIsClamped() {
+		PowerModelTable table = new PowerModelSpecPowerIbmX3550XeonX5675().compile();
+		assertEquals(58.4, table.getPower(-1), 0);
+		assertEquals(222, table.getPower(2), 0);
+	}
+
+	@Test
+	public void testGetEnergyWithinCell() {
+		PowerModel model = new PowerModelSpecPowerIbmX3550XeonX5675();
+		PowerModelTable table = model.compile();
+		assertEquals((model.getPower(0.82) + model.getPower(0.87)) / 2 * TIME, table.getEnergy(0.82, 0.87, TIME), 1e-9);
+		assertEquals(model.getPower(0.5) * TIME, table.getEnergy(0.5, 0.5, TIME), 1e-9);
+	}
+
+	@Test
+	public void testGetEnergyAcrossCells() {
+		PowerModel model = new PowerModelSpecPowerIbmX3550XeonX5675();
+		PowerModelTable table = model.compile();
+		assertEquals(integrate(model, 0.15, 0.87, TIME), table.getEnergy(0.15, 0.87, TIME), 1e-6);
+		assertEquals(integrate(model, 0.87, 0.15, TIME), table.getEnergy(0.87, 0.15, TIME), 1e-6);
+		assertEquals(integrate(model, 0.3, 0.7, TIME), table.getEnergy(0.3, 0.7, TIME), 1e-6);
+		assertEquals(integrate(model, 0.05, 1, TIME), table.getEnergy(0.05, 1, TIME), 1e-6);
+	}
+
+	@Test
+	public void testGetEnergyToAndFromZero() {
+		// the models drop to 0 at 0 utilization: the energy of a change to or from 0 is the
+		// average of the power at both ends, not a ramp down to the static power
+		PowerModel[] models = { new PowerModelLinear(250, 0.7), new PowerModelSqrt(250, 0.7),
+				new PowerModelSquare(250, 0.7), new PowerModelCubic(250, 0.7) };
+		double[] expected = { 31875, 34204.95, 29062.5, 27656.25 };
+		for (int i = 0; i < models.length; i++) {
+			PowerModelTable table = models[i].compile();
+			assertEquals(models[i].getPower(0.5) / 2 * 300, table.getEnergy(0.5, 0, 300), 1e-9);
+			assertEquals(expected[i], table.getEnergy(0.5, 0, 300), 0.01);
+			assertEquals(expected[i], table.getEnergy(0, 0.5, 300), 0.01);
+		}
+
+		// the power of the SpecPower models is continuous at 0, the change is integrated
+		PowerModel model = new PowerModelSpecPowerIbmX3550XeonX5675();
+		assertEquals(integrate(model, 0.35, 0, TIME), model.compile().getEnergy(0.35, 0, TIME), 1e-6);
+		assertEquals(integrate(model, 0, 0.35, TIME), model.compile().getEnergy(0, 0.35, TIME), 1e-6);
+	}
+
+	@Test
+	public void testSampledModel() {
+		PowerModel model = new PowerModelCubic(200, 0.3);
+		PowerModelTable table = model.compile();
+		assertEquals(PowerModelTable.DEFAULT_RESOLUTION, table.getResolution());
+		assertEquals(0, table.getPower(0), 0);
+		assertEquals(model.getPower(0.37), table.getPower(0.37), 1e-9);
+		assertEquals(integrate(model, 0.2, 0.9, TIME), table.getEnergy(0.2, 0.9, TIME), 0.1);
+	}
+
+}
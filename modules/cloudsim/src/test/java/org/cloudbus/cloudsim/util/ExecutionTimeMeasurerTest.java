@@ -0,0 +1,44 @@
+package org.cloudbus.cloudsim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExecutionTimeMeasurerTest {
+
+    @Test
+    public void testMeasurementsPerThread() throws Exception {
+        // the threads start the same measurement before any of them ends it, as
+        // concurrent simulations running the same policy do
+        int threads = 4;
+        CountDownLatch started = new CountDownLatch(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Double>> times = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                times.add(pool.submit(() -> {
+                    ExecutionTimeMeasurer.start("optimizeAllocationTotal");
+                    started.countDown();
+                    started.await();
+                    double time = ExecutionTimeMeasurer.end("optimizeAllocationTotal");
+                    assertTrue(ExecutionTimeMeasurer.getExecutionTimes().isEmpty());
+                    return time;
+                }));
+            }
+            for (Future<Double> time : times) {
+                assertTrue(time.get() >= 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertFalse(ExecutionTimeMeasurer.getExecutionTimes().containsKey("optimizeAllocationTotal"));
+    }
+}
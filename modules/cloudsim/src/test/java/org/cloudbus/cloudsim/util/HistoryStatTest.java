@@ -5,10 +5,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 import static org.cloudbus.cloudsim.core.PowerGuestEntity.HISTORY_LENGTH;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class HistoryStatTest {
@@ -51,6 +53,55 @@ public class HistoryStatTest {
         }
     }
 
+    @Test
+    public void testWindow() {
+        Random gen = new Random(3);
+        List<Double> window = new ArrayList<>();
+        for (int i = 0; i < 5 * HISTORY_LENGTH; i++) {
+            // few distinct values, to have duplicates in the window
+            double val = gen.nextInt(8) / 8.0;
+            stat.offer(val);
+            window.add(val);
+            if (window.size() > HISTORY_LENGTH) {
+                window.removeFirst();
+            }
+
+            double[] expected = MathUtil.listToArray(window);
+            assertArrayEquals(expected, stat.toArray(), 0);
+            for (int j = 0; j < expected.length; j++) {
+                assertEquals(expected[j], stat.get(j), 0);
+            }
+            assertEquals(MathUtil.mad(expected), stat.getMedianAbsoluteDeviation(), 0);
+            Arrays.sort(expected);
+            for (int k = 0; k < expected.length; k++) {
+                assertEquals(expected[k], stat.getOrderStatistic(k), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testLeadingRegression() {
+        final int n = 10;
+        Random gen = new Random(5);
+        for (int i = 0; i < 5 * HISTORY_LENGTH; i++) {
+            stat.offer(gen.nextDouble());
+            double[] window = stat.toArray();
+
+            WindowRegression regression = stat.getLeadingRegression(n);
+            assertEquals(Math.min(n, window.length), regression.getCount());
+            assertEquals(WindowRegression.of(window, n).getCount(), regression.getCount());
+            if (window.length < n) {
+                continue;
+            }
+            double[] reversed = new double[n];
+            for (int j = 0; j < n; j++) {
+                reversed[j] = window[n - j - 1];
+            }
+            assertArrayEquals(MathUtil.getLoessParameterEstimates(reversed), regression.getParameterEstimates(), 1e-9);
+            assertArrayEquals(MathUtil.getRobustLoessParameterEstimates(reversed), regression.getParameterEstimates(), 1e-9);
+        }
+    }
+
     @Test
     public void testCompared() {
         Random gen = new Random();
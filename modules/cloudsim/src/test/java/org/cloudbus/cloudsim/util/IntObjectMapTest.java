@@ -0,0 +1,61 @@
+package org.cloudbus.cloudsim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntObjectMapTest {
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(42);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        IntLongMap longMap = new IntLongMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int n = 0; n < 20000; n++) {
+            int key = random.nextInt(300);
+            if (random.nextBoolean()) {
+                int value = random.nextInt();
+                assertEquals(expected.put(key, value), map.put(key, value));
+                longMap.put(key, value);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+                longMap.remove(key);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.size(), longMap.size());
+        }
+        for (int key = 0; key < 300; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals(expected.getOrDefault(key, 0).longValue(), longMap.get(key));
+        }
+
+        int count = 0;
+        for (int i = map.nextSlot(0); i >= 0; i = map.nextSlot(i + 1)) {
+            assertEquals(expected.get(map.keyAt(i)), map.valueAt(i));
+            count++;
+        }
+        assertEquals(expected.size(), count);
+    }
+
+    @Test
+    public void testClearAndComputeIfAbsent() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertTrue(map.isEmpty());
+        assertEquals("a", map.computeIfAbsent(-7, k -> "a"));
+        assertEquals("a", map.computeIfAbsent(-7, k -> "b"));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(-7));
+        assertFalse(map.containsKey(-7));
+        assertEquals(-1, map.nextSlot(0));
+    }
+}
@@ -5,6 +5,7 @@ import java.io.FileNotFoundException;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletTable;
 import org.junit.jupiter.api.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -43,4 +44,22 @@ public class WorkloadFileReaderTest {
 	    assertTrue(cloudlet.getCloudletLength() > 0);
 	}
     }
+
+    @Test
+    public void readTable() throws FileNotFoundException {
+
+	WorkloadFileReader r = new WorkloadFileReader("src"
+		+ File.separator
+		+ "test"
+		+ File.separator
+		+ "LCG.swf.gz", 1);
+	CloudletTable table = r.generateCloudletTable();
+	assertEquals(188041, table.size());
+
+	List<Cloudlet> cloudletlist = r.generateWorkload();
+	for (int row = 0; row < table.size(); row++) {
+	    assertEquals(cloudletlist.get(row).getCloudletLength(), table.getCloudletLength(row));
+	    assertTrue(table.getSubmitTime(row) >= 0);
+	}
+    }
 }